@@ -29,7 +29,7 @@ public @interface DynamicTable {
     StrategyType strategy() default StrategyType.AUTO;
 
     /**
-     * 分表键参数名（用于从方法参数中获取分表键）
+     * 分表键参数名（用于从方法参数中获取分表键），可带属性路径，如order.createTime
      *
      * @return 参数名
      */
@@ -42,6 +42,14 @@ public @interface DynamicTable {
      */
     int shardingKeyIndex() default 0;
 
+    /**
+     * 分表键SpEL表达式，如#req.tenantId + ':' + #req.region，指定后优先于参数名与参数索引。
+     * 参数以#参数名（需-parameters编译）或#p0、#a0引用，表达式按方法编译一次
+     *
+     * @return SpEL表达式
+     */
+    String expression() default "";
+
     /**
      * 策略类型枚举
      *
@@ -22,7 +22,7 @@ public @interface HashSharding {
     String value();
 
     /**
-     * 哈希键参数名
+     * 哈希键参数名，可带属性路径，如order.userId
      *
      * @return 参数名
      */
@@ -34,4 +34,12 @@ public @interface HashSharding {
      * @return 参数索引
      */
     int hashKeyIndex() default 0;
+
+    /**
+     * 哈希键SpEL表达式，如#req.tenantId + ':' + #req.region，指定后优先于参数名与参数索引。
+     * 参数以#参数名（需-parameters编译）或#p0、#a0引用，表达式按方法编译一次
+     *
+     * @return SpEL表达式
+     */
+    String expression() default "";
 }
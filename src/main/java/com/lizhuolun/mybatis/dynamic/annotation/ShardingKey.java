@@ -0,0 +1,23 @@
+package com.lizhuolun.mybatis.dynamic.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 分表键字段注解
+ * 标记Mapper参数对象（实体、DTO）中的分表键字段，开启参数分表后由拦截器直接读取并路由，无需AOP切面
+ *
+ * @author 李卓伦
+ * @date 2025/10/25 20:02
+ */
+@Target({ElementType.FIELD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ShardingKey {
+
+    /**
+     * 适用的逻辑表名，为空时适用于所有表
+     *
+     * @return 逻辑表名
+     */
+    String[] tables() default {};
+}
@@ -15,7 +15,8 @@ import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 动态表名AOP切面
@@ -30,6 +31,21 @@ import java.lang.reflect.Parameter;
 @Order(1)
 public class DynamicTableAspect {
 
+    /**
+     * 方法 -> @DynamicTable分表键提取器
+     **/
+    private final Map<Method, ShardingKeyExtractor> shardingKeyExtractors = new ConcurrentHashMap<>();
+
+    /**
+     * 方法 -> @DateSharding日期键提取器
+     **/
+    private final Map<Method, ShardingKeyExtractor> dateKeyExtractors = new ConcurrentHashMap<>();
+
+    /**
+     * 方法 -> @HashSharding哈希键提取器
+     **/
+    private final Map<Method, ShardingKeyExtractor> hashKeyExtractors = new ConcurrentHashMap<>();
+
     /**
      * 处理@DynamicTable注解
      *
@@ -109,22 +125,10 @@ public class DynamicTableAspect {
      * @date 2025/01/25 10:09
      */
     private Object extractShardingKey(ProceedingJoinPoint joinPoint, DynamicTable dynamicTable) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        Object[] args = joinPoint.getArgs();
-
-        // 优先使用参数名
-        if (!dynamicTable.shardingKey().isEmpty()) {
-            return extractByParamName(method, args, dynamicTable.shardingKey());
-        }
-
-        // 使用参数索引
-        int index = dynamicTable.shardingKeyIndex();
-        if (index >= 0 && index < args.length) {
-            return args[index];
-        }
-
-        return null;
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        ShardingKeyExtractor extractor = shardingKeyExtractors.computeIfAbsent(method,
+                m -> ShardingKeyExtractor.compile(m, dynamicTable.expression(), dynamicTable.shardingKey(), dynamicTable.shardingKeyIndex()));
+        return extractor.extract(joinPoint.getArgs());
     }
 
     /**
@@ -137,22 +141,10 @@ public class DynamicTableAspect {
      * @date 2025/01/25 10:10
      */
     private Object extractDateKey(ProceedingJoinPoint joinPoint, DateSharding dateSharding) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        Object[] args = joinPoint.getArgs();
-
-        // 优先使用参数名
-        if (!dateSharding.dateParam().isEmpty()) {
-            return extractByParamName(method, args, dateSharding.dateParam());
-        }
-
-        // 使用参数索引
-        int index = dateSharding.dateIndex();
-        if (index >= 0 && index < args.length) {
-            return args[index];
-        }
-
-        return null;
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        ShardingKeyExtractor extractor = dateKeyExtractors.computeIfAbsent(method,
+                m -> ShardingKeyExtractor.compile(m, dateSharding.expression(), dateSharding.dateParam(), dateSharding.dateIndex()));
+        return extractor.extract(joinPoint.getArgs());
     }
 
     /**
@@ -165,42 +157,10 @@ public class DynamicTableAspect {
      * @date 2025/01/25 10:11
      */
     private Object extractHashKey(ProceedingJoinPoint joinPoint, HashSharding hashSharding) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        Object[] args = joinPoint.getArgs();
-
-        // 优先使用参数名
-        if (!hashSharding.hashKey().isEmpty()) {
-            return extractByParamName(method, args, hashSharding.hashKey());
-        }
-
-        // 使用参数索引
-        int index = hashSharding.hashKeyIndex();
-        if (index >= 0 && index < args.length) {
-            return args[index];
-        }
-
-        return null;
-    }
-
-    /**
-     * 根据参数名提取参数值
-     *
-     * @param method    方法
-     * @param args      参数数组
-     * @param paramName 参数名
-     * @return 参数值
-     * @author 李卓伦
-     * @date 2025/01/25 10:12
-     */
-    private Object extractByParamName(Method method, Object[] args, String paramName) {
-        Parameter[] parameters = method.getParameters();
-        for (int i = 0; i < parameters.length; i++) {
-            if (paramName.equals(parameters[i].getName())) {
-                return args[i];
-            }
-        }
-        return null;
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        ShardingKeyExtractor extractor = hashKeyExtractors.computeIfAbsent(method,
+                m -> ShardingKeyExtractor.compile(m, hashSharding.expression(), hashSharding.hashKey(), hashSharding.hashKeyIndex()));
+        return extractor.extract(joinPoint.getArgs());
     }
 
     /**
@@ -222,22 +182,22 @@ public class DynamicTableAspect {
         }
 
         String actualTable = strategy.getActualTableName(logicTable, shardingKey);
-        if (actualTable == null || actualTable.equals(logicTable)) {
+        String shadowTable = strategy.getShadowTableName(logicTable, shardingKey);
+        if (shadowTable == null && (actualTable == null || actualTable.equals(logicTable))) {
             log.debug("表名未发生变化: {}", logicTable);
             return joinPoint.proceed();
         }
 
         try {
-            DynamicTableContextHolder.set(logicTable, actualTable);
-            log.debug("设置表名映射: {} -> {}", logicTable, actualTable);
-            return joinPoint.proceed();
+            log.debug("设置表名映射: {} -> {}, 影子表: {}", logicTable, actualTable, shadowTable);
+            return DynamicTableContextHolder.callWithRoute(logicTable, actualTable != null ? actualTable : logicTable,
+                    shadowTable, joinPoint::proceed);
         } catch (Exception e) {
             log.error("执行动态表名操作时发生异常: logicTable={}, shardingKey={}, error={}",
                     logicTable, shardingKey, e.getMessage(), e);
             throw e;
         } finally {
-            DynamicTableContextHolder.remove(logicTable);
-            log.debug("清理表名映射: {}", logicTable);
+            log.debug("恢复外层表名映射: {}", logicTable);
         }
     }
 }
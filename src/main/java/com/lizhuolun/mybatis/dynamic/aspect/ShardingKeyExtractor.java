@@ -0,0 +1,254 @@
+package com.lizhuolun.mybatis.dynamic.aspect;
+
+import com.lizhuolun.mybatis.dynamic.util.PropertyAccessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+
+/**
+ * 预编译的分表键提取器
+ * 每个方法在首次调用时解析一次参数位置与属性路径（如order.createTime），之后每次调用只做数组取值与MethodHandle调用。
+ * 属性路径优先按参数的声明类型解析；声明类型上无法解析时（如参数声明为接口或Object），按运行时类型解析并缓存。
+ * 也可使用SpEL表达式（如#req.tenantId + ':' + #req.region），表达式按IMMEDIATE模式编译为字节码，
+ * 求值时使用每线程复用的求值上下文，参数按名称（或#p0、#a0）直接从参数数组读取
+ *
+ * @author 李卓伦
+ * @date 2025/10/25 19:30
+ */
+@Slf4j
+final class ShardingKeyExtractor {
+
+    /**
+     * 找不到分表键时使用的提取器
+     **/
+    static final ShardingKeyExtractor NONE = new ShardingKeyExtractor(-1, null, null, null, null);
+
+    /**
+     * 每线程复用的表达式求值上下文
+     **/
+    private static final ThreadLocal<ArgumentsEvaluationContext> CONTEXTS =
+            ThreadLocal.withInitial(ArgumentsEvaluationContext::new);
+
+    /**
+     * 参数位置
+     **/
+    private final int index;
+
+    /**
+     * 按声明类型解析的属性访问器
+     **/
+    private final PropertyAccessor accessor;
+
+    /**
+     * 运行时类型 -> 属性访问器，声明类型已解析或无属性路径时为null
+     **/
+    private final ClassValue<PropertyAccessor> runtimeAccessors;
+
+    /**
+     * SpEL表达式，未使用表达式时为null
+     **/
+    private final Expression expression;
+
+    /**
+     * 方法参数名，用于表达式中的#参数名
+     **/
+    private final String[] parameterNames;
+
+    private ShardingKeyExtractor(int index, PropertyAccessor accessor, ClassValue<PropertyAccessor> runtimeAccessors,
+                                 Expression expression, String[] parameterNames) {
+        this.index = index;
+        this.accessor = accessor;
+        this.runtimeAccessors = runtimeAccessors;
+        this.expression = expression;
+        this.parameterNames = parameterNames;
+    }
+
+    /**
+     * 编译提取器
+     * 指定了表达式时按表达式求值，否则按参数名（可带属性路径）或参数索引提取
+     *
+     * @param method     方法
+     * @param expression SpEL表达式，可为空
+     * @param paramName  参数名或"参数名.属性路径"，为空时使用参数索引
+     * @param index      参数索引
+     * @return 提取器
+     * @throws org.springframework.expression.ParseException 表达式语法错误
+     * @author 李卓伦
+     * @date 2025/10/25 19:40
+     */
+    static ShardingKeyExtractor compile(Method method, String expression, String paramName, int index) {
+        if (expression == null || expression.trim().isEmpty()) {
+            return compile(method, paramName, index);
+        }
+        Parameter[] parameters = method.getParameters();
+        String[] names = new String[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            names[i] = parameters[i].getName();
+        }
+        SpelExpressionParser parser = new SpelExpressionParser(new SpelParserConfiguration(
+                SpelCompilerMode.IMMEDIATE, method.getDeclaringClass().getClassLoader()));
+        return new ShardingKeyExtractor(-1, null, null, parser.parseExpression(expression.trim()), names);
+    }
+
+    /**
+     * 编译提取器
+     * 指定了参数名时按参数名（可带属性路径）提取，否则按参数索引提取
+     *
+     * @param method    方法
+     * @param paramName 参数名或"参数名.属性路径"，为空时使用参数索引
+     * @param index     参数索引
+     * @return 提取器
+     * @author 李卓伦
+     * @date 2025/10/25 19:31
+     */
+    static ShardingKeyExtractor compile(Method method, String paramName, int index) {
+        Parameter[] parameters = method.getParameters();
+        if (paramName == null || paramName.isEmpty()) {
+            return index >= 0 && index < parameters.length ? new ShardingKeyExtractor(index, null, null, null, null) : NONE;
+        }
+
+        int dot = paramName.indexOf('.');
+        String name = dot < 0 ? paramName : paramName.substring(0, dot);
+        for (int i = 0; i < parameters.length; i++) {
+            if (!name.equals(parameters[i].getName())) {
+                continue;
+            }
+            if (dot < 0) {
+                return new ShardingKeyExtractor(i, null, null, null, null);
+            }
+            String path = paramName.substring(dot + 1);
+            PropertyAccessor accessor = PropertyAccessor.find(parameters[i].getType(), path);
+            return accessor != null
+                    ? new ShardingKeyExtractor(i, accessor, null, null, null)
+                    : new ShardingKeyExtractor(i, null, runtimeAccessors(path), null, null);
+        }
+        log.warn("方法{}中不存在分表键参数: {}", method, name);
+        return NONE;
+    }
+
+    /**
+     * 从方法参数中提取分表键
+     *
+     * @param args 参数数组
+     * @return 分表键，未找到时返回null
+     * @author 李卓伦
+     * @date 2025/10/25 19:32
+     */
+    Object extract(Object[] args) {
+        if (expression != null) {
+            return evaluate(args);
+        }
+        if (index < 0 || index >= args.length) {
+            return null;
+        }
+        Object arg = args[index];
+        if (arg == null) {
+            return null;
+        }
+        if (accessor != null) {
+            return accessor.get(arg);
+        }
+        if (runtimeAccessors != null) {
+            PropertyAccessor runtime = runtimeAccessors.get(arg.getClass());
+            return runtime != null ? runtime.get(arg) : null;
+        }
+        return arg;
+    }
+
+    /**
+     * 在当前线程复用的上下文上求值表达式，嵌套调用时恢复外层参数
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 19:41
+     */
+    private Object evaluate(Object[] args) {
+        ArgumentsEvaluationContext context = CONTEXTS.get();
+        String[] outerNames = context.names;
+        Object[] outerArgs = context.args;
+        context.names = parameterNames;
+        context.args = args;
+        try {
+            return expression.getValue(context);
+        } finally {
+            context.names = outerNames;
+            context.args = outerArgs;
+        }
+    }
+
+    private static ClassValue<PropertyAccessor> runtimeAccessors(String path) {
+        return new ClassValue<PropertyAccessor>() {
+            @Override
+            protected PropertyAccessor computeValue(Class<?> type) {
+                PropertyAccessor accessor = PropertyAccessor.find(type, path);
+                if (accessor == null) {
+                    log.warn("分表键参数中不存在属性: {}.{}", type.getName(), path);
+                }
+                return accessor;
+            }
+        };
+    }
+
+    /**
+     * 按参数数组解析变量的求值上下文
+     * 变量名依次匹配参数名与#p0、#a0形式的位置别名，其余变量交给父类
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 19:42
+     */
+    private static final class ArgumentsEvaluationContext extends StandardEvaluationContext {
+
+        /**
+         * 当前方法的参数名
+         **/
+        String[] names;
+
+        /**
+         * 当前调用的参数
+         **/
+        Object[] args;
+
+        @Override
+        public Object lookupVariable(String name) {
+            Object[] current = args;
+            if (current != null) {
+                String[] currentNames = names;
+                for (int i = 0; i < currentNames.length && i < current.length; i++) {
+                    if (currentNames[i].equals(name)) {
+                        return current[i];
+                    }
+                }
+                int position = positionOf(name);
+                if (position >= 0 && position < current.length) {
+                    return current[position];
+                }
+            }
+            return super.lookupVariable(name);
+        }
+
+        /**
+         * 解析#p0、#a0形式的位置别名
+         *
+         * @return 参数位置，不是位置别名时返回-1
+         */
+        private static int positionOf(String name) {
+            if (name.length() < 2 || (name.charAt(0) != 'p' && name.charAt(0) != 'a')) {
+                return -1;
+            }
+            int position = 0;
+            for (int i = 1; i < name.length(); i++) {
+                int digit = name.charAt(i) - '0';
+                if (digit < 0 || digit > 9 || position > 1000) {
+                    return -1;
+                }
+                position = position * 10 + digit;
+            }
+            return position;
+        }
+    }
+}
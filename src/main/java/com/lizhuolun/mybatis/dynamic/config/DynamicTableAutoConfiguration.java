@@ -2,12 +2,27 @@ package com.lizhuolun.mybatis.dynamic.config;
 
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.lizhuolun.mybatis.dynamic.aspect.DynamicTableAspect;
+import com.lizhuolun.mybatis.dynamic.context.DynamicTableContextHolder;
 import com.lizhuolun.mybatis.dynamic.interceptor.DynamicTableNameInnerInterceptor;
+import com.lizhuolun.mybatis.dynamic.interceptor.ParameterShardingKeyResolver;
+import com.lizhuolun.mybatis.dynamic.interceptor.ShadowTableWriteInterceptor;
+import com.lizhuolun.mybatis.dynamic.resharding.ReshardingBackfillManager;
+import com.lizhuolun.mybatis.dynamic.sql.RewrittenSqlCache;
+import com.lizhuolun.mybatis.dynamic.sql.SqlRewritePlanCache;
+import com.lizhuolun.mybatis.dynamic.strategy.CachingTableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategy;
 import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategyFactory;
+import com.lizhuolun.mybatis.dynamic.strategy.impl.ConsistentHashTableRouterStrategy;
 import com.lizhuolun.mybatis.dynamic.strategy.impl.DateBasedTableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.strategy.impl.DateHashTableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.strategy.impl.DirectoryTableRouterStrategy;
 import com.lizhuolun.mybatis.dynamic.strategy.impl.HashBasedTableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.strategy.impl.RangeBasedTableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.strategy.impl.ReshardingTableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.util.DynamicTableUtils;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -15,8 +30,12 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import javax.sql.DataSource;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 动态表名自动配置类
@@ -37,6 +56,11 @@ public class DynamicTableAutoConfiguration {
      **/
     private final DynamicTableProperties properties;
 
+    /**
+     * 本次初始化已分配的策略名称
+     **/
+    private final Set<String> strategyNames = new HashSet<>();
+
     /**
      * 构造函数
      *
@@ -62,12 +86,33 @@ public class DynamicTableAutoConfiguration {
         log.info("动态表名自动配置开始初始化");
 
         try {
+            // 设置表名上下文存储模式
+            DynamicTableContextHolder.setMode(properties.getContextMode());
+
+            // 设置分表并发查询的最大并发数
+            DynamicTableUtils.setMaxConcurrency(properties.getScatterMaxConcurrency());
+
             // 注册日期分表策略
             registerDateShardingStrategies();
 
             // 注册哈希分表策略
             registerHashShardingStrategies();
 
+            // 注册一致性哈希分表策略
+            registerConsistentHashShardingStrategies();
+
+            // 注册范围分表策略
+            registerRangeShardingStrategies();
+
+            // 注册路由目录分表策略
+            registerDirectoryShardingStrategies();
+
+            // 注册日期+哈希两级分表策略
+            registerDateHashShardingStrategies();
+
+            // 注册在线扩容策略
+            registerReshardingStrategies();
+
             // 注册新格式的表配置策略
             registerTableConfigStrategies();
 
@@ -83,17 +128,17 @@ public class DynamicTableAutoConfiguration {
     /**
      * 配置MyBatis-Plus拦截器
      *
+     * @param dynamicTableInterceptor 动态表名内部拦截器
      * @return MybatisPlusInterceptor 实例
      * @author 李卓伦
      * @date 2025/07/25 11:03
      */
     @Bean
     @ConditionalOnMissingBean
-    public MybatisPlusInterceptor mybatisPlusInterceptor() {
+    public MybatisPlusInterceptor mybatisPlusInterceptor(DynamicTableNameInnerInterceptor dynamicTableInterceptor) {
         MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
 
-        // 添加动态表名拦截器
-        DynamicTableNameInnerInterceptor dynamicTableInterceptor = new DynamicTableNameInnerInterceptor();
+        // 添加动态表名拦截器，复用容器中的实例以便共享重写计划缓存
         interceptor.addInnerInterceptor(dynamicTableInterceptor);
 
         log.info("MyBatis-Plus动态表名拦截器配置完成");
@@ -111,10 +156,32 @@ public class DynamicTableAutoConfiguration {
     @ConditionalOnMissingBean
     public DynamicTableNameInnerInterceptor dynamicTableNameInnerInterceptor() {
         DynamicTableNameInnerInterceptor interceptor = new DynamicTableNameInnerInterceptor();
+        interceptor.setRewritePlanCache(new SqlRewritePlanCache(properties.getRewrite().getPlanCacheMaxBytes()));
+        interceptor.setRewrittenSqlCache(new RewrittenSqlCache(properties.getRewrite().getSqlCacheMaxSize()));
+        DynamicTableProperties.ParameterShardingConfig parameterSharding = properties.getParameterSharding();
+        if (parameterSharding != null && parameterSharding.isEnabled()) {
+            interceptor.setParameterShardingKeyResolver(
+                    new ParameterShardingKeyResolver(parameterSharding.getProperties()));
+        }
         log.info("创建动态表名内部拦截器Bean");
         return interceptor;
     }
 
+    /**
+     * 影子表双写插件Bean
+     * MyBatis-Plus自动配置会将容器中的Interceptor注册到SqlSessionFactory；手动构建SqlSessionFactory时需自行注册
+     *
+     * @return ShadowTableWriteInterceptor 实例
+     * @author 李卓伦
+     * @date 2025/10/26 11:05
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ShadowTableWriteInterceptor shadowTableWriteInterceptor() {
+        log.info("创建影子表双写插件Bean");
+        return new ShadowTableWriteInterceptor();
+    }
+
     /**
      * 动态表名AOP切面Bean
      *
@@ -130,6 +197,20 @@ public class DynamicTableAutoConfiguration {
         return aspect;
     }
 
+    /**
+     * 在线扩容回填任务管理器Bean
+     *
+     * @param dataSource 数据源
+     * @return ReshardingBackfillManager 实例
+     * @author 李卓伦
+     * @date 2025/10/25 10:50
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnMissingBean
+    public ReshardingBackfillManager reshardingBackfillManager(ObjectProvider<DataSource> dataSource) {
+        return new ReshardingBackfillManager(properties.getResharding(), dataSource::getIfUnique);
+    }
+
     /**
      * 注册日期分表策略
      *
@@ -143,7 +224,7 @@ public class DynamicTableAutoConfiguration {
             return;
         }
 
-        int registeredCount = 0;
+        List<TableRouterStrategy> strategies = new ArrayList<>(dateConfigs.size());
         for (DynamicTableProperties.DateShardingConfig config : dateConfigs) {
             if (!isValidDateConfig(config)) {
                 continue;
@@ -152,16 +233,22 @@ public class DynamicTableAutoConfiguration {
             DateBasedTableRouterStrategy strategy = new DateBasedTableRouterStrategy(
                     new HashSet<>(config.getTables()),
                     config.getDatePattern(),
-                    config.getPriority()
+                    config.getPriority(),
+                    config.getSuffixCacheDays(),
+                    config.getSnowflake() != null ? config.getSnowflake().toDecoder() : null
             );
+            strategy.setStrategyName(uniqueStrategyName(strategy.getStrategyName()));
 
-            TableRouterStrategyFactory.register(strategy);
-            registeredCount++;
-            log.debug("注册日期分表策略: 表={}, 日期格式={}, 优先级={}",
-                    config.getTables(), config.getDatePattern(), config.getPriority());
+            strategies.add(strategy);
+            log.debug("注册日期分表策略: 表={}, 日期格式={}, 优先级={}, 后缀缓存天数={}, 雪花ID={}",
+                    config.getTables(), config.getDatePattern(), config.getPriority(), config.getSuffixCacheDays(),
+                    strategy.getSnowflakeIdDecoder());
         }
 
-        log.info("日期分表策略注册完成，共注册{}个策略", registeredCount);
+        if (!strategies.isEmpty()) {
+            TableRouterStrategyFactory.registerAll(strategies);
+        }
+        log.info("日期分表策略注册完成，共注册{}个策略", strategies.size());
     }
 
     /**
@@ -177,7 +264,7 @@ public class DynamicTableAutoConfiguration {
             return;
         }
 
-        int registeredCount = 0;
+        List<TableRouterStrategy> strategies = new ArrayList<>(hashConfigs.size());
         for (DynamicTableProperties.HashShardingConfig config : hashConfigs) {
             if (!isValidHashConfig(config)) {
                 continue;
@@ -186,16 +273,251 @@ public class DynamicTableAutoConfiguration {
             HashBasedTableRouterStrategy strategy = new HashBasedTableRouterStrategy(
                     new HashSet<>(config.getTables()),
                     config.getTableCount(),
+                    config.getPriority(),
+                    config.getHashAlgorithm()
+            );
+            strategy.setStrategyName(uniqueStrategyName(strategy.getStrategyName()));
+
+            strategies.add(strategy);
+            log.debug("注册哈希分表策略: 表={}, 分表数量={}, 优先级={}, 哈希算法={}",
+                    config.getTables(), config.getTableCount(), config.getPriority(), config.getHashAlgorithm());
+        }
+
+        if (!strategies.isEmpty()) {
+            TableRouterStrategyFactory.registerAll(strategies);
+        }
+        log.info("哈希分表策略注册完成，共注册{}个策略", strategies.size());
+    }
+
+    /**
+     * 注册一致性哈希分表策略
+     *
+     * @author 李卓伦
+     * @date 2025/10/24 16:22
+     */
+    private void registerConsistentHashShardingStrategies() {
+        List<DynamicTableProperties.ConsistentHashShardingConfig> configs = properties.getConsistentHashSharding();
+        if (configs == null || configs.isEmpty()) {
+            log.debug("未配置一致性哈希分表策略");
+            return;
+        }
+
+        List<TableRouterStrategy> strategies = new ArrayList<>(configs.size());
+        for (DynamicTableProperties.ConsistentHashShardingConfig config : configs) {
+            if (config == null || config.getTables() == null || config.getTables().isEmpty()) {
+                log.warn("一致性哈希分表配置中表名列表为空，跳过该配置");
+                continue;
+            }
+            if (config.getTableCount() <= 0) {
+                log.warn("一致性哈希分表配置的表数量无效: {}，跳过该配置", config.getTableCount());
+                continue;
+            }
+
+            ConsistentHashTableRouterStrategy strategy = new ConsistentHashTableRouterStrategy(
+                    new HashSet<>(config.getTables()),
+                    config.getTableCount(),
+                    config.getPriority(),
+                    config.getMode(),
+                    config.getVirtualNodes(),
+                    config.getHashAlgorithm()
+            );
+            strategy.setStrategyName(uniqueStrategyName(strategy.getStrategyName()));
+
+            strategies.add(strategy);
+            log.debug("注册一致性哈希分表策略: 表={}, 分表数量={}, 算法={}, 优先级={}",
+                    config.getTables(), config.getTableCount(), config.getMode(), config.getPriority());
+        }
+
+        if (!strategies.isEmpty()) {
+            TableRouterStrategyFactory.registerAll(strategies);
+        }
+        log.info("一致性哈希分表策略注册完成，共注册{}个策略", strategies.size());
+    }
+
+    /**
+     * 注册范围分表策略
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 16:12
+     */
+    private void registerRangeShardingStrategies() {
+        List<DynamicTableProperties.RangeShardingConfig> configs = properties.getRangeSharding();
+        if (configs == null || configs.isEmpty()) {
+            log.debug("未配置范围分表策略");
+            return;
+        }
+
+        List<TableRouterStrategy> strategies = new ArrayList<>(configs.size());
+        for (DynamicTableProperties.RangeShardingConfig config : configs) {
+            if (config == null || config.getTables() == null || config.getTables().isEmpty()) {
+                log.warn("范围分表配置中表名列表为空，跳过该配置");
+                continue;
+            }
+            if (config.getBoundaries() == null || config.getBoundaries().isEmpty()) {
+                log.warn("范围分表配置的边界为空，跳过该配置: {}", config.getTables());
+                continue;
+            }
+
+            RangeBasedTableRouterStrategy strategy = new RangeBasedTableRouterStrategy(
+                    new HashSet<>(config.getTables()),
+                    config.getBoundaries(),
                     config.getPriority()
             );
+            strategy.setStrategyName(uniqueStrategyName(strategy.getStrategyName()));
 
-            TableRouterStrategyFactory.register(strategy);
-            registeredCount++;
-            log.debug("注册哈希分表策略: 表={}, 分表数量={}, 优先级={}",
-                    config.getTables(), config.getTableCount(), config.getPriority());
+            strategies.add(strategy);
+            log.debug("注册范围分表策略: 表={}, 边界={}, 优先级={}",
+                    config.getTables(), config.getBoundaries(), config.getPriority());
         }
 
-        log.info("哈希分表策略注册完成，共注册{}个策略", registeredCount);
+        if (!strategies.isEmpty()) {
+            TableRouterStrategyFactory.registerAll(strategies);
+        }
+        log.info("范围分表策略注册完成，共注册{}个策略", strategies.size());
+    }
+
+    /**
+     * 注册路由目录分表策略
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 18:32
+     */
+    private void registerDirectoryShardingStrategies() {
+        List<DynamicTableProperties.DirectoryShardingConfig> configs = properties.getDirectorySharding();
+        if (configs == null || configs.isEmpty()) {
+            log.debug("未配置路由目录分表策略");
+            return;
+        }
+
+        List<TableRouterStrategy> strategies = new ArrayList<>(configs.size());
+        for (DynamicTableProperties.DirectoryShardingConfig config : configs) {
+            if (config == null || config.getTables() == null || config.getTables().isEmpty()) {
+                log.warn("路由目录分表配置中表名列表为空，跳过该配置");
+                continue;
+            }
+            if (config.getDirectoryFile() == null || config.getDirectoryFile().trim().isEmpty()) {
+                log.warn("路由目录分表配置的目录文件为空，跳过该配置: {}", config.getTables());
+                continue;
+            }
+
+            boolean hasCsv = config.getCsvFile() != null && !config.getCsvFile().trim().isEmpty();
+            DirectoryTableRouterStrategy strategy = new DirectoryTableRouterStrategy(
+                    new HashSet<>(config.getTables()),
+                    Paths.get(config.getDirectoryFile().trim()),
+                    hasCsv ? Paths.get(config.getCsvFile().trim()) : null,
+                    config.getFallbackTableCount(),
+                    config.getFallbackHashAlgorithm(),
+                    config.getPriority()
+            );
+            strategy.setStrategyName(uniqueStrategyName(strategy.getStrategyName()));
+
+            strategies.add(strategy);
+            log.debug("注册路由目录分表策略: 表={}, 目录文件={}, 目录条目数={}, 优先级={}",
+                    config.getTables(), config.getDirectoryFile(), strategy.getDirectorySize(), config.getPriority());
+        }
+
+        if (!strategies.isEmpty()) {
+            TableRouterStrategyFactory.registerAll(strategies);
+        }
+        log.info("路由目录分表策略注册完成，共注册{}个策略", strategies.size());
+    }
+
+    /**
+     * 注册日期+哈希两级分表策略
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 15:02
+     */
+    private void registerDateHashShardingStrategies() {
+        List<DynamicTableProperties.DateHashShardingConfig> configs = properties.getDateHashSharding();
+        if (configs == null || configs.isEmpty()) {
+            log.debug("未配置日期+哈希分表策略");
+            return;
+        }
+
+        List<TableRouterStrategy> strategies = new ArrayList<>(configs.size());
+        for (DynamicTableProperties.DateHashShardingConfig config : configs) {
+            if (config == null || config.getTables() == null || config.getTables().isEmpty()) {
+                log.warn("日期+哈希分表配置中表名列表为空，跳过该配置");
+                continue;
+            }
+            if (config.getTableCount() <= 0) {
+                log.warn("日期+哈希分表配置的表数量无效: {}，跳过该配置", config.getTableCount());
+                continue;
+            }
+
+            DateHashTableRouterStrategy strategy = new DateHashTableRouterStrategy(
+                    new HashSet<>(config.getTables()),
+                    config.getDatePattern(),
+                    config.getTableCount(),
+                    config.getPriority(),
+                    config.getHashAlgorithm(),
+                    config.getHashSuffixDigits(),
+                    config.getSuffixCacheDays(),
+                    config.getDateProperty(),
+                    config.getHashProperty()
+            );
+            strategy.setStrategyName(uniqueStrategyName(strategy.getStrategyName()));
+
+            strategies.add(strategy);
+            log.debug("注册日期+哈希分表策略: 表={}, 日期格式={}, 哈希分表数量={}, 优先级={}",
+                    config.getTables(), config.getDatePattern(), config.getTableCount(), config.getPriority());
+        }
+
+        if (!strategies.isEmpty()) {
+            TableRouterStrategyFactory.registerAll(strategies);
+        }
+        log.info("日期+哈希分表策略注册完成，共注册{}个策略", strategies.size());
+    }
+
+    /**
+     * 注册在线扩容策略
+     * 新旧分表均为哈希分表，读写路由由迁移阶段决定
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 10:51
+     */
+    private void registerReshardingStrategies() {
+        List<DynamicTableProperties.ReshardingConfig> configs = properties.getResharding();
+        if (configs == null || configs.isEmpty()) {
+            log.debug("未配置在线扩容策略");
+            return;
+        }
+
+        List<TableRouterStrategy> strategies = new ArrayList<>(configs.size());
+        for (DynamicTableProperties.ReshardingConfig config : configs) {
+            if (config == null || config.getTables() == null || config.getTables().isEmpty()) {
+                log.warn("在线扩容配置中表名列表为空，跳过该配置");
+                continue;
+            }
+            if (config.getSourceTableCount() <= 0 || config.getTargetTableCount() <= 0) {
+                log.warn("在线扩容配置的表数量无效: {} -> {}，跳过该配置",
+                        config.getSourceTableCount(), config.getTargetTableCount());
+                continue;
+            }
+
+            HashSet<String> tableSet = new HashSet<>(config.getTables());
+            ReshardingTableRouterStrategy strategy = new ReshardingTableRouterStrategy(
+                    tableSet,
+                    new HashBasedTableRouterStrategy(tableSet, config.getSourceTableCount(),
+                            config.getPriority(), config.getHashAlgorithm()),
+                    new HashBasedTableRouterStrategy(tableSet, config.getTargetTableCount(),
+                            config.getPriority(), config.getHashAlgorithm()),
+                    config.getPhase(),
+                    config.getPriority()
+            );
+            strategy.setStrategyName(uniqueStrategyName(strategy.getStrategyName()));
+
+            strategies.add(strategy);
+            log.debug("注册在线扩容策略: 表={}, 分表数量={} -> {}, 阶段={}, 优先级={}",
+                    config.getTables(), config.getSourceTableCount(), config.getTargetTableCount(),
+                    config.getPhase(), config.getPriority());
+        }
+
+        if (!strategies.isEmpty()) {
+            TableRouterStrategyFactory.registerAll(strategies);
+        }
+        log.info("在线扩容策略注册完成，共注册{}个策略", strategies.size());
     }
 
     /**
@@ -211,6 +533,7 @@ public class DynamicTableAutoConfiguration {
             return;
         }
 
+        List<TableRouterStrategy> strategies = new ArrayList<>(tableConfigs.size());
         for (DynamicTableProperties.TableConfig config : tableConfigs) {
             if (config.getTableName() == null || config.getTableName().trim().isEmpty()) {
                 log.warn("表配置中表名为空，跳过该配置");
@@ -233,7 +556,8 @@ public class DynamicTableAutoConfiguration {
                             config.getFormat() != null ? config.getFormat() : "yyyyMM",
                             config.getPriority() != null ? config.getPriority() : 50
                     );
-                    TableRouterStrategyFactory.register(dateStrategy);
+                    dateStrategy.setStrategyName(uniqueStrategyName(dateStrategy.getStrategyName()));
+                    strategies.add(withRouteCache(dateStrategy, config.getCache()));
                     log.info("注册日期分表策略: 表={}, 日期格式={}, 优先级={}",
                             config.getTableName(), config.getFormat(), config.getPriority());
                     break;
@@ -244,7 +568,8 @@ public class DynamicTableAutoConfiguration {
                             config.getModValue() != null ? config.getModValue() : 10,
                             config.getPriority() != null ? config.getPriority() : 60
                     );
-                    TableRouterStrategyFactory.register(hashStrategy);
+                    hashStrategy.setStrategyName(uniqueStrategyName(hashStrategy.getStrategyName()));
+                    strategies.add(withRouteCache(hashStrategy, config.getCache()));
                     log.info("注册哈希分表策略: 表={}, 取模值={}, 优先级={}",
                             config.getTableName(), config.getModValue(), config.getPriority());
                     break;
@@ -254,6 +579,47 @@ public class DynamicTableAutoConfiguration {
                     break;
             }
         }
+
+        if (!strategies.isEmpty()) {
+            TableRouterStrategyFactory.registerAll(strategies);
+        }
+    }
+
+    /**
+     * 为策略分配唯一名称
+     * 策略工厂按名称去重，同一类型的第一个策略沿用默认名称，之后的依次追加序号（如HashBasedTableRouterStrategy#2），
+     * 使每个配置组都注册为独立的策略实例
+     *
+     * @param baseName 策略默认名称
+     * @return 未被占用的策略名称
+     * @author 李卓伦
+     * @date 2025/10/26 13:42
+     */
+    private String uniqueStrategyName(String baseName) {
+        String name = baseName;
+        for (int i = 2; strategyNames.contains(name) || TableRouterStrategyFactory.containsStrategyName(name); i++) {
+            name = baseName + "#" + i;
+        }
+        strategyNames.add(name);
+        return name;
+    }
+
+    /**
+     * 按配置为策略启用路由结果缓存
+     *
+     * @param strategy 策略
+     * @param cache 路由结果缓存配置
+     * @return 启用缓存时返回缓存装饰器，否则返回原策略
+     * @author 李卓伦
+     * @date 2025/10/25 19:15
+     */
+    private TableRouterStrategy withRouteCache(TableRouterStrategy strategy,
+                                               DynamicTableProperties.RouteCacheConfig cache) {
+        if (cache == null || !cache.isEnabled()) {
+            return strategy;
+        }
+        return new CachingTableRouterStrategy(strategy, cache.getMaxSize(), cache.getTtlMillis(),
+                cache.isCacheNegative(), cache.getNegativeTtlMillis());
     }
 
     /**
@@ -1,12 +1,20 @@
 package com.lizhuolun.mybatis.dynamic.config;
 
+import com.lizhuolun.mybatis.dynamic.context.ContextMode;
+import com.lizhuolun.mybatis.dynamic.strategy.hash.HashAlgorithm;
+import com.lizhuolun.mybatis.dynamic.strategy.impl.ConsistentHashTableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.strategy.impl.ReshardingTableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.strategy.impl.SnowflakeIdDecoder;
+import com.lizhuolun.mybatis.dynamic.util.DynamicTableUtils;
 import jakarta.annotation.PostConstruct;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 动态表名配置属性
@@ -30,6 +38,16 @@ public class DynamicTableProperties {
      **/
     private boolean enableSqlLog = false;
 
+    /**
+     * 表名上下文存储模式（THREAD_LOCAL、SCOPED_VALUE）
+     **/
+    private ContextMode contextMode = ContextMode.THREAD_LOCAL;
+
+    /**
+     * 按范围并发查询分表时的最大并发数，所有并发查询共享，建议不超过连接池大小
+     **/
+    private int scatterMaxConcurrency = DynamicTableUtils.DEFAULT_MAX_CONCURRENCY;
+
     /**
      * 日期分表配置列表
      **/
@@ -40,11 +58,46 @@ public class DynamicTableProperties {
      **/
     private List<HashShardingConfig> hashSharding = new ArrayList<>();
 
+    /**
+     * 一致性哈希分表配置列表
+     **/
+    private List<ConsistentHashShardingConfig> consistentHashSharding = new ArrayList<>();
+
+    /**
+     * 范围分表配置列表
+     **/
+    private List<RangeShardingConfig> rangeSharding = new ArrayList<>();
+
+    /**
+     * 路由目录分表配置列表
+     **/
+    private List<DirectoryShardingConfig> directorySharding = new ArrayList<>();
+
+    /**
+     * 日期+哈希两级分表配置列表
+     **/
+    private List<DateHashShardingConfig> dateHashSharding = new ArrayList<>();
+
+    /**
+     * 在线扩容配置列表
+     **/
+    private List<ReshardingConfig> resharding = new ArrayList<>();
+
     /**
      * 表配置列表（新格式支持）
      **/
     private List<TableConfig> tables = new ArrayList<>();
 
+    /**
+     * SQL重写配置
+     **/
+    private RewriteConfig rewrite = new RewriteConfig();
+
+    /**
+     * 参数分表配置
+     **/
+    private ParameterShardingConfig parameterSharding = new ParameterShardingConfig();
+
     /**
      * 配置初始化后的验证
      *
@@ -53,7 +106,7 @@ public class DynamicTableProperties {
      */
     @PostConstruct
     public void validateConfig() {
-        log.info("动态表名配置初始化: enabled={}, enableSqlLog={}", enabled, enableSqlLog);
+        log.info("动态表名配置初始化: enabled={}, enableSqlLog={}, contextMode={}", enabled, enableSqlLog, contextMode);
 
         if (!enabled) {
             log.info("动态表名功能已禁用");
@@ -74,6 +127,36 @@ public class DynamicTableProperties {
             validateHashShardingConfig();
         }
 
+        if (consistentHashSharding != null && !consistentHashSharding.isEmpty()) {
+            totalConfigs += consistentHashSharding.size();
+            log.info("一致性哈希分表配置数量: {}", consistentHashSharding.size());
+            validateConsistentHashShardingConfig();
+        }
+
+        if (rangeSharding != null && !rangeSharding.isEmpty()) {
+            totalConfigs += rangeSharding.size();
+            log.info("范围分表配置数量: {}", rangeSharding.size());
+            validateRangeShardingConfig();
+        }
+
+        if (directorySharding != null && !directorySharding.isEmpty()) {
+            totalConfigs += directorySharding.size();
+            log.info("路由目录分表配置数量: {}", directorySharding.size());
+            validateDirectoryShardingConfig();
+        }
+
+        if (dateHashSharding != null && !dateHashSharding.isEmpty()) {
+            totalConfigs += dateHashSharding.size();
+            log.info("日期+哈希分表配置数量: {}", dateHashSharding.size());
+            validateDateHashShardingConfig();
+        }
+
+        if (resharding != null && !resharding.isEmpty()) {
+            totalConfigs += resharding.size();
+            log.info("在线扩容配置数量: {}", resharding.size());
+            validateReshardingConfig();
+        }
+
         if (tables != null && !tables.isEmpty()) {
             totalConfigs += tables.size();
             log.info("表配置数量: {}", tables.size());
@@ -123,6 +206,110 @@ public class DynamicTableProperties {
         }
     }
 
+    /**
+     * 验证一致性哈希分表配置
+     *
+     * @author 李卓伦
+     * @date 2025/10/24 16:20
+     */
+    private void validateConsistentHashShardingConfig() {
+        for (int i = 0; i < consistentHashSharding.size(); i++) {
+            ConsistentHashShardingConfig config = consistentHashSharding.get(i);
+            if (config.getTables() == null || config.getTables().isEmpty()) {
+                log.warn("一致性哈希分表配置[{}]的表名列表为空", i);
+            }
+            if (config.getTableCount() <= 0) {
+                log.warn("一致性哈希分表配置[{}]的表数量无效: {}", i, config.getTableCount());
+            }
+            if (config.getMode() == ConsistentHashTableRouterStrategy.Mode.RING && config.getVirtualNodes() <= 0) {
+                log.warn("一致性哈希分表配置[{}]的虚拟节点数量无效: {}", i, config.getVirtualNodes());
+            }
+        }
+    }
+
+    /**
+     * 验证范围分表配置
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 16:10
+     */
+    private void validateRangeShardingConfig() {
+        for (int i = 0; i < rangeSharding.size(); i++) {
+            RangeShardingConfig config = rangeSharding.get(i);
+            if (config.getTables() == null || config.getTables().isEmpty()) {
+                log.warn("范围分表配置[{}]的表名列表为空", i);
+            }
+            if (config.getBoundaries() == null || config.getBoundaries().isEmpty()) {
+                log.warn("范围分表配置[{}]的边界为空", i);
+            }
+        }
+    }
+
+    /**
+     * 验证路由目录分表配置
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 18:30
+     */
+    private void validateDirectoryShardingConfig() {
+        for (int i = 0; i < directorySharding.size(); i++) {
+            DirectoryShardingConfig config = directorySharding.get(i);
+            if (config.getTables() == null || config.getTables().isEmpty()) {
+                log.warn("路由目录分表配置[{}]的表名列表为空", i);
+            }
+            if (config.getDirectoryFile() == null || config.getDirectoryFile().trim().isEmpty()) {
+                log.warn("路由目录分表配置[{}]的目录文件为空", i);
+            }
+            if (config.getFallbackTableCount() <= 0) {
+                log.warn("路由目录分表配置[{}]的未命中哈希分表数量无效: {}", i, config.getFallbackTableCount());
+            }
+        }
+    }
+
+    /**
+     * 验证日期+哈希分表配置
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 15:00
+     */
+    private void validateDateHashShardingConfig() {
+        for (int i = 0; i < dateHashSharding.size(); i++) {
+            DateHashShardingConfig config = dateHashSharding.get(i);
+            if (config.getTables() == null || config.getTables().isEmpty()) {
+                log.warn("日期+哈希分表配置[{}]的表名列表为空", i);
+            }
+            if (config.getDatePattern() == null || config.getDatePattern().trim().isEmpty()) {
+                log.warn("日期+哈希分表配置[{}]的日期格式为空", i);
+            }
+            if (config.getTableCount() <= 0) {
+                log.warn("日期+哈希分表配置[{}]的表数量无效: {}", i, config.getTableCount());
+            }
+        }
+    }
+
+    /**
+     * 验证在线扩容配置
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 10:30
+     */
+    private void validateReshardingConfig() {
+        for (int i = 0; i < resharding.size(); i++) {
+            ReshardingConfig config = resharding.get(i);
+            if (config.getTables() == null || config.getTables().isEmpty()) {
+                log.warn("在线扩容配置[{}]的表名列表为空", i);
+            }
+            if (config.getSourceTableCount() <= 0 || config.getTargetTableCount() <= 0) {
+                log.warn("在线扩容配置[{}]的表数量无效: {} -> {}", i,
+                        config.getSourceTableCount(), config.getTargetTableCount());
+            }
+            if (config.getBackfill().isEnabled()
+                    && (config.getShardingColumn() == null || config.getShardingColumn().trim().isEmpty())) {
+                log.warn("在线扩容配置[{}]开启了回填但未配置分片列", i);
+            }
+        }
+    }
+
     /**
      * 验证表配置
      *
@@ -138,6 +325,9 @@ public class DynamicTableProperties {
             if (config.getStrategy() == null || config.getStrategy().trim().isEmpty()) {
                 log.warn("表配置[{}]的策略为空", i);
             }
+            if (config.getCache() != null && config.getCache().isEnabled() && config.getCache().getMaxSize() <= 0) {
+                log.warn("表配置[{}]的路由缓存最大条目数必须大于0: {}", i, config.getCache().getMaxSize());
+            }
         }
     }
 
@@ -164,6 +354,58 @@ public class DynamicTableProperties {
          * 策略优先级
          **/
         private int priority = 50;
+
+        /**
+         * 日期后缀缓存窗口半径（天），缓存当前日期前后该范围内的实际表名，小于等于0时不缓存
+         **/
+        private int suffixCacheDays = 400;
+
+        /**
+         * 雪花ID路由配置，开启后Long分片键按雪花ID解出生成时间后路由
+         **/
+        private SnowflakeConfig snowflake = new SnowflakeConfig();
+    }
+
+    /**
+     * 雪花ID路由配置
+     * 默认布局与MyBatis-Plus IdWorker一致：41位时间戳 + 10位机器位 + 12位序列号
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 17:20
+     */
+    @Data
+    public static class SnowflakeConfig {
+
+        /**
+         * 是否按雪花ID路由
+         **/
+        private boolean enabled = false;
+
+        /**
+         * 起始时间（毫秒时间戳）
+         **/
+        private long epoch = SnowflakeIdDecoder.DEFAULT_EPOCH;
+
+        /**
+         * 时间戳之后的位数（机器位 + 序列号位）
+         **/
+        private int timestampShift = SnowflakeIdDecoder.DEFAULT_TIMESTAMP_SHIFT;
+
+        /**
+         * 时间戳位数
+         **/
+        private int timestampBits = SnowflakeIdDecoder.DEFAULT_TIMESTAMP_BITS;
+
+        /**
+         * 创建解码器
+         *
+         * @return 解码器，未开启时返回null
+         * @author 李卓伦
+         * @date 2025/10/25 17:21
+         */
+        public SnowflakeIdDecoder toDecoder() {
+            return enabled ? new SnowflakeIdDecoder(epoch, timestampShift, timestampBits) : null;
+        }
     }
 
     /**
@@ -189,6 +431,265 @@ public class DynamicTableProperties {
          * 策略优先级
          **/
         private int priority = 60;
+
+        /**
+         * 哈希算法（STRING、MURMUR3、XXHASH64、IDENTITY），默认STRING与早期版本路由结果一致
+         **/
+        private HashAlgorithm hashAlgorithm = HashAlgorithm.STRING;
+    }
+
+    /**
+     * 一致性哈希分表配置
+     *
+     * @author 李卓伦
+     * @date 2025/10/24 16:21
+     */
+    @Data
+    public static class ConsistentHashShardingConfig {
+
+        /**
+         * 逻辑表名列表
+         **/
+        private List<String> tables = new ArrayList<>();
+
+        /**
+         * 分表数量
+         **/
+        private int tableCount = 8;
+
+        /**
+         * 策略优先级
+         **/
+        private int priority = 60;
+
+        /**
+         * 一致性哈希算法（JUMP、RING）
+         **/
+        private ConsistentHashTableRouterStrategy.Mode mode = ConsistentHashTableRouterStrategy.Mode.JUMP;
+
+        /**
+         * 每张分表的虚拟节点数量（仅RING使用）
+         **/
+        private int virtualNodes = 160;
+
+        /**
+         * 分片键哈希算法
+         **/
+        private HashAlgorithm hashAlgorithm = HashAlgorithm.MURMUR3;
+    }
+
+    /**
+     * 范围分表配置
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 16:11
+     */
+    @Data
+    public static class RangeShardingConfig {
+
+        /**
+         * 逻辑表名列表
+         **/
+        private List<String> tables = new ArrayList<>();
+
+        /**
+         * 各分表的起始值（严格升序），第i张分表覆盖[boundaries[i], boundaries[i+1])，最后一张分表不设上限
+         **/
+        private List<Long> boundaries = new ArrayList<>();
+
+        /**
+         * 策略优先级
+         **/
+        private int priority = 55;
+    }
+
+    /**
+     * 路由目录分表配置
+     * 目录中登记的键路由到"逻辑表名_后缀"的专属表，其余键按哈希分表路由
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 18:31
+     */
+    @Data
+    public static class DirectoryShardingConfig {
+
+        /**
+         * 逻辑表名列表
+         **/
+        private List<String> tables = new ArrayList<>();
+
+        /**
+         * 内存映射的目录文件路径
+         **/
+        private String directoryFile;
+
+        /**
+         * "键,后缀"格式的目录CSV路径，配置后在启动与重新加载时由其生成目录文件
+         **/
+        private String csvFile;
+
+        /**
+         * 目录未命中时的哈希分表数量
+         **/
+        private int fallbackTableCount = 8;
+
+        /**
+         * 目录未命中时的哈希算法
+         **/
+        private HashAlgorithm fallbackHashAlgorithm = HashAlgorithm.STRING;
+
+        /**
+         * 策略优先级
+         **/
+        private int priority = 30;
+    }
+
+    /**
+     * 日期+哈希两级分表配置
+     * 实际表名为"逻辑表名_日期后缀_哈希后缀"，如order_detail_202510_07
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 15:01
+     */
+    @Data
+    public static class DateHashShardingConfig {
+
+        /**
+         * 逻辑表名列表
+         **/
+        private List<String> tables = new ArrayList<>();
+
+        /**
+         * 日期格式模式，只能包含日期字段（如：yyyyMM、yyyyMMdd）
+         **/
+        private String datePattern = "yyyyMM";
+
+        /**
+         * 每个日期下的哈希分表数量
+         **/
+        private int tableCount = 16;
+
+        /**
+         * 策略优先级
+         **/
+        private int priority = 40;
+
+        /**
+         * 哈希算法
+         **/
+        private HashAlgorithm hashAlgorithm = HashAlgorithm.MURMUR3;
+
+        /**
+         * 哈希后缀最少位数，不足时左侧补0
+         **/
+        private int hashSuffixDigits = 2;
+
+        /**
+         * 日期后缀缓存窗口半径（天），小于等于0时不缓存
+         **/
+        private int suffixCacheDays = 400;
+
+        /**
+         * 分片键为实体或Map时读取的日期属性路径（如createTime、order.createTime）
+         **/
+        private String dateProperty;
+
+        /**
+         * 分片键为实体或Map时读取的哈希键属性路径（如userId）
+         **/
+        private String hashProperty;
+    }
+
+    /**
+     * 在线扩容配置
+     * 由sourceTableCount张哈希分表扩容到targetTableCount张，扩容期间双写新旧分表并在后台回填存量数据
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 10:31
+     */
+    @Data
+    public static class ReshardingConfig {
+
+        /**
+         * 逻辑表名列表
+         **/
+        private List<String> tables = new ArrayList<>();
+
+        /**
+         * 分片列（回填时从旧表行中读取）
+         **/
+        private String shardingColumn;
+
+        /**
+         * 主键列，须为整数类型
+         **/
+        private String primaryKey = "id";
+
+        /**
+         * 旧分表数量
+         **/
+        private int sourceTableCount;
+
+        /**
+         * 新分表数量
+         **/
+        private int targetTableCount;
+
+        /**
+         * 哈希算法，须与扩容前的哈希分表配置一致
+         **/
+        private HashAlgorithm hashAlgorithm = HashAlgorithm.STRING;
+
+        /**
+         * 迁移阶段（DUAL_WRITE、READ_TARGET、COMPLETED）
+         **/
+        private ReshardingTableRouterStrategy.Phase phase = ReshardingTableRouterStrategy.Phase.DUAL_WRITE;
+
+        /**
+         * 策略优先级，需高于同表的哈希分表配置
+         **/
+        private int priority = 1;
+
+        /**
+         * 回填配置
+         **/
+        private BackfillConfig backfill = new BackfillConfig();
+    }
+
+    /**
+     * 回填配置
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 10:32
+     */
+    @Data
+    public static class BackfillConfig {
+
+        /**
+         * 是否在DUAL_WRITE阶段启动回填任务，默认关闭
+         * 回填任务会建进度表并对新表执行删除+插入，多实例部署时只应在一个实例上开启
+         **/
+        private boolean enabled = false;
+
+        /**
+         * 每批行数
+         **/
+        private int batchSize = 500;
+
+        /**
+         * 批次间暂停毫秒数
+         **/
+        private long pauseMillis = 100;
+
+        /**
+         * 读取旧表时是否加行锁（SELECT ... FOR UPDATE）
+         **/
+        private boolean lockRows = true;
+
+        /**
+         * 进度表名
+         **/
+        private String checkpointTable = "dynamic_table_resharding_checkpoint";
     }
 
     /**
@@ -224,5 +725,85 @@ public class DynamicTableProperties {
          * 策略优先级
          **/
         private Integer priority = 100;
+
+        /**
+         * 路由结果缓存配置
+         **/
+        private RouteCacheConfig cache = new RouteCacheConfig();
+    }
+
+    /**
+     * 路由结果缓存配置
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 19:14
+     */
+    @Data
+    public static class RouteCacheConfig {
+
+        /**
+         * 是否启用
+         **/
+        private boolean enabled = false;
+
+        /**
+         * 最大条目数
+         **/
+        private int maxSize = 10000;
+
+        /**
+         * 过期时间（毫秒），小于等于0时不过期
+         **/
+        private long ttlMillis = 0;
+
+        /**
+         * 是否缓存未路由结果（策略返回空或逻辑表名）
+         **/
+        private boolean cacheNegative = false;
+
+        /**
+         * 未路由结果的过期时间（毫秒），小于等于0时不过期
+         **/
+        private long negativeTtlMillis = 5000;
+    }
+
+    /**
+     * SQL重写配置
+     *
+     * @author 李卓伦
+     * @date 2025/10/17 10:35
+     */
+    @Data
+    public static class RewriteConfig {
+
+        /**
+         * 重写计划缓存最大内存占用（字节），小于等于0时不缓存
+         **/
+        private long planCacheMaxBytes = 4L * 1024 * 1024;
+
+        /**
+         * 重写后SQL缓存最大条目数，小于等于0时不缓存
+         **/
+        private int sqlCacheMaxSize = 10000;
+    }
+
+    /**
+     * 参数分表配置
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 20:13
+     */
+    @Data
+    public static class ParameterShardingConfig {
+
+        /**
+         * 是否开启，开启后拦截器直接从Mapper参数对象中读取分表键路由
+         **/
+        private boolean enabled = false;
+
+        /**
+         * 逻辑表名 -> 参数对象中的分表键属性路径（如createTime、order.userId），未配置的表使用@ShardingKey字段
+         **/
+        private Map<String, String> properties = new LinkedHashMap<>();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,22 @@
+package com.lizhuolun.mybatis.dynamic.context;
+
+/**
+ * 绑定表名映射后执行的操作
+ *
+ * @param <T> 返回值类型
+ * @author 李卓伦
+ * @date 2025/10/21 09:01
+ */
+@FunctionalInterface
+public interface ContextCallable<T> {
+
+    /**
+     * 执行操作
+     *
+     * @return 操作结果
+     * @throws Throwable 操作抛出的异常
+     * @author 李卓伦
+     * @date 2025/10/21 09:02
+     */
+    T call() throws Throwable;
+}
@@ -0,0 +1,20 @@
+package com.lizhuolun.mybatis.dynamic.context;
+
+/**
+ * 表名上下文存储模式
+ *
+ * @author 李卓伦
+ * @date 2025/10/21 09:00
+ */
+public enum ContextMode {
+
+    /**
+     * 基于ThreadLocal，每个线程持有一份可变映射
+     */
+    THREAD_LOCAL,
+
+    /**
+     * 基于ScopedValue，映射绑定在调用作用域上，适合虚拟线程及StructuredTaskScope子任务继承
+     */
+    SCOPED_VALUE
+}
@@ -7,7 +7,11 @@ import java.util.Map;
 
 /**
  * 动态表名上下文管理器
- * 使用ThreadLocal管理当前线程的表名映射关系
+ * 使用ThreadLocal管理当前线程的表名映射关系，映射存放在每线程复用的小型数组映射中，
+ * 从未设置过映射的线程不会分配任何对象。
+ * SCOPED_VALUE模式下，通过callWithTable/callWithTables绑定的映射存放在ScopedValue作用域中，
+ * 读取时优先使用作用域映射。作用域映射不可修改，因此作用域内调用set/setAll/remove会抛出IllegalStateException，
+ * 需要在作用域内调整映射时应嵌套调用callWithTable/callWithTables
  *
  * @author 李卓伦
  * @date 2025/07/25 10:00
@@ -18,22 +22,215 @@ public class DynamicTableContextHolder {
     /**
      * 线程本地变量，存储逻辑表名到实际表名的映射
      **/
-    private static final ThreadLocal<Map<String, String>> TABLE_MAP = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<TableNameMap> TABLE_MAP = new ThreadLocal<>();
+
+    /**
+     * 上下文存储模式
+     **/
+    private static volatile ContextMode mode = ContextMode.THREAD_LOCAL;
+
+    /**
+     * 影子表映射键后缀，'#'不会出现在SQL表名标识符中，因此影子映射不会参与普通的表名替换
+     **/
+    private static final String SHADOW_SUFFIX = "#shadow";
+
+    /**
+     * 设置上下文存储模式
+     *
+     * @param contextMode 存储模式
+     * @author 李卓伦
+     * @date 2025/10/21 09:30
+     */
+    public static void setMode(ContextMode contextMode) {
+        ContextMode target = contextMode != null ? contextMode : ContextMode.THREAD_LOCAL;
+        if (target == ContextMode.SCOPED_VALUE) {
+            ScopedTableContext.ensureSupported();
+        }
+        mode = target;
+        log.info("设置表名上下文存储模式: {}", target);
+    }
+
+    /**
+     * 获取上下文存储模式
+     *
+     * @return 存储模式
+     * @author 李卓伦
+     * @date 2025/10/21 09:31
+     */
+    public static ContextMode getMode() {
+        return mode;
+    }
+
+    /**
+     * 绑定表名映射并执行操作，操作结束后恢复该逻辑表在进入前的映射
+     * 绑定以调用栈为栈：嵌套调用同一逻辑表时，内层结束后外层的实际表名保持不变
+     *
+     * @param logicTable  逻辑表名
+     * @param actualTable 实际表名
+     * @param callable    要执行的操作
+     * @param <T>         返回值类型
+     * @return 操作结果
+     * @throws Throwable 操作抛出的异常
+     * @author 李卓伦
+     * @date 2025/10/21 09:32
+     */
+    public static <T> T callWithTable(String logicTable, String actualTable, ContextCallable<T> callable) throws Throwable {
+        if (mode == ContextMode.SCOPED_VALUE) {
+            TableNameMap bindings = ((TableNameMap) getView()).copy();
+            bindings.bind(logicTable, actualTable);
+            return ScopedTableContext.call(bindings, callable);
+        }
+
+        String previous = push(logicTable, actualTable);
+        try {
+            return callable.call();
+        } finally {
+            pop(logicTable, previous);
+        }
+    }
+
+    /**
+     * 绑定多个表名映射并执行操作，操作结束后恢复各逻辑表在进入前的映射
+     *
+     * @param tableMap 表名映射集合
+     * @param callable 要执行的操作
+     * @param <T>      返回值类型
+     * @return 操作结果
+     * @throws Throwable 操作抛出的异常
+     * @author 李卓伦
+     * @date 2025/10/21 09:33
+     */
+    public static <T> T callWithTables(Map<String, String> tableMap, ContextCallable<T> callable) throws Throwable {
+        if (mode == ContextMode.SCOPED_VALUE) {
+            TableNameMap bindings = ((TableNameMap) getView()).copy();
+            for (Map.Entry<String, String> entry : tableMap.entrySet()) {
+                if (entry.getKey() != null && entry.getValue() != null) {
+                    bindings.bind(entry.getKey(), entry.getValue());
+                }
+            }
+            return ScopedTableContext.call(bindings, callable);
+        }
+
+        String[] logicTables = new String[tableMap.size()];
+        String[] previous = new String[logicTables.length];
+        int count = 0;
+        for (Map.Entry<String, String> entry : tableMap.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null && count < logicTables.length) {
+                logicTables[count] = entry.getKey();
+                previous[count] = push(entry.getKey(), entry.getValue());
+                count++;
+            }
+        }
+        try {
+            return callable.call();
+        } finally {
+            for (int i = count - 1; i >= 0; i--) {
+                pop(logicTables[i], previous[i]);
+            }
+        }
+    }
+
+    /**
+     * 绑定路由结果并执行操作
+     * 影子表不为空时同时绑定影子映射，拦截器据此将增删改语句同时写入影子表（用于在线扩容双写）
+     *
+     * @param logicTable  逻辑表名
+     * @param actualTable 实际表名
+     * @param shadowTable 影子表名，可为null
+     * @param callable    要执行的操作
+     * @param <T>         返回值类型
+     * @return 操作结果
+     * @throws Throwable 操作抛出的异常
+     * @author 李卓伦
+     * @date 2025/10/25 09:00
+     */
+    public static <T> T callWithRoute(String logicTable, String actualTable, String shadowTable,
+                                      ContextCallable<T> callable) throws Throwable {
+        if (shadowTable == null) {
+            return callWithTable(logicTable, actualTable, callable);
+        }
+        Map<String, String> bindings = new HashMap<>(4);
+        bindings.put(logicTable, actualTable);
+        bindings.put(shadowKey(logicTable), shadowTable);
+        return callWithTables(bindings, callable);
+    }
+
+    /**
+     * 获取逻辑表的影子映射键
+     *
+     * @param logicTable 逻辑表名
+     * @return 影子映射键
+     * @author 李卓伦
+     * @date 2025/10/25 09:01
+     */
+    public static String shadowKey(String logicTable) {
+        return logicTable + SHADOW_SUFFIX;
+    }
+
+    /**
+     * 从影子映射键中解析逻辑表名
+     *
+     * @param key 映射键
+     * @return 逻辑表名，不是影子映射键时返回null
+     * @author 李卓伦
+     * @date 2025/10/25 09:02
+     */
+    public static String shadowLogicTable(String key) {
+        return key != null && key.endsWith(SHADOW_SUFFIX)
+                ? key.substring(0, key.length() - SHADOW_SUFFIX.length()) : null;
+    }
+
+    /**
+     * 压入表名映射
+     *
+     * @param logicTable  逻辑表名
+     * @param actualTable 实际表名
+     * @return 进入前的实际表名，不存在时返回null
+     * @author 李卓伦
+     * @date 2025/10/22 09:00
+     */
+    private static String push(String logicTable, String actualTable) {
+        String previous = currentOrCreate().bind(logicTable, actualTable);
+        log.debug("压入表名映射: {} -> {}，外层映射: {}", logicTable, actualTable, previous);
+        return previous;
+    }
+
+    /**
+     * 弹出表名映射，恢复进入前的实际表名
+     *
+     * @param logicTable 逻辑表名
+     * @param previous   进入前的实际表名，为null时移除映射
+     * @author 李卓伦
+     * @date 2025/10/22 09:01
+     */
+    private static void pop(String logicTable, String previous) {
+        if (previous != null) {
+            currentOrCreate().bind(logicTable, previous);
+        } else {
+            TableNameMap tableMap = TABLE_MAP.get();
+            if (tableMap != null) {
+                tableMap.unbind(logicTable);
+            }
+        }
+        log.debug("弹出表名映射: {}，恢复为: {}", logicTable, previous);
+    }
 
     /**
      * 设置表名映射
      *
      * @param logicTable 逻辑表名
      * @param actualTable 实际表名
+     * @throws IllegalStateException SCOPED_VALUE模式下已绑定作用域映射时抛出
      * @author 李卓伦
      * @date 2025/07/25 10:01
      */
     public static void set(String logicTable, String actualTable) {
+        ensureNotScoped("set");
         if (logicTable == null || actualTable == null) {
             log.warn("设置表名映射失败，参数不能为空: logicTable={}, actualTable={}", logicTable, actualTable);
             return;
         }
-        TABLE_MAP.get().put(logicTable, actualTable);
+        currentOrCreate().bind(logicTable, actualTable);
         log.debug("设置表名映射: {} -> {}", logicTable, actualTable);
     }
 
@@ -46,7 +243,7 @@ public class DynamicTableContextHolder {
      * @date 2025/07/25 10:02
      */
     public static String get(String logicTable) {
-        String actualTable = TABLE_MAP.get().get(logicTable);
+        String actualTable = getView().get(logicTable);
         log.debug("获取表名映射: {} -> {}", logicTable, actualTable);
         return actualTable;
     }
@@ -55,15 +252,22 @@ public class DynamicTableContextHolder {
      * 批量设置表名映射
      *
      * @param tableMap 表名映射集合
+     * @throws IllegalStateException SCOPED_VALUE模式下已绑定作用域映射时抛出
      * @author 李卓伦
      * @date 2025/07/25 10:03
      */
     public static void setAll(Map<String, String> tableMap) {
+        ensureNotScoped("setAll");
         if (tableMap == null || tableMap.isEmpty()) {
             log.warn("批量设置表名映射失败，参数不能为空");
             return;
         }
-        TABLE_MAP.get().putAll(tableMap);
+        TableNameMap current = currentOrCreate();
+        for (Map.Entry<String, String> entry : tableMap.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null) {
+                current.bind(entry.getKey(), entry.getValue());
+            }
+        }
         log.debug("批量设置表名映射: {}", tableMap);
     }
 
@@ -75,38 +279,61 @@ public class DynamicTableContextHolder {
      * @date 2025/07/25 10:04
      */
     public static Map<String, String> getAll() {
-        return new HashMap<>(TABLE_MAP.get());
+        return new HashMap<>(getView());
+    }
+
+    /**
+     * 获取当前线程表名映射的只读视图
+     * 视图直接引用线程内的映射，不复制、不分配对象，仅可在当前线程内即时使用，不要跨线程传递或长期持有
+     *
+     * @return 只读的表名映射视图
+     * @author 李卓伦
+     * @date 2025/10/20 09:20
+     */
+    public static Map<String, String> getView() {
+        if (mode == ContextMode.SCOPED_VALUE) {
+            TableNameMap scoped = ScopedTableContext.current();
+            if (scoped != null) {
+                return scoped;
+            }
+        }
+        TableNameMap tableMap = TABLE_MAP.get();
+        return tableMap != null ? tableMap : TableNameMap.EMPTY;
     }
 
     /**
      * 移除指定的表名映射
      *
      * @param logicTable 逻辑表名
+     * @throws IllegalStateException SCOPED_VALUE模式下已绑定作用域映射时抛出
      * @author 李卓伦
      * @date 2025/07/25 10:05
      */
     public static void remove(String logicTable) {
+        ensureNotScoped("remove");
         if (logicTable == null) {
             log.warn("移除表名映射失败，逻辑表名不能为空");
             return;
         }
-        String removed = TABLE_MAP.get().remove(logicTable);
+        TableNameMap tableMap = TABLE_MAP.get();
+        String removed = tableMap != null ? tableMap.unbind(logicTable) : null;
         log.debug("移除表名映射: {} -> {}", logicTable, removed);
     }
 
     /**
      * 清空当前线程的所有表名映射
+     * 只清理ThreadLocal中的映射，作用域映射随callWithTable/callWithTables结束自动失效；
+     * 清空的是映射内容，线程内的映射实例保留复用
      *
      * @author 李卓伦
      * @date 2025/07/25 10:06
      */
     public static void clear() {
-        Map<String, String> tableMap = TABLE_MAP.get();
-        if (!tableMap.isEmpty()) {
+        TableNameMap tableMap = TABLE_MAP.get();
+        if (tableMap != null && !tableMap.isEmpty()) {
             log.debug("清空表名映射: {}", tableMap);
-            tableMap.clear();
+            tableMap.reset();
         }
-        TABLE_MAP.remove();
     }
 
     /**
@@ -118,7 +345,7 @@ public class DynamicTableContextHolder {
      * @date 2025/07/25 10:07
      */
     public static boolean contains(String logicTable) {
-        return logicTable != null && TABLE_MAP.get().containsKey(logicTable);
+        return logicTable != null && getView().containsKey(logicTable);
     }
 
     /**
@@ -129,6 +356,37 @@ public class DynamicTableContextHolder {
      * @date 2025/07/25 10:08
      */
     public static int size() {
-        return TABLE_MAP.get().size();
+        return getView().size();
+    }
+
+    /**
+     * 校验当前未绑定作用域映射
+     * 作用域映射优先于ThreadLocal读取，作用域内的命令式修改不会生效，因此直接拒绝
+     *
+     * @param operation 操作名称
+     * @author 李卓伦
+     * @date 2025/10/26 11:40
+     */
+    private static void ensureNotScoped(String operation) {
+        if (mode == ContextMode.SCOPED_VALUE && ScopedTableContext.current() != null) {
+            throw new IllegalStateException("SCOPED_VALUE模式下作用域内不支持" + operation
+                    + "修改表名映射，请嵌套调用callWithTable/callWithTables");
+        }
+    }
+
+    /**
+     * 获取当前线程的映射实例，不存在时创建
+     *
+     * @return 线程内映射
+     * @author 李卓伦
+     * @date 2025/10/20 09:21
+     */
+    private static TableNameMap currentOrCreate() {
+        TableNameMap tableMap = TABLE_MAP.get();
+        if (tableMap == null) {
+            tableMap = new TableNameMap();
+            TABLE_MAP.set(tableMap);
+        }
+        return tableMap;
     }
 }
\ No newline at end of file
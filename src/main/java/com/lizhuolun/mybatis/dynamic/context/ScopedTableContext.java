@@ -0,0 +1,185 @@
+package com.lizhuolun.mybatis.dynamic.context;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * 基于ScopedValue的表名映射作用域
+ * ScopedValue在Java 21中仍为预览API，直接编译会要求所有使用方开启--enable-preview，
+ * 因此在类加载时通过MethodHandle解析一次，运行时不依赖预览特性的编译产物
+ *
+ * @author 李卓伦
+ * @date 2025/10/21 09:10
+ */
+final class ScopedTableContext {
+
+    /**
+     * ScopedValue实例
+     **/
+    private static final Object SCOPED_VALUE;
+
+    /**
+     * 已绑定ScopedValue的isBound句柄：()boolean
+     **/
+    private static final MethodHandle IS_BOUND;
+
+    /**
+     * 已绑定ScopedValue的get句柄：()Object
+     **/
+    private static final MethodHandle GET;
+
+    /**
+     * ScopedValue.where句柄：(ScopedValue, Object)Carrier
+     **/
+    private static final MethodHandle WHERE;
+
+    /**
+     * Carrier.run句柄：(Carrier, Runnable)void
+     **/
+    private static final MethodHandle RUN;
+
+    /**
+     * 解析失败原因
+     **/
+    private static final Throwable RESOLVE_FAILURE;
+
+    static {
+        Object scopedValue = null;
+        MethodHandle isBound = null;
+        MethodHandle get = null;
+        MethodHandle where = null;
+        MethodHandle run = null;
+        Throwable failure = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> scopedValueClass = Class.forName("java.lang.ScopedValue");
+            Class<?> carrierClass = Class.forName("java.lang.ScopedValue$Carrier");
+            scopedValue = lookup.findStatic(scopedValueClass, "newInstance", MethodType.methodType(scopedValueClass))
+                    .invoke();
+            // orElse(null)在ScopedValue正式版（Java 25）中会拒绝null参数，因此按isBound + get读取
+            isBound = lookup.findVirtual(scopedValueClass, "isBound", MethodType.methodType(boolean.class))
+                    .bindTo(scopedValue);
+            get = lookup.findVirtual(scopedValueClass, "get", MethodType.methodType(Object.class))
+                    .bindTo(scopedValue);
+            where = lookup.findStatic(scopedValueClass, "where",
+                            MethodType.methodType(carrierClass, scopedValueClass, Object.class))
+                    .asType(MethodType.methodType(Object.class, Object.class, Object.class));
+            run = lookup.findVirtual(carrierClass, "run", MethodType.methodType(void.class, Runnable.class))
+                    .asType(MethodType.methodType(void.class, Object.class, Runnable.class));
+        } catch (Throwable e) {
+            failure = e;
+        }
+        SCOPED_VALUE = scopedValue;
+        IS_BOUND = isBound;
+        GET = get;
+        WHERE = where;
+        RUN = run;
+        RESOLVE_FAILURE = failure;
+    }
+
+    /**
+     * 私有构造函数，防止实例化
+     *
+     * @author 李卓伦
+     * @date 2025/10/21 09:11
+     */
+    private ScopedTableContext() {
+        throw new UnsupportedOperationException("工具类不允许实例化");
+    }
+
+    /**
+     * 当前运行时是否支持ScopedValue
+     *
+     * @return 是否支持
+     * @author 李卓伦
+     * @date 2025/10/21 09:12
+     */
+    static boolean isSupported() {
+        return RESOLVE_FAILURE == null;
+    }
+
+    /**
+     * 校验ScopedValue可用，不可用时抛出异常
+     *
+     * @author 李卓伦
+     * @date 2025/10/21 09:13
+     */
+    static void ensureSupported() {
+        if (RESOLVE_FAILURE != null) {
+            throw new IllegalStateException("当前运行时不支持ScopedValue，请使用Java 21及以上版本或切换为THREAD_LOCAL模式",
+                    RESOLVE_FAILURE);
+        }
+    }
+
+    /**
+     * 获取当前作用域绑定的映射
+     *
+     * @return 映射，未绑定时返回null
+     * @author 李卓伦
+     * @date 2025/10/21 09:14
+     */
+    static TableNameMap current() {
+        if (IS_BOUND == null) {
+            return null;
+        }
+        try {
+            if (!(boolean) IS_BOUND.invokeExact()) {
+                return null;
+            }
+            return (TableNameMap) (Object) GET.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("读取ScopedValue失败", e);
+        }
+    }
+
+    /**
+     * 在绑定映射的作用域内执行操作
+     *
+     * @param bindings 映射（绑定后不得再修改）
+     * @param callable 要执行的操作
+     * @param <T>      返回值类型
+     * @return 操作结果
+     * @throws Throwable 操作抛出的异常
+     * @author 李卓伦
+     * @date 2025/10/21 09:15
+     */
+    static <T> T call(TableNameMap bindings, ContextCallable<T> callable) throws Throwable {
+        ensureSupported();
+        ScopedCall<T> scopedCall = new ScopedCall<>(callable);
+        Object carrier = (Object) WHERE.invokeExact(SCOPED_VALUE, (Object) bindings);
+        RUN.invokeExact(carrier, (Runnable) scopedCall);
+        if (scopedCall.failure != null) {
+            throw scopedCall.failure;
+        }
+        return scopedCall.result;
+    }
+
+    /**
+     * 将ContextCallable适配为Runnable，保存结果与异常
+     *
+     * @author 李卓伦
+     * @date 2025/10/21 09:16
+     */
+    private static final class ScopedCall<T> implements Runnable {
+
+        private final ContextCallable<T> callable;
+
+        private T result;
+
+        private Throwable failure;
+
+        ScopedCall(ContextCallable<T> callable) {
+            this.callable = callable;
+        }
+
+        @Override
+        public void run() {
+            try {
+                result = callable.call();
+            } catch (Throwable e) {
+                failure = e;
+            }
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.lizhuolun.mybatis.dynamic.context;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * 线程内表名映射
+ * 基于开放寻址（线性探测）的小型数组映射，逻辑表名与实际表名分别存放在两个定长数组中，
+ * 每个线程复用同一实例，查找不产生任何对象分配。
+ * 对外仅暴露只读的{@link java.util.Map}视图，修改需通过{@link DynamicTableContextHolder}
+ *
+ * @author 李卓伦
+ * @date 2025/10/20 09:00
+ */
+final class TableNameMap extends AbstractMap<String, String> {
+
+    /**
+     * 空映射，供从未设置过映射的线程共享，不允许修改
+     **/
+    static final TableNameMap EMPTY = new TableNameMap();
+
+    /**
+     * 初始容量（2的幂）
+     **/
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * 逻辑表名槽位
+     **/
+    private String[] keys;
+
+    /**
+     * 实际表名槽位
+     **/
+    private String[] values;
+
+    /**
+     * 映射数量
+     **/
+    private int size;
+
+    /**
+     * 构造函数
+     *
+     * @author 李卓伦
+     * @date 2025/10/20 09:01
+     */
+    TableNameMap() {
+        this.keys = new String[INITIAL_CAPACITY];
+        this.values = new String[INITIAL_CAPACITY];
+    }
+
+    @Override
+    public String get(Object key) {
+        if (size == 0 || !(key instanceof String)) {
+            return null;
+        }
+        int index = indexOf((String) key);
+        return index >= 0 ? values[index] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super String> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new SlotIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * 设置映射
+     *
+     * @param logicTable  逻辑表名
+     * @param actualTable 实际表名
+     * @return 原实际表名，不存在时返回null
+     * @author 李卓伦
+     * @date 2025/10/20 09:02
+     */
+    String bind(String logicTable, String actualTable) {
+        int mask = keys.length - 1;
+        int i = hash(logicTable) & mask;
+        while (keys[i] != null) {
+            if (keys[i].equals(logicTable)) {
+                String previous = values[i];
+                values[i] = actualTable;
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = logicTable;
+        values[i] = actualTable;
+        if (++size * 4 > keys.length * 3) {
+            resize();
+        }
+        return null;
+    }
+
+    /**
+     * 移除映射，使用后移删除保持探测链连续
+     *
+     * @param logicTable 逻辑表名
+     * @return 被移除的实际表名，不存在时返回null
+     * @author 李卓伦
+     * @date 2025/10/20 09:03
+     */
+    String unbind(String logicTable) {
+        int i = indexOf(logicTable);
+        if (i < 0) {
+            return null;
+        }
+        String removed = values[i];
+        int mask = keys.length - 1;
+        keys[i] = null;
+        values[i] = null;
+        size--;
+
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (keys[j] == null) {
+                break;
+            }
+            int home = hash(keys[j]) & mask;
+            // 槽位j上的元素的理想位置不在(i, j]区间内时，前移到空出的槽位i
+            boolean stay = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+            if (!stay) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                keys[j] = null;
+                values[j] = null;
+                i = j;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * 复制映射
+     *
+     * @return 独立的映射副本
+     * @author 李卓伦
+     * @date 2025/10/21 09:20
+     */
+    TableNameMap copy() {
+        TableNameMap copy = new TableNameMap();
+        copy.keys = keys.clone();
+        copy.values = values.clone();
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * 清空映射，保留数组以便复用
+     *
+     * @author 李卓伦
+     * @date 2025/10/20 09:04
+     */
+    void reset() {
+        if (size > 0) {
+            Arrays.fill(keys, null);
+            Arrays.fill(values, null);
+            size = 0;
+        }
+    }
+
+    /**
+     * 查找逻辑表名所在槽位
+     *
+     * @author 李卓伦
+     * @date 2025/10/20 09:05
+     */
+    private int indexOf(String logicTable) {
+        int mask = keys.length - 1;
+        int i = hash(logicTable) & mask;
+        String key;
+        while ((key = keys[i]) != null) {
+            if (key == logicTable || key.equals(logicTable)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * 扩容为原来的两倍并重新放置
+     *
+     * @author 李卓伦
+     * @date 2025/10/20 09:06
+     */
+    private void resize() {
+        String[] oldKeys = keys;
+        String[] oldValues = values;
+        keys = new String[oldKeys.length << 1];
+        values = new String[oldValues.length << 1];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                bind(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    /**
+     * 打散哈希值高位
+     *
+     * @author 李卓伦
+     * @date 2025/10/20 09:07
+     */
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 槽位迭代器
+     *
+     * @author 李卓伦
+     * @date 2025/10/20 09:08
+     */
+    private final class SlotIterator implements Iterator<Entry<String, String>> {
+
+        /**
+         * 下一个待检查的槽位
+         **/
+        private int next = advance(0);
+
+        private int advance(int from) {
+            int i = from;
+            while (i < keys.length && keys[i] == null) {
+                i++;
+            }
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < keys.length;
+        }
+
+        @Override
+        public Entry<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Entry<String, String> entry = new SimpleImmutableEntry<>(keys[next], values[next]);
+            next = advance(next + 1);
+            return entry;
+        }
+    }
+}
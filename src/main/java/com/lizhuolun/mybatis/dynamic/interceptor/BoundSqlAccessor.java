@@ -0,0 +1,83 @@
+package com.lizhuolun.mybatis.dynamic.interceptor;
+
+import org.apache.ibatis.mapping.BoundSql;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+
+/**
+ * BoundSql字段访问器
+ * 类加载时一次性解析BoundSql.sql字段的setter句柄，热路径上直接调用，不再逐次反射查找字段。
+ * BoundSql.sql为final字段，VarHandle对final字段只读，因此使用unreflectSetter得到的MethodHandle
+ *
+ * @author 李卓伦
+ * @date 2025/10/19 09:00
+ */
+final class BoundSqlAccessor {
+
+    /**
+     * sql字段setter句柄，解析失败时为null
+     **/
+    private static final MethodHandle SQL_SETTER;
+
+    /**
+     * 解析失败原因
+     **/
+    private static final RuntimeException RESOLVE_FAILURE;
+
+    static {
+        MethodHandle setter = null;
+        RuntimeException failure = null;
+        try {
+            Field sqlField = BoundSql.class.getDeclaredField("sql");
+            sqlField.setAccessible(true);
+            setter = MethodHandles.lookup().unreflectSetter(sqlField);
+        } catch (NoSuchFieldException | IllegalAccessException | RuntimeException e) {
+            failure = new IllegalStateException("无法访问BoundSql.sql字段，请检查MyBatis版本或通过--add-opens开放org.apache.ibatis.mapping包", e);
+        }
+        SQL_SETTER = setter;
+        RESOLVE_FAILURE = failure;
+    }
+
+    /**
+     * 私有构造函数，防止实例化
+     *
+     * @author 李卓伦
+     * @date 2025/10/19 09:01
+     */
+    private BoundSqlAccessor() {
+        throw new UnsupportedOperationException("工具类不允许实例化");
+    }
+
+    /**
+     * 校验字段访问器可用，不可用时直接抛出异常，用于启动阶段快速失败
+     *
+     * @author 李卓伦
+     * @date 2025/10/19 09:02
+     */
+    static void ensureAvailable() {
+        if (RESOLVE_FAILURE != null) {
+            throw RESOLVE_FAILURE;
+        }
+    }
+
+    /**
+     * 设置BoundSql中的SQL语句
+     *
+     * @param boundSql BoundSql对象
+     * @param sql      新的SQL语句
+     * @author 李卓伦
+     * @date 2025/10/19 09:03
+     */
+    static void setSql(BoundSql boundSql, String sql) {
+        ensureAvailable();
+        try {
+            SQL_SETTER.invokeExact(boundSql, sql);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("设置BoundSql.sql失败", e);
+        }
+    }
+}
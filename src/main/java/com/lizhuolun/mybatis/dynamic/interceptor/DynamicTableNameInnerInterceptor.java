@@ -1,15 +1,26 @@
 package com.lizhuolun.mybatis.dynamic.interceptor;
 
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
 import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
 import com.lizhuolun.mybatis.dynamic.context.DynamicTableContextHolder;
+import com.lizhuolun.mybatis.dynamic.sql.RewrittenSqlCache;
+import com.lizhuolun.mybatis.dynamic.sql.SqlRewritePlan;
+import com.lizhuolun.mybatis.dynamic.sql.SqlRewritePlanCache;
+import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategyFactory;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.function.BiFunction;
 
 /**
@@ -22,11 +33,36 @@ import java.util.function.BiFunction;
 @Slf4j
 public class DynamicTableNameInnerInterceptor implements InnerInterceptor {
 
+    /**
+     * BoundSql附加参数中标记语句已处理的键
+     **/
+    private static final String PROCESSED_KEY = "_dynamicTableProcessed";
+
+    /**
+     * BoundSql附加参数中保存影子表SQL的键
+     **/
+    private static final String SHADOW_SQL_KEY = "_dynamicTableShadowSql";
+
     /**
      * 表名处理器函数
      **/
     private BiFunction<String, String, String> tableNameHandler;
 
+    /**
+     * SQL重写计划缓存
+     **/
+    private SqlRewritePlanCache rewritePlanCache = new SqlRewritePlanCache();
+
+    /**
+     * 重写后SQL缓存
+     **/
+    private RewrittenSqlCache rewrittenSqlCache = new RewrittenSqlCache();
+
+    /**
+     * 参数分表键解析器，为空时只按表名上下文路由
+     **/
+    private ParameterShardingKeyResolver parameterShardingKeyResolver;
+
     /**
      * 构造函数
      *
@@ -34,6 +70,8 @@ public class DynamicTableNameInnerInterceptor implements InnerInterceptor {
      * @date 2025/07/25 10:46
      */
     public DynamicTableNameInnerInterceptor() {
+        // 启动阶段校验BoundSql字段可访问，避免运行期逐条SQL报错
+        BoundSqlAccessor.ensureAvailable();
         // 默认的表名处理器，从ThreadLocal中获取实际表名
         this.tableNameHandler = (sql, tableName) -> {
             String actualTableName = DynamicTableContextHolder.get(tableName);
@@ -53,6 +91,7 @@ public class DynamicTableNameInnerInterceptor implements InnerInterceptor {
      * @date 2025/07/25 10:47
      */
     public DynamicTableNameInnerInterceptor(BiFunction<String, String, String> tableNameHandler) {
+        BoundSqlAccessor.ensureAvailable();
         this.tableNameHandler = tableNameHandler != null ? tableNameHandler : this.tableNameHandler;
     }
 
@@ -60,91 +99,211 @@ public class DynamicTableNameInnerInterceptor implements InnerInterceptor {
     public void beforeQuery(Executor executor, MappedStatement ms, Object parameter,
                             RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
         // 在查询前进行表名替换
-        processTableName(ms, boundSql);
+        processTableName(ms, boundSql, parameter, false);
     }
 
     @Override
-    public void beforeUpdate(Executor executor, MappedStatement ms, Object parameter) throws SQLException {
-        // 在更新前进行表名替换
-        BoundSql boundSql = ms.getBoundSql(parameter);
-        processTableName(ms, boundSql);
+    public void beforeGetBoundSql(StatementHandler sh) {
+        // BATCH/REUSE执行器在prepare之前取BoundSql比较或缓存SQL，增删改必须在此之前完成替换
+        processStatement(sh);
+    }
+
+    @Override
+    public void beforePrepare(StatementHandler sh, Connection connection, Integer transactionTimeout) {
+        // SIMPLE执行器不取BoundSql，直接预编译
+        processStatement(sh);
+    }
+
+    /**
+     * 处理增删改语句的表名
+     * 直接作用于StatementHandler实际执行的BoundSql，避免重复执行动态SQL；
+     * 同一BoundSql只处理一次，处理结果（含影子表SQL）记录在附加参数中
+     *
+     * @param sh 语句处理器
+     * @author 李卓伦
+     * @date 2025/10/26 10:20
+     */
+    private void processStatement(StatementHandler sh) {
+        PluginUtils.MPStatementHandler mpSh = PluginUtils.mpStatementHandler(sh);
+        MappedStatement ms = mpSh.mappedStatement();
+        SqlCommandType sct = ms.getSqlCommandType();
+        if (sct != SqlCommandType.INSERT && sct != SqlCommandType.UPDATE && sct != SqlCommandType.DELETE) {
+            return;
+        }
+        BoundSql boundSql = mpSh.boundSql();
+        Map<String, Object> additionalParameters = boundSql.getAdditionalParameters();
+        if (additionalParameters.containsKey(PROCESSED_KEY)) {
+            return;
+        }
+
+        String shadowSql = processTableName(ms, boundSql, boundSql.getParameterObject(), true);
+        additionalParameters.put(PROCESSED_KEY, Boolean.TRUE);
+        if (shadowSql != null) {
+            additionalParameters.put(SHADOW_SQL_KEY, shadowSql);
+        }
+    }
+
+    /**
+     * 获取语句的影子表SQL，由{@link ShadowTableWriteInterceptor}在语句执行后写入
+     *
+     * @param boundSql 已处理的BoundSql
+     * @return 影子表SQL，无需双写时返回null
+     * @author 李卓伦
+     * @date 2025/10/26 10:21
+     */
+    static String getShadowSql(BoundSql boundSql) {
+        return (String) boundSql.getAdditionalParameters().get(SHADOW_SQL_KEY);
+    }
+
+    /**
+     * 解析影子表SQL
+     * 在线扩容双写期间，同一语句需以相同参数对影子表再执行一次，执行由{@link ShadowTableWriteInterceptor}负责
+     *
+     * @param plan      重写计划
+     * @param actualSql 已替换为实际表的SQL
+     * @param tableMap  本条语句使用的表名映射
+     * @return 影子表SQL，无需双写时返回null
+     * @author 李卓伦
+     * @date 2025/10/25 09:10
+     */
+    private String resolveShadowSql(SqlRewritePlan plan, String actualSql, Map<String, String> tableMap) {
+        if (tableMap.isEmpty()) {
+            return null;
+        }
+
+        Map<String, String> shadowMap = null;
+        for (Map.Entry<String, String> entry : tableMap.entrySet()) {
+            String logicTable = DynamicTableContextHolder.shadowLogicTable(entry.getKey());
+            if (logicTable != null) {
+                if (shadowMap == null) {
+                    shadowMap = new HashMap<>(tableMap);
+                }
+                shadowMap.put(logicTable, entry.getValue());
+            }
+        }
+        if (shadowMap == null) {
+            return null;
+        }
+
+        String shadowSql = rewrittenSqlCache.rewrite(plan, shadowMap);
+        return shadowSql.equals(actualSql) ? null : shadowSql;
     }
 
     /**
      * 处理表名替换
      *
-     * @param ms       MappedStatement对象
-     * @param boundSql BoundSql对象
+     * @param ms            MappedStatement对象
+     * @param boundSql      BoundSql对象
+     * @param parameter     语句的参数对象
+     * @param resolveShadow 是否解析影子表SQL（仅增删改）
+     * @return 影子表SQL，未要求解析或无需双写时返回null
      * @author 李卓伦
      * @date 2025/07/25 10:48
      */
-    private void processTableName(MappedStatement ms, BoundSql boundSql) {
+    private String processTableName(MappedStatement ms, BoundSql boundSql, Object parameter, boolean resolveShadow) {
         if (tableNameHandler == null) {
-            return;
+            return null;
         }
 
         try {
             String originalSql = boundSql.getSql();
             if (originalSql == null || originalSql.trim().isEmpty()) {
-                return;
+                return null;
+            }
+            Map<String, String> tableMap = DynamicTableContextHolder.getView();
+            if (tableMap.isEmpty() && parameterShardingKeyResolver == null) {
+                return null;
             }
 
-            // 这里可以实现更复杂的SQL解析逻辑
-            // 目前使用简单的字符串替换方式
-            String processedSql = processSqlTableNames(originalSql);
+            // 每条语句只查一次重写计划，参数路由、表名替换与影子表SQL共用
+            SqlRewritePlan plan = rewritePlanCache.getPlan(ms.getId(), originalSql);
+            tableMap = resolveTableMap(plan, tableMap, parameter);
+            String processedSql = processSqlTableNames(plan, tableMap);
 
-            if (!originalSql.equals(processedSql)) {
+            // 未发生替换时重写器返回原实例
+            if (processedSql != originalSql) {
                 log.debug("SQL表名替换完成: \n原始SQL: {}\n处理后SQL: {}", originalSql, processedSql);
-                // 通过反射修改BoundSql中的SQL
                 updateBoundSql(boundSql, processedSql);
             }
+            return resolveShadow ? resolveShadowSql(plan, processedSql, tableMap) : null;
         } catch (Exception e) {
             log.error("处理动态表名时发生错误: {}", e.getMessage(), e);
+            return null;
         }
     }
 
+    /**
+     * 获取本条语句的表名映射
+     * 开启参数分表时，对SQL中尚未由上下文路由的逻辑表，从参数对象中读取分表键并直接按策略路由；
+     * 上下文中已有的映射优先。未产生新路由时返回上下文的只读视图，不复制
+     *
+     * @param plan      重写计划
+     * @param tableMap  上下文中的表名映射（只读视图）
+     * @param parameter 语句的参数对象
+     * @return 表名映射
+     * @author 李卓伦
+     * @date 2025/10/25 20:10
+     */
+    private Map<String, String> resolveTableMap(SqlRewritePlan plan, Map<String, String> tableMap, Object parameter) {
+        ParameterShardingKeyResolver resolver = parameterShardingKeyResolver;
+        if (resolver == null || parameter == null) {
+            return tableMap;
+        }
+
+        Map<String, String> routed = null;
+        for (int i = 0; i < plan.getDistinctNameCount(); i++) {
+            String logicTable = plan.getDistinctName(i);
+            if (tableMap.containsKey(logicTable)) {
+                continue;
+            }
+            TableRouterStrategy strategy = TableRouterStrategyFactory.getStrategy(logicTable);
+            if (strategy == null) {
+                continue;
+            }
+            Object shardingKey = resolver.resolve(logicTable, parameter);
+            if (shardingKey == null) {
+                continue;
+            }
+
+            String actualTable = strategy.getActualTableName(logicTable, shardingKey);
+            String shadowTable = strategy.getShadowTableName(logicTable, shardingKey);
+            if (routed == null) {
+                routed = new HashMap<>(tableMap);
+            }
+            if (actualTable != null) {
+                routed.put(logicTable, actualTable);
+            }
+            if (shadowTable != null) {
+                routed.put(DynamicTableContextHolder.shadowKey(logicTable), shadowTable);
+            }
+            log.debug("按参数分表键路由: {} -> {}, 分表键={}, 影子表={}", logicTable, actualTable, shardingKey, shadowTable);
+        }
+        return routed != null ? routed : tableMap;
+    }
+
     /**
      * 处理SQL中的表名
      *
-     * @param sql 原始SQL
+     * @param plan     重写计划
+     * @param tableMap 表名映射
      * @return 处理后的SQL
      * @author 李卓伦
      * @date 2025/07/25 10:49
      */
-    private String processSqlTableNames(String sql) {
-        if (sql == null || tableNameHandler == null) {
-            return sql;
-        }
-
-        // 获取当前线程的所有表名映射
-        java.util.Map<String, String> tableMap = DynamicTableContextHolder.getAll();
+    private String processSqlTableNames(SqlRewritePlan plan, Map<String, String> tableMap) {
+        String sql = plan.getSql();
         if (tableMap.isEmpty()) {
             return sql;
         }
 
-        String processedSql = sql;
-
         try {
-            // 遍历所有映射的表名进行替换
-            for (java.util.Map.Entry<String, String> entry : tableMap.entrySet()) {
-                String logicTableName = entry.getKey();
-                String actualTableName = entry.getValue();
-
-                if (actualTableName != null && !actualTableName.equals(logicTableName)) {
-                    // 使用正则表达式进行精确的表名替换
-                    // 匹配表名，确保不会误替换包含表名的其他词汇
-                    String regex = "\\b" + logicTableName + "\\b";
-                    processedSql = processedSql.replaceAll(regex, actualTableName);
-                    log.debug("SQL表名替换: {} -> {}", logicTableName, actualTableName);
-                }
-            }
+            // 按预编译的重写计划拼接SQL，同一语句只扫描一次；相同路由复用同一SQL实例
+            return rewrittenSqlCache.rewrite(plan, tableMap);
         } catch (Exception e) {
             log.error("处理SQL表名替换时发生异常: sql={}, error={}", sql, e.getMessage(), e);
             // 发生异常时返回原始SQL
             return sql;
         }
-
-        return processedSql;
     }
 
     /**
@@ -156,14 +315,8 @@ public class DynamicTableNameInnerInterceptor implements InnerInterceptor {
      * @date 2025/07/25 10:50
      */
     private void updateBoundSql(BoundSql boundSql, String newSql) {
-        try {
-            // 通过反射修改BoundSql中的sql字段
-            java.lang.reflect.Field sqlField = BoundSql.class.getDeclaredField("sql");
-            sqlField.setAccessible(true);
-            sqlField.set(boundSql, newSql);
-        } catch (Exception e) {
-            log.error("更新BoundSql失败: {}", e.getMessage(), e);
-        }
+        // 使用启动时解析好的字段句柄，不再逐次反射
+        BoundSqlAccessor.setSql(boundSql, newSql);
     }
 
     /**
@@ -178,6 +331,82 @@ public class DynamicTableNameInnerInterceptor implements InnerInterceptor {
         log.info("设置自定义表名处理器");
     }
 
+    /**
+     * 设置SQL重写计划缓存
+     *
+     * @param rewritePlanCache 重写计划缓存
+     * @author 李卓伦
+     * @date 2025/10/17 10:30
+     */
+    public void setRewritePlanCache(SqlRewritePlanCache rewritePlanCache) {
+        if (rewritePlanCache == null) {
+            log.warn("设置SQL重写计划缓存失败，参数不能为空");
+            return;
+        }
+        this.rewritePlanCache = rewritePlanCache;
+    }
+
+    /**
+     * 获取SQL重写计划缓存
+     *
+     * @return 重写计划缓存
+     * @author 李卓伦
+     * @date 2025/10/17 10:31
+     */
+    public SqlRewritePlanCache getRewritePlanCache() {
+        return rewritePlanCache;
+    }
+
+    /**
+     * 设置重写后SQL缓存
+     *
+     * @param rewrittenSqlCache 重写后SQL缓存
+     * @author 李卓伦
+     * @date 2025/10/18 09:30
+     */
+    public void setRewrittenSqlCache(RewrittenSqlCache rewrittenSqlCache) {
+        if (rewrittenSqlCache == null) {
+            log.warn("设置重写后SQL缓存失败，参数不能为空");
+            return;
+        }
+        this.rewrittenSqlCache = rewrittenSqlCache;
+    }
+
+    /**
+     * 获取重写后SQL缓存
+     *
+     * @return 重写后SQL缓存
+     * @author 李卓伦
+     * @date 2025/10/18 09:31
+     */
+    public RewrittenSqlCache getRewrittenSqlCache() {
+        return rewrittenSqlCache;
+    }
+
+    /**
+     * 设置参数分表键解析器
+     * 设置后拦截器直接从语句参数对象中读取分表键路由，无需AOP切面；为空时关闭
+     *
+     * @param parameterShardingKeyResolver 参数分表键解析器
+     * @author 李卓伦
+     * @date 2025/10/25 20:11
+     */
+    public void setParameterShardingKeyResolver(ParameterShardingKeyResolver parameterShardingKeyResolver) {
+        this.parameterShardingKeyResolver = parameterShardingKeyResolver;
+        log.info("参数分表{}", parameterShardingKeyResolver != null ? "已开启" : "已关闭");
+    }
+
+    /**
+     * 获取参数分表键解析器
+     *
+     * @return 参数分表键解析器，未开启时返回null
+     * @author 李卓伦
+     * @date 2025/10/25 20:12
+     */
+    public ParameterShardingKeyResolver getParameterShardingKeyResolver() {
+        return parameterShardingKeyResolver;
+    }
+
     /**
      * 获取表名处理器
      *
@@ -0,0 +1,253 @@
+package com.lizhuolun.mybatis.dynamic.interceptor;
+
+import com.lizhuolun.mybatis.dynamic.annotation.ShardingKey;
+import com.lizhuolun.mybatis.dynamic.util.PropertyAccessor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mapper参数分表键解析器
+ * 从语句的参数对象中读取分表键：优先使用按逻辑表配置的属性路径，其次使用标注了{@link ShardingKey}的字段。
+ * 每种参数类型只解析一次并缓存为MethodHandle访问器；参数为Map（含MyBatis多参数的ParamMap）时，
+ * 属性路径的第一段按键取值，并在各个参数值上查找{@link ShardingKey}字段
+ *
+ * @author 李卓伦
+ * @date 2025/10/25 20:03
+ */
+@Slf4j
+public class ParameterShardingKeyResolver {
+
+    /**
+     * 逻辑表名 -> 分表键属性路径
+     **/
+    private final Map<String, String> properties;
+
+    /**
+     * 属性路径 -> Map取值后剩余路径的访问器（按值的运行时类型缓存）
+     **/
+    private final Map<String, ClassValue<PropertyAccessor>> remainderAccessors;
+
+    /**
+     * 参数类型 -> 已解析的访问器
+     **/
+    private final ClassValue<TypeBinding> bindings = new ClassValue<TypeBinding>() {
+        @Override
+        protected TypeBinding computeValue(Class<?> type) {
+            return bind(type);
+        }
+    };
+
+    /**
+     * 构造函数
+     *
+     * @param properties 逻辑表名到分表键属性路径的映射，可为空（仅使用{@link ShardingKey}注解）
+     * @author 李卓伦
+     * @date 2025/10/25 20:04
+     */
+    public ParameterShardingKeyResolver(Map<String, String> properties) {
+        Map<String, String> copy = new LinkedHashMap<>();
+        Map<String, ClassValue<PropertyAccessor>> remainders = new HashMap<>();
+        if (properties != null) {
+            for (Map.Entry<String, String> entry : properties.entrySet()) {
+                String path = entry.getValue() != null ? entry.getValue().trim() : "";
+                if (entry.getKey() == null || path.isEmpty()) {
+                    log.warn("参数分表键配置无效，已忽略: {} -> {}", entry.getKey(), entry.getValue());
+                    continue;
+                }
+                copy.put(entry.getKey(), path);
+                int dot = path.indexOf('.');
+                if (dot > 0) {
+                    remainders.put(path, remainderAccessors(path.substring(dot + 1)));
+                }
+            }
+        }
+        this.properties = Map.copyOf(copy);
+        this.remainderAccessors = Map.copyOf(remainders);
+        log.info("初始化参数分表键解析器: 属性配置={}", this.properties);
+    }
+
+    /**
+     * 从参数对象中解析逻辑表的分表键
+     *
+     * @param logicTable 逻辑表名
+     * @param parameter  语句的参数对象
+     * @return 分表键，未找到时返回null
+     * @author 李卓伦
+     * @date 2025/10/25 20:05
+     */
+    public Object resolve(String logicTable, Object parameter) {
+        if (parameter == null) {
+            return null;
+        }
+        if (parameter instanceof Map) {
+            return resolveFromMap(logicTable, (Map<?, ?>) parameter);
+        }
+        return bindings.get(parameter.getClass()).resolve(logicTable, parameter);
+    }
+
+    /**
+     * 获取属性路径配置
+     *
+     * @return 逻辑表名到属性路径的映射（不可变）
+     * @author 李卓伦
+     * @date 2025/10/25 20:06
+     */
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    /**
+     * 从Map参数中解析分表键
+     * ParamMap的get在键不存在时抛出异常，因此先判断containsKey
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 20:07
+     */
+    private Object resolveFromMap(String logicTable, Map<?, ?> parameter) {
+        String path = properties.get(logicTable);
+        if (path != null) {
+            if (parameter.containsKey(path)) {
+                return parameter.get(path);
+            }
+            ClassValue<PropertyAccessor> remainder = remainderAccessors.get(path);
+            String head = remainder != null ? path.substring(0, path.indexOf('.')) : null;
+            if (head != null && parameter.containsKey(head)) {
+                Object value = parameter.get(head);
+                PropertyAccessor accessor = value != null ? remainder.get(value.getClass()) : null;
+                return accessor != null ? accessor.get(value) : null;
+            }
+        }
+        for (Object value : parameter.values()) {
+            if (value == null || value instanceof Map) {
+                continue;
+            }
+            Object key = bindings.get(value.getClass()).resolve(logicTable, value);
+            if (key != null) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 解析参数类型上的配置属性与注解字段
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 20:08
+     */
+    private TypeBinding bind(Class<?> type) {
+        Map<String, PropertyAccessor> configured = new HashMap<>();
+        for (Map.Entry<String, String> entry : properties.entrySet()) {
+            PropertyAccessor accessor = PropertyAccessor.find(type, entry.getValue());
+            if (accessor != null) {
+                configured.put(entry.getKey(), accessor);
+            }
+        }
+
+        List<PropertyAccessor> annotated = new ArrayList<>();
+        List<String[]> annotatedTables = new ArrayList<>();
+        if (!isJdkType(type)) {
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    ShardingKey shardingKey = field.getAnnotation(ShardingKey.class);
+                    if (shardingKey == null || Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    PropertyAccessor accessor = PropertyAccessor.find(type, field.getName());
+                    if (accessor == null) {
+                        log.warn("无法读取分表键字段: {}.{}", type.getName(), field.getName());
+                        continue;
+                    }
+                    annotated.add(accessor);
+                    annotatedTables.add(shardingKey.tables());
+                }
+            }
+        }
+        if (!configured.isEmpty() || !annotated.isEmpty()) {
+            log.debug("解析参数分表键: 类型={}, 配置属性={}, 注解字段数={}",
+                    type.getName(), configured.keySet(), annotated.size());
+        }
+        return new TypeBinding(Map.copyOf(configured), annotated.toArray(new PropertyAccessor[0]),
+                annotatedTables.toArray(new String[0][]));
+    }
+
+    private static boolean isJdkType(Class<?> type) {
+        return type.isPrimitive() || type.isArray() || type.getName().startsWith("java.");
+    }
+
+    private static ClassValue<PropertyAccessor> remainderAccessors(String path) {
+        return new ClassValue<PropertyAccessor>() {
+            @Override
+            protected PropertyAccessor computeValue(Class<?> type) {
+                PropertyAccessor accessor = PropertyAccessor.find(type, path);
+                if (accessor == null) {
+                    log.debug("参数中不存在分表键属性: {}.{}", type.getName(), path);
+                }
+                return accessor;
+            }
+        };
+    }
+
+    /**
+     * 单个参数类型的访问器
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 20:09
+     */
+    private static final class TypeBinding {
+
+        /**
+         * 逻辑表名 -> 配置属性的访问器
+         **/
+        final Map<String, PropertyAccessor> configured;
+
+        /**
+         * 标注了@ShardingKey的字段访问器
+         **/
+        final PropertyAccessor[] annotated;
+
+        /**
+         * 与annotated对应的适用逻辑表名，空数组表示适用于所有表
+         **/
+        final String[][] annotatedTables;
+
+        TypeBinding(Map<String, PropertyAccessor> configured, PropertyAccessor[] annotated, String[][] annotatedTables) {
+            this.configured = configured;
+            this.annotated = annotated;
+            this.annotatedTables = annotatedTables;
+        }
+
+        Object resolve(String logicTable, Object parameter) {
+            PropertyAccessor accessor = configured.get(logicTable);
+            if (accessor != null) {
+                return accessor.get(parameter);
+            }
+            for (int i = 0; i < annotated.length; i++) {
+                String[] tables = annotatedTables[i];
+                if (tables.length == 0 || contains(tables, logicTable)) {
+                    Object key = annotated[i].get(parameter);
+                    if (key != null) {
+                        return key;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private static boolean contains(String[] tables, String logicTable) {
+            for (String table : tables) {
+                if (table.equals(logicTable)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
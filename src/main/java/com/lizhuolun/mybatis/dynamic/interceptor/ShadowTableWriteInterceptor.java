@@ -0,0 +1,101 @@
+package com.lizhuolun.mybatis.dynamic.interceptor;
+
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.SystemMetaObject;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 影子表双写插件
+ * 在线扩容双写期间，增删改语句实际执行成功后，在同一连接（同一事务）上以相同参数对影子表再执行一次；
+ * 影子表写入失败时抛出异常，由事务回滚保证新旧表一致。
+ * 影子表SQL由{@link DynamicTableNameInnerInterceptor}在替换表名时解析，本插件只负责在语句执行处写入。
+ * BATCH执行器的语句在flush时才统一执行，无法逐条对齐双写，因此双写阶段拒绝批量执行；
+ * 由数据库生成主键的INSERT（useGeneratedKeys或执行后查询的selectKey）在新旧表中会得到不同的主键，同样拒绝
+ *
+ * @author 李卓伦
+ * @date 2025/10/26 11:00
+ */
+@Slf4j
+@Intercepts({
+        @Signature(type = StatementHandler.class, method = "update", args = {Statement.class}),
+        @Signature(type = StatementHandler.class, method = "batch", args = {Statement.class})
+})
+public class ShadowTableWriteInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        StatementHandler sh = PluginUtils.realTarget(invocation.getTarget());
+        String shadowSql = DynamicTableNameInnerInterceptor.getShadowSql(sh.getBoundSql());
+        if (shadowSql == null) {
+            return invocation.proceed();
+        }
+        if ("batch".equals(invocation.getMethod().getName())) {
+            throw new PersistenceException("在线扩容双写期间不支持BATCH执行器，请改用SIMPLE或REUSE执行器: " + shadowSql);
+        }
+        MappedStatement ms = PluginUtils.mpStatementHandler(sh).mappedStatement();
+        if (ms.getSqlCommandType() == SqlCommandType.INSERT && isGeneratedByDatabase(ms.getKeyGenerator())) {
+            throw new PersistenceException("在线扩容双写期间不支持数据库自增主键，新旧表生成的主键会不一致，请改用应用生成的主键: "
+                    + ms.getId());
+        }
+
+        Object result = invocation.proceed();
+        Statement statement = (Statement) invocation.getArgs()[0];
+        writeShadowTable(sh, statement.getConnection(), shadowSql);
+        return result;
+    }
+
+    /**
+     * 主键是否由数据库在执行INSERT时生成
+     * 执行前查询的selectKey（如序列）在两次执行间共用同一参数，不受影响
+     *
+     * @param keyGenerator 主键生成器
+     * @return 是否由数据库生成
+     * @author 李卓伦
+     * @date 2025/10/26 14:20
+     */
+    private static boolean isGeneratedByDatabase(KeyGenerator keyGenerator) {
+        if (keyGenerator == null || keyGenerator instanceof NoKeyGenerator) {
+            return false;
+        }
+        if (keyGenerator instanceof SelectKeyGenerator) {
+            return !(Boolean) SystemMetaObject.forObject(keyGenerator).getValue("executeBefore");
+        }
+        return true;
+    }
+
+    /**
+     * 写入影子表
+     *
+     * @param sh         语句处理器
+     * @param connection 执行主语句的连接
+     * @param shadowSql  影子表SQL
+     * @author 李卓伦
+     * @date 2025/10/26 11:01
+     */
+    private void writeShadowTable(StatementHandler sh, Connection connection, String shadowSql) {
+        try (PreparedStatement ps = connection.prepareStatement(shadowSql)) {
+            sh.getParameterHandler().setParameters(ps);
+            int rows = ps.executeUpdate();
+            log.debug("影子表双写完成: {}, 影响行数: {}", shadowSql, rows);
+        } catch (SQLException e) {
+            log.error("影子表双写失败: sql={}, error={}", shadowSql, e.getMessage(), e);
+            throw new PersistenceException("影子表双写失败: " + shadowSql, e);
+        }
+    }
+}
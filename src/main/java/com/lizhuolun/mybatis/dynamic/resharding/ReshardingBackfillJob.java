@@ -0,0 +1,537 @@
+package com.lizhuolun.mybatis.dynamic.resharding;
+
+import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategy;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 在线扩容回填任务
+ * 按主键键集分页逐批读取旧表数据，按新分表策略写入新表；每批在一个事务内完成"删除+插入"与进度保存，
+ * 批次之间按配置暂停以限制对线上库的压力。读取时对本批旧表行加锁（FOR UPDATE），
+ * 与业务双写互斥，避免回填把已被业务更新的行覆盖为旧版本。
+ * 主键须为整数类型，且业务写入须由应用生成主键（双写时两张表的主键必须一致）。
+ * 新旧分表共用同一组物理表名时，已迁走的行仍留在旧表中，切换到COMPLETED后调用{@link #purgeMovedRows()}清理
+ *
+ * @author 李卓伦
+ * @date 2025/10/25 10:10
+ */
+@Slf4j
+public class ReshardingBackfillJob implements Runnable {
+
+    /**
+     * 任务名（用于进度表）
+     **/
+    private final String jobName;
+
+    /**
+     * 数据源
+     **/
+    private final DataSource dataSource;
+
+    /**
+     * 逻辑表名
+     **/
+    private final String logicTable;
+
+    /**
+     * 需要回填的旧表
+     **/
+    private final List<String> sourceTables;
+
+    /**
+     * 新分表策略
+     **/
+    private final TableRouterStrategy target;
+
+    /**
+     * 分片列
+     **/
+    private final String shardingColumn;
+
+    /**
+     * 主键列
+     **/
+    private final String primaryKey;
+
+    /**
+     * 每批行数
+     **/
+    private final int batchSize;
+
+    /**
+     * 批次间暂停毫秒数
+     **/
+    private final long pauseMillis;
+
+    /**
+     * 读取旧表时是否加行锁
+     **/
+    private final boolean lockRows;
+
+    /**
+     * 进度存储
+     **/
+    private final ReshardingCheckpointStore checkpointStore;
+
+    /**
+     * 本次运行已复制的行数
+     **/
+    private final AtomicLong copiedRows = new AtomicLong();
+
+    /**
+     * 运行线程
+     **/
+    private volatile Thread worker;
+
+    /**
+     * 是否已完成全部旧表
+     **/
+    private volatile boolean finished;
+
+    /**
+     * 失败原因
+     **/
+    private volatile Throwable failure;
+
+    /**
+     * 构造函数
+     *
+     * @param jobName         任务名
+     * @param dataSource      数据源
+     * @param logicTable      逻辑表名
+     * @param sourceTables    需要回填的旧表
+     * @param target          新分表策略
+     * @param shardingColumn  分片列
+     * @param primaryKey      主键列
+     * @param batchSize       每批行数
+     * @param pauseMillis     批次间暂停毫秒数
+     * @param lockRows        读取旧表时是否加行锁
+     * @param checkpointStore 进度存储
+     * @author 李卓伦
+     * @date 2025/10/25 10:11
+     */
+    public ReshardingBackfillJob(String jobName, DataSource dataSource, String logicTable, List<String> sourceTables,
+                                 TableRouterStrategy target, String shardingColumn, String primaryKey,
+                                 int batchSize, long pauseMillis, boolean lockRows,
+                                 ReshardingCheckpointStore checkpointStore) {
+        if (dataSource == null || target == null || checkpointStore == null) {
+            throw new IllegalArgumentException("回填任务的数据源、新分表策略和进度存储不能为空");
+        }
+        this.jobName = jobName;
+        this.dataSource = dataSource;
+        this.logicTable = logicTable;
+        this.sourceTables = new ArrayList<>(sourceTables);
+        this.sourceTables.forEach(ReshardingBackfillJob::requireIdentifier);
+        this.target = target;
+        this.shardingColumn = requireIdentifier(shardingColumn);
+        this.primaryKey = requireIdentifier(primaryKey);
+        this.batchSize = Math.max(1, batchSize);
+        this.pauseMillis = Math.max(0, pauseMillis);
+        this.lockRows = lockRows;
+        this.checkpointStore = checkpointStore;
+    }
+
+    /**
+     * 在后台线程中启动
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 10:12
+     */
+    public synchronized void start() {
+        if (worker != null && worker.isAlive()) {
+            log.warn("回填任务已在运行: {}", jobName);
+            return;
+        }
+        Thread thread = new Thread(this, "dynamic-table-backfill-" + jobName);
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    /**
+     * 停止任务，当前批次提交后退出，下次启动从断点继续
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 10:13
+     */
+    public synchronized void stop() {
+        Thread thread = worker;
+        worker = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        log.info("回填任务开始: job={}, 逻辑表={}, 旧表={}", jobName, logicTable, sourceTables);
+        try {
+            checkpointStore.createTableIfAbsent(dataSource);
+            for (String sourceTable : sourceTables) {
+                if (!backfill(sourceTable)) {
+                    log.info("回填任务已停止: job={}, 本次复制{}行", jobName, copiedRows.get());
+                    return;
+                }
+            }
+            finished = true;
+            log.info("回填任务完成: job={}, 本次复制{}行", jobName, copiedRows.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("回填任务已停止: job={}, 本次复制{}行", jobName, copiedRows.get());
+        } catch (Throwable e) {
+            failure = e;
+            log.error("回填任务失败，可重启后从断点继续: job={}, error={}", jobName, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 回填一张旧表
+     *
+     * @param sourceTable 旧表名
+     * @return 是否完成（被停止时返回false）
+     * @throws SQLException         数据库异常
+     * @throws InterruptedException 批次间暂停时被停止
+     * @author 李卓伦
+     * @date 2025/10/25 10:14
+     */
+    private boolean backfill(String sourceTable) throws SQLException, InterruptedException {
+        ReshardingCheckpointStore.Checkpoint checkpoint;
+        try (Connection connection = dataSource.getConnection()) {
+            checkpoint = checkpointStore.load(connection, jobName, sourceTable);
+        }
+        if (checkpoint != null && checkpoint.isFinished()) {
+            log.debug("旧表已回填完成，跳过: {}", sourceTable);
+            return true;
+        }
+        if (checkpoint == null) {
+            checkpoint = new ReshardingCheckpointStore.Checkpoint(Long.MIN_VALUE, 0, false);
+        }
+
+        String selectSql = "SELECT * FROM " + sourceTable + " WHERE " + primaryKey + " > ? ORDER BY " + primaryKey
+                + " LIMIT " + batchSize + (lockRows ? " FOR UPDATE" : "");
+        while (!checkpoint.isFinished()) {
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            checkpoint = copyBatch(sourceTable, selectSql, checkpoint);
+            log.debug("回填批次完成: 旧表={}, lastKey={}, 累计{}行", sourceTable, checkpoint.getLastKey(),
+                    checkpoint.getCopiedRows());
+            if (!checkpoint.isFinished() && pauseMillis > 0) {
+                Thread.sleep(pauseMillis);
+            }
+        }
+        log.info("旧表回填完成: {}, 共复制{}行", sourceTable, checkpoint.getCopiedRows());
+        return true;
+    }
+
+    /**
+     * 复制一批数据，数据与进度在同一事务中提交
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 10:15
+     */
+    private ReshardingCheckpointStore.Checkpoint copyBatch(String sourceTable, String selectSql,
+                                                           ReshardingCheckpointStore.Checkpoint checkpoint)
+            throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                List<String> columns = new ArrayList<>();
+                Map<String, List<Object[]>> rowsByTarget = new LinkedHashMap<>();
+                long lastKey = checkpoint.getLastKey();
+                int rowCount = 0;
+                try (PreparedStatement ps = connection.prepareStatement(selectSql)) {
+                    ps.setLong(1, lastKey);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        ResultSetMetaData metaData = rs.getMetaData();
+                        int shardingIndex = -1;
+                        int keyIndex = -1;
+                        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                            String column = metaData.getColumnLabel(i);
+                            columns.add(column);
+                            if (column.equalsIgnoreCase(shardingColumn)) {
+                                shardingIndex = i - 1;
+                            }
+                            if (column.equalsIgnoreCase(primaryKey)) {
+                                keyIndex = i - 1;
+                            }
+                        }
+                        if (shardingIndex < 0 || keyIndex < 0) {
+                            throw new SQLException("旧表缺少分片列或主键列: " + sourceTable);
+                        }
+                        while (rs.next()) {
+                            Object[] row = new Object[columns.size()];
+                            for (int i = 0; i < row.length; i++) {
+                                row[i] = rs.getObject(i + 1);
+                            }
+                            rowCount++;
+                            lastKey = ((Number) row[keyIndex]).longValue();
+                            String targetTable = target.getActualTableName(logicTable, row[shardingIndex]);
+                            if (!sourceTable.equals(targetTable)) {
+                                rowsByTarget.computeIfAbsent(targetTable, k -> new ArrayList<>()).add(row);
+                            }
+                        }
+                    }
+                }
+
+                int keyIndex = indexOfIgnoreCase(columns, primaryKey);
+                for (Map.Entry<String, List<Object[]>> entry : rowsByTarget.entrySet()) {
+                    writeRows(connection, entry.getKey(), columns, keyIndex, entry.getValue());
+                }
+
+                ReshardingCheckpointStore.Checkpoint next = new ReshardingCheckpointStore.Checkpoint(
+                        lastKey, checkpoint.getCopiedRows() + rowCount, rowCount < batchSize);
+                checkpointStore.save(connection, jobName, sourceTable, next);
+                connection.commit();
+                copiedRows.addAndGet(rowCount);
+                return next;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * 以"按主键删除+插入"写入新表，已由双写写入的行会被旧表中的当前版本覆盖
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 10:16
+     */
+    private void writeRows(Connection connection, String targetTable, List<String> columns, int keyIndex,
+                           List<Object[]> rows) throws SQLException {
+        requireIdentifier(targetTable);
+        StringBuilder insertSql = new StringBuilder("INSERT INTO ").append(targetTable).append(" (");
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                insertSql.append(", ");
+                placeholders.append(", ");
+            }
+            insertSql.append(columns.get(i));
+            placeholders.append('?');
+        }
+        insertSql.append(") VALUES (").append(placeholders).append(')');
+
+        try (PreparedStatement delete = connection.prepareStatement(
+                "DELETE FROM " + targetTable + " WHERE " + primaryKey + " = ?");
+             PreparedStatement insert = connection.prepareStatement(insertSql.toString())) {
+            for (Object[] row : rows) {
+                delete.setObject(1, row[keyIndex]);
+                delete.addBatch();
+                for (int i = 0; i < row.length; i++) {
+                    insert.setObject(i + 1, row[i]);
+                }
+                insert.addBatch();
+            }
+            delete.executeBatch();
+            insert.executeBatch();
+        }
+    }
+
+    /**
+     * 清理旧表中已迁走的行，须在切换到COMPLETED阶段（读写均只走新表）之后调用
+     * 按主键分批扫描旧表，删除按新分表策略应位于其他表、且在新表中已存在的行；
+     * 新表中不存在的行保留并记录告警，不会因回填遗漏而丢数据。清理在调用线程中同步执行，可重复调用
+     *
+     * @return 删除的行数
+     * @throws SQLException 数据库异常
+     * @author 李卓伦
+     * @date 2025/10/26 14:25
+     */
+    public long purgeMovedRows() throws SQLException {
+        long purged = 0;
+        for (String sourceTable : sourceTables) {
+            String selectSql = "SELECT " + primaryKey + ", " + shardingColumn + " FROM " + sourceTable + " WHERE "
+                    + primaryKey + " > ? ORDER BY " + primaryKey + " LIMIT " + batchSize;
+            long lastKey = Long.MIN_VALUE;
+            long tablePurged = 0;
+            int rowCount;
+            do {
+                if (Thread.currentThread().isInterrupted()) {
+                    log.info("旧表清理已停止: job={}, 已删除{}行", jobName, purged + tablePurged);
+                    return purged + tablePurged;
+                }
+                Map<String, List<Object>> keysByTarget = new LinkedHashMap<>();
+                rowCount = 0;
+                try (Connection connection = dataSource.getConnection();
+                     PreparedStatement ps = connection.prepareStatement(selectSql)) {
+                    ps.setLong(1, lastKey);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            rowCount++;
+                            Object key = rs.getObject(1);
+                            lastKey = ((Number) key).longValue();
+                            String targetTable = target.getActualTableName(logicTable, rs.getObject(2));
+                            if (!sourceTable.equals(targetTable)) {
+                                keysByTarget.computeIfAbsent(targetTable, k -> new ArrayList<>()).add(key);
+                            }
+                        }
+                    }
+                }
+                tablePurged += deleteMovedRows(sourceTable, keysByTarget);
+                if (rowCount == batchSize && pauseMillis > 0) {
+                    try {
+                        Thread.sleep(pauseMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            } while (rowCount == batchSize);
+            log.info("旧表清理完成: {}, 删除{}行", sourceTable, tablePurged);
+            purged += tablePurged;
+        }
+        return purged;
+    }
+
+    /**
+     * 在一个事务中删除一批已迁走的行，只删除新表中已存在的行
+     *
+     * @param sourceTable  旧表名
+     * @param keysByTarget 按新表分组的主键
+     * @return 删除的行数
+     * @throws SQLException 数据库异常
+     * @author 李卓伦
+     * @date 2025/10/26 14:26
+     */
+    private int deleteMovedRows(String sourceTable, Map<String, List<Object>> keysByTarget) throws SQLException {
+        if (keysByTarget.isEmpty()) {
+            return 0;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                int deleted = 0;
+                for (Map.Entry<String, List<Object>> entry : keysByTarget.entrySet()) {
+                    String targetTable = requireIdentifier(entry.getKey());
+                    try (PreparedStatement delete = connection.prepareStatement("DELETE FROM " + sourceTable
+                            + " WHERE " + primaryKey + " = ? AND EXISTS (SELECT 1 FROM " + targetTable + " WHERE "
+                            + primaryKey + " = ?)")) {
+                        for (Object key : entry.getValue()) {
+                            delete.setObject(1, key);
+                            delete.setObject(2, key);
+                            delete.addBatch();
+                        }
+                        int[] counts = delete.executeBatch();
+                        for (int i = 0; i < counts.length; i++) {
+                            if (counts[i] > 0) {
+                                deleted += counts[i];
+                            } else if (counts[i] == 0) {
+                                log.warn("新表中不存在该行，保留旧表数据: 旧表={}, 新表={}, 主键={}", sourceTable,
+                                        targetTable, entry.getValue().get(i));
+                            }
+                        }
+                    }
+                }
+                connection.commit();
+                return deleted;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private static int indexOfIgnoreCase(List<String> columns, String column) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).equalsIgnoreCase(column)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 校验标识符，回填SQL中的表名与列名来自配置，只允许字母、数字和下划线
+     *
+     * @param identifier 标识符
+     * @return 标识符
+     * @author 李卓伦
+     * @date 2025/10/25 10:17
+     */
+    static String requireIdentifier(String identifier) {
+        if (identifier == null || identifier.isEmpty()) {
+            throw new IllegalArgumentException("标识符不能为空");
+        }
+        for (int i = 0; i < identifier.length(); i++) {
+            char c = identifier.charAt(i);
+            if (!(Character.isLetterOrDigit(c) || c == '_')) {
+                throw new IllegalArgumentException("非法的标识符: " + identifier);
+            }
+        }
+        return identifier;
+    }
+
+    /**
+     * 是否已完成全部旧表
+     *
+     * @return 是否完成
+     * @author 李卓伦
+     * @date 2025/10/25 10:18
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * 是否正在运行
+     *
+     * @return 是否运行中
+     * @author 李卓伦
+     * @date 2025/10/25 10:19
+     */
+    public boolean isRunning() {
+        Thread thread = worker;
+        return thread != null && thread.isAlive();
+    }
+
+    /**
+     * 获取失败原因
+     *
+     * @return 失败原因，未失败时返回null
+     * @author 李卓伦
+     * @date 2025/10/25 10:20
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * 获取本次运行已复制的行数
+     *
+     * @return 行数
+     * @author 李卓伦
+     * @date 2025/10/25 10:21
+     */
+    public long getCopiedRows() {
+        return copiedRows.get();
+    }
+
+    /**
+     * 获取任务名
+     *
+     * @return 任务名
+     * @author 李卓伦
+     * @date 2025/10/25 10:22
+     */
+    public String getJobName() {
+        return jobName;
+    }
+}
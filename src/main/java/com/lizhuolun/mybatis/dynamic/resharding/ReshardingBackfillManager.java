@@ -0,0 +1,132 @@
+package com.lizhuolun.mybatis.dynamic.resharding;
+
+import com.lizhuolun.mybatis.dynamic.config.DynamicTableProperties;
+import com.lizhuolun.mybatis.dynamic.strategy.CachingTableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategyFactory;
+import com.lizhuolun.mybatis.dynamic.strategy.impl.ReshardingTableRouterStrategy;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 回填任务管理器
+ * 为处于DUAL_WRITE阶段且开启回填的在线扩容配置创建并启动回填任务，每个逻辑表一个任务
+ *
+ * @author 李卓伦
+ * @date 2025/10/25 10:40
+ */
+@Slf4j
+public class ReshardingBackfillManager {
+
+    /**
+     * 在线扩容配置列表
+     **/
+    private final List<DynamicTableProperties.ReshardingConfig> configs;
+
+    /**
+     * 数据源提供者
+     **/
+    private final Supplier<DataSource> dataSourceSupplier;
+
+    /**
+     * 已创建的回填任务
+     **/
+    private volatile List<ReshardingBackfillJob> jobs = Collections.emptyList();
+
+    /**
+     * 构造函数
+     *
+     * @param configs            在线扩容配置列表
+     * @param dataSourceSupplier 数据源提供者，返回null时不启动回填
+     * @author 李卓伦
+     * @date 2025/10/25 10:41
+     */
+    public ReshardingBackfillManager(List<DynamicTableProperties.ReshardingConfig> configs,
+                                     Supplier<DataSource> dataSourceSupplier) {
+        this.configs = configs != null ? configs : Collections.emptyList();
+        this.dataSourceSupplier = dataSourceSupplier;
+    }
+
+    /**
+     * 创建并启动回填任务
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 10:42
+     */
+    public synchronized void start() {
+        List<ReshardingBackfillJob> created = new ArrayList<>();
+        for (DynamicTableProperties.ReshardingConfig config : configs) {
+            if (config == null || config.getPhase() != ReshardingTableRouterStrategy.Phase.DUAL_WRITE) {
+                continue;
+            }
+            if (!config.getBackfill().isEnabled()) {
+                log.info("回填任务未开启（backfill.enabled=false），跳过: 表={}", config.getTables());
+                continue;
+            }
+            DataSource dataSource = dataSourceSupplier != null ? dataSourceSupplier.get() : null;
+            if (dataSource == null) {
+                log.warn("未找到数据源，跳过回填任务: 表={}", config.getTables());
+                continue;
+            }
+            for (String logicTable : config.getTables()) {
+                TableRouterStrategy strategy = CachingTableRouterStrategy.unwrap(TableRouterStrategyFactory.getStrategy(logicTable));
+                if (!(strategy instanceof ReshardingTableRouterStrategy)) {
+                    log.warn("表{}未使用在线扩容策略，跳过回填任务", logicTable);
+                    continue;
+                }
+                created.add(createJob(config, logicTable, dataSource, (ReshardingTableRouterStrategy) strategy));
+            }
+        }
+        created.forEach(ReshardingBackfillJob::start);
+        jobs = Collections.unmodifiableList(created);
+        if (!created.isEmpty()) {
+            log.info("已启动{}个回填任务", created.size());
+        }
+    }
+
+    /**
+     * 停止全部回填任务
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 10:43
+     */
+    public synchronized void stop() {
+        jobs.forEach(ReshardingBackfillJob::stop);
+    }
+
+    /**
+     * 获取已创建的回填任务
+     *
+     * @return 回填任务列表（不可变）
+     * @author 李卓伦
+     * @date 2025/10/25 10:44
+     */
+    public List<ReshardingBackfillJob> getJobs() {
+        return jobs;
+    }
+
+    /**
+     * 创建回填任务，旧表为逻辑表名_0到逻辑表名_(sourceTableCount-1)
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 10:45
+     */
+    private ReshardingBackfillJob createJob(DynamicTableProperties.ReshardingConfig config, String logicTable,
+                                            DataSource dataSource, ReshardingTableRouterStrategy strategy) {
+        List<String> sourceTables = new ArrayList<>(config.getSourceTableCount());
+        for (int i = 0; i < config.getSourceTableCount(); i++) {
+            sourceTables.add(logicTable + "_" + i);
+        }
+        DynamicTableProperties.BackfillConfig backfill = config.getBackfill();
+        String jobName = logicTable + "_" + config.getSourceTableCount() + "_to_" + config.getTargetTableCount();
+        return new ReshardingBackfillJob(jobName, dataSource, logicTable, sourceTables, strategy.getTarget(),
+                config.getShardingColumn(), config.getPrimaryKey(), backfill.getBatchSize(),
+                backfill.getPauseMillis(), backfill.isLockRows(),
+                new ReshardingCheckpointStore(backfill.getCheckpointTable()));
+    }
+}
@@ -0,0 +1,161 @@
+package com.lizhuolun.mybatis.dynamic.resharding;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+
+/**
+ * 回填进度存储
+ * 每张旧表一行，记录已复制的最大主键与是否完成；进度与数据在同一事务中提交，重启后从断点继续
+ *
+ * @author 李卓伦
+ * @date 2025/10/25 10:00
+ */
+@Slf4j
+public class ReshardingCheckpointStore {
+
+    /**
+     * 进度表名
+     **/
+    private final String tableName;
+
+    /**
+     * 构造函数
+     *
+     * @param tableName 进度表名
+     * @author 李卓伦
+     * @date 2025/10/25 10:01
+     */
+    public ReshardingCheckpointStore(String tableName) {
+        this.tableName = ReshardingBackfillJob.requireIdentifier(tableName);
+    }
+
+    /**
+     * 创建进度表（已存在时忽略）
+     *
+     * @param dataSource 数据源
+     * @throws SQLException 数据库异常
+     * @author 李卓伦
+     * @date 2025/10/25 10:02
+     */
+    public void createTableIfAbsent(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + tableName + " ("
+                    + "job_name VARCHAR(128) NOT NULL, "
+                    + "source_table VARCHAR(128) NOT NULL, "
+                    + "last_key BIGINT NOT NULL, "
+                    + "copied_rows BIGINT NOT NULL, "
+                    + "finished INT NOT NULL, "
+                    + "updated_at TIMESTAMP NOT NULL, "
+                    + "PRIMARY KEY (job_name, source_table))");
+        }
+    }
+
+    /**
+     * 读取进度
+     *
+     * @param connection  数据库连接
+     * @param jobName     任务名
+     * @param sourceTable 旧表名
+     * @return 进度，不存在时返回null
+     * @throws SQLException 数据库异常
+     * @author 李卓伦
+     * @date 2025/10/25 10:03
+     */
+    public Checkpoint load(Connection connection, String jobName, String sourceTable) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT last_key, copied_rows, finished FROM " + tableName + " WHERE job_name = ? AND source_table = ?")) {
+            ps.setString(1, jobName);
+            ps.setString(2, sourceTable);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? new Checkpoint(rs.getLong(1), rs.getLong(2), rs.getInt(3) != 0) : null;
+            }
+        }
+    }
+
+    /**
+     * 保存进度，与本批数据在同一事务中提交
+     *
+     * @param connection  数据库连接
+     * @param jobName     任务名
+     * @param sourceTable 旧表名
+     * @param checkpoint  进度
+     * @throws SQLException 数据库异常
+     * @author 李卓伦
+     * @date 2025/10/25 10:04
+     */
+    public void save(Connection connection, String jobName, String sourceTable, Checkpoint checkpoint) throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement update = connection.prepareStatement("UPDATE " + tableName
+                + " SET last_key = ?, copied_rows = ?, finished = ?, updated_at = ? WHERE job_name = ? AND source_table = ?")) {
+            update.setLong(1, checkpoint.getLastKey());
+            update.setLong(2, checkpoint.getCopiedRows());
+            update.setInt(3, checkpoint.isFinished() ? 1 : 0);
+            update.setTimestamp(4, now);
+            update.setString(5, jobName);
+            update.setString(6, sourceTable);
+            if (update.executeUpdate() > 0) {
+                return;
+            }
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + tableName
+                + " (job_name, source_table, last_key, copied_rows, finished, updated_at) VALUES (?, ?, ?, ?, ?, ?)")) {
+            insert.setString(1, jobName);
+            insert.setString(2, sourceTable);
+            insert.setLong(3, checkpoint.getLastKey());
+            insert.setLong(4, checkpoint.getCopiedRows());
+            insert.setInt(5, checkpoint.isFinished() ? 1 : 0);
+            insert.setTimestamp(6, now);
+            insert.executeUpdate();
+        }
+    }
+
+    /**
+     * 回填进度
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 10:05
+     */
+    public static final class Checkpoint {
+
+        /**
+         * 已复制的最大主键
+         **/
+        private final long lastKey;
+
+        /**
+         * 已复制行数
+         **/
+        private final long copiedRows;
+
+        /**
+         * 是否已完成
+         **/
+        private final boolean finished;
+
+        public Checkpoint(long lastKey, long copiedRows, boolean finished) {
+            this.lastKey = lastKey;
+            this.copiedRows = copiedRows;
+            this.finished = finished;
+        }
+
+        public long getLastKey() {
+            return lastKey;
+        }
+
+        public long getCopiedRows() {
+            return copiedRows;
+        }
+
+        public boolean isFinished() {
+            return finished;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.lizhuolun.mybatis.dynamic.sql;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 重写后SQL缓存
+ * 以(原始SQL, 排序后的逻辑表名到实际表名映射)为键缓存重写结果，
+ * 同一路由重复执行时返回同一个String实例，便于JDBC驱动及MyBatis按SQL文本复用预编译语句。
+ * 内部按哈希分段，每段为一个按访问顺序淘汰的LRU
+ *
+ * @author 李卓伦
+ * @date 2025/10/18 09:10
+ */
+@Slf4j
+public class RewrittenSqlCache {
+
+    /**
+     * 默认最大条目数
+     **/
+    public static final int DEFAULT_MAX_SIZE = 10000;
+
+    /**
+     * 分段数量（2的幂）
+     **/
+    private static final int SEGMENT_COUNT = 16;
+
+    /**
+     * 分段LRU
+     **/
+    private final Segment[] segments;
+
+    /**
+     * 最大条目数
+     **/
+    private final int maxSize;
+
+    /**
+     * 命中次数
+     **/
+    private final LongAdder hitCount = new LongAdder();
+
+    /**
+     * 未命中次数
+     **/
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * 构造函数（默认容量）
+     *
+     * @author 李卓伦
+     * @date 2025/10/18 09:11
+     */
+    public RewrittenSqlCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param maxSize 最大条目数，小于等于0时不缓存
+     * @author 李卓伦
+     * @date 2025/10/18 09:12
+     */
+    public RewrittenSqlCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.segments = new Segment[SEGMENT_COUNT];
+        int segmentSize = Math.max(1, (maxSize + SEGMENT_COUNT - 1) / SEGMENT_COUNT);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+        log.info("初始化重写后SQL缓存: 最大条目数={}", maxSize);
+    }
+
+    /**
+     * 按重写计划与表名映射获取重写后的SQL
+     *
+     * @param plan     重写计划
+     * @param tableMap 逻辑表名到实际表名的映射
+     * @return 重写后的SQL，相同路由返回同一实例；未发生替换时返回原始SQL实例
+     * @author 李卓伦
+     * @date 2025/10/18 09:13
+     */
+    public String rewrite(SqlRewritePlan plan, Map<String, String> tableMap) {
+        String[] actualTables = plan.resolveActualTables(tableMap);
+        if (actualTables == null) {
+            return plan.getSql();
+        }
+        if (maxSize <= 0) {
+            missCount.increment();
+            return plan.rewrite(tableMap);
+        }
+
+        RouteKey key = new RouteKey(plan.getSql(), actualTables);
+        Segment segment = segments[spread(key.hash) & (SEGMENT_COUNT - 1)];
+        String rewrittenSql;
+        synchronized (segment) {
+            rewrittenSql = segment.get(key);
+        }
+        if (rewrittenSql != null) {
+            hitCount.increment();
+            return rewrittenSql;
+        }
+
+        missCount.increment();
+        rewrittenSql = plan.rewrite(tableMap);
+        synchronized (segment) {
+            String existing = segment.putIfAbsent(key, rewrittenSql);
+            return existing != null ? existing : rewrittenSql;
+        }
+    }
+
+    /**
+     * 清空缓存
+     *
+     * @author 李卓伦
+     * @date 2025/10/18 09:14
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * 获取缓存条目数
+     *
+     * @return 条目数
+     * @author 李卓伦
+     * @date 2025/10/18 09:15
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 获取命中次数
+     *
+     * @return 命中次数
+     * @author 李卓伦
+     * @date 2025/10/18 09:15
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * 获取未命中次数
+     *
+     * @return 未命中次数
+     * @author 李卓伦
+     * @date 2025/10/18 09:16
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * 获取缓存统计信息摘要
+     *
+     * @return 统计信息字符串
+     * @author 李卓伦
+     * @date 2025/10/18 09:16
+     */
+    public String getStatsInfo() {
+        return String.format("重写后SQL缓存: 条目=%d/%d, 命中=%d, 未命中=%d",
+                size(), maxSize, getHitCount(), getMissCount());
+    }
+
+    /**
+     * 打散哈希值高位
+     *
+     * @author 李卓伦
+     * @date 2025/10/18 09:17
+     */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * 按访问顺序淘汰的分段
+     *
+     * @author 李卓伦
+     * @date 2025/10/18 09:18
+     */
+    private static final class Segment extends LinkedHashMap<RouteKey, String> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 分段最大条目数
+         **/
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<RouteKey, String> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    /**
+     * 缓存键：原始SQL与排序后候选表名对应的实际表名
+     *
+     * @author 李卓伦
+     * @date 2025/10/18 09:19
+     */
+    private static final class RouteKey {
+
+        /**
+         * 原始SQL
+         **/
+        private final String sql;
+
+        /**
+         * 实际表名数组，与重写计划中排序后的候选表名一一对应
+         **/
+        private final String[] actualTables;
+
+        /**
+         * 预计算的哈希值
+         **/
+        private final int hash;
+
+        RouteKey(String sql, String[] actualTables) {
+            this.sql = sql;
+            this.actualTables = actualTables;
+            this.hash = 31 * sql.hashCode() + Arrays.hashCode(actualTables);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RouteKey)) {
+                return false;
+            }
+            RouteKey other = (RouteKey) o;
+            return hash == other.hash && sql.equals(other.sql) && Arrays.equals(actualTables, other.actualTables);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
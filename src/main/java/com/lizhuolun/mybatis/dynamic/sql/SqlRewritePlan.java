@@ -0,0 +1,231 @@
+package com.lizhuolun.mybatis.dynamic.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * SQL表名重写计划
+ * 预先扫描一次SQL，记录所有候选表名标识符的位置，
+ * 之后每次重写只需按位置拼接原SQL片段与实际表名，无需重复扫描
+ *
+ * @author 李卓伦
+ * @date 2025/10/17 10:00
+ */
+public final class SqlRewritePlan {
+
+    /**
+     * 对象头、字段及数组头的估算开销（字节）
+     **/
+    private static final int BASE_OVERHEAD = 96;
+
+    /**
+     * 原始SQL
+     **/
+    private final String sql;
+
+    /**
+     * 候选标识符名称（不含引号）
+     **/
+    private final String[] names;
+
+    /**
+     * 候选标识符名称起始位置
+     **/
+    private final int[] starts;
+
+    /**
+     * 候选标识符名称结束位置
+     **/
+    private final int[] ends;
+
+    /**
+     * 去重并排序后的候选表名，用于构造重写结果缓存键
+     **/
+    private final String[] distinctNames;
+
+    /**
+     * 估算占用内存（字节）
+     **/
+    private final long weight;
+
+    /**
+     * 构造函数
+     *
+     * @author 李卓伦
+     * @date 2025/10/17 10:01
+     */
+    private SqlRewritePlan(String sql, String[] names, int[] starts, int[] ends) {
+        this.sql = sql;
+        this.names = names;
+        this.starts = starts;
+        this.ends = ends;
+        this.distinctNames = new TreeSet<>(List.of(names)).toArray(new String[0]);
+        long nameBytes = 0;
+        for (String name : names) {
+            nameBytes += 40L + name.length();
+        }
+        this.weight = BASE_OVERHEAD + 40L + sql.length() + nameBytes + 8L * names.length + 8L * starts.length
+                + 4L * distinctNames.length;
+    }
+
+    /**
+     * 编译SQL生成重写计划
+     *
+     * @param sql 原始SQL
+     * @return 重写计划
+     * @author 李卓伦
+     * @date 2025/10/17 10:02
+     */
+    public static SqlRewritePlan compile(String sql) {
+        if (sql == null) {
+            throw new IllegalArgumentException("SQL不能为空");
+        }
+
+        SqlTableTokenizer tokenizer = new SqlTableTokenizer(sql);
+        List<String> names = new ArrayList<>();
+        List<int[]> ranges = new ArrayList<>();
+        while (tokenizer.next()) {
+            names.add(sql.substring(tokenizer.nameStart(), tokenizer.nameEnd()));
+            ranges.add(new int[]{tokenizer.nameStart(), tokenizer.nameEnd()});
+        }
+
+        int size = names.size();
+        int[] starts = new int[size];
+        int[] ends = new int[size];
+        for (int i = 0; i < size; i++) {
+            starts[i] = ranges.get(i)[0];
+            ends[i] = ranges.get(i)[1];
+        }
+        return new SqlRewritePlan(sql, names.toArray(new String[0]), starts, ends);
+    }
+
+    /**
+     * 按表名映射执行重写
+     *
+     * @param tableMap 逻辑表名到实际表名的映射
+     * @return 重写后的SQL，未发生替换时返回原始SQL实例
+     * @author 李卓伦
+     * @date 2025/10/17 10:03
+     */
+    public String rewrite(Map<String, String> tableMap) {
+        if (names.length == 0 || tableMap == null || tableMap.isEmpty()) {
+            return sql;
+        }
+
+        StringBuilder builder = null;
+        int last = 0;
+        for (int i = 0; i < names.length; i++) {
+            String logicTable = names[i];
+            String actualTable = tableMap.get(logicTable);
+            if (actualTable == null || actualTable.equals(logicTable)) {
+                continue;
+            }
+            if (builder == null) {
+                builder = new StringBuilder(sql.length() + 32);
+            }
+            builder.append(sql, last, starts[i]).append(actualTable);
+            last = ends[i];
+        }
+
+        if (builder == null) {
+            return sql;
+        }
+        return builder.append(sql, last, sql.length()).toString();
+    }
+
+    /**
+     * 按排序后的候选表名解析实际表名
+     *
+     * @param tableMap 逻辑表名到实际表名的映射
+     * @return 与{@link #getDistinctNames()}一一对应的实际表名数组（未映射位置为null），无任何替换时返回null
+     * @author 李卓伦
+     * @date 2025/10/18 09:00
+     */
+    public String[] resolveActualTables(Map<String, String> tableMap) {
+        if (distinctNames.length == 0 || tableMap == null || tableMap.isEmpty()) {
+            return null;
+        }
+
+        String[] actualTables = null;
+        for (int i = 0; i < distinctNames.length; i++) {
+            String actualTable = tableMap.get(distinctNames[i]);
+            if (actualTable == null || actualTable.equals(distinctNames[i])) {
+                continue;
+            }
+            if (actualTables == null) {
+                actualTables = new String[distinctNames.length];
+            }
+            actualTables[i] = actualTable;
+        }
+        return actualTables;
+    }
+
+    /**
+     * 获取去重并排序后的候选表名
+     *
+     * @return 候选表名数组副本
+     * @author 李卓伦
+     * @date 2025/10/18 09:01
+     */
+    public String[] getDistinctNames() {
+        return distinctNames.clone();
+    }
+
+    /**
+     * 获取去重后的候选表名数量
+     *
+     * @return 候选表名数量
+     * @author 李卓伦
+     * @date 2025/10/25 20:00
+     */
+    public int getDistinctNameCount() {
+        return distinctNames.length;
+    }
+
+    /**
+     * 按位置获取去重并排序后的候选表名，不复制数组
+     *
+     * @param index 位置
+     * @return 候选表名
+     * @author 李卓伦
+     * @date 2025/10/25 20:01
+     */
+    public String getDistinctName(int index) {
+        return distinctNames[index];
+    }
+
+    /**
+     * 获取原始SQL
+     *
+     * @return 原始SQL
+     * @author 李卓伦
+     * @date 2025/10/17 10:04
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * 获取候选表名数量
+     *
+     * @return 候选表名数量
+     * @author 李卓伦
+     * @date 2025/10/17 10:05
+     */
+    public int getTokenCount() {
+        return names.length;
+    }
+
+    /**
+     * 获取估算占用内存
+     *
+     * @return 字节数
+     * @author 李卓伦
+     * @date 2025/10/17 10:06
+     */
+    public long getWeight() {
+        return weight;
+    }
+}
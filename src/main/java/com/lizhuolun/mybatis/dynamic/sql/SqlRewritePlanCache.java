@@ -0,0 +1,335 @@
+package com.lizhuolun.mybatis.dynamic.sql;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SQL重写计划缓存
+ * 以(MappedStatement ID, SQL文本)为键缓存重写计划，按估算内存占用限制容量，
+ * 超出上限时按最近访问时间淘汰最久未使用的条目（近似LRU），并提供命中/未命中计数
+ *
+ * @author 李卓伦
+ * @date 2025/10/17 10:10
+ */
+@Slf4j
+public class SqlRewritePlanCache {
+
+    /**
+     * 默认最大内存占用（4MB）
+     **/
+    public static final long DEFAULT_MAX_BYTES = 4L * 1024 * 1024;
+
+    /**
+     * 计划缓存
+     **/
+    private final ConcurrentHashMap<PlanKey, Node> plans = new ConcurrentHashMap<>();
+
+    /**
+     * 最大内存占用（字节）
+     **/
+    private final long maxBytes;
+
+    /**
+     * 当前估算内存占用（字节）
+     **/
+    private final AtomicLong currentBytes = new AtomicLong();
+
+    /**
+     * 命中次数
+     **/
+    private final LongAdder hitCount = new LongAdder();
+
+    /**
+     * 未命中次数
+     **/
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * 淘汰次数
+     **/
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * 构造函数（默认容量）
+     *
+     * @author 李卓伦
+     * @date 2025/10/17 10:11
+     */
+    public SqlRewritePlanCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param maxBytes 最大内存占用（字节），小于等于0时不缓存
+     * @author 李卓伦
+     * @date 2025/10/17 10:12
+     */
+    public SqlRewritePlanCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        log.info("初始化SQL重写计划缓存: 最大内存占用={}字节", maxBytes);
+    }
+
+    /**
+     * 获取重写计划，未命中时编译并缓存
+     *
+     * @param statementId MappedStatement ID
+     * @param sql         原始SQL
+     * @return 重写计划
+     * @author 李卓伦
+     * @date 2025/10/17 10:13
+     */
+    public SqlRewritePlan getPlan(String statementId, String sql) {
+        if (maxBytes <= 0) {
+            missCount.increment();
+            return SqlRewritePlan.compile(sql);
+        }
+
+        PlanKey key = new PlanKey(statementId, sql);
+        Node node = plans.get(key);
+        if (node != null) {
+            node.lastAccess = System.nanoTime();
+            hitCount.increment();
+            return node.plan;
+        }
+
+        missCount.increment();
+        SqlRewritePlan plan = SqlRewritePlan.compile(sql);
+        if (plan.getWeight() > maxBytes) {
+            log.debug("SQL重写计划超过缓存上限，不缓存: statementId={}, weight={}", statementId, plan.getWeight());
+            return plan;
+        }
+
+        Node existing = plans.putIfAbsent(key, new Node(plan, System.nanoTime()));
+        if (existing != null) {
+            return existing.plan;
+        }
+        if (currentBytes.addAndGet(plan.getWeight()) > maxBytes) {
+            evict(key);
+        }
+        return plan;
+    }
+
+    /**
+     * 按最近访问时间从旧到新淘汰条目，直到内存占用回落到上限的3/4以下
+     * 一次淘汰约1/4容量，排序开销分摊到此后的多次写入
+     *
+     * @param retained 本次新加入、不参与淘汰的键
+     * @author 李卓伦
+     * @date 2025/10/17 10:14
+     */
+    private synchronized void evict(PlanKey retained) {
+        long target = maxBytes - (maxBytes >> 2);
+        if (currentBytes.get() <= target) {
+            return;
+        }
+        // 先快照访问时刻再排序，避免排序期间被并发命中改写
+        List<Candidate> candidates = new ArrayList<>(plans.size());
+        for (Map.Entry<PlanKey, Node> entry : plans.entrySet()) {
+            if (!entry.getKey().equals(retained)) {
+                candidates.add(new Candidate(entry.getKey(), entry.getValue()));
+            }
+        }
+        candidates.sort(Comparator.comparingLong(candidate -> candidate.lastAccess));
+
+        int evicted = 0;
+        for (int i = 0; i < candidates.size() && currentBytes.get() > target; i++) {
+            Candidate candidate = candidates.get(i);
+            if (plans.remove(candidate.key, candidate.node)) {
+                currentBytes.addAndGet(-candidate.node.plan.getWeight());
+                evicted++;
+            }
+        }
+        evictionCount.add(evicted);
+        log.debug("SQL重写计划缓存淘汰{}个条目，当前内存占用={}字节", evicted, currentBytes.get());
+    }
+
+    /**
+     * 清空缓存
+     *
+     * @author 李卓伦
+     * @date 2025/10/17 10:15
+     */
+    public void clear() {
+        plans.clear();
+        currentBytes.set(0);
+    }
+
+    /**
+     * 获取命中次数
+     *
+     * @return 命中次数
+     * @author 李卓伦
+     * @date 2025/10/17 10:16
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * 获取未命中次数
+     *
+     * @return 未命中次数
+     * @author 李卓伦
+     * @date 2025/10/17 10:16
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * 获取淘汰次数
+     *
+     * @return 淘汰次数
+     * @author 李卓伦
+     * @date 2025/10/17 10:17
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * 获取缓存条目数
+     *
+     * @return 条目数
+     * @author 李卓伦
+     * @date 2025/10/17 10:17
+     */
+    public int size() {
+        return plans.size();
+    }
+
+    /**
+     * 获取当前估算内存占用
+     *
+     * @return 字节数
+     * @author 李卓伦
+     * @date 2025/10/17 10:18
+     */
+    public long getEstimatedBytes() {
+        return currentBytes.get();
+    }
+
+    /**
+     * 获取最大内存占用
+     *
+     * @return 字节数
+     * @author 李卓伦
+     * @date 2025/10/17 10:18
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * 获取缓存统计信息摘要
+     *
+     * @return 统计信息字符串
+     * @author 李卓伦
+     * @date 2025/10/17 10:19
+     */
+    public String getStatsInfo() {
+        return String.format("SQL重写计划缓存: 条目=%d, 内存=%d/%d字节, 命中=%d, 未命中=%d, 淘汰=%d",
+                size(), getEstimatedBytes(), maxBytes, getHitCount(), getMissCount(), getEvictionCount());
+    }
+
+    /**
+     * 缓存条目
+     *
+     * @author 李卓伦
+     * @date 2025/10/17 10:20
+     */
+    private static final class Node {
+
+        /**
+         * 重写计划
+         **/
+        final SqlRewritePlan plan;
+
+        /**
+         * 最近访问时刻（System.nanoTime），命中时直接覆盖，不加锁
+         **/
+        volatile long lastAccess;
+
+        Node(SqlRewritePlan plan, long lastAccess) {
+            this.plan = plan;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * 淘汰候选（访问时刻的快照）
+     *
+     * @author 李卓伦
+     * @date 2025/10/17 10:20
+     */
+    private static final class Candidate {
+
+        final PlanKey key;
+
+        final Node node;
+
+        final long lastAccess;
+
+        Candidate(PlanKey key, Node node) {
+            this.key = key;
+            this.node = node;
+            this.lastAccess = node.lastAccess;
+        }
+    }
+
+    /**
+     * 缓存键
+     *
+     * @author 李卓伦
+     * @date 2025/10/17 10:20
+     */
+    private static final class PlanKey {
+
+        /**
+         * MappedStatement ID
+         **/
+        private final String statementId;
+
+        /**
+         * 原始SQL
+         **/
+        private final String sql;
+
+        /**
+         * 预计算的哈希值
+         **/
+        private final int hash;
+
+        PlanKey(String statementId, String sql) {
+            this.statementId = statementId != null ? statementId : "";
+            this.sql = sql;
+            this.hash = 31 * this.statementId.hashCode() + sql.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PlanKey)) {
+                return false;
+            }
+            PlanKey other = (PlanKey) o;
+            return hash == other.hash && statementId.equals(other.statementId) && sql.equals(other.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,462 @@
+package com.lizhuolun.mybatis.dynamic.sql;
+
+/**
+ * SQL表名词法扫描器
+ * 单次遍历SQL文本，依次定位处于表名位置（FROM、JOIN、INTO、UPDATE、TABLE、USING之后以及FROM列表中的逗号之后）
+ * 或作为限定符（紧跟"."）出现的标识符，跳过字符串字面量、注释，引号标识符作为整体处理
+ *
+ * @author 李卓伦
+ * @date 2025/10/16 09:00
+ */
+public final class SqlTableTokenizer {
+
+    /**
+     * 开启表名位置的关键字
+     **/
+    private static final String[] TABLE_KEYWORDS = {"FROM", "JOIN", "STRAIGHT_JOIN", "INTO", "UPDATE", "TABLE", "USING"};
+
+    /**
+     * 开启逗号分隔表列表的关键字
+     **/
+    private static final String[] TABLE_LIST_KEYWORDS = {"FROM", "USING", "UPDATE"};
+
+    /**
+     * 表名之前可能出现的修饰词，不占用表名位置
+     **/
+    private static final String[] TABLE_MODIFIERS = {"IF", "NOT", "EXISTS", "IGNORE", "LOW_PRIORITY", "HIGH_PRIORITY",
+            "DELAYED", "QUICK", "ONLY", "LATERAL"};
+
+    /**
+     * 结束表列表的子句关键字
+     **/
+    private static final String[] CLAUSE_KEYWORDS = {"WHERE", "SET", "GROUP", "ORDER", "HAVING", "LIMIT", "UNION",
+            "EXCEPT", "INTERSECT", "VALUES", "VALUE", "SELECT", "WINDOW", "FOR", "LOCK", "RETURNING", "OFFSET", "FETCH"};
+
+    /**
+     * 待扫描的SQL
+     **/
+    private final String sql;
+
+    /**
+     * SQL长度
+     **/
+    private final int length;
+
+    /**
+     * 当前扫描位置
+     **/
+    private int pos;
+
+    /**
+     * 当前括号深度
+     **/
+    private int depth;
+
+    /**
+     * 各括号深度上表列表是否处于激活状态（按位存储，超过64层时不再跟踪）
+     **/
+    private long tableListMask;
+
+    /**
+     * 下一个标识符是否处于表名位置
+     **/
+    private boolean expectTable;
+
+    /**
+     * 上一个有效字符是否为点号（点号之后的标识符是成员名，不作为关键字处理）
+     **/
+    private boolean afterDot;
+
+    /**
+     * 上一个裸标识符的起止位置，用于识别 ON DUPLICATE KEY UPDATE、FOR UPDATE
+     **/
+    private int prevWordStart = -1;
+    private int prevWordEnd = -1;
+
+    /**
+     * 当前命中标识符的起止位置（包含引号）
+     **/
+    private int tokenStart;
+    private int tokenEnd;
+
+    /**
+     * 当前命中标识符名称的起止位置（不含引号）
+     **/
+    private int nameStart;
+    private int nameEnd;
+
+    /**
+     * 构造函数
+     *
+     * @param sql 待扫描的SQL
+     * @author 李卓伦
+     * @date 2025/10/16 09:01
+     */
+    public SqlTableTokenizer(String sql) {
+        this.sql = sql;
+        this.length = sql != null ? sql.length() : 0;
+    }
+
+    /**
+     * 前进到下一个候选表名标识符
+     *
+     * @return 是否找到候选标识符
+     * @author 李卓伦
+     * @date 2025/10/16 09:02
+     */
+    public boolean next() {
+        while (pos < length) {
+            char c = sql.charAt(pos);
+            if (Character.isWhitespace(c)) {
+                pos++;
+            } else if (c == '-' && pos + 1 < length && sql.charAt(pos + 1) == '-') {
+                skipLineComment();
+            } else if (c == '/' && pos + 1 < length && sql.charAt(pos + 1) == '*') {
+                skipBlockComment();
+            } else if (c == '\'') {
+                skipStringLiteral();
+                expectTable = false;
+                afterDot = false;
+            } else if (c == '`' || c == '"') {
+                if (scanQuotedIdentifier(c)) {
+                    return true;
+                }
+            } else if (isIdentifierPart(c)) {
+                if (scanWord()) {
+                    return true;
+                }
+            } else {
+                scanSymbol(c);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 当前候选标识符起始位置（包含引号）
+     *
+     * @return 起始位置
+     * @author 李卓伦
+     * @date 2025/10/16 09:03
+     */
+    public int tokenStart() {
+        return tokenStart;
+    }
+
+    /**
+     * 当前候选标识符结束位置（包含引号，不包含该位置）
+     *
+     * @return 结束位置
+     * @author 李卓伦
+     * @date 2025/10/16 09:03
+     */
+    public int tokenEnd() {
+        return tokenEnd;
+    }
+
+    /**
+     * 当前候选标识符名称起始位置（不含引号）
+     *
+     * @return 起始位置
+     * @author 李卓伦
+     * @date 2025/10/16 09:04
+     */
+    public int nameStart() {
+        return nameStart;
+    }
+
+    /**
+     * 当前候选标识符名称结束位置（不含引号，不包含该位置）
+     *
+     * @return 结束位置
+     * @author 李卓伦
+     * @date 2025/10/16 09:04
+     */
+    public int nameEnd() {
+        return nameEnd;
+    }
+
+    /**
+     * 扫描裸标识符或关键字
+     *
+     * @return 是否为候选表名
+     * @author 李卓伦
+     * @date 2025/10/16 09:05
+     */
+    private boolean scanWord() {
+        int start = pos;
+        while (pos < length && isIdentifierPart(sql.charAt(pos))) {
+            pos++;
+        }
+        int end = pos;
+        boolean qualifier = followedByDot();
+        boolean member = afterDot;
+        afterDot = false;
+
+        if (expectTable) {
+            if (!qualifier && matchesAny(start, end, TABLE_MODIFIERS)) {
+                rememberWord(start, end);
+                return false;
+            }
+            return emitTable(start, end, start, end, qualifier);
+        }
+
+        if (member) {
+            rememberWord(-1, -1);
+        } else if (matchesAny(start, end, TABLE_KEYWORDS)) {
+            boolean afterKeyOrFor = matches(prevWordStart, prevWordEnd, "KEY") || matches(prevWordStart, prevWordEnd, "FOR");
+            if (!(afterKeyOrFor && matches(start, end, "UPDATE"))) {
+                expectTable = true;
+                if (matchesAny(start, end, TABLE_LIST_KEYWORDS)) {
+                    setTableList(true);
+                }
+            }
+        } else if (matchesAny(start, end, CLAUSE_KEYWORDS)) {
+            setTableList(false);
+        }
+        if (!member) {
+            rememberWord(start, end);
+        }
+
+        // 数字字面量（如 1.5）不作为限定符
+        if (qualifier && !Character.isDigit(sql.charAt(start))) {
+            return emit(start, end, start, end);
+        }
+        return false;
+    }
+
+    /**
+     * 扫描引号标识符
+     *
+     * @param quote 引号字符
+     * @return 是否为候选表名
+     * @author 李卓伦
+     * @date 2025/10/16 09:06
+     */
+    private boolean scanQuotedIdentifier(char quote) {
+        int start = pos;
+        pos++;
+        int contentStart = pos;
+        while (pos < length) {
+            char c = sql.charAt(pos);
+            if (c == quote) {
+                if (pos + 1 < length && sql.charAt(pos + 1) == quote) {
+                    pos += 2;
+                    continue;
+                }
+                break;
+            }
+            pos++;
+        }
+        int contentEnd = pos;
+        if (pos < length) {
+            pos++;
+        }
+        boolean qualifier = followedByDot();
+        afterDot = false;
+        rememberWord(-1, -1);
+
+        if (expectTable) {
+            return emitTable(start, pos, contentStart, contentEnd, qualifier);
+        }
+        if (qualifier) {
+            return emit(start, pos, contentStart, contentEnd);
+        }
+        return false;
+    }
+
+    /**
+     * 处理表名位置上的标识符
+     *
+     * @author 李卓伦
+     * @date 2025/10/16 09:07
+     */
+    private boolean emitTable(int start, int end, int contentStart, int contentEnd, boolean qualifier) {
+        // schema.table 形式时，点号之后的标识符仍处于表名位置
+        expectTable = qualifier;
+        return emit(start, end, contentStart, contentEnd);
+    }
+
+    /**
+     * 记录候选标识符位置
+     *
+     * @author 李卓伦
+     * @date 2025/10/16 09:07
+     */
+    private boolean emit(int start, int end, int contentStart, int contentEnd) {
+        tokenStart = start;
+        tokenEnd = end;
+        nameStart = contentStart;
+        nameEnd = contentEnd;
+        return contentEnd > contentStart;
+    }
+
+    /**
+     * 处理符号字符
+     *
+     * @param c 当前字符
+     * @author 李卓伦
+     * @date 2025/10/16 09:08
+     */
+    private void scanSymbol(char c) {
+        pos++;
+        if (c == '.') {
+            afterDot = true;
+            return;
+        }
+        afterDot = false;
+        expectTable = false;
+        rememberWord(-1, -1);
+        if (c == '(') {
+            depth++;
+            setTableList(false);
+        } else if (c == ')') {
+            setTableList(false);
+            if (depth > 0) {
+                depth--;
+            }
+        } else if (c == ',') {
+            expectTable = isTableListActive();
+        } else if (c == ';') {
+            tableListMask = 0L;
+            depth = 0;
+        }
+    }
+
+    /**
+     * 跳过行注释
+     *
+     * @author 李卓伦
+     * @date 2025/10/16 09:09
+     */
+    private void skipLineComment() {
+        while (pos < length && sql.charAt(pos) != '\n') {
+            pos++;
+        }
+    }
+
+    /**
+     * 跳过块注释
+     *
+     * @author 李卓伦
+     * @date 2025/10/16 09:09
+     */
+    private void skipBlockComment() {
+        int close = sql.indexOf("*/", pos + 2);
+        pos = close < 0 ? length : close + 2;
+    }
+
+    /**
+     * 跳过字符串字面量，支持 '' 与反斜杠转义
+     *
+     * @author 李卓伦
+     * @date 2025/10/16 09:10
+     */
+    private void skipStringLiteral() {
+        pos++;
+        while (pos < length) {
+            char c = sql.charAt(pos);
+            if (c == '\\') {
+                pos += 2;
+            } else if (c == '\'') {
+                if (pos + 1 < length && sql.charAt(pos + 1) == '\'') {
+                    pos += 2;
+                } else {
+                    pos++;
+                    return;
+                }
+            } else {
+                pos++;
+            }
+        }
+        pos = Math.min(pos, length);
+    }
+
+    /**
+     * 判断当前位置之后（跳过空白）是否紧跟点号
+     *
+     * @author 李卓伦
+     * @date 2025/10/16 09:11
+     */
+    private boolean followedByDot() {
+        int i = pos;
+        while (i < length && Character.isWhitespace(sql.charAt(i))) {
+            i++;
+        }
+        return i < length && sql.charAt(i) == '.';
+    }
+
+    /**
+     * 设置当前深度的表列表状态
+     *
+     * @author 李卓伦
+     * @date 2025/10/16 09:12
+     */
+    private void setTableList(boolean active) {
+        if (depth >= Long.SIZE) {
+            return;
+        }
+        if (active) {
+            tableListMask |= 1L << depth;
+        } else {
+            tableListMask &= ~(1L << depth);
+        }
+    }
+
+    /**
+     * 当前深度的表列表是否处于激活状态
+     *
+     * @author 李卓伦
+     * @date 2025/10/16 09:12
+     */
+    private boolean isTableListActive() {
+        return depth < Long.SIZE && (tableListMask & (1L << depth)) != 0;
+    }
+
+    /**
+     * 记录上一个裸标识符
+     *
+     * @author 李卓伦
+     * @date 2025/10/16 09:13
+     */
+    private void rememberWord(int start, int end) {
+        prevWordStart = start;
+        prevWordEnd = end;
+    }
+
+    /**
+     * 判断区间是否与任一关键字相同（忽略大小写）
+     *
+     * @author 李卓伦
+     * @date 2025/10/16 09:13
+     */
+    private boolean matchesAny(int start, int end, String[] keywords) {
+        for (String keyword : keywords) {
+            if (matches(start, end, keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 判断区间是否与关键字相同（忽略大小写）
+     *
+     * @author 李卓伦
+     * @date 2025/10/16 09:14
+     */
+    private boolean matches(int start, int end, String keyword) {
+        return start >= 0 && end - start == keyword.length()
+                && sql.regionMatches(true, start, keyword, 0, keyword.length());
+    }
+
+    /**
+     * 是否为标识符字符
+     *
+     * @author 李卓伦
+     * @date 2025/10/16 09:14
+     */
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+}
@@ -0,0 +1,426 @@
+package com.lizhuolun.mybatis.dynamic.strategy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.temporal.Temporal;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 路由结果缓存装饰器
+ * 以(逻辑表名, 分片键)为键缓存被装饰策略的路由结果，适合getActualTableName开销较大的自定义策略（如查询租户目录）。
+ * 按哈希分段，每段为按访问顺序淘汰的LRU；支持按写入时间过期，以及对未路由结果（返回null或逻辑表名）的负缓存，
+ * 负缓存命中时原样返回被装饰策略当时的结果（null或逻辑表名）。
+ * 只缓存字符串、数值、布尔、字符、枚举、java.time类型与Date等值语义的分片键，其他分片键直接交给被装饰策略。
+ * 被装饰策略的路由在运行时变化（如切换迁移阶段、重新加载目录）时需调用{@link #invalidateAll()}，
+ * 内置策略通过{@link TableRouterStrategyFactory#invalidateRouteCache(TableRouterStrategy)}自动清空已注册的缓存
+ *
+ * @author 李卓伦
+ * @date 2025/10/25 19:00
+ */
+@Slf4j
+public class CachingTableRouterStrategy implements TableRouterStrategy {
+
+    /**
+     * 分段数量（2的幂）
+     **/
+    private static final int SEGMENT_COUNT = 16;
+
+    /**
+     * 被装饰的策略
+     **/
+    private final TableRouterStrategy delegate;
+
+    /**
+     * 分段LRU
+     **/
+    private final Segment[] segments;
+
+    /**
+     * 最大条目数
+     **/
+    private final int maxSize;
+
+    /**
+     * 过期时间（纳秒），0表示不过期
+     **/
+    private final long ttlNanos;
+
+    /**
+     * 是否缓存未路由结果
+     **/
+    private final boolean cacheNegative;
+
+    /**
+     * 未路由结果的过期时间（纳秒），0表示不过期
+     **/
+    private final long negativeTtlNanos;
+
+    /**
+     * 缓存代数，每次清空时递增；查询期间代数变化时不写入结果，避免清空前算出的旧路由回填到缓存
+     **/
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * 命中次数
+     **/
+    private final LongAdder hitCount = new LongAdder();
+
+    /**
+     * 其中命中负缓存的次数
+     **/
+    private final LongAdder negativeHitCount = new LongAdder();
+
+    /**
+     * 未命中次数
+     **/
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * 淘汰与过期次数
+     **/
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * 构造函数
+     *
+     * @param delegate          被装饰的策略
+     * @param maxSize           最大条目数
+     * @param ttlMillis         过期时间（毫秒），小于等于0表示不过期
+     * @param cacheNegative     是否缓存未路由结果
+     * @param negativeTtlMillis 未路由结果的过期时间（毫秒），小于等于0表示不过期
+     * @author 李卓伦
+     * @date 2025/10/25 19:01
+     */
+    public CachingTableRouterStrategy(TableRouterStrategy delegate, int maxSize, long ttlMillis,
+                                      boolean cacheNegative, long negativeTtlMillis) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("被装饰的分表策略不能为空");
+        }
+        if (delegate instanceof CachingTableRouterStrategy) {
+            throw new IllegalArgumentException("分表策略已启用路由缓存: " + delegate.getStrategyName());
+        }
+        this.delegate = delegate;
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlNanos = ttlMillis > 0 ? ttlMillis * 1_000_000L : 0;
+        this.cacheNegative = cacheNegative;
+        this.negativeTtlNanos = negativeTtlMillis > 0 ? negativeTtlMillis * 1_000_000L : 0;
+        this.segments = new Segment[SEGMENT_COUNT];
+        int segmentSize = Math.max(1, (this.maxSize + SEGMENT_COUNT - 1) / SEGMENT_COUNT);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(segmentSize, evictionCount);
+        }
+        log.info("启用路由结果缓存: 策略={}, 最大条目数={}, 过期时间={}ms, 负缓存={}, 负缓存过期时间={}ms",
+                delegate.getStrategyName(), this.maxSize, ttlMillis, cacheNegative, negativeTtlMillis);
+    }
+
+    /**
+     * 去除缓存装饰，返回实际的策略实例
+     *
+     * @param strategy 策略
+     * @return 被装饰的策略；未装饰时返回原对象
+     * @author 李卓伦
+     * @date 2025/10/25 19:02
+     */
+    public static TableRouterStrategy unwrap(TableRouterStrategy strategy) {
+        return strategy instanceof CachingTableRouterStrategy
+                ? ((CachingTableRouterStrategy) strategy).delegate
+                : strategy;
+    }
+
+    @Override
+    public String getActualTableName(String logicTableName, Object context) {
+        Object keyPart = cacheableKey(context);
+        if (keyPart == null || logicTableName == null) {
+            return delegate.getActualTableName(logicTableName, context);
+        }
+
+        CacheKey key = new CacheKey(logicTableName, keyPart);
+        Segment segment = segments[spread(key.hash) & (SEGMENT_COUNT - 1)];
+        long now = System.nanoTime();
+        Entry entry;
+        synchronized (segment) {
+            entry = segment.get(key);
+            if (entry != null && entry.expiresAt != 0 && now - entry.expiresAt >= 0) {
+                segment.remove(key);
+                evictionCount.increment();
+                entry = null;
+            }
+        }
+        if (entry != null) {
+            hitCount.increment();
+            if (entry.negative) {
+                negativeHitCount.increment();
+            }
+            return entry.tableName;
+        }
+
+        missCount.increment();
+        long startGeneration = generation.get();
+        String actualTableName = delegate.getActualTableName(logicTableName, context);
+        boolean negative = actualTableName == null || actualTableName.equals(logicTableName);
+        if (!negative || cacheNegative) {
+            long ttl = negative ? negativeTtlNanos : ttlNanos;
+            Entry created = new Entry(actualTableName, negative, ttl == 0 ? 0 : (now + ttl) | 1);
+            if (context instanceof Date) {
+                // Date可变，缓存键保存副本
+                key = new CacheKey(logicTableName, ((Date) context).clone());
+            }
+            synchronized (segment) {
+                if (generation.get() == startGeneration) {
+                    segment.put(key, created);
+                }
+            }
+        }
+        return actualTableName;
+    }
+
+    @Override
+    public String getShadowTableName(String logicTableName, Object context) {
+        return delegate.getShadowTableName(logicTableName, context);
+    }
+
+    @Override
+    public boolean match(String logicTableName) {
+        return delegate.match(logicTableName);
+    }
+
+    @Override
+    public String getStrategyName() {
+        return delegate.getStrategyName();
+    }
+
+    @Override
+    public int getPriority() {
+        return delegate.getPriority();
+    }
+
+    @Override
+    public Set<String> getSupportedTables() {
+        return delegate.getSupportedTables();
+    }
+
+    /**
+     * 获取被装饰的策略
+     *
+     * @return 被装饰的策略
+     * @author 李卓伦
+     * @date 2025/10/25 19:03
+     */
+    public TableRouterStrategy getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * 清空缓存
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 19:04
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * 获取缓存条目数
+     *
+     * @return 条目数
+     * @author 李卓伦
+     * @date 2025/10/25 19:05
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getNegativeHitCount() {
+        return negativeHitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * 获取命中率
+     *
+     * @return 命中率（0~1），尚无请求时返回0
+     * @author 李卓伦
+     * @date 2025/10/25 19:06
+     */
+    public double getHitRate() {
+        long hits = getHitCount();
+        long total = hits + getMissCount();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * 获取缓存统计信息摘要
+     *
+     * @return 统计信息字符串
+     * @author 李卓伦
+     * @date 2025/10/25 19:07
+     */
+    public String getStatsInfo() {
+        return String.format("路由结果缓存[%s]: 条目=%d/%d, 命中=%d(负缓存%d), 未命中=%d, 淘汰=%d, 命中率=%.2f%%",
+                getStrategyName(), size(), maxSize, getHitCount(), getNegativeHitCount(), getMissCount(),
+                getEvictionCount(), getHitRate() * 100);
+    }
+
+    /**
+     * 获取可作为缓存键的分片键
+     *
+     * @return 分片键，不可缓存时返回null
+     * @author 李卓伦
+     * @date 2025/10/25 19:08
+     */
+    private static Object cacheableKey(Object context) {
+        if (context instanceof String || context instanceof Number || context instanceof Boolean
+                || context instanceof Character || context instanceof Enum || context instanceof Temporal
+                || context instanceof Date) {
+            return context;
+        }
+        return null;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * 缓存条目
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 19:09
+     */
+    private static final class Entry {
+
+        /**
+         * 被装饰策略返回的实际表名，负缓存时为null或逻辑表名
+         **/
+        final String tableName;
+
+        /**
+         * 是否为未路由结果
+         **/
+        final boolean negative;
+
+        /**
+         * 过期时刻（System.nanoTime），0表示不过期
+         **/
+        final long expiresAt;
+
+        Entry(String tableName, boolean negative, long expiresAt) {
+            this.tableName = tableName;
+            this.negative = negative;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * 缓存键
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 19:10
+     */
+    private static final class CacheKey {
+
+        /**
+         * 逻辑表名
+         **/
+        final String logicTableName;
+
+        /**
+         * 分片键
+         **/
+        final Object shardingKey;
+
+        /**
+         * 预计算的哈希值
+         **/
+        final int hash;
+
+        CacheKey(String logicTableName, Object shardingKey) {
+            this.logicTableName = logicTableName;
+            this.shardingKey = shardingKey;
+            this.hash = 31 * logicTableName.hashCode() + shardingKey.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return hash == other.hash && logicTableName.equals(other.logicTableName)
+                    && shardingKey.getClass() == other.shardingKey.getClass()
+                    && shardingKey.equals(other.shardingKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * 按访问顺序淘汰的分段
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 19:11
+     */
+    private static final class Segment extends LinkedHashMap<CacheKey, Entry> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 分段最大条目数
+         **/
+        private final int capacity;
+
+        /**
+         * 淘汰计数
+         **/
+        private final LongAdder evictions;
+
+        Segment(int capacity, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, Entry> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.lizhuolun.mybatis.dynamic.strategy;
 
+import java.util.Set;
+
 /**
  * 分表策略接口
  * 定义分表路由规则，支持多种分表策略实现
@@ -51,4 +53,31 @@ public interface TableRouterStrategy {
     default int getPriority() {
         return 100;
     }
-}
\ No newline at end of file
+
+    /**
+     * 获取策略支持的逻辑表名集合
+     * 能够静态列出表名的策略应返回该集合，工厂据此建立表名到策略的索引，查找时无需逐个调用match；
+     * 返回null表示无法静态列出（如按模式匹配），工厂将对其逐个调用match
+     *
+     * @return 逻辑表名集合，无法静态列出时返回null
+     * @author 李卓伦
+     * @date 2025/10/23 09:00
+     */
+    default Set<String> getSupportedTables() {
+        return null;
+    }
+
+    /**
+     * 获取影子表名
+     * 返回非空时，增删改语句除写入实际表外还会在同一连接上写入影子表，用于在线扩容期间的双写
+     *
+     * @param logicTableName 逻辑表名
+     * @param context 条件对象
+     * @return 影子表名，不需要双写时返回null
+     * @author 李卓伦
+     * @date 2025/10/25 09:03
+     */
+    default String getShadowTableName(String logicTableName, Object context) {
+        return null;
+    }
+}
@@ -2,13 +2,20 @@ package com.lizhuolun.mybatis.dynamic.strategy;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * 分表策略工厂
- * 管理和注册所有分表策略，支持策略优先级排序
+ * 管理和注册所有分表策略，支持策略优先级排序。
+ * 已注册策略、名称集合与表名索引组成一个不可变快照，写操作串行构建新快照后通过一次volatile写发布，读操作无锁。
+ * 策略按名称去重，同一策略类可以注册多个名称不同的实例（如每个租户一个策略）
  *
  * @author 李卓伦
  * @date 2025/07/25 10:15
@@ -17,9 +24,15 @@ import java.util.concurrent.CopyOnWriteArrayList;
 public class TableRouterStrategyFactory {
 
     /**
-     * 策略列表，使用线程安全的CopyOnWriteArrayList
+     * 按优先级排序的比较器
      **/
-    private static final List<TableRouterStrategy> STRATEGIES = new CopyOnWriteArrayList<>();
+    private static final Comparator<TableRouterStrategy> PRIORITY_ORDER =
+            Comparator.comparingInt(TableRouterStrategy::getPriority);
+
+    /**
+     * 策略注册表快照
+     **/
+    private static volatile Registry registry = Registry.EMPTY;
 
     /**
      * 注册分表策略
@@ -34,61 +47,106 @@ public class TableRouterStrategyFactory {
             return;
         }
 
+        registerAll(Collections.singletonList(strategy));
+    }
+
+    /**
+     * 批量注册分表策略
+     * 整批校验去重后与已注册策略归并为一个有序快照，只发布一次，避免逐个注册时反复复制与排序
+     *
+     * @param strategies 策略列表
+     * @author 李卓伦
+     * @date 2025/07/25 10:17
+     */
+    public static void registerAll(List<? extends TableRouterStrategy> strategies) {
+        if (strategies == null || strategies.isEmpty()) {
+            log.warn("批量注册分表策略失败，策略列表不能为空");
+            return;
+        }
+
+        synchronized (TableRouterStrategyFactory.class) {
+            Registry current = registry;
+            Set<String> names = new HashSet<>(current.names);
+            List<TableRouterStrategy> accepted = new ArrayList<>(strategies.size());
+
+            for (TableRouterStrategy strategy : strategies) {
+                if (accept(strategy, names)) {
+                    accepted.add(strategy);
+                }
+            }
+            if (accepted.isEmpty()) {
+                return;
+            }
+
+            // 新策略稳定排序后与已有的有序列表归并，优先级相同时先注册的在前
+            accepted.sort(PRIORITY_ORDER);
+            List<TableRouterStrategy> merged = merge(current.strategies, accepted);
+            registry = new Registry(merged, names);
+
+            log.info("注册分表策略成功: 本次{}个, 共{}个", accepted.size(), merged.size());
+        }
+    }
+
+    /**
+     * 校验单个策略并登记名称
+     *
+     * @param strategy 策略
+     * @param names    已占用的策略名称
+     * @return 是否接受该策略
+     * @author 李卓伦
+     * @date 2025/10/24 09:00
+     */
+    private static boolean accept(TableRouterStrategy strategy, Set<String> names) {
+        if (strategy == null) {
+            log.warn("注册分表策略失败，策略实例不能为空");
+            return false;
+        }
+
         try {
             // 验证策略名称
             String strategyName = strategy.getStrategyName();
             if (strategyName == null || strategyName.trim().isEmpty()) {
                 log.warn("注册分表策略失败，策略名称不能为空: {}", strategy.getClass().getSimpleName());
-                return;
+                return false;
             }
 
             // 检查是否已存在相同策略名称
-            boolean nameExists = STRATEGIES.stream()
-                    .anyMatch(s -> strategyName.equals(s.getStrategyName()));
-            
-            if (nameExists) {
+            if (names.contains(strategyName)) {
                 log.warn("策略名称已存在，跳过注册: {}", strategyName);
-                return;
+                return false;
             }
 
-            // 检查是否已存在相同类型的策略
-            boolean typeExists = STRATEGIES.stream()
-                    .anyMatch(s -> s.getClass().equals(strategy.getClass()));
-            
-            if (typeExists) {
-                log.warn("策略类型已存在，跳过注册: {}", strategy.getClass().getSimpleName());
-                return;
-            }
-
-            STRATEGIES.add(strategy);
-            
-            // 按优先级排序
-            STRATEGIES.sort(Comparator.comparingInt(TableRouterStrategy::getPriority));
-            
-            log.info("注册分表策略成功: {}, 类型: {}, 优先级: {}", 
+            names.add(strategyName);
+            log.debug("接受分表策略: {}, 类型: {}, 优先级: {}",
                     strategyName, strategy.getClass().getSimpleName(), strategy.getPriority());
+            return true;
         } catch (Exception e) {
-            log.error("注册分表策略异常: {}, error: {}", 
+            log.error("注册分表策略异常: {}, error: {}",
                     strategy.getClass().getSimpleName(), e.getMessage(), e);
+            return false;
         }
     }
 
     /**
-     * 批量注册分表策略
+     * 归并两个按优先级排序的列表
      *
-     * @param strategies 策略列表
      * @author 李卓伦
-     * @date 2025/07/25 10:17
+     * @date 2025/10/24 09:01
      */
-    public static void registerAll(List<TableRouterStrategy> strategies) {
-        if (strategies == null || strategies.isEmpty()) {
-            log.warn("批量注册分表策略失败，策略列表不能为空");
-            return;
-        }
-
-        for (TableRouterStrategy strategy : strategies) {
-            register(strategy);
+    private static List<TableRouterStrategy> merge(List<TableRouterStrategy> existing, List<TableRouterStrategy> added) {
+        List<TableRouterStrategy> merged = new ArrayList<>(existing.size() + added.size());
+        int i = 0;
+        int j = 0;
+        while (i < existing.size() && j < added.size()) {
+            if (PRIORITY_ORDER.compare(added.get(j), existing.get(i)) < 0) {
+                merged.add(added.get(j++));
+            } else {
+                merged.add(existing.get(i++));
+            }
         }
+        merged.addAll(existing.subList(i, existing.size()));
+        merged.addAll(added.subList(j, added.size()));
+        return merged;
     }
 
     /**
@@ -105,10 +163,7 @@ public class TableRouterStrategyFactory {
             return null;
         }
 
-        TableRouterStrategy matchedStrategy = STRATEGIES.stream()
-                .filter(s -> s.match(logicTableName))
-                .findFirst()
-                .orElse(null);
+        TableRouterStrategy matchedStrategy = registry.index.lookup(logicTableName);
 
         if (matchedStrategy != null) {
             log.debug("找到匹配的分表策略: {} -> {}", logicTableName, matchedStrategy.getStrategyName());
@@ -127,11 +182,11 @@ public class TableRouterStrategyFactory {
      * @date 2025/07/25 10:19
      */
     public static List<TableRouterStrategy> getAllStrategies() {
-        return new CopyOnWriteArrayList<>(STRATEGIES);
+        return new ArrayList<>(registry.strategies);
     }
 
     /**
-     * 移除指定策略
+     * 移除指定类型的所有策略
      *
      * @param strategyClass 策略类
      * @author 李卓伦
@@ -143,7 +198,15 @@ public class TableRouterStrategyFactory {
             return;
         }
 
-        boolean removed = STRATEGIES.removeIf(s -> s.getClass().equals(strategyClass));
+        boolean removed;
+        synchronized (TableRouterStrategyFactory.class) {
+            Registry current = registry;
+            List<TableRouterStrategy> remaining = new ArrayList<>(current.strategies);
+            removed = remaining.removeIf(s -> s.getClass().equals(strategyClass) || typeOf(s).equals(strategyClass));
+            if (removed) {
+                registry = Registry.of(remaining);
+            }
+        }
         if (removed) {
             log.info("移除分表策略成功: {}", strategyClass.getSimpleName());
         } else {
@@ -158,8 +221,11 @@ public class TableRouterStrategyFactory {
      * @date 2025/07/25 10:21
      */
     public static void clear() {
-        int size = STRATEGIES.size();
-        STRATEGIES.clear();
+        int size;
+        synchronized (TableRouterStrategyFactory.class) {
+            size = registry.strategies.size();
+            registry = Registry.EMPTY;
+        }
         log.info("清空所有分表策略，共移除{}个策略", size);
     }
 
@@ -171,7 +237,7 @@ public class TableRouterStrategyFactory {
      * @date 2025/07/25 10:22
      */
     public static int getStrategyCount() {
-        return STRATEGIES.size();
+        return registry.strategies.size();
     }
 
     /**
@@ -187,8 +253,19 @@ public class TableRouterStrategyFactory {
             return false;
         }
 
-        return STRATEGIES.stream()
-                .anyMatch(s -> s.match(logicTableName));
+        return registry.index.lookup(logicTableName) != null;
+    }
+
+    /**
+     * 检查策略名称是否已被占用
+     *
+     * @param strategyName 策略名称
+     * @return 是否已注册同名策略
+     * @author 李卓伦
+     * @date 2025/10/26 13:41
+     */
+    public static boolean containsStrategyName(String strategyName) {
+        return strategyName != null && registry.names.contains(strategyName);
     }
 
     /**
@@ -199,22 +276,267 @@ public class TableRouterStrategyFactory {
      * @date 2025/07/25 10:24
      */
     public static String getStrategyInfo() {
-        if (STRATEGIES.isEmpty()) {
+        List<TableRouterStrategy> strategies = registry.strategies;
+        if (strategies.isEmpty()) {
             return "未注册任何分表策略";
         }
 
         StringBuilder info = new StringBuilder();
-        info.append("已注册分表策略(").append(STRATEGIES.size()).append("个):\n");
+        info.append("已注册分表策略(").append(strategies.size()).append("个):\n");
         
-        for (int i = 0; i < STRATEGIES.size(); i++) {
-            TableRouterStrategy strategy = STRATEGIES.get(i);
+        for (int i = 0; i < strategies.size(); i++) {
+            TableRouterStrategy strategy = strategies.get(i);
             info.append(String.format("  %d. %s (类型: %s, 优先级: %d)\n", 
                     i + 1, 
                     strategy.getStrategyName(), 
-                    strategy.getClass().getSimpleName(), 
+                    typeOf(strategy).getSimpleName(), 
                     strategy.getPriority()));
+            if (strategy instanceof CachingTableRouterStrategy) {
+                info.append("     ").append(((CachingTableRouterStrategy) strategy).getStatsInfo()).append('\n');
+            }
         }
         
         return info.toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * 为已注册的策略启用路由结果缓存
+     * 用缓存装饰器替换原策略并发布新快照，优先级与支持的表名不变；
+     * 内置的在线扩容与路由目录策略在切换阶段、重新加载目录时会清空缓存，自定义策略的路由变化后需调用{@link #invalidateRouteCache}
+     *
+     * @param strategyName      策略名称
+     * @param maxSize           最大条目数
+     * @param ttlMillis         过期时间（毫秒），小于等于0表示不过期
+     * @param cacheNegative     是否缓存未路由结果
+     * @param negativeTtlMillis 未路由结果的过期时间（毫秒），小于等于0表示不过期
+     * @return 启用缓存后的策略，未找到策略时返回null
+     * @author 李卓伦
+     * @date 2025/10/25 19:12
+     */
+    public static CachingTableRouterStrategy enableCache(String strategyName, int maxSize, long ttlMillis,
+                                                         boolean cacheNegative, long negativeTtlMillis) {
+        synchronized (TableRouterStrategyFactory.class) {
+            List<TableRouterStrategy> strategies = new ArrayList<>(registry.strategies);
+            for (int i = 0; i < strategies.size(); i++) {
+                TableRouterStrategy strategy = strategies.get(i);
+                if (!strategy.getStrategyName().equals(strategyName)) {
+                    continue;
+                }
+                if (strategy instanceof CachingTableRouterStrategy) {
+                    log.warn("分表策略已启用路由缓存: {}", strategyName);
+                    return (CachingTableRouterStrategy) strategy;
+                }
+                CachingTableRouterStrategy cached = new CachingTableRouterStrategy(
+                        strategy, maxSize, ttlMillis, cacheNegative, negativeTtlMillis);
+                strategies.set(i, cached);
+                registry = Registry.of(strategies);
+                return cached;
+            }
+        }
+        log.warn("启用路由缓存失败，未找到策略: {}", strategyName);
+        return null;
+    }
+
+    /**
+     * 清空装饰了指定策略的路由结果缓存
+     * 策略的路由结果在运行时发生变化（如切换迁移阶段、重新加载目录）后调用，避免缓存继续返回旧的实际表名
+     *
+     * @param strategy 被装饰的策略
+     * @author 李卓伦
+     * @date 2025/10/26 13:50
+     */
+    public static void invalidateRouteCache(TableRouterStrategy strategy) {
+        for (TableRouterStrategy registered : registry.strategies) {
+            if (registered instanceof CachingTableRouterStrategy
+                    && ((CachingTableRouterStrategy) registered).getDelegate() == strategy) {
+                ((CachingTableRouterStrategy) registered).invalidateAll();
+                log.info("清空路由结果缓存: {}", registered.getStrategyName());
+            }
+        }
+    }
+
+    /**
+     * 获取策略的实际类型，启用路由缓存的策略返回被装饰策略的类型
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 19:13
+     */
+    private static Class<?> typeOf(TableRouterStrategy strategy) {
+        return CachingTableRouterStrategy.unwrap(strategy).getClass();
+    }
+
+    /**
+     * 重建逻辑表名索引
+     * 策略自身支持的表名发生变化时也需调用，以保证索引与策略一致
+     *
+     * @author 李卓伦
+     * @date 2025/10/23 09:10
+     */
+    public static void refreshIndex() {
+        synchronized (TableRouterStrategyFactory.class) {
+            registry = Registry.of(registry.strategies);
+        }
+        log.debug("重建分表策略索引: 索引表数量={}, 动态匹配策略数量={}",
+                registry.index.byTable.size(), registry.index.dynamicStrategies.length);
+    }
+
+    /**
+     * 策略注册表快照
+     *
+     * @author 李卓伦
+     * @date 2025/10/24 09:02
+     */
+    private static final class Registry {
+
+        /**
+         * 空注册表
+         **/
+        static final Registry EMPTY = new Registry(List.of(), Set.of());
+
+        /**
+         * 按优先级排序的策略列表（不可变）
+         **/
+        final List<TableRouterStrategy> strategies;
+
+        /**
+         * 已占用的策略名称
+         **/
+        final Set<String> names;
+
+        /**
+         * 逻辑表名索引
+         **/
+        final StrategyIndex index;
+
+        Registry(List<TableRouterStrategy> strategies, Set<String> names) {
+            this.strategies = List.copyOf(strategies);
+            this.names = Set.copyOf(names);
+            this.index = this.strategies.isEmpty() ? StrategyIndex.EMPTY : StrategyIndex.build(this.strategies);
+        }
+
+        /**
+         * 基于已排序的策略列表重建注册表
+         *
+         * @author 李卓伦
+         * @date 2025/10/24 09:03
+         */
+        static Registry of(List<TableRouterStrategy> sortedStrategies) {
+            Set<String> names = new HashSet<>();
+            for (TableRouterStrategy strategy : sortedStrategies) {
+                names.add(strategy.getStrategyName());
+            }
+            return new Registry(sortedStrategies, names);
+        }
+    }
+
+    /**
+     * 策略索引快照
+     * 能静态列出表名的策略按表名建立不可变索引；无法列出的策略按优先级顺序逐个匹配
+     *
+     * @author 李卓伦
+     * @date 2025/10/23 09:11
+     */
+    private static final class StrategyIndex {
+
+        /**
+         * 空索引
+         **/
+        static final StrategyIndex EMPTY = new StrategyIndex(Map.of(), new TableRouterStrategy[0], new int[0]);
+
+        /**
+         * 逻辑表名到策略的索引
+         **/
+        final Map<String, IndexedStrategy> byTable;
+
+        /**
+         * 需逐个匹配的策略，按优先级排序
+         **/
+        final TableRouterStrategy[] dynamicStrategies;
+
+        /**
+         * 需逐个匹配的策略在整体排序中的位置
+         **/
+        final int[] dynamicPositions;
+
+        StrategyIndex(Map<String, IndexedStrategy> byTable, TableRouterStrategy[] dynamicStrategies, int[] dynamicPositions) {
+            this.byTable = byTable;
+            this.dynamicStrategies = dynamicStrategies;
+            this.dynamicPositions = dynamicPositions;
+        }
+
+        /**
+         * 基于已排序的策略列表构建索引
+         *
+         * @param sortedStrategies 按优先级排序的策略列表
+         * @return 索引快照
+         * @author 李卓伦
+         * @date 2025/10/23 09:12
+         */
+        static StrategyIndex build(List<TableRouterStrategy> sortedStrategies) {
+            Map<String, IndexedStrategy> byTable = new HashMap<>();
+            List<TableRouterStrategy> dynamic = new ArrayList<>();
+            List<Integer> positions = new ArrayList<>();
+            for (int i = 0; i < sortedStrategies.size(); i++) {
+                TableRouterStrategy strategy = sortedStrategies.get(i);
+                Set<String> tables = strategy.getSupportedTables();
+                if (tables == null) {
+                    dynamic.add(strategy);
+                    positions.add(i);
+                    continue;
+                }
+                for (String table : tables) {
+                    // 同一表名由优先级更高（排序更靠前）的策略负责
+                    if (table != null) {
+                        byTable.putIfAbsent(table, new IndexedStrategy(strategy, i));
+                    }
+                }
+            }
+            int[] dynamicPositions = positions.stream().mapToInt(Integer::intValue).toArray();
+            return new StrategyIndex(Map.copyOf(byTable), dynamic.toArray(new TableRouterStrategy[0]), dynamicPositions);
+        }
+
+        /**
+         * 查找逻辑表名对应的策略
+         * 索引命中时，仅需检查排序位置更靠前的动态匹配策略
+         *
+         * @param logicTableName 逻辑表名
+         * @return 匹配的策略，未找到时返回null
+         * @author 李卓伦
+         * @date 2025/10/23 09:13
+         */
+        TableRouterStrategy lookup(String logicTableName) {
+            IndexedStrategy indexed = byTable.get(logicTableName);
+            int limit = indexed != null ? indexed.position : Integer.MAX_VALUE;
+            for (int i = 0; i < dynamicStrategies.length && dynamicPositions[i] < limit; i++) {
+                if (dynamicStrategies[i].match(logicTableName)) {
+                    return dynamicStrategies[i];
+                }
+            }
+            return indexed != null ? indexed.strategy : null;
+        }
+    }
+
+    /**
+     * 带排序位置的索引项
+     *
+     * @author 李卓伦
+     * @date 2025/10/23 09:14
+     */
+    private static final class IndexedStrategy {
+
+        /**
+         * 策略
+         **/
+        final TableRouterStrategy strategy;
+
+        /**
+         * 在整体排序中的位置
+         **/
+        final int position;
+
+        IndexedStrategy(TableRouterStrategy strategy, int position) {
+            this.strategy = strategy;
+            this.position = position;
+        }
+    }
+}
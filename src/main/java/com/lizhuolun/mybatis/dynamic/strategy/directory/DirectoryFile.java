@@ -0,0 +1,245 @@
+package com.lizhuolun.mybatis.dynamic.strategy.directory;
+
+import com.lizhuolun.mybatis.dynamic.strategy.hash.HashAlgorithm;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 内存映射的路由目录文件
+ * 文件按键升序存放(键, 后缀序号)，通过MappedByteBuffer二分查找，数据留在页缓存中而不占用堆内存，
+ * 整数键查找不分配任何对象。文件格式：
+ * <pre>
+ * int 魔数 | int 版本 | int 条目数 | int 后缀数
+ * 后缀字典：每项为 short 字节数 + UTF-8 字节
+ * 按8字节对齐的 long[条目数] 键（升序） | int[条目数] 后缀序号
+ * </pre>
+ * 整数键（或可解析为整数的字符串键）按原值存储；其他字符串键存储其63位MurmurHash3指纹
+ *
+ * @author 李卓伦
+ * @date 2025/10/25 18:00
+ */
+public final class DirectoryFile {
+
+    /**
+     * 文件魔数（"DTRD"）
+     **/
+    static final int MAGIC = 0x44545244;
+
+    /**
+     * 文件格式版本
+     **/
+    static final int VERSION = 1;
+
+    /**
+     * 文件头长度
+     **/
+    static final int HEADER_BYTES = 16;
+
+    /**
+     * 未命中时的返回值
+     **/
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * 映射的文件内容
+     **/
+    private final MappedByteBuffer buffer;
+
+    /**
+     * 条目数
+     **/
+    private final int size;
+
+    /**
+     * 后缀字典
+     **/
+    private final String[] suffixes;
+
+    /**
+     * 键数组的起始偏移
+     **/
+    private final int keysOffset;
+
+    /**
+     * 后缀序号数组的起始偏移
+     **/
+    private final int valuesOffset;
+
+    private DirectoryFile(MappedByteBuffer buffer, int size, String[] suffixes, int keysOffset) {
+        this.buffer = buffer;
+        this.size = size;
+        this.suffixes = suffixes;
+        this.keysOffset = keysOffset;
+        this.valuesOffset = keysOffset + size * 8;
+    }
+
+    /**
+     * 打开目录文件
+     *
+     * @param path 文件路径
+     * @return 目录文件
+     * @throws IOException 文件不存在或格式错误
+     * @author 李卓伦
+     * @date 2025/10/25 18:01
+     */
+    public static DirectoryFile open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES || length > Integer.MAX_VALUE) {
+                throw new IOException("目录文件长度无效: " + path + " (" + length + "字节)");
+            }
+            // 映射在通道关闭后仍然有效
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        }
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("不是有效的目录文件或版本不兼容: " + path);
+        }
+        int size = buffer.getInt(8);
+        int suffixCount = buffer.getInt(12);
+        if (size < 0 || suffixCount < 0) {
+            throw new IOException("目录文件头无效: " + path);
+        }
+
+        String[] suffixes = new String[suffixCount];
+        int offset = HEADER_BYTES;
+        for (int i = 0; i < suffixCount; i++) {
+            int length = buffer.getShort(offset) & 0xFFFF;
+            byte[] bytes = new byte[length];
+            buffer.get(offset + 2, bytes);
+            suffixes[i] = new String(bytes, StandardCharsets.UTF_8).intern();
+            offset += 2 + length;
+        }
+        int keysOffset = align8(offset);
+        if ((long) keysOffset + (long) size * 12 != buffer.capacity()) {
+            throw new IOException("目录文件长度与条目数不一致: " + path);
+        }
+        return new DirectoryFile(buffer, size, suffixes, keysOffset);
+    }
+
+    /**
+     * 查找整数键
+     *
+     * @param key 键
+     * @return 后缀序号，未命中时返回{@link #NOT_FOUND}
+     * @author 李卓伦
+     * @date 2025/10/25 18:02
+     */
+    public int lookup(long key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = buffer.getLong(keysOffset + (mid << 3));
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return buffer.getInt(valuesOffset + (mid << 2));
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * 查找任意键，整数与可解析为整数的字符串按原值查找，其他字符串按指纹查找
+     *
+     * @param key 键
+     * @return 后缀序号，未命中时返回{@link #NOT_FOUND}
+     * @author 李卓伦
+     * @date 2025/10/25 18:03
+     */
+    public int lookup(Object key) {
+        return key == null ? NOT_FOUND : lookup(keyOf(key));
+    }
+
+    /**
+     * 获取后缀
+     *
+     * @param index 后缀序号
+     * @return 后缀
+     * @author 李卓伦
+     * @date 2025/10/25 18:04
+     */
+    public String suffix(int index) {
+        return suffixes[index];
+    }
+
+    /**
+     * 获取后缀数量
+     *
+     * @return 后缀数量
+     * @author 李卓伦
+     * @date 2025/10/25 18:05
+     */
+    public int suffixCount() {
+        return suffixes.length;
+    }
+
+    /**
+     * 获取条目数
+     *
+     * @return 条目数
+     * @author 李卓伦
+     * @date 2025/10/25 18:06
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 将键换算为文件中存储的long值
+     *
+     * @param key 键
+     * @return long键
+     * @author 李卓伦
+     * @date 2025/10/25 18:07
+     */
+    static long keyOf(Object key) {
+        if (key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte) {
+            return ((Number) key).longValue();
+        }
+        String text = key.toString().trim();
+        long value = parseLong(text);
+        return value != Long.MIN_VALUE ? value : HashAlgorithm.MURMUR3.hash(text);
+    }
+
+    /**
+     * 将十进制整数字符串解析为long
+     *
+     * @return 解析结果，不是合法整数时返回Long.MIN_VALUE
+     * @author 李卓伦
+     * @date 2025/10/25 18:08
+     */
+    private static long parseLong(String text) {
+        int length = text.length();
+        int start = length > 0 && text.charAt(0) == '-' ? 1 : 0;
+        if (start == length || length - start > 19) {
+            return Long.MIN_VALUE;
+        }
+        long value = 0;
+        for (int i = start; i < length; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + digit;
+            if (value < 0) {
+                return Long.MIN_VALUE;
+            }
+        }
+        return start == 1 ? -value : value;
+    }
+
+    static int align8(int offset) {
+        return (offset + 7) & ~7;
+    }
+}
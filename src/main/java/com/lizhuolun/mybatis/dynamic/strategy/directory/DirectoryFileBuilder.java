@@ -0,0 +1,186 @@
+package com.lizhuolun.mybatis.dynamic.strategy.directory;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 路由目录文件构建器
+ * 从"键,后缀"格式的CSV（空行与#开头的行忽略）生成{@link DirectoryFile}，
+ * 先写入临时文件再原子替换，已映射旧文件的读取方不受影响
+ *
+ * @author 李卓伦
+ * @date 2025/10/25 18:10
+ */
+@Slf4j
+public final class DirectoryFileBuilder {
+
+    /**
+     * 私有构造函数，防止实例化
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 18:11
+     */
+    private DirectoryFileBuilder() {
+        throw new UnsupportedOperationException("工具类不允许实例化");
+    }
+
+    /**
+     * 从CSV构建目录文件
+     *
+     * @param csv CSV文件
+     * @param target 目标目录文件
+     * @return 写入的条目数
+     * @throws IOException 读写失败或CSV格式错误（含重复键）
+     * @author 李卓伦
+     * @date 2025/10/25 18:12
+     */
+    public static int buildFromCsv(Path csv, Path target) throws IOException {
+        long[] keys = new long[1024];
+        int[] values = new int[1024];
+        int size = 0;
+        Map<String, Integer> suffixIndex = new HashMap<>();
+        List<String> suffixes = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.charAt(0) == '#') {
+                    continue;
+                }
+                int comma = line.indexOf(',');
+                String suffix = comma > 0 ? line.substring(comma + 1).trim() : "";
+                if (suffix.isEmpty()) {
+                    throw new IOException("目录CSV第" + lineNumber + "行格式错误，应为\"键,后缀\": " + line);
+                }
+                if (size == keys.length) {
+                    keys = Arrays.copyOf(keys, size * 2);
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                keys[size] = DirectoryFile.keyOf(line.substring(0, comma));
+                values[size] = suffixIndex.computeIfAbsent(suffix, k -> {
+                    suffixes.add(k);
+                    return suffixes.size() - 1;
+                });
+                size++;
+            }
+        }
+
+        sort(keys, values, size);
+        for (int i = 1; i < size; i++) {
+            if (keys[i] == keys[i - 1]) {
+                throw new IOException("目录CSV包含重复键（或字符串键指纹冲突）: " + keys[i]);
+            }
+        }
+        write(target, keys, values, size, suffixes);
+        log.info("路由目录文件构建完成: {} -> {}, 条目数={}, 后缀数={}", csv, target, size, suffixes.size());
+        return size;
+    }
+
+    /**
+     * 写入目录文件（先写临时文件再原子替换）
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 18:13
+     */
+    private static void write(Path target, long[] keys, int[] values, int size, List<String> suffixes)
+            throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+                out.writeInt(DirectoryFile.MAGIC);
+                out.writeInt(DirectoryFile.VERSION);
+                out.writeInt(size);
+                out.writeInt(suffixes.size());
+                int offset = DirectoryFile.HEADER_BYTES;
+                for (String suffix : suffixes) {
+                    byte[] bytes = suffix.getBytes(StandardCharsets.UTF_8);
+                    if (bytes.length > 0xFFFF) {
+                        throw new IOException("后缀过长: " + suffix);
+                    }
+                    out.writeShort(bytes.length);
+                    out.write(bytes);
+                    offset += 2 + bytes.length;
+                }
+                for (int padding = DirectoryFile.align8(offset) - offset; padding > 0; padding--) {
+                    out.writeByte(0);
+                }
+                if ((long) DirectoryFile.align8(offset) + (long) size * 12 > Integer.MAX_VALUE) {
+                    throw new IOException("目录条目过多，文件超过2GB: " + size);
+                }
+                for (int i = 0; i < size; i++) {
+                    out.writeLong(keys[i]);
+                }
+                for (int i = 0; i < size; i++) {
+                    out.writeInt(values[i]);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 按键对两个平行数组原地堆排序，不装箱
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 18:14
+     */
+    private static void sort(long[] keys, int[] values, int size) {
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(keys, values, i, size);
+        }
+        for (int end = size - 1; end > 0; end--) {
+            swap(keys, values, 0, end);
+            siftDown(keys, values, 0, end);
+        }
+    }
+
+    private static void siftDown(long[] keys, int[] values, int root, int size) {
+        while (true) {
+            int child = root * 2 + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && keys[child + 1] > keys[child]) {
+                child++;
+            }
+            if (keys[root] >= keys[child]) {
+                return;
+            }
+            swap(keys, values, root, child);
+            root = child;
+        }
+    }
+
+    private static void swap(long[] keys, int[] values, int i, int j) {
+        long key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        int value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+}
@@ -0,0 +1,170 @@
+package com.lizhuolun.mybatis.dynamic.strategy.hash;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 分表哈希算法
+ * 所有算法返回非负哈希值；整数键通过{@link #hash(long)}计算，不装箱也不转换为字符串，
+ * 字符串键按UTF-8字节计算（STRING除外）
+ *
+ * @author 李卓伦
+ * @date 2025/10/24 15:20
+ */
+public enum HashAlgorithm {
+
+    /**
+     * toString().hashCode()取绝对值，与早期版本的路由结果一致（默认）
+     */
+    STRING {
+        @Override
+        public long hash(long key) {
+            return normalize(decimalHashCode(key));
+        }
+
+        @Override
+        public long hash(String key) {
+            return normalize(key.hashCode());
+        }
+
+        private long normalize(int hash) {
+            // 与早期实现一致：Integer.MIN_VALUE记为0，其余取绝对值
+            return hash == Integer.MIN_VALUE ? 0 : Math.abs(hash);
+        }
+    },
+
+    /**
+     * MurmurHash3 x64 128位的低64位，分布均匀，适合连续ID
+     */
+    MURMUR3 {
+        @Override
+        public long hash(long key) {
+            return Murmur3.hash(key) & Long.MAX_VALUE;
+        }
+
+        @Override
+        public long hash(String key) {
+            return Murmur3.hash(key.getBytes(StandardCharsets.UTF_8)) & Long.MAX_VALUE;
+        }
+    },
+
+    /**
+     * xxHash64，分布均匀且计算更快
+     */
+    XXHASH64 {
+        @Override
+        public long hash(long key) {
+            return XxHash64.hash(key) & Long.MAX_VALUE;
+        }
+
+        @Override
+        public long hash(String key) {
+            return XxHash64.hash(key.getBytes(StandardCharsets.UTF_8)) & Long.MAX_VALUE;
+        }
+    },
+
+    /**
+     * 整数键直接取值（负数取绝对值），适合已经均匀分布或需要按ID取模的场景；字符串键可解析为整数时按整数处理，否则同STRING
+     */
+    IDENTITY {
+        @Override
+        public long hash(long key) {
+            return key == Long.MIN_VALUE ? 0 : Math.abs(key);
+        }
+
+        @Override
+        public long hash(String key) {
+            long value = parseLong(key);
+            return value != Long.MIN_VALUE ? hash(value) : STRING.hash(key);
+        }
+    };
+
+    /**
+     * 计算整数键的哈希
+     *
+     * @param key 整数键
+     * @return 非负哈希值
+     * @author 李卓伦
+     * @date 2025/10/24 15:21
+     */
+    public abstract long hash(long key);
+
+    /**
+     * 计算字符串键的哈希
+     *
+     * @param key 字符串键
+     * @return 非负哈希值
+     * @author 李卓伦
+     * @date 2025/10/24 15:22
+     */
+    public abstract long hash(String key);
+
+    /**
+     * 将哈希值打散到整个非负long范围（MurmurHash3的fmix64）
+     * IDENTITY、STRING的结果集中在较小的数值区间，按位置查找（如一致性哈希环）前需先打散
+     *
+     * @param hash 哈希值
+     * @return 非负哈希值
+     * @author 李卓伦
+     * @date 2025/10/26 14:00
+     */
+    public static long spread(long hash) {
+        return Murmur3.fmix64(hash) & Long.MAX_VALUE;
+    }
+
+    /**
+     * 计算Long.toString(value).hashCode()，不创建字符串
+     *
+     * @author 李卓伦
+     * @date 2025/10/24 15:23
+     */
+    static int decimalHashCode(long value) {
+        if (value == Long.MIN_VALUE) {
+            return Long.toString(value).hashCode();
+        }
+        int hash = 0;
+        long remaining = value;
+        if (remaining < 0) {
+            hash = '-';
+            remaining = -remaining;
+        }
+        long divisor = 1;
+        while (remaining / divisor >= 10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            hash = 31 * hash + (char) ('0' + remaining / divisor % 10);
+            divisor /= 10;
+        }
+        return hash;
+    }
+
+    /**
+     * 将十进制整数字符串解析为long
+     *
+     * @return 解析结果，不是合法整数或为Long.MIN_VALUE时返回Long.MIN_VALUE
+     * @author 李卓伦
+     * @date 2025/10/24 15:24
+     */
+    static long parseLong(String key) {
+        int length = key.length();
+        if (length == 0) {
+            return Long.MIN_VALUE;
+        }
+        int start = key.charAt(0) == '-' ? 1 : 0;
+        if (start == length || length - start > 19) {
+            return Long.MIN_VALUE;
+        }
+        long value = 0;
+        for (int i = start; i < length; i++) {
+            int digit = key.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + digit;
+            if (value < 0) {
+                return Long.MIN_VALUE;
+            }
+        }
+        return start == 1 ? -value : value;
+    }
+}
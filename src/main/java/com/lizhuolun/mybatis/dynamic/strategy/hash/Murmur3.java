@@ -0,0 +1,142 @@
+package com.lizhuolun.mybatis.dynamic.strategy.hash;
+
+/**
+ * MurmurHash3 x64 128位算法（种子为0），取结果的低64位
+ * 与参考实现MurmurHash3_x64_128对相同字节序列的输出一致，long按小端8字节计算
+ *
+ * @author 李卓伦
+ * @date 2025/10/24 15:00
+ */
+final class Murmur3 {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    /**
+     * 私有构造函数，防止实例化
+     *
+     * @author 李卓伦
+     * @date 2025/10/24 15:01
+     */
+    private Murmur3() {
+        throw new UnsupportedOperationException("工具类不允许实例化");
+    }
+
+    /**
+     * 计算long值（小端8字节）的哈希
+     *
+     * @param key 键
+     * @return 64位哈希值
+     * @author 李卓伦
+     * @date 2025/10/24 15:02
+     */
+    static long hash(long key) {
+        long h1 = 0;
+        long h2 = 0;
+        h1 ^= mixK1(key);
+        return finish(h1, h2, 8);
+    }
+
+    /**
+     * 计算字节序列的哈希
+     * 尾部不足16字节的部分与参考实现一致，按switch逐级贯穿累加
+     *
+     * @param data 字节序列
+     * @return 64位哈希值
+     * @author 李卓伦
+     * @date 2025/10/24 15:03
+     */
+    @SuppressWarnings("fallthrough")
+    static long hash(byte[] data) {
+        int length = data.length;
+        long h1 = 0;
+        long h2 = 0;
+        int blocks = length >>> 4;
+        for (int i = 0; i < blocks; i++) {
+            long k1 = getLong(data, i << 4);
+            long k2 = getLong(data, (i << 4) + 8);
+
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        int tail = blocks << 4;
+        long k1 = 0;
+        long k2 = 0;
+        switch (length & 15) {
+            case 15: k2 ^= (long) (data[tail + 14] & 0xff) << 48;
+            case 14: k2 ^= (long) (data[tail + 13] & 0xff) << 40;
+            case 13: k2 ^= (long) (data[tail + 12] & 0xff) << 32;
+            case 12: k2 ^= (long) (data[tail + 11] & 0xff) << 24;
+            case 11: k2 ^= (long) (data[tail + 10] & 0xff) << 16;
+            case 10: k2 ^= (long) (data[tail + 9] & 0xff) << 8;
+            case 9:
+                k2 ^= data[tail + 8] & 0xff;
+                h2 ^= mixK2(k2);
+            case 8: k1 ^= (long) (data[tail + 7] & 0xff) << 56;
+            case 7: k1 ^= (long) (data[tail + 6] & 0xff) << 48;
+            case 6: k1 ^= (long) (data[tail + 5] & 0xff) << 40;
+            case 5: k1 ^= (long) (data[tail + 4] & 0xff) << 32;
+            case 4: k1 ^= (long) (data[tail + 3] & 0xff) << 24;
+            case 3: k1 ^= (long) (data[tail + 2] & 0xff) << 16;
+            case 2: k1 ^= (long) (data[tail + 1] & 0xff) << 8;
+            case 1:
+                k1 ^= data[tail] & 0xff;
+                h1 ^= mixK1(k1);
+            default:
+                break;
+        }
+        return finish(h1, h2, length);
+    }
+
+    private static long finish(long h1, long h2, int length) {
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        return h1;
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    private static long getLong(byte[] data, int offset) {
+        return (data[offset] & 0xffL)
+                | (data[offset + 1] & 0xffL) << 8
+                | (data[offset + 2] & 0xffL) << 16
+                | (data[offset + 3] & 0xffL) << 24
+                | (data[offset + 4] & 0xffL) << 32
+                | (data[offset + 5] & 0xffL) << 40
+                | (data[offset + 6] & 0xffL) << 48
+                | (data[offset + 7] & 0xffL) << 56;
+    }
+}
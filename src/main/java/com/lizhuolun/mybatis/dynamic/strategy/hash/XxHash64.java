@@ -0,0 +1,130 @@
+package com.lizhuolun.mybatis.dynamic.strategy.hash;
+
+/**
+ * xxHash64算法（种子为0）
+ * 与参考实现XXH64对相同字节序列的输出一致，long按小端8字节计算
+ *
+ * @author 李卓伦
+ * @date 2025/10/24 15:10
+ */
+final class XxHash64 {
+
+    private static final long P1 = 0x9E3779B185EBCA87L;
+
+    private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+
+    private static final long P3 = 0x165667B19E3779F9L;
+
+    private static final long P4 = 0x85EBCA77C2B2AE63L;
+
+    private static final long P5 = 0x27D4EB2F165667C5L;
+
+    /**
+     * 私有构造函数，防止实例化
+     *
+     * @author 李卓伦
+     * @date 2025/10/24 15:11
+     */
+    private XxHash64() {
+        throw new UnsupportedOperationException("工具类不允许实例化");
+    }
+
+    /**
+     * 计算long值（小端8字节）的哈希
+     *
+     * @param key 键
+     * @return 64位哈希值
+     * @author 李卓伦
+     * @date 2025/10/24 15:12
+     */
+    static long hash(long key) {
+        long h = P5 + 8;
+        h ^= round(0, key);
+        h = Long.rotateLeft(h, 27) * P1 + P4;
+        return avalanche(h);
+    }
+
+    /**
+     * 计算字节序列的哈希
+     *
+     * @param data 字节序列
+     * @return 64位哈希值
+     * @author 李卓伦
+     * @date 2025/10/24 15:13
+     */
+    static long hash(byte[] data) {
+        int length = data.length;
+        int offset = 0;
+        long h;
+        if (length >= 32) {
+            long v1 = P1 + P2;
+            long v2 = P2;
+            long v3 = 0;
+            long v4 = -P1;
+            int limit = length - 32;
+            do {
+                v1 = round(v1, getLong(data, offset));
+                v2 = round(v2, getLong(data, offset + 8));
+                v3 = round(v3, getLong(data, offset + 16));
+                v4 = round(v4, getLong(data, offset + 24));
+                offset += 32;
+            } while (offset <= limit);
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = mergeRound(h, v1);
+            h = mergeRound(h, v2);
+            h = mergeRound(h, v3);
+            h = mergeRound(h, v4);
+        } else {
+            h = P5;
+        }
+        h += length;
+
+        while (offset + 8 <= length) {
+            h ^= round(0, getLong(data, offset));
+            h = Long.rotateLeft(h, 27) * P1 + P4;
+            offset += 8;
+        }
+        if (offset + 4 <= length) {
+            h ^= (getInt(data, offset) & 0xffffffffL) * P1;
+            h = Long.rotateLeft(h, 23) * P2 + P3;
+            offset += 4;
+        }
+        while (offset < length) {
+            h ^= (data[offset] & 0xffL) * P5;
+            h = Long.rotateLeft(h, 11) * P1;
+            offset++;
+        }
+        return avalanche(h);
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * P2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * P1;
+    }
+
+    private static long mergeRound(long acc, long value) {
+        acc ^= round(0, value);
+        return acc * P1 + P4;
+    }
+
+    private static long avalanche(long h) {
+        h ^= h >>> 33;
+        h *= P2;
+        h ^= h >>> 29;
+        h *= P3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    private static long getLong(byte[] data, int offset) {
+        return (getInt(data, offset) & 0xffffffffL) | (long) getInt(data, offset + 4) << 32;
+    }
+
+    private static int getInt(byte[] data, int offset) {
+        return (data[offset] & 0xff)
+                | (data[offset + 1] & 0xff) << 8
+                | (data[offset + 2] & 0xff) << 16
+                | (data[offset + 3] & 0xff) << 24;
+    }
+}
@@ -0,0 +1,355 @@
+package com.lizhuolun.mybatis.dynamic.strategy.impl;
+
+import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategyFactory;
+import com.lizhuolun.mybatis.dynamic.strategy.hash.HashAlgorithm;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 基于一致性哈希的分表策略
+ * 分表数量由n增加到n+1时只有约1/(n+1)的键需要迁移，支持两种算法：
+ * JUMP为跳跃一致性哈希，不占用额外内存且分布最均匀，但只能在末尾增减分表；
+ * RING为虚拟节点哈希环，分布均匀程度取决于虚拟节点数量，分片键哈希在查找前打散，任意哈希算法都可使用
+ *
+ * @author 李卓伦
+ * @date 2025/10/24 16:00
+ */
+@Slf4j
+public class ConsistentHashTableRouterStrategy implements TableRouterStrategy {
+
+    /**
+     * 一致性哈希算法
+     *
+     * @author 李卓伦
+     * @date 2025/10/24 16:01
+     */
+    public enum Mode {
+
+        /**
+         * 跳跃一致性哈希（Lamping & Veach）
+         */
+        JUMP,
+
+        /**
+         * 虚拟节点哈希环
+         */
+        RING
+    }
+
+    /**
+     * 支持的逻辑表名集合
+     **/
+    private final Set<String> supportedTables;
+
+    /**
+     * 分表数量
+     **/
+    private final int tableCount;
+
+    /**
+     * 策略优先级
+     **/
+    private final int priority;
+
+    /**
+     * 一致性哈希算法
+     **/
+    private final Mode mode;
+
+    /**
+     * 分片键哈希算法
+     **/
+    private final HashAlgorithm hashAlgorithm;
+
+    /**
+     * 哈希环上的虚拟节点位置（升序），仅RING使用
+     **/
+    private final long[] ringPoints;
+
+    /**
+     * 与ringPoints对齐的分表下标，仅RING使用
+     **/
+    private final int[] ringOwners;
+
+    /**
+     * 逻辑表名 -> 按后缀下标缓存的实际表名
+     **/
+    private final Map<String, String[]> tableNames = new ConcurrentHashMap<>();
+
+    /**
+     * 策略名称，默认为类名
+     **/
+    private String strategyName = "ConsistentHashTableRouterStrategy";
+
+    /**
+     * 构造函数
+     *
+     * @param supportedTables 支持的表名集合
+     * @param tableCount 分表数量
+     * @param priority 优先级
+     * @param mode 一致性哈希算法，为空时使用JUMP
+     * @param virtualNodes 每张分表的虚拟节点数量，仅RING使用
+     * @param hashAlgorithm 分片键哈希算法，为空时使用MURMUR3
+     * @author 李卓伦
+     * @date 2025/10/24 16:02
+     */
+    public ConsistentHashTableRouterStrategy(Set<String> supportedTables, int tableCount, int priority,
+                                             Mode mode, int virtualNodes, HashAlgorithm hashAlgorithm) {
+        this.supportedTables = supportedTables != null ? new HashSet<>(supportedTables) : new HashSet<>();
+        this.tableCount = Math.max(1, tableCount);
+        this.priority = priority;
+        this.mode = mode != null ? mode : Mode.JUMP;
+        this.hashAlgorithm = hashAlgorithm != null ? hashAlgorithm : HashAlgorithm.MURMUR3;
+        if (this.mode == Mode.RING) {
+            int nodes = Math.max(1, virtualNodes);
+            this.ringPoints = new long[this.tableCount * nodes];
+            this.ringOwners = new int[ringPoints.length];
+            buildRing(nodes);
+        } else {
+            this.ringPoints = null;
+            this.ringOwners = null;
+        }
+        log.info("初始化基于一致性哈希的分表策略: 支持表={}, 分表数量={}, 优先级={}, 算法={}, 虚拟节点={}, 哈希算法={}",
+                this.supportedTables, this.tableCount, priority, this.mode,
+                this.mode == Mode.RING ? virtualNodes : "-", this.hashAlgorithm);
+    }
+
+    /**
+     * 构造函数（跳跃一致性哈希）
+     *
+     * @param supportedTables 支持的表名集合
+     * @param tableCount 分表数量
+     * @param priority 优先级
+     * @author 李卓伦
+     * @date 2025/10/24 16:03
+     */
+    public ConsistentHashTableRouterStrategy(Set<String> supportedTables, int tableCount, int priority) {
+        this(supportedTables, tableCount, priority, Mode.JUMP, 0, HashAlgorithm.MURMUR3);
+    }
+
+    @Override
+    public String getActualTableName(String logicTableName, Object context) {
+        if (!match(logicTableName)) {
+            log.warn("表名不匹配当前策略: {}", logicTableName);
+            return logicTableName;
+        }
+
+        int suffix;
+        if (context == null) {
+            log.warn("上下文对象为空，使用默认分表0");
+            suffix = 0;
+        } else if (context instanceof Long || context instanceof Integer
+                || context instanceof Short || context instanceof Byte) {
+            suffix = bucket(hashAlgorithm.hash(((Number) context).longValue()));
+        } else {
+            suffix = bucket(hashAlgorithm.hash(context.toString()));
+        }
+
+        String actualTableName = tableName(logicTableName, suffix);
+        log.debug("生成实际表名: {} -> {} (context={})", logicTableName, actualTableName, context);
+        return actualTableName;
+    }
+
+    /**
+     * 根据整数分片键获取实际表名，不装箱也不转换为字符串
+     *
+     * @param logicTableName 逻辑表名
+     * @param key 整数分片键
+     * @return 实际表名
+     * @author 李卓伦
+     * @date 2025/10/24 16:04
+     */
+    public String getActualTableName(String logicTableName, long key) {
+        if (!match(logicTableName)) {
+            log.warn("表名不匹配当前策略: {}", logicTableName);
+            return logicTableName;
+        }
+        return tableName(logicTableName, bucket(hashAlgorithm.hash(key)));
+    }
+
+    @Override
+    public boolean match(String logicTableName) {
+        boolean matches = logicTableName != null && supportedTables.contains(logicTableName);
+        log.debug("表名匹配检查: {} -> {}", logicTableName, matches);
+        return matches;
+    }
+
+    @Override
+    public String getStrategyName() {
+        return strategyName;
+    }
+
+    /**
+     * 设置策略名称
+     * 同一策略类注册多个实例时用于区分，需在注册到{@link TableRouterStrategyFactory}之前设置
+     *
+     * @param strategyName 策略名称
+     * @author 李卓伦
+     * @date 2025/10/26 13:40
+     */
+    public void setStrategyName(String strategyName) {
+        if (strategyName == null || strategyName.trim().isEmpty()) {
+            throw new IllegalArgumentException("策略名称不能为空");
+        }
+        this.strategyName = strategyName;
+    }
+
+    @Override
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * 将哈希值映射到分表下标
+     *
+     * @param hash 非负哈希值
+     * @return 分表下标
+     * @author 李卓伦
+     * @date 2025/10/24 16:05
+     */
+    int bucket(long hash) {
+        return mode == Mode.RING ? ringBucket(hash) : jumpBucket(hash, tableCount);
+    }
+
+    /**
+     * 跳跃一致性哈希
+     *
+     * @param key 哈希值
+     * @param buckets 分表数量
+     * @return 分表下标
+     * @author 李卓伦
+     * @date 2025/10/24 16:06
+     */
+    static int jumpBucket(long key, int buckets) {
+        long b = -1;
+        long j = 0;
+        while (j < buckets) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+
+    /**
+     * 在哈希环上顺时针查找第一个虚拟节点
+     * 环上的节点分布在整个非负long范围内，分片键哈希先经fmix64打散，
+     * 否则IDENTITY、STRING等只占用低位的哈希几乎全部落在第一个节点上
+     *
+     * @author 李卓伦
+     * @date 2025/10/24 16:07
+     */
+    private int ringBucket(long hash) {
+        int index = Arrays.binarySearch(ringPoints, HashAlgorithm.spread(hash));
+        if (index < 0) {
+            index = -index - 1;
+            if (index == ringPoints.length) {
+                index = 0;
+            }
+        }
+        return ringOwners[index];
+    }
+
+    /**
+     * 构建哈希环
+     * 虚拟节点位置只由(分表下标, 节点序号)决定，增加分表时已有节点位置不变
+     *
+     * @author 李卓伦
+     * @date 2025/10/24 16:08
+     */
+    private void buildRing(int virtualNodes) {
+        long[] points = new long[ringPoints.length];
+        Integer[] order = new Integer[points.length];
+        for (int i = 0; i < points.length; i++) {
+            int shard = i / virtualNodes;
+            int node = i % virtualNodes;
+            points[i] = HashAlgorithm.MURMUR3.hash(((long) shard << 32) | node);
+            order[i] = i;
+        }
+        // 位置相同时下标小的在前，保证结果确定
+        Arrays.sort(order, Comparator.comparingLong((Integer i) -> points[i]).thenComparingInt(i -> i));
+        for (int i = 0; i < order.length; i++) {
+            ringPoints[i] = points[order[i]];
+            ringOwners[i] = order[i] / virtualNodes;
+        }
+    }
+
+    /**
+     * 获取缓存的实际表名
+     *
+     * @author 李卓伦
+     * @date 2025/10/24 16:09
+     */
+    private String tableName(String logicTableName, int suffix) {
+        String[] names = tableNames.computeIfAbsent(logicTableName, k -> new String[tableCount]);
+        String name = names[suffix];
+        if (name == null) {
+            name = (logicTableName + "_" + suffix).intern();
+            names[suffix] = name;
+        }
+        return name;
+    }
+
+    /**
+     * 添加支持的表名
+     *
+     * @param tableName 表名
+     * @author 李卓伦
+     * @date 2025/10/24 16:10
+     */
+    public void addSupportedTable(String tableName) {
+        if (tableName != null && !tableName.trim().isEmpty()) {
+            supportedTables.add(tableName);
+            TableRouterStrategyFactory.refreshIndex();
+            log.debug("添加支持的表名: {}", tableName);
+        }
+    }
+
+    /**
+     * 移除支持的表名
+     *
+     * @param tableName 表名
+     * @author 李卓伦
+     * @date 2025/10/24 16:11
+     */
+    public void removeSupportedTable(String tableName) {
+        if (supportedTables.remove(tableName)) {
+            TableRouterStrategyFactory.refreshIndex();
+            log.debug("移除支持的表名: {}", tableName);
+        }
+    }
+
+    @Override
+    public Set<String> getSupportedTables() {
+        return new HashSet<>(supportedTables);
+    }
+
+    /**
+     * 获取分表数量
+     *
+     * @return 分表数量
+     * @author 李卓伦
+     * @date 2025/10/24 16:12
+     */
+    public int getTableCount() {
+        return tableCount;
+    }
+
+    /**
+     * 获取一致性哈希算法
+     *
+     * @return 一致性哈希算法
+     * @author 李卓伦
+     * @date 2025/10/24 16:13
+     */
+    public Mode getMode() {
+        return mode;
+    }
+}
@@ -1,13 +1,19 @@
 package com.lizhuolun.mybatis.dynamic.strategy.impl;
 
 import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategyFactory;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -35,6 +41,41 @@ public class DateBasedTableRouterStrategy implements TableRouterStrategy {
      **/
     private final int priority;
 
+    /**
+     * 日期格式是否只依赖日期字段
+     **/
+    private final boolean dateOnlyPattern;
+
+    /**
+     * 日期后缀缓存
+     **/
+    private final DateSuffixCache suffixCache;
+
+    /**
+     * 系统默认时区的偏移缓存
+     **/
+    private final ZoneOffsetCache zoneOffsets = new ZoneOffsetCache(ZoneId.systemDefault());
+
+    /**
+     * 雪花ID解码器，为空时整数分片键按毫秒时间戳处理
+     **/
+    private final SnowflakeIdDecoder snowflakeIdDecoder;
+
+    /**
+     * 无法提取日期时的标记值
+     **/
+    private static final long NO_DATE = EpochDays.INVALID;
+
+    /**
+     * 只与日期相关的模式字母，格式中仅包含这些字母时才能按天缓存后缀
+     **/
+    private static final String DATE_PATTERN_LETTERS = "GuyDMLdQqYwWEecF";
+
+    /**
+     * 策略名称，默认为类名
+     **/
+    private String strategyName = "DateBasedTableRouterStrategy";
+
     /**
      * 构造函数
      *
@@ -45,11 +86,47 @@ public class DateBasedTableRouterStrategy implements TableRouterStrategy {
      * @date 2025/07/25 10:26
      */
     public DateBasedTableRouterStrategy(Set<String> supportedTables, String datePattern, int priority) {
+        this(supportedTables, datePattern, priority, DateSuffixCache.DEFAULT_WINDOW_DAYS);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param supportedTables 支持的表名集合
+     * @param datePattern 日期格式模式（如：yyyyMM、yyyyMMdd）
+     * @param priority 优先级
+     * @param suffixCacheDays 后缀缓存窗口半径（天），小于等于0时不缓存
+     * @author 李卓伦
+     * @date 2025/10/24 10:10
+     */
+    public DateBasedTableRouterStrategy(Set<String> supportedTables, String datePattern, int priority,
+                                        int suffixCacheDays) {
+        this(supportedTables, datePattern, priority, suffixCacheDays, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param supportedTables 支持的表名集合
+     * @param datePattern 日期格式模式（如：yyyyMM、yyyyMMdd）
+     * @param priority 优先级
+     * @param suffixCacheDays 后缀缓存窗口半径（天），小于等于0时不缓存
+     * @param snowflakeIdDecoder 雪花ID解码器，不为空时Long分片键按雪花ID解出生成时间后路由
+     * @author 李卓伦
+     * @date 2025/10/25 17:10
+     */
+    public DateBasedTableRouterStrategy(Set<String> supportedTables, String datePattern, int priority,
+                                        int suffixCacheDays, SnowflakeIdDecoder snowflakeIdDecoder) {
+        String pattern = datePattern != null ? datePattern : "yyyyMM";
         this.supportedTables = supportedTables != null ? new HashSet<>(supportedTables) : new HashSet<>();
-        this.formatter = DateTimeFormatter.ofPattern(datePattern != null ? datePattern : "yyyyMM");
+        this.formatter = DateTimeFormatter.ofPattern(pattern);
         this.priority = priority;
-        log.info("初始化基于日期的分表策略: 支持表={}, 日期格式={}, 优先级={}", 
-                this.supportedTables, datePattern, priority);
+        this.dateOnlyPattern = isDateOnlyPattern(pattern);
+        this.suffixCache = new DateSuffixCache(formatter, suffixCacheDays, dateOnlyPattern);
+        this.snowflakeIdDecoder = snowflakeIdDecoder;
+        log.info("初始化基于日期的分表策略: 支持表={}, 日期格式={}, 优先级={}, 后缀缓存={}, 雪花ID={}",
+                this.supportedTables, datePattern, priority, suffixCache.isEnabled() ? suffixCacheDays : "禁用",
+                snowflakeIdDecoder != null ? snowflakeIdDecoder : "禁用");
     }
 
     /**
@@ -63,6 +140,17 @@ public class DateBasedTableRouterStrategy implements TableRouterStrategy {
         this(supportedTables, "yyyyMM", 50);
     }
 
+    /**
+     * 根据分片键获取实际表名
+     * 配置了雪花ID解码器时，Long分片键按雪花ID解出生成时间后路由，不再当作毫秒时间戳；
+     * 毫秒时间戳请使用{@link #getActualTableNameByEpochMillis(String, long)}或以Date传入
+     *
+     * @param logicTableName 逻辑表名
+     * @param context 分片键（日期、时间、时间戳、日期字符串，或配置解码器时的雪花ID）
+     * @return 实际表名
+     * @author 李卓伦
+     * @date 2025/10/26 14:10
+     */
     @Override
     public String getActualTableName(String logicTableName, Object context) {
         if (!match(logicTableName)) {
@@ -70,17 +158,105 @@ public class DateBasedTableRouterStrategy implements TableRouterStrategy {
             return logicTableName;
         }
 
-        String dateSuffix = extractDateSuffix(context);
-        if (dateSuffix == null) {
-            log.warn("无法提取日期后缀，使用当前日期: context={}", context);
-            dateSuffix = LocalDate.now().format(formatter);
+        if (snowflakeIdDecoder != null && isSnowflakeId(context)) {
+            return getActualTableNameById(logicTableName, ((Number) context).longValue());
         }
 
-        String actualTableName = logicTableName + "_" + dateSuffix;
+        String actualTableName;
+        long epochDay = suffixCache.isEnabled() ? extractEpochDay(context) : NO_DATE;
+        if (epochDay != NO_DATE) {
+            actualTableName = suffixCache.tableName(logicTableName, epochDay);
+        } else {
+            String dateSuffix = extractDateSuffix(context);
+            if (dateSuffix == null) {
+                log.warn("无法提取日期后缀，使用当前日期: context={}", context);
+                actualTableName = suffixCache.tableName(logicTableName, LocalDate.now().toEpochDay());
+            } else {
+                actualTableName = logicTableName + "_" + dateSuffix;
+            }
+        }
         log.debug("生成实际表名: {} -> {}", logicTableName, actualTableName);
         return actualTableName;
     }
 
+    /**
+     * 根据毫秒时间戳获取实际表名
+     * 时间戳按系统默认时区换算为日期，命中后缀缓存时不产生任何对象分配。
+     * 参数始终按毫秒时间戳处理，即使配置了雪花ID解码器；与{@link #getActualTableName(String, Object)}分开命名，
+     * 避免long实参因是否装箱而分别按时间戳或雪花ID路由
+     *
+     * @param logicTableName 逻辑表名
+     * @param epochMillis 毫秒时间戳
+     * @return 实际表名
+     * @author 李卓伦
+     * @date 2025/10/24 12:10
+     */
+    public String getActualTableNameByEpochMillis(String logicTableName, long epochMillis) {
+        if (!suffixCache.isEnabled()) {
+            // 以Date传入，避免配置雪花ID解码时被当作ID
+            return getActualTableName(logicTableName, new Date(epochMillis));
+        }
+        if (!match(logicTableName)) {
+            log.warn("表名不匹配当前策略: {}", logicTableName);
+            return logicTableName;
+        }
+        return suffixCache.tableName(logicTableName, zoneOffsets.epochDay(epochMillis));
+    }
+
+    /**
+     * 根据雪花ID获取实际表名
+     * 从ID中解出生成时间后按时间戳路由，无需先查询记录的创建时间
+     *
+     * @param logicTableName 逻辑表名
+     * @param id 雪花ID
+     * @return 实际表名
+     * @throws IllegalStateException 未配置雪花ID解码器
+     * @author 李卓伦
+     * @date 2025/10/25 17:11
+     */
+    public String getActualTableNameById(String logicTableName, long id) {
+        if (snowflakeIdDecoder == null) {
+            throw new IllegalStateException("日期分表策略未配置雪花ID解码: " + supportedTables);
+        }
+        return getActualTableNameByEpochMillis(logicTableName, snowflakeIdDecoder.epochMillis(id));
+    }
+
+    /**
+     * 获取覆盖日期范围[from, to]的所有实际表名
+     *
+     * @param logicTableName 逻辑表名
+     * @param from 起始日期（包含）
+     * @param to 结束日期（包含）
+     * @return 按时间先后排列且不重复的实际表名列表
+     * @author 李卓伦
+     * @date 2025/10/24 14:00
+     */
+    public List<String> getActualTableNames(String logicTableName, LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("日期范围无效: from=" + from + ", to=" + to);
+        }
+        if (!dateOnlyPattern) {
+            throw new UnsupportedOperationException("日期格式包含时间字段，不支持按日期范围路由");
+        }
+        if (!match(logicTableName)) {
+            log.warn("表名不匹配当前策略: {}", logicTableName);
+            return Collections.singletonList(logicTableName);
+        }
+
+        Set<String> tableNames = new LinkedHashSet<>();
+        String previous = null;
+        for (long day = from.toEpochDay(), last = to.toEpochDay(); day <= last; day++) {
+            String tableName = suffixCache.tableName(logicTableName, day);
+            // 相邻日期大多落在同一张表上，先与上一个比较以减少集合操作
+            if (!tableName.equals(previous)) {
+                tableNames.add(tableName);
+                previous = tableName;
+            }
+        }
+        log.debug("生成日期范围实际表名: {} [{}, {}] -> {}", logicTableName, from, to, tableNames);
+        return new ArrayList<>(tableNames);
+    }
+
     @Override
     public boolean match(String logicTableName) {
         boolean matches = logicTableName != null && supportedTables.contains(logicTableName);
@@ -90,7 +266,22 @@ public class DateBasedTableRouterStrategy implements TableRouterStrategy {
 
     @Override
     public String getStrategyName() {
-        return "DateBasedTableRouterStrategy";
+        return strategyName;
+    }
+
+    /**
+     * 设置策略名称
+     * 同一策略类注册多个实例时用于区分，需在注册到{@link TableRouterStrategyFactory}之前设置
+     *
+     * @param strategyName 策略名称
+     * @author 李卓伦
+     * @date 2025/10/26 13:40
+     */
+    public void setStrategyName(String strategyName) {
+        if (strategyName == null || strategyName.trim().isEmpty()) {
+            throw new IllegalArgumentException("策略名称不能为空");
+        }
+        this.strategyName = strategyName;
     }
 
     @Override
@@ -98,6 +289,51 @@ public class DateBasedTableRouterStrategy implements TableRouterStrategy {
         return priority;
     }
 
+    /**
+     * 从上下文对象中提取epoch-day，用于命中后缀缓存
+     *
+     * @param context 上下文对象
+     * @return epoch-day，无法直接换算时返回{@link #NO_DATE}
+     * @author 李卓伦
+     * @date 2025/10/24 10:11
+     */
+    private long extractEpochDay(Object context) {
+        return EpochDays.of(context, zoneOffsets);
+    }
+
+    /**
+     * 判断分片键是否按雪花ID处理，只有Long视为ID
+     * 雪花ID为64位，Integer无法容纳任何有效的雪花ID，按普通数值（毫秒时间戳）处理
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 17:12
+     */
+    private static boolean isSnowflakeId(Object context) {
+        return context instanceof Long;
+    }
+
+    /**
+     * 判断日期格式是否只依赖日期字段
+     *
+     * @param pattern 日期格式模式
+     * @return 是否只依赖日期字段
+     * @author 李卓伦
+     * @date 2025/10/24 10:12
+     */
+    static boolean isDateOnlyPattern(String pattern) {
+        boolean quoted = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'))
+                    && DATE_PATTERN_LETTERS.indexOf(c) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * 从上下文对象中提取日期后缀
      *
@@ -157,46 +393,46 @@ public class DateBasedTableRouterStrategy implements TableRouterStrategy {
         }
 
         dateStr = dateStr.trim();
-        
-        try {
-            // 匹配 yyyy-MM-dd 格式
-            if (dateStr.matches("\\d{4}-\\d{2}-\\d{2}.*")) {
-                LocalDate date = LocalDate.parse(dateStr.substring(0, 10));
-                return date.format(formatter);
-            }
-            // 匹配 yyyy/MM/dd 格式
-            else if (dateStr.matches("\\d{4}/\\d{2}/\\d{2}.*")) {
-                String normalizedDate = dateStr.substring(0, 10).replace("/", "-");
-                LocalDate date = LocalDate.parse(normalizedDate);
-                return date.format(formatter);
-            }
-            // 匹配纯数字格式 yyyyMMdd 或 yyyyMM
-            else if (dateStr.matches("\\d{6,8}")) {
-                if (dateStr.length() == 8) {
-                    // yyyyMMdd 格式
-                    LocalDate date = LocalDate.parse(dateStr, DateTimeFormatter.ofPattern("yyyyMMdd"));
-                    return date.format(formatter);
-                } else if (dateStr.length() == 6) {
-                    // yyyyMM 格式，默认为当月第一天
-                    LocalDate date = LocalDate.parse(dateStr + "01", DateTimeFormatter.ofPattern("yyyyMMdd"));
-                    return date.format(formatter);
-                } else {
-                    // 直接返回数字格式的日期
-                    return dateStr;
-                }
-            }
-            // 尝试ISO格式解析
-            else if (dateStr.contains("T")) {
-                LocalDateTime dateTime = LocalDateTime.parse(dateStr);
-                return dateTime.format(formatter);
+
+        // 手写扫描 yyyy-MM-dd、yyyy/MM/dd、yyyyMMdd、yyyyMM 及以日期开头的ISO日期时间
+        long epochDay = EpochDays.scan(dateStr);
+        if (epochDay != NO_DATE) {
+            return suffixCache.suffix(epochDay);
+        }
+
+        // 7位纯数字直接返回
+        if (dateStr.length() == 7 && isDigits(dateStr)) {
+            return dateStr;
+        }
+
+        // 尝试ISO格式解析
+        if (dateStr.indexOf('T') >= 0) {
+            try {
+                return LocalDateTime.parse(dateStr).format(formatter);
+            } catch (Exception e) {
+                log.warn("解析字符串日期失败: dateStr={}, error={}", dateStr, e.getMessage());
             }
-        } catch (Exception e) {
-            log.warn("解析字符串日期失败: dateStr={}, error={}", dateStr, e.getMessage());
         }
 
         return null;
     }
 
+    /**
+     * 判断字符串是否全部为数字
+     *
+     * @author 李卓伦
+     * @date 2025/10/24 11:10
+     */
+    private static boolean isDigits(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * 添加支持的表名
      *
@@ -207,6 +443,7 @@ public class DateBasedTableRouterStrategy implements TableRouterStrategy {
     public void addSupportedTable(String tableName) {
         if (tableName != null && !tableName.trim().isEmpty()) {
             supportedTables.add(tableName);
+            TableRouterStrategyFactory.refreshIndex();
             log.debug("添加支持的表名: {}", tableName);
         }
     }
@@ -220,6 +457,7 @@ public class DateBasedTableRouterStrategy implements TableRouterStrategy {
      */
     public void removeSupportedTable(String tableName) {
         if (supportedTables.remove(tableName)) {
+            TableRouterStrategyFactory.refreshIndex();
             log.debug("移除支持的表名: {}", tableName);
         }
     }
@@ -231,7 +469,19 @@ public class DateBasedTableRouterStrategy implements TableRouterStrategy {
      * @author 李卓伦
      * @date 2025/07/25 10:31
      */
+    @Override
     public Set<String> getSupportedTables() {
         return new HashSet<>(supportedTables);
     }
+
+    /**
+     * 获取雪花ID解码器
+     *
+     * @return 雪花ID解码器，未配置时返回null
+     * @author 李卓伦
+     * @date 2025/10/25 17:13
+     */
+    public SnowflakeIdDecoder getSnowflakeIdDecoder() {
+        return snowflakeIdDecoder;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.lizhuolun.mybatis.dynamic.strategy.impl;
+
+/**
+ * 日期+哈希两级分表的分片键
+ *
+ * @author 李卓伦
+ * @date 2025/10/25 14:30
+ */
+public final class DateHashShardingKey {
+
+    /**
+     * 日期分片键（LocalDate、LocalDateTime、Date、毫秒时间戳或日期字符串）
+     **/
+    private final Object date;
+
+    /**
+     * 哈希分片键
+     **/
+    private final Object hashKey;
+
+    private DateHashShardingKey(Object date, Object hashKey) {
+        this.date = date;
+        this.hashKey = hashKey;
+    }
+
+    /**
+     * 创建分片键
+     *
+     * @param date    日期分片键
+     * @param hashKey 哈希分片键
+     * @return 分片键
+     * @author 李卓伦
+     * @date 2025/10/25 14:31
+     */
+    public static DateHashShardingKey of(Object date, Object hashKey) {
+        return new DateHashShardingKey(date, hashKey);
+    }
+
+    public Object getDate() {
+        return date;
+    }
+
+    public Object getHashKey() {
+        return hashKey;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + date + ", " + hashKey + ")";
+    }
+}
@@ -0,0 +1,446 @@
+package com.lizhuolun.mybatis.dynamic.strategy.impl;
+
+import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategyFactory;
+import com.lizhuolun.mybatis.dynamic.strategy.hash.HashAlgorithm;
+import com.lizhuolun.mybatis.dynamic.util.PropertyAccessor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 日期+哈希两级分表策略
+ * 实际表名为"逻辑表名_日期后缀_哈希后缀"（如order_detail_202510_07），
+ * 日期后缀与哈希后缀都来自预先计算的表，窗口内的表名按(日期后缀, 哈希下标)缓存，一次查找即得。
+ * 分片键可以是{@link DateHashShardingKey}、长度为2的数组[日期, 哈希键]、Map或实体对象（按配置的属性名读取）。
+ * 日期或哈希键缺失、日期无法识别时抛出IllegalArgumentException，不回退到当前日期或0号分表，避免数据写错分表
+ *
+ * @author 李卓伦
+ * @date 2025/10/25 14:40
+ */
+@Slf4j
+public class DateHashTableRouterStrategy implements TableRouterStrategy {
+
+    /**
+     * 支持的逻辑表名集合
+     **/
+    private final Set<String> supportedTables;
+
+    /**
+     * 策略优先级
+     **/
+    private final int priority;
+
+    /**
+     * 日期格式模式
+     **/
+    private final String datePattern;
+
+    /**
+     * 哈希分表数量
+     **/
+    private final int tableCount;
+
+    /**
+     * 分表数量为2的幂时的掩码，否则为-1
+     **/
+    private final long mask;
+
+    /**
+     * 分片键哈希算法
+     **/
+    private final HashAlgorithm hashAlgorithm;
+
+    /**
+     * 按哈希下标预先生成的哈希后缀
+     **/
+    private final String[] bucketSuffixes;
+
+    /**
+     * 日期后缀缓存
+     **/
+    private final DateSuffixCache suffixCache;
+
+    /**
+     * 系统默认时区的偏移缓存
+     **/
+    private final ZoneOffsetCache zoneOffsets = new ZoneOffsetCache(ZoneId.systemDefault());
+
+    /**
+     * 实体中的日期属性路径
+     **/
+    private final String dateProperty;
+
+    /**
+     * 实体中的哈希键属性路径
+     **/
+    private final String hashProperty;
+
+    /**
+     * 实体类型 -> 日期属性访问器
+     **/
+    private final ClassValue<PropertyAccessor> dateAccessors;
+
+    /**
+     * 实体类型 -> 哈希键属性访问器
+     **/
+    private final ClassValue<PropertyAccessor> hashAccessors;
+
+    /**
+     * 策略名称，默认为类名
+     **/
+    private String strategyName = "DateHashTableRouterStrategy";
+
+    /**
+     * 构造函数
+     *
+     * @param supportedTables  支持的表名集合
+     * @param datePattern      日期格式模式，只能包含日期字段（如：yyyyMM、yyyyMMdd）
+     * @param tableCount       哈希分表数量
+     * @param priority         优先级
+     * @param hashAlgorithm    分片键哈希算法，为空时使用MURMUR3
+     * @param hashSuffixDigits 哈希后缀最少位数，不足时左侧补0
+     * @param suffixCacheDays  日期后缀缓存窗口半径（天），小于等于0时不缓存
+     * @param dateProperty     实体中的日期属性路径，可为空
+     * @param hashProperty     实体中的哈希键属性路径，可为空
+     * @author 李卓伦
+     * @date 2025/10/25 14:41
+     */
+    public DateHashTableRouterStrategy(Set<String> supportedTables, String datePattern, int tableCount, int priority,
+                                       HashAlgorithm hashAlgorithm, int hashSuffixDigits, int suffixCacheDays,
+                                       String dateProperty, String hashProperty) {
+        String pattern = datePattern != null ? datePattern : "yyyyMM";
+        if (!DateBasedTableRouterStrategy.isDateOnlyPattern(pattern)) {
+            throw new IllegalArgumentException("日期+哈希分表的日期格式只能包含日期字段: " + pattern);
+        }
+        this.supportedTables = supportedTables != null ? new HashSet<>(supportedTables) : new HashSet<>();
+        this.datePattern = pattern;
+        this.tableCount = Math.max(1, tableCount);
+        this.mask = Integer.bitCount(this.tableCount) == 1 ? this.tableCount - 1 : -1;
+        this.priority = priority;
+        this.hashAlgorithm = hashAlgorithm != null ? hashAlgorithm : HashAlgorithm.MURMUR3;
+        this.bucketSuffixes = new String[this.tableCount];
+        for (int i = 0; i < this.tableCount; i++) {
+            StringBuilder suffix = new StringBuilder(Integer.toString(i));
+            while (suffix.length() < hashSuffixDigits) {
+                suffix.insert(0, '0');
+            }
+            bucketSuffixes[i] = suffix.toString();
+        }
+        this.suffixCache = new DateSuffixCache(DateTimeFormatter.ofPattern(pattern), suffixCacheDays, true);
+        this.dateProperty = emptyToNull(dateProperty);
+        this.hashProperty = emptyToNull(hashProperty);
+        this.dateAccessors = accessors(this.dateProperty);
+        this.hashAccessors = accessors(this.hashProperty);
+        log.info("初始化日期+哈希分表策略: 支持表={}, 日期格式={}, 哈希分表数量={}, 优先级={}, 哈希算法={}, 日期属性={}, 哈希属性={}",
+                this.supportedTables, pattern, this.tableCount, priority, this.hashAlgorithm,
+                this.dateProperty, this.hashProperty);
+    }
+
+    /**
+     * 构造函数（按月分表，哈希后缀两位）
+     *
+     * @param supportedTables 支持的表名集合
+     * @param tableCount      哈希分表数量
+     * @param priority        优先级
+     * @author 李卓伦
+     * @date 2025/10/25 14:42
+     */
+    public DateHashTableRouterStrategy(Set<String> supportedTables, int tableCount, int priority) {
+        this(supportedTables, "yyyyMM", tableCount, priority, HashAlgorithm.MURMUR3, 2,
+                DateSuffixCache.DEFAULT_WINDOW_DAYS, null, null);
+    }
+
+    /**
+     * 获取实际表名
+     *
+     * @param logicTableName 逻辑表名
+     * @param context        分片键
+     * @return 实际表名
+     * @throws IllegalArgumentException 日期或哈希键缺失、日期无法识别时抛出
+     * @author 李卓伦
+     * @date 2025/10/26 12:40
+     */
+    @Override
+    public String getActualTableName(String logicTableName, Object context) {
+        if (!match(logicTableName)) {
+            log.warn("表名不匹配当前策略: {}", logicTableName);
+            return logicTableName;
+        }
+
+        Object date;
+        Object hashKey;
+        if (context instanceof DateHashShardingKey) {
+            date = ((DateHashShardingKey) context).getDate();
+            hashKey = ((DateHashShardingKey) context).getHashKey();
+        } else if (context instanceof Object[] && ((Object[]) context).length == 2) {
+            date = ((Object[]) context)[0];
+            hashKey = ((Object[]) context)[1];
+        } else if (context instanceof Map) {
+            date = dateProperty != null ? ((Map<?, ?>) context).get(dateProperty) : null;
+            hashKey = hashProperty != null ? ((Map<?, ?>) context).get(hashProperty) : null;
+        } else if (context != null) {
+            date = read(dateAccessors, context);
+            hashKey = read(hashAccessors, context);
+        } else {
+            date = null;
+            hashKey = null;
+        }
+
+        String actualTableName = suffixCache.tableName(logicTableName, epochDay(date), bucket(hashKey), bucketSuffixes);
+        log.debug("生成实际表名: {} -> {} (context={})", logicTableName, actualTableName, context);
+        return actualTableName;
+    }
+
+    /**
+     * 根据毫秒时间戳与整数哈希键获取实际表名，命中缓存时不产生任何对象分配
+     *
+     * @param logicTableName 逻辑表名
+     * @param epochMillis    毫秒时间戳
+     * @param hashKey        整数哈希键
+     * @return 实际表名
+     * @author 李卓伦
+     * @date 2025/10/25 14:43
+     */
+    public String getActualTableName(String logicTableName, long epochMillis, long hashKey) {
+        if (!match(logicTableName)) {
+            log.warn("表名不匹配当前策略: {}", logicTableName);
+            return logicTableName;
+        }
+        return suffixCache.tableName(logicTableName, zoneOffsets.epochDay(epochMillis),
+                bucket(hashAlgorithm.hash(hashKey)), bucketSuffixes);
+    }
+
+    /**
+     * 获取日期范围[from, to]内指定哈希键所在的所有实际表名
+     *
+     * @param logicTableName 逻辑表名
+     * @param from           起始日期（包含）
+     * @param to             结束日期（包含）
+     * @param hashKey        哈希分片键
+     * @return 按时间先后排列且不重复的实际表名列表
+     * @throws IllegalArgumentException 哈希键为空时抛出
+     * @author 李卓伦
+     * @date 2025/10/25 14:44
+     */
+    public List<String> getActualTableNames(String logicTableName, LocalDate from, LocalDate to, Object hashKey) {
+        int bucket = bucket(hashKey);
+        return collectTableNames(logicTableName, from, to, bucket, bucket);
+    }
+
+    /**
+     * 获取日期范围[from, to]内的所有实际表名（每个日期后缀下的全部哈希分表）
+     *
+     * @param logicTableName 逻辑表名
+     * @param from           起始日期（包含）
+     * @param to             结束日期（包含）
+     * @return 先按时间、再按哈希下标排列且不重复的实际表名列表
+     * @author 李卓伦
+     * @date 2025/10/25 14:45
+     */
+    public List<String> getActualTableNames(String logicTableName, LocalDate from, LocalDate to) {
+        return collectTableNames(logicTableName, from, to, 0, tableCount - 1);
+    }
+
+    @Override
+    public boolean match(String logicTableName) {
+        boolean matches = logicTableName != null && supportedTables.contains(logicTableName);
+        log.debug("表名匹配检查: {} -> {}", logicTableName, matches);
+        return matches;
+    }
+
+    @Override
+    public String getStrategyName() {
+        return strategyName;
+    }
+
+    /**
+     * 设置策略名称
+     * 同一策略类注册多个实例时用于区分，需在注册到{@link TableRouterStrategyFactory}之前设置
+     *
+     * @param strategyName 策略名称
+     * @author 李卓伦
+     * @date 2025/10/26 13:40
+     */
+    public void setStrategyName(String strategyName) {
+        if (strategyName == null || strategyName.trim().isEmpty()) {
+            throw new IllegalArgumentException("策略名称不能为空");
+        }
+        this.strategyName = strategyName;
+    }
+
+    @Override
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * 收集日期范围内哈希下标[firstBucket, lastBucket]的实际表名
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 14:46
+     */
+    private List<String> collectTableNames(String logicTableName, LocalDate from, LocalDate to,
+                                           int firstBucket, int lastBucket) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("日期范围无效: from=" + from + ", to=" + to);
+        }
+        if (!match(logicTableName)) {
+            log.warn("表名不匹配当前策略: {}", logicTableName);
+            return Collections.singletonList(logicTableName);
+        }
+
+        Set<String> tableNames = new LinkedHashSet<>();
+        String previous = null;
+        for (long day = from.toEpochDay(), last = to.toEpochDay(); day <= last; day++) {
+            String first = suffixCache.tableName(logicTableName, day, firstBucket, bucketSuffixes);
+            // 相邻日期大多落在同一日期后缀上，首个哈希分表相同时整组跳过
+            if (first.equals(previous)) {
+                continue;
+            }
+            previous = first;
+            tableNames.add(first);
+            for (int bucket = firstBucket + 1; bucket <= lastBucket; bucket++) {
+                tableNames.add(suffixCache.tableName(logicTableName, day, bucket, bucketSuffixes));
+            }
+        }
+        log.debug("生成日期范围实际表名: {} [{}, {}] -> {}", logicTableName, from, to, tableNames);
+        return new ArrayList<>(tableNames);
+    }
+
+    /**
+     * 换算日期分片键
+     *
+     * @throws IllegalArgumentException 日期为空或无法识别时抛出
+     * @author 李卓伦
+     * @date 2025/10/25 14:47
+     */
+    private long epochDay(Object date) {
+        if (date == null) {
+            throw new IllegalArgumentException("日期+哈希分表的日期分片键不能为空");
+        }
+        long epochDay = EpochDays.of(date, zoneOffsets);
+        if (epochDay == EpochDays.INVALID) {
+            throw new IllegalArgumentException("无法识别日期+哈希分表的日期分片键: " + date);
+        }
+        return epochDay;
+    }
+
+    /**
+     * 计算哈希下标
+     *
+     * @throws IllegalArgumentException 哈希键为空时抛出
+     * @author 李卓伦
+     * @date 2025/10/25 14:48
+     */
+    private int bucket(Object hashKey) {
+        if (hashKey == null) {
+            throw new IllegalArgumentException("日期+哈希分表的哈希分片键不能为空");
+        }
+        if (hashKey instanceof Long || hashKey instanceof Integer
+                || hashKey instanceof Short || hashKey instanceof Byte) {
+            return bucket(hashAlgorithm.hash(((Number) hashKey).longValue()));
+        }
+        return bucket(hashAlgorithm.hash(hashKey.toString()));
+    }
+
+    /**
+     * 将非负哈希值映射到哈希下标
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 14:49
+     */
+    private int bucket(long hash) {
+        return mask >= 0 ? (int) (hash & mask) : (int) (hash % tableCount);
+    }
+
+    private static Object read(ClassValue<PropertyAccessor> accessors, Object entity) {
+        PropertyAccessor accessor = accessors.get(entity.getClass());
+        return accessor != null ? accessor.get(entity) : null;
+    }
+
+    private static ClassValue<PropertyAccessor> accessors(String property) {
+        return new ClassValue<PropertyAccessor>() {
+            @Override
+            protected PropertyAccessor computeValue(Class<?> type) {
+                if (property == null) {
+                    return null;
+                }
+                PropertyAccessor accessor = PropertyAccessor.find(type, property);
+                if (accessor == null) {
+                    log.warn("实体中不存在分片属性: {}.{}", type.getName(), property);
+                }
+                return accessor;
+            }
+        };
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
+    /**
+     * 添加支持的表名
+     *
+     * @param tableName 表名
+     * @author 李卓伦
+     * @date 2025/10/25 14:50
+     */
+    public void addSupportedTable(String tableName) {
+        if (tableName != null && !tableName.trim().isEmpty()) {
+            supportedTables.add(tableName);
+            TableRouterStrategyFactory.refreshIndex();
+            log.debug("添加支持的表名: {}", tableName);
+        }
+    }
+
+    /**
+     * 移除支持的表名
+     *
+     * @param tableName 表名
+     * @author 李卓伦
+     * @date 2025/10/25 14:51
+     */
+    public void removeSupportedTable(String tableName) {
+        if (supportedTables.remove(tableName)) {
+            TableRouterStrategyFactory.refreshIndex();
+            log.debug("移除支持的表名: {}", tableName);
+        }
+    }
+
+    @Override
+    public Set<String> getSupportedTables() {
+        return new HashSet<>(supportedTables);
+    }
+
+    /**
+     * 获取日期格式模式
+     *
+     * @return 日期格式模式
+     * @author 李卓伦
+     * @date 2025/10/25 14:52
+     */
+    public String getDatePattern() {
+        return datePattern;
+    }
+
+    /**
+     * 获取哈希分表数量
+     *
+     * @return 哈希分表数量
+     * @author 李卓伦
+     * @date 2025/10/25 14:53
+     */
+    public int getTableCount() {
+        return tableCount;
+    }
+}
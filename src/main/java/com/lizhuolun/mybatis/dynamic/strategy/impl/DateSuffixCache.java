@@ -0,0 +1,235 @@
+package com.lizhuolun.mybatis.dynamic.strategy.impl;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 日期后缀缓存
+ * 以epoch-day为下标，预先格式化当前日期前后一段窗口内每一天的后缀，
+ * 并按逻辑表名惰性缓存拼接好的实际表名（已intern），命中时不做任何格式化与字符串拼接。
+ * 窗口外的日期回退到格式化器；当前日期偏离窗口中心超过半个窗口时整体平移窗口
+ *
+ * @author 李卓伦
+ * @date 2025/10/24 10:00
+ */
+final class DateSuffixCache {
+
+    /**
+     * 默认窗口半径（天）
+     **/
+    static final int DEFAULT_WINDOW_DAYS = 400;
+
+    /**
+     * 日期格式化器
+     **/
+    private final DateTimeFormatter formatter;
+
+    /**
+     * 窗口半径（天），小于等于0时不缓存
+     **/
+    private final int windowDays;
+
+    /**
+     * 当前窗口
+     **/
+    private volatile Window window;
+
+    /**
+     * 构造函数
+     *
+     * @param formatter  日期格式化器
+     * @param windowDays 窗口半径（天）
+     * @param cacheable  格式是否只依赖日期字段
+     * @author 李卓伦
+     * @date 2025/10/24 10:01
+     */
+    DateSuffixCache(DateTimeFormatter formatter, int windowDays, boolean cacheable) {
+        this.formatter = formatter;
+        this.windowDays = cacheable ? Math.max(windowDays, 0) : 0;
+        this.window = this.windowDays > 0 ? new Window(LocalDate.now().toEpochDay(), this.windowDays, formatter) : null;
+    }
+
+    /**
+     * 是否启用缓存
+     *
+     * @return 是否启用
+     * @author 李卓伦
+     * @date 2025/10/24 10:02
+     */
+    boolean isEnabled() {
+        return window != null;
+    }
+
+    /**
+     * 获取日期后缀
+     *
+     * @param epochDay epoch-day
+     * @return 日期后缀
+     * @author 李卓伦
+     * @date 2025/10/24 10:03
+     */
+    String suffix(long epochDay) {
+        Window current = windowFor(epochDay);
+        if (current == null) {
+            return LocalDate.ofEpochDay(epochDay).format(formatter);
+        }
+        return current.suffixes[(int) (epochDay - current.firstDay)];
+    }
+
+    /**
+     * 获取实际表名
+     *
+     * @param logicTableName 逻辑表名
+     * @param epochDay       epoch-day
+     * @return 实际表名
+     * @author 李卓伦
+     * @date 2025/10/24 10:04
+     */
+    String tableName(String logicTableName, long epochDay) {
+        Window current = windowFor(epochDay);
+        if (current == null) {
+            return logicTableName + "_" + LocalDate.ofEpochDay(epochDay).format(formatter);
+        }
+        int index = (int) (epochDay - current.firstDay);
+        String[] names = current.tableNames.computeIfAbsent(logicTableName, k -> new String[current.suffixes.length]);
+        String name = names[index];
+        if (name == null) {
+            // 并发填充同一槽位时写入的是同一个intern实例，无需加锁
+            name = (logicTableName + "_" + current.suffixes[index]).intern();
+            names[index] = name;
+        }
+        return name;
+    }
+
+    /**
+     * 获取日期与哈希两级分表的实际表名（逻辑表名_日期后缀_哈希后缀）
+     * 窗口内按(不同日期后缀序号, 哈希下标)缓存，同一月份的所有日期共享同一组表名
+     *
+     * @param logicTableName 逻辑表名
+     * @param epochDay       epoch-day
+     * @param bucket         哈希下标
+     * @param bucketSuffixes 按哈希下标预先生成的哈希后缀
+     * @return 实际表名
+     * @author 李卓伦
+     * @date 2025/10/25 14:10
+     */
+    String tableName(String logicTableName, long epochDay, int bucket, String[] bucketSuffixes) {
+        Window current = windowFor(epochDay);
+        if (current == null) {
+            return logicTableName + "_" + LocalDate.ofEpochDay(epochDay).format(formatter) + "_" + bucketSuffixes[bucket];
+        }
+        int index = (int) (epochDay - current.firstDay);
+        int ordinal = current.ordinals[index];
+        String[][] names = current.compositeNames.computeIfAbsent(logicTableName,
+                k -> new String[current.distinctCount][]);
+        String[] row = names[ordinal];
+        if (row == null) {
+            row = new String[bucketSuffixes.length];
+            names[ordinal] = row;
+        }
+        String name = row[bucket];
+        if (name == null) {
+            name = (logicTableName + "_" + current.suffixes[index] + "_" + bucketSuffixes[bucket]).intern();
+            row[bucket] = name;
+        }
+        return name;
+    }
+
+    /**
+     * 获取覆盖指定日期的窗口，必要时平移窗口
+     *
+     * @author 李卓伦
+     * @date 2025/10/24 10:05
+     */
+    private Window windowFor(long epochDay) {
+        Window current = window;
+        if (current == null) {
+            return null;
+        }
+        if (current.contains(epochDay)) {
+            return current;
+        }
+        long today = LocalDate.now().toEpochDay();
+        if (Math.abs(today - current.centerDay) > windowDays / 2) {
+            synchronized (this) {
+                current = window;
+                if (Math.abs(today - current.centerDay) > windowDays / 2) {
+                    current = new Window(today, windowDays, formatter);
+                    window = current;
+                }
+            }
+        }
+        return current.contains(epochDay) ? current : null;
+    }
+
+    /**
+     * 缓存窗口
+     *
+     * @author 李卓伦
+     * @date 2025/10/24 10:06
+     */
+    private static final class Window {
+
+        /**
+         * 窗口中心
+         **/
+        final long centerDay;
+
+        /**
+         * 窗口首日
+         **/
+        final long firstDay;
+
+        /**
+         * 每天对应的后缀，相同后缀共享同一实例
+         **/
+        final String[] suffixes;
+
+        /**
+         * 逻辑表名 -> 与suffixes对齐的实际表名
+         **/
+        final Map<String, String[]> tableNames = new ConcurrentHashMap<>();
+
+        /**
+         * 每天对应的不同后缀序号
+         **/
+        final int[] ordinals;
+
+        /**
+         * 窗口内不同后缀的数量
+         **/
+        final int distinctCount;
+
+        /**
+         * 逻辑表名 -> [后缀序号][哈希下标]的两级分表实际表名
+         **/
+        final Map<String, String[][]> compositeNames = new ConcurrentHashMap<>();
+
+        Window(long centerDay, int windowDays, DateTimeFormatter formatter) {
+            this.centerDay = centerDay;
+            this.firstDay = centerDay - windowDays;
+            this.suffixes = new String[windowDays * 2 + 1];
+            this.ordinals = new int[suffixes.length];
+            Map<String, Integer> canonical = new HashMap<>();
+            String[] distinct = new String[suffixes.length];
+            for (int i = 0; i < suffixes.length; i++) {
+                String suffix = LocalDate.ofEpochDay(firstDay + i).format(formatter);
+                Integer ordinal = canonical.putIfAbsent(suffix, canonical.size());
+                if (ordinal == null) {
+                    ordinal = canonical.size() - 1;
+                    distinct[ordinal] = suffix;
+                }
+                suffixes[i] = distinct[ordinal];
+                ordinals[i] = ordinal;
+            }
+            this.distinctCount = canonical.size();
+        }
+
+        boolean contains(long epochDay) {
+            return epochDay >= firstDay && epochDay - firstDay < suffixes.length;
+        }
+    }
+}
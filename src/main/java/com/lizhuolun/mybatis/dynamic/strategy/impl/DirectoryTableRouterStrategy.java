@@ -0,0 +1,244 @@
+package com.lizhuolun.mybatis.dynamic.strategy.impl;
+
+import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategyFactory;
+import com.lizhuolun.mybatis.dynamic.strategy.directory.DirectoryFile;
+import com.lizhuolun.mybatis.dynamic.strategy.directory.DirectoryFileBuilder;
+import com.lizhuolun.mybatis.dynamic.strategy.hash.HashAlgorithm;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 基于路由目录的分表策略
+ * 在目录中登记的键（如大租户ID）路由到"逻辑表名_后缀"的专属表，其余键按哈希分表路由。
+ * 目录保存在内存映射文件中（见{@link DirectoryFile}），数百万条目也不占用堆内存；
+ * 配置了CSV时在启动与{@link #reload()}时由CSV重新生成目录文件
+ *
+ * @author 李卓伦
+ * @date 2025/10/25 18:20
+ */
+@Slf4j
+public class DirectoryTableRouterStrategy implements TableRouterStrategy {
+
+    /**
+     * 支持的逻辑表名集合
+     **/
+    private final Set<String> supportedTables;
+
+    /**
+     * 策略优先级
+     **/
+    private final int priority;
+
+    /**
+     * 目录文件路径
+     **/
+    private final Path directoryFile;
+
+    /**
+     * 目录CSV路径，为空时直接使用已有的目录文件
+     **/
+    private final Path csvFile;
+
+    /**
+     * 目录未命中时使用的哈希分表策略
+     **/
+    private final HashBasedTableRouterStrategy fallback;
+
+    /**
+     * 当前目录
+     **/
+    private volatile Snapshot snapshot;
+
+    /**
+     * 策略名称，默认为类名
+     **/
+    private String strategyName = "DirectoryTableRouterStrategy";
+
+    /**
+     * 构造函数，立即加载目录
+     *
+     * @param supportedTables 支持的表名集合
+     * @param directoryFile 目录文件路径
+     * @param csvFile 目录CSV路径，可为空
+     * @param fallbackTableCount 目录未命中时的哈希分表数量
+     * @param fallbackHashAlgorithm 目录未命中时的哈希算法
+     * @param priority 优先级
+     * @throws IllegalStateException 目录加载失败
+     * @author 李卓伦
+     * @date 2025/10/25 18:21
+     */
+    public DirectoryTableRouterStrategy(Set<String> supportedTables, Path directoryFile, Path csvFile,
+                                        int fallbackTableCount, HashAlgorithm fallbackHashAlgorithm, int priority) {
+        if (directoryFile == null) {
+            throw new IllegalArgumentException("路由目录文件路径不能为空");
+        }
+        this.supportedTables = supportedTables != null ? new HashSet<>(supportedTables) : new HashSet<>();
+        this.priority = priority;
+        this.directoryFile = directoryFile;
+        this.csvFile = csvFile;
+        this.fallback = new HashBasedTableRouterStrategy(this.supportedTables, fallbackTableCount, priority,
+                fallbackHashAlgorithm);
+        try {
+            load();
+        } catch (IOException e) {
+            throw new IllegalStateException("加载路由目录失败: " + directoryFile, e);
+        }
+        log.info("初始化基于路由目录的分表策略: 支持表={}, 目录文件={}, CSV={}, 目录条目数={}, 未命中哈希分表数量={}, 优先级={}",
+                this.supportedTables, directoryFile, csvFile, snapshot.file.size(), fallback.getTableCount(), priority);
+    }
+
+    @Override
+    public String getActualTableName(String logicTableName, Object context) {
+        if (!match(logicTableName)) {
+            log.warn("表名不匹配当前策略: {}", logicTableName);
+            return logicTableName;
+        }
+        Snapshot current = snapshot;
+        int index = current.file.lookup(context);
+        String actualTableName = index != DirectoryFile.NOT_FOUND
+                ? current.tableName(logicTableName, index)
+                : fallback.getActualTableName(logicTableName, context);
+        log.debug("生成实际表名: {} -> {} (context={}, 目录命中={})",
+                logicTableName, actualTableName, context, index != DirectoryFile.NOT_FOUND);
+        return actualTableName;
+    }
+
+    /**
+     * 根据整数键获取实际表名，目录查找在映射内存中完成，不产生对象分配
+     *
+     * @param logicTableName 逻辑表名
+     * @param key 整数键
+     * @return 实际表名
+     * @author 李卓伦
+     * @date 2025/10/25 18:22
+     */
+    public String getActualTableName(String logicTableName, long key) {
+        if (!match(logicTableName)) {
+            log.warn("表名不匹配当前策略: {}", logicTableName);
+            return logicTableName;
+        }
+        Snapshot current = snapshot;
+        int index = current.file.lookup(key);
+        return index != DirectoryFile.NOT_FOUND
+                ? current.tableName(logicTableName, index)
+                : fallback.getActualTableName(logicTableName, key);
+    }
+
+    /**
+     * 重新加载目录
+     * 配置了CSV时先由CSV重新生成目录文件；新目录加载成功后整体替换并清空装饰本策略的路由结果缓存，失败时继续使用旧目录
+     *
+     * @throws IOException 生成或加载目录文件失败
+     * @author 李卓伦
+     * @date 2025/10/25 18:23
+     */
+    public synchronized void reload() throws IOException {
+        load();
+        TableRouterStrategyFactory.invalidateRouteCache(this);
+    }
+
+    /**
+     * 生成并加载目录，构造函数与{@link #reload()}共用
+     * 不调用可被子类覆盖的方法，避免构造期间this逃逸到子类
+     *
+     * @throws IOException 生成或加载目录文件失败
+     * @author 李卓伦
+     * @date 2025/10/26 13:00
+     */
+    private void load() throws IOException {
+        if (csvFile != null) {
+            DirectoryFileBuilder.buildFromCsv(csvFile, directoryFile);
+        }
+        DirectoryFile file = DirectoryFile.open(directoryFile);
+        snapshot = new Snapshot(file);
+        log.info("路由目录已加载: {}, 条目数={}, 后缀数={}", directoryFile, file.size(), file.suffixCount());
+    }
+
+    @Override
+    public boolean match(String logicTableName) {
+        boolean matches = logicTableName != null && supportedTables.contains(logicTableName);
+        log.debug("表名匹配检查: {} -> {}", logicTableName, matches);
+        return matches;
+    }
+
+    @Override
+    public String getStrategyName() {
+        return strategyName;
+    }
+
+    /**
+     * 设置策略名称
+     * 同一策略类注册多个实例时用于区分，需在注册到{@link TableRouterStrategyFactory}之前设置
+     *
+     * @param strategyName 策略名称
+     * @author 李卓伦
+     * @date 2025/10/26 13:40
+     */
+    public void setStrategyName(String strategyName) {
+        if (strategyName == null || strategyName.trim().isEmpty()) {
+            throw new IllegalArgumentException("策略名称不能为空");
+        }
+        this.strategyName = strategyName;
+    }
+
+    @Override
+    public int getPriority() {
+        return priority;
+    }
+
+    @Override
+    public Set<String> getSupportedTables() {
+        return new HashSet<>(supportedTables);
+    }
+
+    /**
+     * 获取当前目录条目数
+     *
+     * @return 条目数
+     * @author 李卓伦
+     * @date 2025/10/25 18:24
+     */
+    public int getDirectorySize() {
+        return snapshot.file.size();
+    }
+
+    /**
+     * 目录快照，实际表名按(逻辑表名, 后缀序号)缓存
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 18:25
+     */
+    private static final class Snapshot {
+
+        /**
+         * 目录文件
+         **/
+        final DirectoryFile file;
+
+        /**
+         * 逻辑表名 -> 按后缀序号缓存的实际表名
+         **/
+        final Map<String, String[]> tableNames = new ConcurrentHashMap<>();
+
+        Snapshot(DirectoryFile file) {
+            this.file = file;
+        }
+
+        String tableName(String logicTableName, int index) {
+            String[] names = tableNames.computeIfAbsent(logicTableName, k -> new String[file.suffixCount()]);
+            String name = names[index];
+            if (name == null) {
+                name = (logicTableName + "_" + file.suffix(index)).intern();
+                names[index] = name;
+            }
+            return name;
+        }
+    }
+}
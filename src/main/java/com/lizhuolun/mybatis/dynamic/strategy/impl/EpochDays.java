@@ -0,0 +1,169 @@
+package com.lizhuolun.mybatis.dynamic.strategy.impl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * epoch-day计算工具
+ * 直接从字符串中扫描年月日并换算为epoch-day，不使用正则，也不创建LocalDate等中间对象
+ *
+ * @author 李卓伦
+ * @date 2025/10/24 11:00
+ */
+final class EpochDays {
+
+    /**
+     * 无效日期标记值
+     **/
+    static final long INVALID = Long.MIN_VALUE;
+
+    /**
+     * 0000-01-01到1970-01-01的天数
+     **/
+    private static final long DAYS_0000_TO_1970 = 719528L;
+
+    /**
+     * 私有构造函数，防止实例化
+     *
+     * @author 李卓伦
+     * @date 2025/10/24 11:01
+     */
+    private EpochDays() {
+        throw new UnsupportedOperationException("工具类不允许实例化");
+    }
+
+    /**
+     * 扫描日期字符串
+     * 支持yyyy-MM-dd、yyyy/MM/dd（其后可跟任意内容，如ISO日期时间的时间部分）、yyyyMMdd、yyyyMM（取当月第一天）
+     *
+     * @param text 已去除首尾空白的日期字符串
+     * @return epoch-day，无法识别或日期非法时返回{@link #INVALID}
+     * @author 李卓伦
+     * @date 2025/10/24 11:02
+     */
+    static long scan(String text) {
+        int length = text.length();
+        int year;
+        int month;
+        int day;
+        if (length >= 10 && (text.charAt(4) == '-' || text.charAt(4) == '/') && text.charAt(7) == text.charAt(4)) {
+            year = digits(text, 0, 4);
+            month = digits(text, 5, 2);
+            day = digits(text, 8, 2);
+        } else if (length == 8) {
+            year = digits(text, 0, 4);
+            month = digits(text, 4, 2);
+            day = digits(text, 6, 2);
+        } else if (length == 6) {
+            year = digits(text, 0, 4);
+            month = digits(text, 4, 2);
+            day = 1;
+        } else {
+            return INVALID;
+        }
+        return of(year, month, day);
+    }
+
+    /**
+     * 从日期类分片键中提取epoch-day
+     * 支持LocalDate、LocalDateTime、Date、毫秒时间戳与日期字符串
+     *
+     * @param context     分片键
+     * @param zoneOffsets 换算Date与时间戳使用的时区偏移缓存
+     * @return epoch-day，无法直接换算时返回{@link #INVALID}
+     * @author 李卓伦
+     * @date 2025/10/25 14:00
+     */
+    static long of(Object context, ZoneOffsetCache zoneOffsets) {
+        if (context instanceof LocalDate) {
+            return ((LocalDate) context).toEpochDay();
+        } else if (context instanceof LocalDateTime) {
+            return ((LocalDateTime) context).toLocalDate().toEpochDay();
+        } else if (context instanceof Date) {
+            return zoneOffsets.epochDay(((Date) context).getTime());
+        } else if (context instanceof Number) {
+            return zoneOffsets.epochDay(((Number) context).longValue());
+        } else if (context instanceof String) {
+            return scan(((String) context).trim());
+        }
+        return INVALID;
+    }
+
+    /**
+     * 年月日换算为epoch-day
+     *
+     * @param year  年
+     * @param month 月
+     * @param day   日
+     * @return epoch-day，日期非法时返回{@link #INVALID}
+     * @author 李卓伦
+     * @date 2025/10/24 11:03
+     */
+    static long of(int year, int month, int day) {
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return INVALID;
+        }
+        // 与LocalDate.toEpochDay相同的算法，年份限定为非负
+        long y = year;
+        long total = 365 * y + (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        total += (367L * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * 解析定长数字
+     *
+     * @return 数值，包含非数字字符时返回-1
+     * @author 李卓伦
+     * @date 2025/10/24 11:04
+     */
+    private static int digits(String text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * 月份天数
+     *
+     * @author 李卓伦
+     * @date 2025/10/24 11:05
+     */
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * 是否闰年
+     *
+     * @author 李卓伦
+     * @date 2025/10/24 11:06
+     */
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+}
@@ -1,10 +1,14 @@
 package com.lizhuolun.mybatis.dynamic.strategy.impl;
 
 import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategyFactory;
+import com.lizhuolun.mybatis.dynamic.strategy.hash.HashAlgorithm;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 基于哈希的分表策略
@@ -31,6 +35,26 @@ public class HashBasedTableRouterStrategy implements TableRouterStrategy {
      **/
     private final int priority;
 
+    /**
+     * 哈希算法
+     **/
+    private final HashAlgorithm hashAlgorithm;
+
+    /**
+     * 分表数量为2的幂时的掩码，否则为-1
+     **/
+    private final int mask;
+
+    /**
+     * 逻辑表名 -> 按后缀下标缓存的实际表名
+     **/
+    private final Map<String, String[]> tableNames = new ConcurrentHashMap<>();
+
+    /**
+     * 策略名称，默认为类名
+     **/
+    private String strategyName = "HashBasedTableRouterStrategy";
+
     /**
      * 构造函数
      *
@@ -41,11 +65,28 @@ public class HashBasedTableRouterStrategy implements TableRouterStrategy {
      * @date 2025/07/25 10:36
      */
     public HashBasedTableRouterStrategy(Set<String> supportedTables, int tableCount, int priority) {
+        this(supportedTables, tableCount, priority, HashAlgorithm.STRING);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param supportedTables 支持的表名集合
+     * @param tableCount 分表数量
+     * @param priority 优先级
+     * @param hashAlgorithm 哈希算法，为空时使用STRING
+     * @author 李卓伦
+     * @date 2025/10/24 15:30
+     */
+    public HashBasedTableRouterStrategy(Set<String> supportedTables, int tableCount, int priority,
+                                        HashAlgorithm hashAlgorithm) {
         this.supportedTables = supportedTables != null ? new HashSet<>(supportedTables) : new HashSet<>();
         this.tableCount = Math.max(1, tableCount);
         this.priority = priority;
-        log.info("初始化基于哈希的分表策略: 支持表={}, 分表数量={}, 优先级={}", 
-                this.supportedTables, this.tableCount, priority);
+        this.hashAlgorithm = hashAlgorithm != null ? hashAlgorithm : HashAlgorithm.STRING;
+        this.mask = (this.tableCount & (this.tableCount - 1)) == 0 ? this.tableCount - 1 : -1;
+        log.info("初始化基于哈希的分表策略: 支持表={}, 分表数量={}, 优先级={}, 哈希算法={}",
+                this.supportedTables, this.tableCount, priority, this.hashAlgorithm);
     }
 
     /**
@@ -67,12 +108,29 @@ public class HashBasedTableRouterStrategy implements TableRouterStrategy {
         }
 
         int hashSuffix = calculateHashSuffix(context);
-        String actualTableName = logicTableName + "_" + hashSuffix;
+        String actualTableName = tableName(logicTableName, hashSuffix);
         log.debug("生成实际表名: {} -> {} (context={}, hash={})", 
                 logicTableName, actualTableName, context, hashSuffix);
         return actualTableName;
     }
 
+    /**
+     * 根据整数分片键获取实际表名，不装箱也不转换为字符串
+     *
+     * @param logicTableName 逻辑表名
+     * @param key 整数分片键
+     * @return 实际表名
+     * @author 李卓伦
+     * @date 2025/10/24 15:31
+     */
+    public String getActualTableName(String logicTableName, long key) {
+        if (!match(logicTableName)) {
+            log.warn("表名不匹配当前策略: {}", logicTableName);
+            return logicTableName;
+        }
+        return tableName(logicTableName, bucket(hashAlgorithm.hash(key)));
+    }
+
     @Override
     public boolean match(String logicTableName) {
         boolean matches = logicTableName != null && supportedTables.contains(logicTableName);
@@ -82,7 +140,22 @@ public class HashBasedTableRouterStrategy implements TableRouterStrategy {
 
     @Override
     public String getStrategyName() {
-        return "HashBasedTableRouterStrategy";
+        return strategyName;
+    }
+
+    /**
+     * 设置策略名称
+     * 同一策略类注册多个实例时用于区分，需在注册到{@link TableRouterStrategyFactory}之前设置
+     *
+     * @param strategyName 策略名称
+     * @author 李卓伦
+     * @date 2025/10/26 13:40
+     */
+    public void setStrategyName(String strategyName) {
+        if (strategyName == null || strategyName.trim().isEmpty()) {
+            throw new IllegalArgumentException("策略名称不能为空");
+        }
+        this.strategyName = strategyName;
     }
 
     @Override
@@ -105,23 +178,21 @@ public class HashBasedTableRouterStrategy implements TableRouterStrategy {
         }
 
         try {
+            // 整数键直接按数值计算，不经过toString
+            if (context instanceof Long || context instanceof Integer
+                    || context instanceof Short || context instanceof Byte) {
+                return bucket(hashAlgorithm.hash(((Number) context).longValue()));
+            }
+
             String hashKey = extractHashKey(context);
             if (hashKey == null || hashKey.isEmpty()) {
                 log.warn("无法提取哈希键，使用默认哈希值0: context={}", context);
                 return 0;
             }
 
-            // 使用改进的哈希算法，提高分布均匀性
-            int hash = hashKey.hashCode();
-            // 处理负数情况，避免使用Math.abs可能导致的Integer.MIN_VALUE问题
-            if (hash == Integer.MIN_VALUE) {
-                hash = 0;
-            } else if (hash < 0) {
-                hash = Math.abs(hash);
-            }
-            
-            int suffix = hash % tableCount;
-            
+            long hash = hashAlgorithm.hash(hashKey);
+            int suffix = bucket(hash);
+
             log.debug("哈希计算: key={}, hash={}, suffix={}, tableCount={}", 
                     hashKey, hash, suffix, tableCount);
             return suffix;
@@ -132,6 +203,37 @@ public class HashBasedTableRouterStrategy implements TableRouterStrategy {
         }
     }
 
+    /**
+     * 将非负哈希值映射到分表下标，分表数量为2的幂时使用掩码
+     *
+     * @param hash 非负哈希值
+     * @return 分表下标
+     * @author 李卓伦
+     * @date 2025/10/24 15:32
+     */
+    private int bucket(long hash) {
+        return mask >= 0 ? (int) (hash & mask) : (int) (hash % tableCount);
+    }
+
+    /**
+     * 获取缓存的实际表名
+     *
+     * @param logicTableName 逻辑表名
+     * @param suffix 分表下标
+     * @return 实际表名
+     * @author 李卓伦
+     * @date 2025/10/24 15:33
+     */
+    private String tableName(String logicTableName, int suffix) {
+        String[] names = tableNames.computeIfAbsent(logicTableName, k -> new String[tableCount]);
+        String name = names[suffix];
+        if (name == null) {
+            name = (logicTableName + "_" + suffix).intern();
+            names[suffix] = name;
+        }
+        return name;
+    }
+
     /**
      * 从上下文对象中提取哈希键
      *
@@ -165,6 +267,7 @@ public class HashBasedTableRouterStrategy implements TableRouterStrategy {
     public void addSupportedTable(String tableName) {
         if (tableName != null && !tableName.trim().isEmpty()) {
             supportedTables.add(tableName);
+            TableRouterStrategyFactory.refreshIndex();
             log.debug("添加支持的表名: {}", tableName);
         }
     }
@@ -178,6 +281,7 @@ public class HashBasedTableRouterStrategy implements TableRouterStrategy {
      */
     public void removeSupportedTable(String tableName) {
         if (supportedTables.remove(tableName)) {
+            TableRouterStrategyFactory.refreshIndex();
             log.debug("移除支持的表名: {}", tableName);
         }
     }
@@ -189,6 +293,7 @@ public class HashBasedTableRouterStrategy implements TableRouterStrategy {
      * @author 李卓伦
      * @date 2025/07/25 10:42
      */
+    @Override
     public Set<String> getSupportedTables() {
         return new HashSet<>(supportedTables);
     }
@@ -203,4 +308,15 @@ public class HashBasedTableRouterStrategy implements TableRouterStrategy {
     public int getTableCount() {
         return tableCount;
     }
+
+    /**
+     * 获取哈希算法
+     *
+     * @return 哈希算法
+     * @author 李卓伦
+     * @date 2025/10/24 15:34
+     */
+    public HashAlgorithm getHashAlgorithm() {
+        return hashAlgorithm;
+    }
 }
\ No newline at end of file
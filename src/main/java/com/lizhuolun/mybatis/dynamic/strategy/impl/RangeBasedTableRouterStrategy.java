@@ -0,0 +1,282 @@
+package com.lizhuolun.mybatis.dynamic.strategy.impl;
+
+import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategyFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 基于数值范围的分表策略
+ * boundaries为各分表的起始值（升序），第i张分表覆盖[boundaries[i], boundaries[i+1])，最后一张分表不设上限；
+ * 例如[0, 10000000, 20000000]表示user_info_0存放0~1000万，user_info_1存放1000万~2000万，user_info_2存放2000万以上
+ *
+ * @author 李卓伦
+ * @date 2025/10/25 16:00
+ */
+@Slf4j
+public class RangeBasedTableRouterStrategy implements TableRouterStrategy {
+
+    /**
+     * 支持的逻辑表名集合
+     **/
+    private final Set<String> supportedTables;
+
+    /**
+     * 各分表的起始值（升序且不重复）
+     **/
+    private final long[] boundaries;
+
+    /**
+     * 策略优先级
+     **/
+    private final int priority;
+
+    /**
+     * 逻辑表名 -> 按分表下标缓存的实际表名
+     **/
+    private final Map<String, String[]> tableNames = new ConcurrentHashMap<>();
+
+    /**
+     * 策略名称，默认为类名
+     **/
+    private String strategyName = "RangeBasedTableRouterStrategy";
+
+    /**
+     * 构造函数
+     *
+     * @param supportedTables 支持的表名集合
+     * @param boundaries 各分表的起始值，须严格升序
+     * @param priority 优先级
+     * @author 李卓伦
+     * @date 2025/10/25 16:01
+     */
+    public RangeBasedTableRouterStrategy(Set<String> supportedTables, long[] boundaries, int priority) {
+        if (boundaries == null || boundaries.length == 0) {
+            throw new IllegalArgumentException("范围分表的边界不能为空");
+        }
+        for (int i = 1; i < boundaries.length; i++) {
+            if (boundaries[i] <= boundaries[i - 1]) {
+                throw new IllegalArgumentException("范围分表的边界必须严格升序: " + Arrays.toString(boundaries));
+            }
+        }
+        this.supportedTables = supportedTables != null ? new HashSet<>(supportedTables) : new HashSet<>();
+        this.boundaries = boundaries.clone();
+        this.priority = priority;
+        log.info("初始化基于范围的分表策略: 支持表={}, 分表数量={}, 边界={}, 优先级={}",
+                this.supportedTables, this.boundaries.length, Arrays.toString(this.boundaries), priority);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param supportedTables 支持的表名集合
+     * @param boundaries 各分表的起始值，须严格升序
+     * @param priority 优先级
+     * @author 李卓伦
+     * @date 2025/10/25 16:02
+     */
+    public RangeBasedTableRouterStrategy(Set<String> supportedTables, List<Long> boundaries, int priority) {
+        this(supportedTables, toArray(boundaries), priority);
+    }
+
+    @Override
+    public String getActualTableName(String logicTableName, Object context) {
+        if (!match(logicTableName)) {
+            log.warn("表名不匹配当前策略: {}", logicTableName);
+            return logicTableName;
+        }
+        if (context instanceof Number) {
+            return getActualTableName(logicTableName, ((Number) context).longValue());
+        }
+        if (context instanceof String) {
+            try {
+                return getActualTableName(logicTableName, Long.parseLong(((String) context).trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("范围分片键不是整数: " + context, e);
+            }
+        }
+        throw new IllegalArgumentException("不支持的范围分片键: " + context);
+    }
+
+    /**
+     * 根据整数分片键获取实际表名，不装箱
+     *
+     * @param logicTableName 逻辑表名
+     * @param key 整数分片键
+     * @return 实际表名
+     * @throws IllegalArgumentException 分片键小于第一张分表的起始值
+     * @author 李卓伦
+     * @date 2025/10/25 16:03
+     */
+    public String getActualTableName(String logicTableName, long key) {
+        if (!match(logicTableName)) {
+            log.warn("表名不匹配当前策略: {}", logicTableName);
+            return logicTableName;
+        }
+        int shard = shardOf(key);
+        if (shard < 0) {
+            throw new IllegalArgumentException("分片键小于第一张分表的起始值: " + key + " < " + boundaries[0]);
+        }
+        return tableName(logicTableName, shard);
+    }
+
+    /**
+     * 获取与范围[from, to]重叠的所有实际表名
+     *
+     * @param logicTableName 逻辑表名
+     * @param from 起始值（包含）
+     * @param to 结束值（包含）
+     * @return 按范围先后排列的实际表名列表，范围整体小于第一张分表时返回空列表
+     * @author 李卓伦
+     * @date 2025/10/25 16:04
+     */
+    public List<String> getActualTableNames(String logicTableName, long from, long to) {
+        if (from > to) {
+            throw new IllegalArgumentException("范围无效: from=" + from + ", to=" + to);
+        }
+        if (!match(logicTableName)) {
+            log.warn("表名不匹配当前策略: {}", logicTableName);
+            return Collections.singletonList(logicTableName);
+        }
+        int last = shardOf(to);
+        if (last < 0) {
+            return Collections.emptyList();
+        }
+        int first = Math.max(shardOf(from), 0);
+        List<String> result = new ArrayList<>(last - first + 1);
+        for (int shard = first; shard <= last; shard++) {
+            result.add(tableName(logicTableName, shard));
+        }
+        log.debug("生成范围实际表名: {} [{}, {}] -> {}", logicTableName, from, to, result);
+        return result;
+    }
+
+    @Override
+    public boolean match(String logicTableName) {
+        boolean matches = logicTableName != null && supportedTables.contains(logicTableName);
+        log.debug("表名匹配检查: {} -> {}", logicTableName, matches);
+        return matches;
+    }
+
+    @Override
+    public String getStrategyName() {
+        return strategyName;
+    }
+
+    /**
+     * 设置策略名称
+     * 同一策略类注册多个实例时用于区分，需在注册到{@link TableRouterStrategyFactory}之前设置
+     *
+     * @param strategyName 策略名称
+     * @author 李卓伦
+     * @date 2025/10/26 13:40
+     */
+    public void setStrategyName(String strategyName) {
+        if (strategyName == null || strategyName.trim().isEmpty()) {
+            throw new IllegalArgumentException("策略名称不能为空");
+        }
+        this.strategyName = strategyName;
+    }
+
+    @Override
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * 二分查找分片键所在的分表下标
+     *
+     * @param key 分片键
+     * @return 分表下标，小于第一张分表的起始值时返回-1
+     * @author 李卓伦
+     * @date 2025/10/25 16:05
+     */
+    int shardOf(long key) {
+        int index = Arrays.binarySearch(boundaries, key);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * 获取缓存的实际表名
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 16:06
+     */
+    private String tableName(String logicTableName, int shard) {
+        String[] names = tableNames.computeIfAbsent(logicTableName, k -> new String[boundaries.length]);
+        String name = names[shard];
+        if (name == null) {
+            name = (logicTableName + "_" + shard).intern();
+            names[shard] = name;
+        }
+        return name;
+    }
+
+    private static long[] toArray(List<Long> boundaries) {
+        if (boundaries == null) {
+            return null;
+        }
+        long[] result = new long[boundaries.size()];
+        for (int i = 0; i < result.length; i++) {
+            Long boundary = boundaries.get(i);
+            if (boundary == null) {
+                throw new IllegalArgumentException("范围分表的边界不能包含空值");
+            }
+            result[i] = boundary;
+        }
+        return result;
+    }
+
+    /**
+     * 添加支持的表名
+     *
+     * @param tableName 表名
+     * @author 李卓伦
+     * @date 2025/10/25 16:07
+     */
+    public void addSupportedTable(String tableName) {
+        if (tableName != null && !tableName.trim().isEmpty()) {
+            supportedTables.add(tableName);
+            TableRouterStrategyFactory.refreshIndex();
+            log.debug("添加支持的表名: {}", tableName);
+        }
+    }
+
+    /**
+     * 移除支持的表名
+     *
+     * @param tableName 表名
+     * @author 李卓伦
+     * @date 2025/10/25 16:08
+     */
+    public void removeSupportedTable(String tableName) {
+        if (supportedTables.remove(tableName)) {
+            TableRouterStrategyFactory.refreshIndex();
+            log.debug("移除支持的表名: {}", tableName);
+        }
+    }
+
+    @Override
+    public Set<String> getSupportedTables() {
+        return new HashSet<>(supportedTables);
+    }
+
+    /**
+     * 获取各分表的起始值
+     *
+     * @return 起始值数组（副本）
+     * @author 李卓伦
+     * @date 2025/10/25 16:09
+     */
+    public long[] getBoundaries() {
+        return boundaries.clone();
+    }
+}
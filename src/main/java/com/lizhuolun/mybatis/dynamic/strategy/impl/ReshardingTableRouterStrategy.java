@@ -0,0 +1,213 @@
+package com.lizhuolun.mybatis.dynamic.strategy.impl;
+
+import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategyFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 在线扩容分表策略
+ * 叠加在新旧两个分表策略之上：读请求按当前阶段路由到旧表或新表，
+ * 增删改通过影子表同时写入另一套分表，配合后台回填任务实现不停机迁移
+ *
+ * @author 李卓伦
+ * @date 2025/10/25 09:20
+ */
+@Slf4j
+public class ReshardingTableRouterStrategy implements TableRouterStrategy {
+
+    /**
+     * 迁移阶段
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 09:21
+     */
+    public enum Phase {
+
+        /**
+         * 读旧表，同时写旧表和新表；回填任务在此阶段复制存量数据
+         */
+        DUAL_WRITE,
+
+        /**
+         * 读新表，同时写新表和旧表，以便出现问题时切回旧表
+         */
+        READ_TARGET,
+
+        /**
+         * 迁移完成，只读写新表
+         */
+        COMPLETED
+    }
+
+    /**
+     * 支持的逻辑表名集合
+     **/
+    private final Set<String> supportedTables;
+
+    /**
+     * 旧分表策略
+     **/
+    private final TableRouterStrategy source;
+
+    /**
+     * 新分表策略
+     **/
+    private final TableRouterStrategy target;
+
+    /**
+     * 策略优先级
+     **/
+    private final int priority;
+
+    /**
+     * 当前迁移阶段
+     **/
+    private volatile Phase phase;
+
+    /**
+     * 策略名称，默认为类名
+     **/
+    private String strategyName = "ReshardingTableRouterStrategy";
+
+    /**
+     * 构造函数
+     *
+     * @param supportedTables 支持的表名集合
+     * @param source 旧分表策略
+     * @param target 新分表策略
+     * @param phase 初始迁移阶段，为空时使用DUAL_WRITE
+     * @param priority 优先级
+     * @author 李卓伦
+     * @date 2025/10/25 09:22
+     */
+    public ReshardingTableRouterStrategy(Set<String> supportedTables, TableRouterStrategy source,
+                                         TableRouterStrategy target, Phase phase, int priority) {
+        if (source == null || target == null) {
+            throw new IllegalArgumentException("新旧分表策略不能为空");
+        }
+        this.supportedTables = supportedTables != null ? new HashSet<>(supportedTables) : new HashSet<>();
+        this.source = source;
+        this.target = target;
+        this.phase = phase != null ? phase : Phase.DUAL_WRITE;
+        this.priority = priority;
+        log.info("初始化在线扩容分表策略: 支持表={}, 旧策略={}, 新策略={}, 阶段={}, 优先级={}",
+                this.supportedTables, source.getStrategyName(), target.getStrategyName(), this.phase, priority);
+    }
+
+    @Override
+    public String getActualTableName(String logicTableName, Object context) {
+        if (!match(logicTableName)) {
+            log.warn("表名不匹配当前策略: {}", logicTableName);
+            return logicTableName;
+        }
+        return phase == Phase.DUAL_WRITE
+                ? source.getActualTableName(logicTableName, context)
+                : target.getActualTableName(logicTableName, context);
+    }
+
+    @Override
+    public String getShadowTableName(String logicTableName, Object context) {
+        Phase current = phase;
+        if (current == Phase.COMPLETED || !match(logicTableName)) {
+            return null;
+        }
+        String sourceTable = source.getActualTableName(logicTableName, context);
+        String targetTable = target.getActualTableName(logicTableName, context);
+        if (sourceTable == null || sourceTable.equals(targetTable)) {
+            // 新旧分表同名时（如第0张表）无需双写
+            return null;
+        }
+        return current == Phase.DUAL_WRITE ? targetTable : sourceTable;
+    }
+
+    @Override
+    public boolean match(String logicTableName) {
+        boolean matches = logicTableName != null && supportedTables.contains(logicTableName);
+        log.debug("表名匹配检查: {} -> {}", logicTableName, matches);
+        return matches;
+    }
+
+    @Override
+    public String getStrategyName() {
+        return strategyName;
+    }
+
+    /**
+     * 设置策略名称
+     * 同一策略类注册多个实例时用于区分，需在注册到{@link TableRouterStrategyFactory}之前设置
+     *
+     * @param strategyName 策略名称
+     * @author 李卓伦
+     * @date 2025/10/26 13:40
+     */
+    public void setStrategyName(String strategyName) {
+        if (strategyName == null || strategyName.trim().isEmpty()) {
+            throw new IllegalArgumentException("策略名称不能为空");
+        }
+        this.strategyName = strategyName;
+    }
+
+    @Override
+    public int getPriority() {
+        return priority;
+    }
+
+    @Override
+    public Set<String> getSupportedTables() {
+        return new HashSet<>(supportedTables);
+    }
+
+    /**
+     * 切换迁移阶段，并清空装饰本策略的路由结果缓存
+     *
+     * @param phase 迁移阶段
+     * @author 李卓伦
+     * @date 2025/10/25 09:23
+     */
+    public void setPhase(Phase phase) {
+        if (phase == null) {
+            log.warn("切换迁移阶段失败，阶段不能为空");
+            return;
+        }
+        Phase previous = this.phase;
+        this.phase = phase;
+        TableRouterStrategyFactory.invalidateRouteCache(this);
+        log.info("切换迁移阶段: {} -> {}, 表={}", previous, phase, supportedTables);
+    }
+
+    /**
+     * 获取当前迁移阶段
+     *
+     * @return 迁移阶段
+     * @author 李卓伦
+     * @date 2025/10/25 09:24
+     */
+    public Phase getPhase() {
+        return phase;
+    }
+
+    /**
+     * 获取旧分表策略
+     *
+     * @return 旧分表策略
+     * @author 李卓伦
+     * @date 2025/10/25 09:25
+     */
+    public TableRouterStrategy getSource() {
+        return source;
+    }
+
+    /**
+     * 获取新分表策略
+     *
+     * @return 新分表策略
+     * @author 李卓伦
+     * @date 2025/10/25 09:26
+     */
+    public TableRouterStrategy getTarget() {
+        return target;
+    }
+}
@@ -0,0 +1,90 @@
+package com.lizhuolun.mybatis.dynamic.strategy.impl;
+
+/**
+ * 雪花ID时间戳解码器
+ * 雪花ID的布局为：符号位 | 时间戳（相对起始时间的毫秒数） | 机器位与序列号，
+ * 解码只做移位、掩码与加法，不分配任何对象
+ *
+ * @author 李卓伦
+ * @date 2025/10/25 17:00
+ */
+public final class SnowflakeIdDecoder {
+
+    /**
+     * MyBatis-Plus IdWorker与Twitter Snowflake使用的起始时间（2010-11-04T01:42:54.657Z）
+     **/
+    public static final long DEFAULT_EPOCH = 1288834974657L;
+
+    /**
+     * 时间戳之后的位数（10位机器位 + 12位序列号）
+     **/
+    public static final int DEFAULT_TIMESTAMP_SHIFT = 22;
+
+    /**
+     * 时间戳位数
+     **/
+    public static final int DEFAULT_TIMESTAMP_BITS = 41;
+
+    /**
+     * 起始时间（毫秒时间戳）
+     **/
+    private final long epoch;
+
+    /**
+     * 时间戳右移位数
+     **/
+    private final int timestampShift;
+
+    /**
+     * 时间戳掩码
+     **/
+    private final long timestampMask;
+
+    /**
+     * 构造函数
+     *
+     * @param epoch 起始时间（毫秒时间戳）
+     * @param timestampShift 时间戳之后的位数
+     * @param timestampBits 时间戳位数
+     * @author 李卓伦
+     * @date 2025/10/25 17:01
+     */
+    public SnowflakeIdDecoder(long epoch, int timestampShift, int timestampBits) {
+        if (timestampShift < 0 || timestampBits <= 0 || timestampShift + timestampBits > 63) {
+            throw new IllegalArgumentException("雪花ID位布局无效: timestampShift=" + timestampShift
+                    + ", timestampBits=" + timestampBits);
+        }
+        this.epoch = epoch;
+        this.timestampShift = timestampShift;
+        this.timestampMask = (1L << timestampBits) - 1;
+    }
+
+    /**
+     * 默认布局（与MyBatis-Plus IdWorker一致）
+     *
+     * @return 解码器
+     * @author 李卓伦
+     * @date 2025/10/25 17:02
+     */
+    public static SnowflakeIdDecoder standard() {
+        return new SnowflakeIdDecoder(DEFAULT_EPOCH, DEFAULT_TIMESTAMP_SHIFT, DEFAULT_TIMESTAMP_BITS);
+    }
+
+    /**
+     * 从雪花ID中解出生成时间
+     *
+     * @param id 雪花ID
+     * @return 毫秒时间戳
+     * @author 李卓伦
+     * @date 2025/10/25 17:03
+     */
+    public long epochMillis(long id) {
+        return ((id >>> timestampShift) & timestampMask) + epoch;
+    }
+
+    @Override
+    public String toString() {
+        return "SnowflakeIdDecoder(epoch=" + epoch + ", timestampShift=" + timestampShift
+                + ", timestampBits=" + Long.bitCount(timestampMask) + ")";
+    }
+}
@@ -0,0 +1,103 @@
+package com.lizhuolun.mybatis.dynamic.strategy.impl;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * 时区偏移缓存
+ * 缓存最近一次命中的两次时区偏移变化（如夏令时切换）之间的区间及其偏移量，
+ * 区间内的毫秒时间戳只需一次整数运算即可换算为epoch-day，不创建Instant、LocalDateTime等对象。
+ * 时区在创建时确定，之后修改JVM默认时区不会影响已创建的缓存
+ *
+ * @author 李卓伦
+ * @date 2025/10/24 12:00
+ */
+final class ZoneOffsetCache {
+
+    /**
+     * 每天的毫秒数
+     **/
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    /**
+     * 时区规则
+     **/
+    private final ZoneRules rules;
+
+    /**
+     * 最近命中的偏移区间
+     **/
+    private volatile Span span;
+
+    /**
+     * 构造函数
+     *
+     * @param zone 时区
+     * @author 李卓伦
+     * @date 2025/10/24 12:01
+     */
+    ZoneOffsetCache(ZoneId zone) {
+        this.rules = zone.getRules();
+        this.span = resolve(System.currentTimeMillis());
+    }
+
+    /**
+     * 毫秒时间戳换算为本地日期的epoch-day
+     *
+     * @param epochMillis 毫秒时间戳
+     * @return epoch-day
+     * @author 李卓伦
+     * @date 2025/10/24 12:02
+     */
+    long epochDay(long epochMillis) {
+        Span current = span;
+        if (epochMillis < current.startMillis || epochMillis >= current.endMillis) {
+            current = resolve(epochMillis);
+            span = current;
+        }
+        return Math.floorDiv(epochMillis + current.offsetMillis, MILLIS_PER_DAY);
+    }
+
+    /**
+     * 查询时间戳所在的偏移区间
+     *
+     * @author 李卓伦
+     * @date 2025/10/24 12:03
+     */
+    private Span resolve(long epochMillis) {
+        Instant instant = Instant.ofEpochMilli(epochMillis);
+        long offsetMillis = rules.getOffset(instant).getTotalSeconds() * 1000L;
+        if (rules.isFixedOffset()) {
+            return new Span(Long.MIN_VALUE, Long.MAX_VALUE, offsetMillis);
+        }
+        // 偏移变化发生在整秒，previousTransition取严格早于参数的变化，因此加1毫秒以包含恰好在变化点上的时间戳
+        ZoneOffsetTransition previous = rules.previousTransition(Instant.ofEpochMilli(epochMillis + 1));
+        ZoneOffsetTransition next = rules.nextTransition(instant);
+        long start = previous != null ? previous.toEpochSecond() * 1000L : Long.MIN_VALUE;
+        long end = next != null ? next.toEpochSecond() * 1000L : Long.MAX_VALUE;
+        return new Span(start, end, offsetMillis);
+    }
+
+    /**
+     * 偏移不变的时间区间[startMillis, endMillis)
+     *
+     * @author 李卓伦
+     * @date 2025/10/24 12:04
+     */
+    private static final class Span {
+
+        final long startMillis;
+
+        final long endMillis;
+
+        final long offsetMillis;
+
+        Span(long startMillis, long endMillis, long offsetMillis) {
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+            this.offsetMillis = offsetMillis;
+        }
+    }
+}
@@ -1,13 +1,29 @@
 package com.lizhuolun.mybatis.dynamic.util;
 
 import com.lizhuolun.mybatis.dynamic.context.DynamicTableContextHolder;
+import com.lizhuolun.mybatis.dynamic.strategy.CachingTableRouterStrategy;
 import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategy;
 import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategyFactory;
+import com.lizhuolun.mybatis.dynamic.strategy.impl.DateBasedTableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.strategy.impl.DateHashShardingKey;
+import com.lizhuolun.mybatis.dynamic.strategy.impl.DateHashTableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.strategy.impl.RangeBasedTableRouterStrategy;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
 /**
@@ -20,6 +36,21 @@ import java.util.function.Supplier;
 @Slf4j
 public class DynamicTableUtils {
 
+    /**
+     * 分表并发查询的默认最大并发数，与常见连接池默认大小一致
+     **/
+    public static final int DEFAULT_MAX_CONCURRENCY = 10;
+
+    /**
+     * 分表并发查询的全局许可，所有并发查询共享，限制同时占用数据库连接的分表任务数
+     **/
+    private static volatile Semaphore scatterPermits = new Semaphore(DEFAULT_MAX_CONCURRENCY);
+
+    /**
+     * 分表并发查询的最大并发数
+     **/
+    private static volatile int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
     /**
      * 私有构造函数，防止实例化
      *
@@ -48,16 +79,16 @@ public class DynamicTableUtils {
         }
         
         try {
-            DynamicTableContextHolder.set(logicTable, actualTable);
             log.debug("设置表名映射并执行操作: {} -> {}", logicTable, actualTable);
-            return operation.get();
-        } catch (Exception e) {
+            return DynamicTableContextHolder.callWithTable(logicTable, actualTable, operation::get);
+        } catch (RuntimeException e) {
             log.error("执行表名映射操作时发生异常: logicTable={}, actualTable={}, error={}", 
                     logicTable, actualTable, e.getMessage(), e);
             throw e;
+        } catch (Throwable e) {
+            throw propagate(e);
         } finally {
-            DynamicTableContextHolder.remove(logicTable);
-            log.debug("清理表名映射: {}", logicTable);
+            log.debug("恢复外层表名映射: {}", logicTable);
         }
     }
 
@@ -78,18 +109,16 @@ public class DynamicTableUtils {
         }
         
         try {
-            DynamicTableContextHolder.setAll(tableMap);
             log.debug("设置多个表名映射并执行操作: {}", tableMap);
-            return operation.get();
-        } catch (Exception e) {
+            return DynamicTableContextHolder.callWithTables(tableMap, operation::get);
+        } catch (RuntimeException e) {
             log.error("执行多表映射操作时发生异常: tableMap={}, error={}", 
                     tableMap, e.getMessage(), e);
             throw e;
+        } catch (Throwable e) {
+            throw propagate(e);
         } finally {
-            for (String logicTable : tableMap.keySet()) {
-                DynamicTableContextHolder.remove(logicTable);
-            }
-            log.debug("清理多个表名映射: {}", tableMap.keySet());
+            log.debug("恢复外层多个表名映射: {}", tableMap.keySet());
         }
     }
 
@@ -112,7 +141,21 @@ public class DynamicTableUtils {
         }
 
         String actualTable = strategy.getActualTableName(logicTable, context);
-        return executeWithTable(logicTable, actualTable, operation);
+        String shadowTable = strategy.getShadowTableName(logicTable, context);
+        if (shadowTable == null) {
+            return executeWithTable(logicTable, actualTable, operation);
+        }
+
+        try {
+            log.debug("设置表名映射并执行操作: {} -> {}, 影子表: {}", logicTable, actualTable, shadowTable);
+            return DynamicTableContextHolder.callWithRoute(logicTable, actualTable, shadowTable, operation::get);
+        } catch (RuntimeException e) {
+            log.error("执行表名映射操作时发生异常: logicTable={}, actualTable={}, shadowTable={}, error={}",
+                    logicTable, actualTable, shadowTable, e.getMessage(), e);
+            throw e;
+        } catch (Throwable e) {
+            throw propagate(e);
+        }
     }
 
     /**
@@ -145,6 +188,359 @@ public class DynamicTableUtils {
         return executeWithStrategy(logicTable, dateTime, operation);
     }
 
+    /**
+     * 基于毫秒时间戳设置表名映射并执行操作
+     *
+     * @param logicTable 逻辑表名
+     * @param epochMillis 毫秒时间戳
+     * @param operation 要执行的操作
+     * @param <T> 返回值类型
+     * @return 操作结果
+     * @author 李卓伦
+     * @date 2025/10/24 12:20
+     */
+    public static <T> T executeWithTimestamp(String logicTable, long epochMillis, Supplier<T> operation) {
+        TableRouterStrategy strategy = TableRouterStrategyFactory.getStrategy(logicTable);
+        if (strategy == null) {
+            log.warn("未找到匹配的分表策略: {}", logicTable);
+            return operation.get();
+        }
+
+        return executeWithTable(logicTable, resolveByTimestamp(strategy, logicTable, epochMillis), operation);
+    }
+
+    /**
+     * 基于雪花ID设置表名映射并执行操作
+     * 日期分表策略配置了雪花ID解码时，从ID中解出生成时间直接路由，无需先查询创建时间
+     *
+     * @param logicTable 逻辑表名
+     * @param id 雪花ID
+     * @param operation 要执行的操作
+     * @param <T> 返回值类型
+     * @return 操作结果
+     * @author 李卓伦
+     * @date 2025/10/25 17:30
+     */
+    public static <T> T executeWithId(String logicTable, long id, Supplier<T> operation) {
+        TableRouterStrategy strategy = TableRouterStrategyFactory.getStrategy(logicTable);
+        if (strategy == null) {
+            log.warn("未找到匹配的分表策略: {}", logicTable);
+            return operation.get();
+        }
+
+        String actualTable;
+        TableRouterStrategy target = CachingTableRouterStrategy.unwrap(strategy);
+        if (target instanceof DateBasedTableRouterStrategy
+                && ((DateBasedTableRouterStrategy) target).getSnowflakeIdDecoder() != null) {
+            actualTable = ((DateBasedTableRouterStrategy) target).getActualTableNameById(logicTable, id);
+        } else {
+            actualTable = strategy.getActualTableName(logicTable, id);
+        }
+        return executeWithTable(logicTable, actualTable, operation);
+    }
+
+    /**
+     * 按日期范围并发查询所有覆盖的分表并合并结果
+     * 每张分表使用一个虚拟线程执行，同时执行的分表数受{@link #setMaxConcurrency(int)}限制
+     *
+     * @param logicTable 逻辑表名
+     * @param from 起始日期（包含）
+     * @param to 结束日期（包含）
+     * @param operation 单表查询操作
+     * @param <T> 结果元素类型
+     * @return 按分表时间先后拼接的结果
+     * @author 李卓伦
+     * @date 2025/10/24 14:10
+     */
+    public static <T> List<T> executeWithDateRange(String logicTable, LocalDate from, LocalDate to,
+                                                   Supplier<? extends Collection<? extends T>> operation) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return executeWithDateRange(logicTable, from, to, operation, executor);
+        }
+    }
+
+    /**
+     * 按日期范围并发查询所有覆盖的分表并合并结果
+     *
+     * @param logicTable 逻辑表名
+     * @param from 起始日期（包含）
+     * @param to 结束日期（包含）
+     * @param operation 单表查询操作
+     * @param executor 执行器
+     * @param <T> 结果元素类型
+     * @return 按分表时间先后拼接的结果
+     * @author 李卓伦
+     * @date 2025/10/24 14:11
+     */
+    public static <T> List<T> executeWithDateRange(String logicTable, LocalDate from, LocalDate to,
+                                                   Supplier<? extends Collection<? extends T>> operation,
+                                                   Executor executor) {
+        TableRouterStrategy strategy = CachingTableRouterStrategy.unwrap(TableRouterStrategyFactory.getStrategy(logicTable));
+        List<String> actualTables;
+        if (strategy instanceof DateBasedTableRouterStrategy) {
+            actualTables = ((DateBasedTableRouterStrategy) strategy).getActualTableNames(logicTable, from, to);
+        } else if (strategy instanceof DateHashTableRouterStrategy) {
+            // 未指定哈希键时查询每个日期下的全部哈希分表
+            actualTables = ((DateHashTableRouterStrategy) strategy).getActualTableNames(logicTable, from, to);
+        } else {
+            log.warn("逻辑表未配置日期分表策略，无法按日期范围路由: {}", logicTable);
+            throw new IllegalArgumentException("逻辑表未配置日期分表策略: " + logicTable);
+        }
+        return executeOnTables(logicTable, actualTables, operation, executor);
+    }
+
+    /**
+     * 按日期范围与哈希键并发查询日期+哈希两级分表并合并结果
+     * 每个日期后缀只查询哈希键所在的一张分表，每张分表使用一个虚拟线程执行
+     *
+     * @param logicTable 逻辑表名
+     * @param from 起始日期（包含）
+     * @param to 结束日期（包含）
+     * @param hashKey 哈希分片键
+     * @param operation 单表查询操作
+     * @param <T> 结果元素类型
+     * @return 按分表时间先后拼接的结果
+     * @author 李卓伦
+     * @date 2025/10/25 15:10
+     */
+    public static <T> List<T> executeWithDateRange(String logicTable, LocalDate from, LocalDate to, Object hashKey,
+                                                   Supplier<? extends Collection<? extends T>> operation) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return executeWithDateRange(logicTable, from, to, hashKey, operation, executor);
+        }
+    }
+
+    /**
+     * 按日期范围与哈希键并发查询日期+哈希两级分表并合并结果
+     *
+     * @param logicTable 逻辑表名
+     * @param from 起始日期（包含）
+     * @param to 结束日期（包含）
+     * @param hashKey 哈希分片键
+     * @param operation 单表查询操作
+     * @param executor 执行器
+     * @param <T> 结果元素类型
+     * @return 按分表时间先后拼接的结果
+     * @author 李卓伦
+     * @date 2025/10/25 15:11
+     */
+    public static <T> List<T> executeWithDateRange(String logicTable, LocalDate from, LocalDate to, Object hashKey,
+                                                   Supplier<? extends Collection<? extends T>> operation,
+                                                   Executor executor) {
+        TableRouterStrategy strategy = CachingTableRouterStrategy.unwrap(TableRouterStrategyFactory.getStrategy(logicTable));
+        if (!(strategy instanceof DateHashTableRouterStrategy)) {
+            log.warn("逻辑表未配置日期+哈希分表策略，无法按日期范围与哈希键路由: {}", logicTable);
+            throw new IllegalArgumentException("逻辑表未配置日期+哈希分表策略: " + logicTable);
+        }
+
+        List<String> actualTables = ((DateHashTableRouterStrategy) strategy)
+                .getActualTableNames(logicTable, from, to, hashKey);
+        return executeOnTables(logicTable, actualTables, operation, executor);
+    }
+
+    /**
+     * 按数值范围并发查询所有重叠的范围分表并合并结果
+     * 每张分表使用一个虚拟线程执行，同时执行的分表数受{@link #setMaxConcurrency(int)}限制
+     *
+     * @param logicTable 逻辑表名
+     * @param from 起始值（包含）
+     * @param to 结束值（包含）
+     * @param operation 单表查询操作
+     * @param <T> 结果元素类型
+     * @return 按分表范围先后拼接的结果
+     * @author 李卓伦
+     * @date 2025/10/25 16:13
+     */
+    public static <T> List<T> executeWithRange(String logicTable, long from, long to,
+                                               Supplier<? extends Collection<? extends T>> operation) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return executeWithRange(logicTable, from, to, operation, executor);
+        }
+    }
+
+    /**
+     * 按数值范围并发查询所有重叠的范围分表并合并结果
+     *
+     * @param logicTable 逻辑表名
+     * @param from 起始值（包含）
+     * @param to 结束值（包含）
+     * @param operation 单表查询操作
+     * @param executor 执行器
+     * @param <T> 结果元素类型
+     * @return 按分表范围先后拼接的结果，范围整体小于第一张分表时返回空列表
+     * @author 李卓伦
+     * @date 2025/10/25 16:14
+     */
+    public static <T> List<T> executeWithRange(String logicTable, long from, long to,
+                                               Supplier<? extends Collection<? extends T>> operation,
+                                               Executor executor) {
+        TableRouterStrategy strategy = CachingTableRouterStrategy.unwrap(TableRouterStrategyFactory.getStrategy(logicTable));
+        if (!(strategy instanceof RangeBasedTableRouterStrategy)) {
+            log.warn("逻辑表未配置范围分表策略，无法按范围路由: {}", logicTable);
+            throw new IllegalArgumentException("逻辑表未配置范围分表策略: " + logicTable);
+        }
+
+        List<String> actualTables = ((RangeBasedTableRouterStrategy) strategy).getActualTableNames(logicTable, from, to);
+        if (actualTables.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return executeOnTables(logicTable, actualTables, operation, executor);
+    }
+
+    /**
+     * 设置分表并发查询的最大并发数
+     * 所有并发查询共享该上限，应不超过连接池大小，否则分表任务会在获取连接时排队或超时。
+     * 修改只影响之后发起的并发查询
+     *
+     * @param concurrency 最大并发数，必须大于0
+     * @author 李卓伦
+     * @date 2025/10/26 12:20
+     */
+    public static void setMaxConcurrency(int concurrency) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("分表并发查询的最大并发数必须大于0: " + concurrency);
+        }
+        synchronized (DynamicTableUtils.class) {
+            scatterPermits = new Semaphore(concurrency);
+            maxConcurrency = concurrency;
+        }
+        log.info("设置分表并发查询最大并发数: {}", concurrency);
+    }
+
+    /**
+     * 获取分表并发查询的最大并发数
+     *
+     * @return 最大并发数
+     * @author 李卓伦
+     * @date 2025/10/26 12:21
+     */
+    public static int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * 在多张分表上并发执行同一操作并按顺序拼接结果
+     * 当前线程已有的其他表名映射会一并带入每个分表任务。
+     * 提交前先获取全局许可，同时执行的分表任务数不超过{@link #getMaxConcurrency()}；任一分表失败后不再提交剩余分表。
+     * 注意：分表任务在其他线程上执行，使用各自的数据库连接，不参与调用方的事务，也读不到调用方事务中未提交的数据；
+     * 许可为全局共享，不要在分表任务中再次发起分表并发查询
+     *
+     * @param logicTable 逻辑表名
+     * @param actualTables 实际表名列表
+     * @param operation 单表查询操作
+     * @param executor 执行器
+     * @param <T> 结果元素类型
+     * @return 按actualTables顺序拼接的结果
+     * @author 李卓伦
+     * @date 2025/10/24 14:12
+     */
+    public static <T> List<T> executeOnTables(String logicTable, List<String> actualTables,
+                                              Supplier<? extends Collection<? extends T>> operation,
+                                              Executor executor) {
+        if (logicTable == null || actualTables == null || actualTables.isEmpty() || operation == null || executor == null) {
+            log.warn("执行分表并发操作失败，参数不能为空: logicTable={}, actualTables={}", logicTable, actualTables);
+            throw new IllegalArgumentException("分表并发操作的参数不能为空");
+        }
+
+        Map<String, String> outerMappings = new HashMap<>(DynamicTableContextHolder.getView());
+        if (actualTables.size() == 1) {
+            return new ArrayList<>(executeOnTable(logicTable, actualTables.get(0), outerMappings, operation));
+        }
+
+        Semaphore permits = scatterPermits;
+        AtomicBoolean failed = new AtomicBoolean();
+        List<CompletableFuture<Collection<? extends T>>> futures = new ArrayList<>(actualTables.size());
+        for (String actualTable : actualTables) {
+            acquire(permits, futures);
+            if (failed.get()) {
+                permits.release();
+                break;
+            }
+            CompletableFuture<Collection<? extends T>> future;
+            try {
+                future = CompletableFuture.supplyAsync(
+                        () -> executeOnTable(logicTable, actualTable, outerMappings, operation), executor);
+            } catch (RuntimeException e) {
+                permits.release();
+                futures.forEach(submitted -> submitted.cancel(false));
+                throw e;
+            }
+            future.whenComplete((part, e) -> {
+                if (e != null) {
+                    failed.set(true);
+                }
+                permits.release();
+            });
+            futures.add(future);
+        }
+
+        List<T> results = new ArrayList<>();
+        try {
+            for (CompletableFuture<Collection<? extends T>> future : futures) {
+                Collection<? extends T> part = future.join();
+                if (part != null) {
+                    results.addAll(part);
+                }
+            }
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(false));
+            log.error("分表并发操作失败: logicTable={}, actualTables={}, error={}",
+                    logicTable, actualTables, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : propagate(e.getCause());
+        }
+        log.debug("分表并发操作完成: logicTable={}, 分表数={}, 结果数={}", logicTable, actualTables.size(), results.size());
+        return results;
+    }
+
+    /**
+     * 获取一个分表并发许可
+     * 等待被中断时取消已提交的分表任务并抛出异常
+     *
+     * @param permits 许可
+     * @param futures 已提交的分表任务
+     * @author 李卓伦
+     * @date 2025/10/26 12:22
+     */
+    private static void acquire(Semaphore permits, List<? extends CompletableFuture<?>> futures) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(false));
+            throw new IllegalStateException("等待分表并发许可时被中断", e);
+        }
+    }
+
+    /**
+     * 在单张分表上执行操作
+     *
+     * @author 李卓伦
+     * @date 2025/10/24 14:13
+     */
+    private static <T> Collection<? extends T> executeOnTable(String logicTable, String actualTable,
+                                                              Map<String, String> outerMappings,
+                                                              Supplier<? extends Collection<? extends T>> operation) {
+        Map<String, String> tableMap = new HashMap<>(outerMappings);
+        tableMap.put(logicTable, actualTable);
+        return executeWithTables(tableMap, operation::get);
+    }
+
+    /**
+     * 基于日期与哈希键设置日期+哈希两级分表的表名映射并执行操作
+     *
+     * @param logicTable 逻辑表名
+     * @param date 日期分片键
+     * @param hashKey 哈希分片键
+     * @param operation 要执行的操作
+     * @param <T> 返回值类型
+     * @return 操作结果
+     * @author 李卓伦
+     * @date 2025/10/25 15:12
+     */
+    public static <T> T executeWithDateHash(String logicTable, Object date, Object hashKey, Supplier<T> operation) {
+        return executeWithStrategy(logicTable, DateHashShardingKey.of(date, hashKey), operation);
+    }
+
     /**
      * 基于哈希值设置表名映射并执行操作
      *
@@ -225,6 +621,39 @@ public class DynamicTableUtils {
         return strategy.getActualTableName(logicTable, context);
     }
 
+    /**
+     * 获取实际表名（通过毫秒时间戳）
+     * 参数始终按毫秒时间戳处理；{@link #getActualTableName(String, Object)}传入Long时，日期策略配置了雪花ID解码器会按雪花ID路由
+     *
+     * @param logicTable 逻辑表名
+     * @param epochMillis 毫秒时间戳
+     * @return 实际表名
+     * @author 李卓伦
+     * @date 2025/10/24 12:21
+     */
+    public static String getActualTableNameByEpochMillis(String logicTable, long epochMillis) {
+        TableRouterStrategy strategy = TableRouterStrategyFactory.getStrategy(logicTable);
+        if (strategy == null) {
+            log.warn("未找到匹配的分表策略，返回原表名: {}", logicTable);
+            return logicTable;
+        }
+        return resolveByTimestamp(strategy, logicTable, epochMillis);
+    }
+
+    /**
+     * 按毫秒时间戳路由，日期策略走无装箱的原始类型路径
+     *
+     * @author 李卓伦
+     * @date 2025/10/24 12:22
+     */
+    private static String resolveByTimestamp(TableRouterStrategy strategy, String logicTable, long epochMillis) {
+        TableRouterStrategy target = CachingTableRouterStrategy.unwrap(strategy);
+        if (target instanceof DateBasedTableRouterStrategy) {
+            return ((DateBasedTableRouterStrategy) target).getActualTableNameByEpochMillis(logicTable, epochMillis);
+        }
+        return strategy.getActualTableName(logicTable, (Object) epochMillis);
+    }
+
     /**
      * 检查是否存在指定表的策略
      *
@@ -248,6 +677,21 @@ public class DynamicTableUtils {
         return DynamicTableContextHolder.getAll();
     }
 
+    /**
+     * 将操作抛出的异常转换为运行时异常，Error直接抛出
+     *
+     * @param e 异常
+     * @return 包装后的运行时异常
+     * @author 李卓伦
+     * @date 2025/10/21 09:40
+     */
+    private static RuntimeException propagate(Throwable e) {
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new IllegalStateException("执行表名映射操作失败", e);
+    }
+
     /**
      * 清理当前线程的所有表名映射
      *
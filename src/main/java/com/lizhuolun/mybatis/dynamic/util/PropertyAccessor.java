@@ -0,0 +1,218 @@
+package com.lizhuolun.mybatis.dynamic.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+/**
+ * 属性访问器
+ * 按声明类型把属性路径（如order.createTime）一次性解析为getter/字段的MethodHandle链，
+ * 之后每次读取只做MethodHandle调用，不再反射查找；声明类型为Map的一段按键取值
+ *
+ * @author 李卓伦
+ * @date 2025/10/25 14:20
+ */
+public final class PropertyAccessor {
+
+    /**
+     * 统一后的getter签名
+     **/
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    /**
+     * 属性路径
+     **/
+    private final String path;
+
+    /**
+     * 每一段的属性名
+     **/
+    private final String[] names;
+
+    /**
+     * 每一段的读取句柄，按Map取值的段为null
+     **/
+    private final MethodHandle[] getters;
+
+    private PropertyAccessor(String path, String[] names, MethodHandle[] getters) {
+        this.path = path;
+        this.names = names;
+        this.getters = getters;
+    }
+
+    /**
+     * 解析属性路径
+     *
+     * @param type 根对象的类型
+     * @param path 属性路径，以'.'分隔
+     * @return 属性访问器
+     * @throws IllegalArgumentException 属性不存在或不可访问
+     * @author 李卓伦
+     * @date 2025/10/25 14:21
+     */
+    public static PropertyAccessor of(Class<?> type, String path) {
+        if (type == null || path == null || path.trim().isEmpty()) {
+            throw new IllegalArgumentException("属性路径不能为空");
+        }
+        String[] names = path.trim().split("\\.");
+        MethodHandle[] getters = new MethodHandle[names.length];
+        Class<?> current = type;
+        for (int i = 0; i < names.length; i++) {
+            if (Map.class.isAssignableFrom(current)) {
+                getters[i] = null;
+                current = Object.class;
+                continue;
+            }
+            if (current == Object.class) {
+                throw new IllegalArgumentException("无法解析属性路径: " + path + "，" + names[i] + "的所属类型未知");
+            }
+            Member member = findMember(current, names[i]);
+            if (member == null) {
+                throw new IllegalArgumentException("属性不存在: " + current.getName() + "." + names[i]);
+            }
+            getters[i] = member.handle;
+            current = member.type.isPrimitive() ? Object.class : member.type;
+        }
+        return new PropertyAccessor(path, names, getters);
+    }
+
+    /**
+     * 解析属性路径，属性不存在时返回null
+     *
+     * @param type 根对象的类型
+     * @param path 属性路径
+     * @return 属性访问器，无法解析时返回null
+     * @author 李卓伦
+     * @date 2025/10/25 14:22
+     */
+    public static PropertyAccessor find(Class<?> type, String path) {
+        try {
+            return of(type, path);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 读取属性值，路径中任一段为null时返回null
+     *
+     * @param target 根对象
+     * @return 属性值
+     * @author 李卓伦
+     * @date 2025/10/25 14:23
+     */
+    public Object get(Object target) {
+        Object value = target;
+        for (int i = 0; i < getters.length && value != null; i++) {
+            MethodHandle getter = getters[i];
+            if (getter == null) {
+                value = ((Map<?, ?>) value).get(names[i]);
+                continue;
+            }
+            try {
+                value = getter.invokeExact(value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("读取属性失败: " + path, e);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 获取属性路径
+     *
+     * @return 属性路径
+     * @author 李卓伦
+     * @date 2025/10/25 14:24
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * 依次查找getX()、isX()、记录类访问器x()和字段x
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 14:25
+     */
+    private static Member findMember(Class<?> type, String name) {
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        String[] methodNames = {"get" + capitalized, "is" + capitalized, name};
+        for (int i = 0; i < methodNames.length; i++) {
+            Method method = findMethod(type, methodNames[i]);
+            if (method == null || method.getReturnType() == void.class
+                    || (i == 1 && method.getReturnType() != boolean.class && method.getReturnType() != Boolean.class)) {
+                continue;
+            }
+            MethodHandle handle = unreflect(method);
+            if (handle != null) {
+                return new Member(handle, method.getReturnType());
+            }
+        }
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            try {
+                Field field = c.getDeclaredField(name);
+                if (Modifier.isStatic(field.getModifiers())) {
+                    return null;
+                }
+                field.setAccessible(true);
+                return new Member(MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE), field.getType());
+            } catch (NoSuchFieldException e) {
+                // 继续查找父类
+            } catch (RuntimeException | IllegalAccessException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static Method findMethod(Class<?> type, String name) {
+        try {
+            Method method = type.getMethod(name);
+            return Modifier.isStatic(method.getModifiers()) ? null : method;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                method.setAccessible(true);
+            }
+            return MethodHandles.lookup().unreflect(method).asType(GETTER_TYPE);
+        } catch (RuntimeException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 已解析的属性
+     *
+     * @author 李卓伦
+     * @date 2025/10/25 14:26
+     */
+    private static final class Member {
+
+        /**
+         * 读取句柄
+         **/
+        final MethodHandle handle;
+
+        /**
+         * 声明类型
+         **/
+        final Class<?> type;
+
+        Member(MethodHandle handle, Class<?> type) {
+            this.handle = handle;
+            this.type = type;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.lizhuolun.mybatis.dynamic.aspect;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 分表键提取器测试
+ * 覆盖参数名/参数索引、属性路径（声明类型与运行时类型）、SpEL表达式及#p0、#a0位置别名，
+ * 以及表达式求值中嵌套触发另一个提取器后外层参数的恢复
+ *
+ * @author 李卓伦
+ * @date 2025/10/26 13:20
+ */
+class ShardingKeyExtractorTest {
+
+    /**
+     * 表达式求值中被嵌套调用的提取器
+     **/
+    static ShardingKeyExtractor inner;
+
+    @Test
+    void extractsByParameterNameOrIndex() throws Exception {
+        Method method = method("byOrder");
+        Object[] args = {"tenant-a", new Order(7L, "2025-10-26")};
+
+        assertEquals("tenant-a", ShardingKeyExtractor.compile(method, "tenantId", -1).extract(args));
+        assertSame(args[1], ShardingKeyExtractor.compile(method, null, 1).extract(args));
+        assertSame(ShardingKeyExtractor.NONE, ShardingKeyExtractor.compile(method, null, 2));
+        assertSame(ShardingKeyExtractor.NONE, ShardingKeyExtractor.compile(method, "missing", -1));
+        assertNull(ShardingKeyExtractor.NONE.extract(args));
+    }
+
+    @Test
+    void extractsPropertyPath() throws Exception {
+        ShardingKeyExtractor extractor = ShardingKeyExtractor.compile(method("byOrder"), "order.createTime", -1);
+
+        assertEquals("2025-10-26", extractor.extract(new Object[]{"t", new Order(1L, "2025-10-26")}));
+        assertNull(extractor.extract(new Object[]{"t", null}));
+    }
+
+    @Test
+    void resolvesPropertyPathByRuntimeTypeWhenDeclaredTypeLacksIt() throws Exception {
+        ShardingKeyExtractor extractor = ShardingKeyExtractor.compile(method("byObject"), "arg.id", -1);
+
+        assertEquals(7L, extractor.extract(new Object[]{new Order(7L, "2025-10-26")}));
+        assertEquals(8L, extractor.extract(new Object[]{new Order(8L, "2025-10-27")}));
+        assertNull(extractor.extract(new Object[]{"没有id属性"}));
+    }
+
+    @Test
+    void evaluatesExpressionOverParameterNames() throws Exception {
+        ShardingKeyExtractor extractor = ShardingKeyExtractor.compile(method("byRequest"),
+                "#req.tenantId + ':' + #req.region", null, -1);
+
+        // 第二次求值走编译后的字节码
+        assertEquals("a:cn", extractor.extract(new Object[]{new Request("a", "cn")}));
+        assertEquals("b:us", extractor.extract(new Object[]{new Request("b", "us")}));
+    }
+
+    @Test
+    void evaluatesPositionalAliases() throws Exception {
+        Method method = method("byOrder");
+        Object[] args = {"tenant-a", new Order(7L, "2025-10-26")};
+
+        assertEquals("tenant-a", ShardingKeyExtractor.compile(method, "#p0", null, -1).extract(args));
+        assertEquals(7L, ShardingKeyExtractor.compile(method, "#a1.id", null, -1).extract(args));
+        assertEquals("tenant-a:7", ShardingKeyExtractor.compile(method, "#p0 + ':' + #a1.id", null, -1)
+                .extract(args));
+        assertNull(ShardingKeyExtractor.compile(method, "#p2", null, -1).extract(args));
+    }
+
+    @Test
+    void blankExpressionFallsBackToParameterName() throws Exception {
+        ShardingKeyExtractor extractor = ShardingKeyExtractor.compile(method("byOrder"), "  ", "tenantId", -1);
+
+        assertEquals("tenant-a", extractor.extract(new Object[]{"tenant-a", null}));
+    }
+
+    @Test
+    void nestedEvaluationRestoresOuterArguments() throws Exception {
+        inner = ShardingKeyExtractor.compile(method("byRequest"), "#req.region + '-' + #p0.tenantId", null, -1);
+        ShardingKeyExtractor outer = ShardingKeyExtractor.compile(method("byOrder"),
+                "T(com.lizhuolun.mybatis.dynamic.aspect.ShardingKeyExtractorTest.Nested).route(#order) + '/' + #p0 + '/' + #a1.id",
+                null, -1);
+
+        for (int i = 0; i < 2; i++) {
+            assertEquals("cn-inner/tenant-a/7", outer.extract(new Object[]{"tenant-a", new Order(7L, "2025-10-26")}));
+        }
+        assertEquals("us-b", inner.extract(new Object[]{new Request("b", "us")}));
+    }
+
+    private static Method method(String name) {
+        for (Method method : Signatures.class.getDeclaredMethods()) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    interface Signatures {
+
+        void byOrder(String tenantId, Order order);
+
+        void byObject(Object arg);
+
+        void byRequest(Request req);
+    }
+
+    public static class Nested {
+
+        /**
+         * 在外层表达式求值过程中，同一线程上求值另一个提取器
+         */
+        public static String route(Order order) {
+            return (String) inner.extract(new Object[]{new Request("inner", "cn")});
+        }
+    }
+
+    public static class Order {
+
+        private final Long id;
+
+        private final String createTime;
+
+        Order(Long id, String createTime) {
+            this.id = id;
+            this.createTime = createTime;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getCreateTime() {
+            return createTime;
+        }
+    }
+
+    public static class Request {
+
+        private final String tenantId;
+
+        private final String region;
+
+        Request(String tenantId, String region) {
+            this.tenantId = tenantId;
+            this.region = region;
+        }
+
+        public String getTenantId() {
+            return tenantId;
+        }
+
+        public String getRegion() {
+            return region;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.lizhuolun.mybatis.dynamic.config;
+
+import com.lizhuolun.mybatis.dynamic.strategy.CachingTableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategyFactory;
+import com.lizhuolun.mybatis.dynamic.strategy.hash.HashAlgorithm;
+import com.lizhuolun.mybatis.dynamic.strategy.impl.HashBasedTableRouterStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * 自动配置注册测试：同一类型的多个配置组各自注册为独立的策略实例，表配置各自的路由缓存生效
+ *
+ * @author 李卓伦
+ * @date 2025/10/26 13:45
+ */
+class DynamicTableAutoConfigurationTest {
+
+    private final DynamicTableProperties properties = new DynamicTableProperties();
+
+    @AfterEach
+    void tearDown() {
+        TableRouterStrategyFactory.clear();
+    }
+
+    @Test
+    void everyHashShardingGroupKeepsItsOwnAlgorithm() {
+        properties.setHashSharding(List.of(
+                hashSharding("t_order", 4, HashAlgorithm.IDENTITY),
+                hashSharding("t_user", 8, HashAlgorithm.MURMUR3)));
+
+        new DynamicTableAutoConfiguration(properties).init();
+
+        assertEquals(2, TableRouterStrategyFactory.getStrategyCount());
+        HashBasedTableRouterStrategy order = (HashBasedTableRouterStrategy) TableRouterStrategyFactory.getStrategy("t_order");
+        HashBasedTableRouterStrategy user = (HashBasedTableRouterStrategy) TableRouterStrategyFactory.getStrategy("t_user");
+        assertEquals("HashBasedTableRouterStrategy", order.getStrategyName());
+        assertEquals("HashBasedTableRouterStrategy#2", user.getStrategyName());
+        assertEquals(HashAlgorithm.IDENTITY, order.getHashAlgorithm());
+        assertEquals(HashAlgorithm.MURMUR3, user.getHashAlgorithm());
+        assertEquals(8, user.getTableCount());
+        assertEquals("t_order_1", order.getActualTableName("t_order", 5L));
+        assertEquals("t_user_" + HashAlgorithm.MURMUR3.hash(5L) % 8, user.getActualTableName("t_user", 5L));
+    }
+
+    @Test
+    void everyTableConfigKeepsItsOwnRouteCache() {
+        properties.setTables(List.of(tableConfig("t_order", 4, true), tableConfig("t_user", 8, true),
+                tableConfig("t_item", 2, false)));
+
+        new DynamicTableAutoConfiguration(properties).init();
+
+        assertEquals(3, TableRouterStrategyFactory.getStrategyCount());
+        CachingTableRouterStrategy order = (CachingTableRouterStrategy) TableRouterStrategyFactory.getStrategy("t_order");
+        CachingTableRouterStrategy user = (CachingTableRouterStrategy) TableRouterStrategyFactory.getStrategy("t_user");
+        assertInstanceOf(HashBasedTableRouterStrategy.class, TableRouterStrategyFactory.getStrategy("t_item"));
+        assertEquals(8, ((HashBasedTableRouterStrategy) user.getDelegate()).getTableCount());
+
+        order.getActualTableName("t_order", 5L);
+        user.getActualTableName("t_user", 5L);
+        user.getActualTableName("t_user", 5L);
+        assertEquals(1, order.size());
+        assertEquals(1, user.getHitCount());
+    }
+
+    private static DynamicTableProperties.HashShardingConfig hashSharding(String table, int tableCount,
+                                                                          HashAlgorithm algorithm) {
+        DynamicTableProperties.HashShardingConfig config = new DynamicTableProperties.HashShardingConfig();
+        config.setTables(List.of(table));
+        config.setTableCount(tableCount);
+        config.setHashAlgorithm(algorithm);
+        return config;
+    }
+
+    private static DynamicTableProperties.TableConfig tableConfig(String table, int modValue, boolean cached) {
+        DynamicTableProperties.TableConfig config = new DynamicTableProperties.TableConfig();
+        config.setTableName(table);
+        config.setStrategy("HASH");
+        config.setModValue(modValue);
+        config.getCache().setEnabled(cached);
+        return config;
+    }
+}
@@ -0,0 +1,111 @@
+package com.lizhuolun.mybatis.dynamic.context;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 表名上下文测试：嵌套绑定的恢复、清空后映射实例的复用与SCOPED_VALUE模式下的读取和命令式修改
+ *
+ * @author 李卓伦
+ * @date 2025/10/26 11:45
+ */
+class DynamicTableContextHolderTest {
+
+    @AfterEach
+    void tearDown() {
+        DynamicTableContextHolder.setMode(ContextMode.THREAD_LOCAL);
+        DynamicTableContextHolder.clear();
+    }
+
+    @Test
+    void nestedBindingRestoresOuterTable() throws Throwable {
+        DynamicTableContextHolder.callWithTable("t_order", "t_order_0", () -> {
+            DynamicTableContextHolder.callWithTable("t_order", "t_order_1", () -> {
+                assertEquals("t_order_1", DynamicTableContextHolder.get("t_order"));
+                return null;
+            });
+            assertEquals("t_order_0", DynamicTableContextHolder.get("t_order"));
+            return null;
+        });
+        assertNull(DynamicTableContextHolder.get("t_order"));
+    }
+
+    @Test
+    void threadLocalModeAllowsSettersInsideBinding() throws Throwable {
+        DynamicTableContextHolder.callWithTable("t_order", "t_order_0", () -> {
+            DynamicTableContextHolder.set("t_user", "t_user_1");
+            assertEquals("t_user_1", DynamicTableContextHolder.get("t_user"));
+            return null;
+        });
+        assertEquals("t_user_1", DynamicTableContextHolder.get("t_user"));
+    }
+
+    @Test
+    void clearKeepsThreadMapForReuse() {
+        DynamicTableContextHolder.set("t_order", "t_order_0");
+        Map<String, String> view = DynamicTableContextHolder.getView();
+
+        DynamicTableContextHolder.clear();
+        assertEquals(0, DynamicTableContextHolder.size());
+        DynamicTableContextHolder.set("t_order", "t_order_1");
+        assertSame(view, DynamicTableContextHolder.getView());
+        assertEquals("t_order_1", DynamicTableContextHolder.get("t_order"));
+    }
+
+    @Test
+    void scopedModeReadsWithoutBinding() {
+        assumeTrue(ScopedTableContext.isSupported(), "当前运行时不支持ScopedValue");
+        DynamicTableContextHolder.setMode(ContextMode.SCOPED_VALUE);
+
+        assertNull(ScopedTableContext.current());
+        assertNull(DynamicTableContextHolder.get("t_order"));
+        assertFalse(DynamicTableContextHolder.contains("t_order"));
+        assertEquals(0, DynamicTableContextHolder.size());
+    }
+
+    @Test
+    void scopedModeRejectsSettersInsideScope() throws Throwable {
+        assumeTrue(ScopedTableContext.isSupported(), "当前运行时不支持ScopedValue");
+        DynamicTableContextHolder.setMode(ContextMode.SCOPED_VALUE);
+
+        DynamicTableContextHolder.callWithTable("t_order", "t_order_0", () -> {
+            assertThrows(IllegalStateException.class, () -> DynamicTableContextHolder.set("t_order", "t_order_1"));
+            assertThrows(IllegalStateException.class,
+                    () -> DynamicTableContextHolder.setAll(Map.of("t_order", "t_order_1")));
+            assertThrows(IllegalStateException.class, () -> DynamicTableContextHolder.remove("t_order"));
+            assertEquals("t_order_0", DynamicTableContextHolder.get("t_order"));
+
+            DynamicTableContextHolder.callWithTable("t_order", "t_order_1", () -> {
+                assertEquals("t_order_1", DynamicTableContextHolder.get("t_order"));
+                return null;
+            });
+            assertEquals("t_order_0", DynamicTableContextHolder.get("t_order"));
+            return null;
+        });
+    }
+
+    @Test
+    void scopedModeAllowsSettersOutsideScope() throws Throwable {
+        assumeTrue(ScopedTableContext.isSupported(), "当前运行时不支持ScopedValue");
+        DynamicTableContextHolder.setMode(ContextMode.SCOPED_VALUE);
+
+        DynamicTableContextHolder.set("t_order", "t_order_1");
+        assertEquals("t_order_1", DynamicTableContextHolder.get("t_order"));
+        DynamicTableContextHolder.callWithTable("t_user", "t_user_0", () -> {
+            assertEquals("t_order_1", DynamicTableContextHolder.get("t_order"));
+            assertEquals("t_user_0", DynamicTableContextHolder.get("t_user"));
+            return null;
+        });
+        DynamicTableContextHolder.remove("t_order");
+        assertNull(DynamicTableContextHolder.get("t_order"));
+    }
+}
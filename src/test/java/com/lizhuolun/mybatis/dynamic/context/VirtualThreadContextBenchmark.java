@@ -0,0 +1,77 @@
+package com.lizhuolun.mybatis.dynamic.context;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 虚拟线程下的表名上下文基准测试
+ * 每次操作启动100k个虚拟线程，每个线程绑定映射后读取两次（模拟一次查询的拦截器读取），对比THREAD_LOCAL与SCOPED_VALUE模式。
+ * 单次操作耗时即100k线程的吞吐；内存占用通过GC分析器观察：追加参数-prof gc，gc.alloc.rate.norm为每100k线程的分配字节数
+ *
+ * @author 李卓伦
+ * @date 2025/10/26 11:50
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VirtualThreadContextBenchmark {
+
+    private static final int THREADS = 100_000;
+
+    @Param({"THREAD_LOCAL", "SCOPED_VALUE"})
+    private ContextMode mode;
+
+    @Setup
+    public void setUp() {
+        DynamicTableContextHolder.setMode(mode);
+    }
+
+    @TearDown
+    public void tearDown() {
+        DynamicTableContextHolder.setMode(ContextMode.THREAD_LOCAL);
+    }
+
+    @Benchmark
+    public long callWithTable() {
+        LongAdder resolved = new LongAdder();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < THREADS; i++) {
+                String actualTable = (i & 1) == 0 ? "t_order_0" : "t_order_1";
+                executor.execute(() -> resolve(actualTable, resolved));
+            }
+        }
+        return resolved.sum();
+    }
+
+    private static void resolve(String actualTable, LongAdder resolved) {
+        try {
+            DynamicTableContextHolder.callWithTable("t_order", actualTable, () -> {
+                if (DynamicTableContextHolder.get("t_order") != null
+                        && DynamicTableContextHolder.getView().containsKey("t_order")) {
+                    resolved.increment();
+                }
+                return null;
+            });
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.lizhuolun.mybatis.dynamic.interceptor;
+
+import com.lizhuolun.mybatis.dynamic.annotation.ShardingKey;
+import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategyFactory;
+import com.lizhuolun.mybatis.dynamic.strategy.hash.HashAlgorithm;
+import com.lizhuolun.mybatis.dynamic.strategy.impl.HashBasedTableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.support.H2MyBatisSupport;
+import com.lizhuolun.mybatis.dynamic.util.DynamicTableUtils;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 动态表名拦截器在各执行器下的路由测试
+ * 同一会话中相邻两条语句路由到不同分表：BATCH执行器按SQL文本合并批次，REUSE执行器按SQL文本缓存语句，
+ * 只有在执行器比较SQL之前完成替换，第二条语句才会进入自己的分表。
+ * 路由分别来自表名上下文与语句参数（参数分表）
+ *
+ * @author 李卓伦
+ * @date 2025/10/26 10:35
+ */
+class DynamicTableNameInnerInterceptorTest {
+
+    private DataSource dataSource;
+
+    private SqlSessionFactory sessionFactory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = H2MyBatisSupport.newDataSource();
+        H2MyBatisSupport.execute(dataSource,
+                "CREATE TABLE t_order_0 (id BIGINT PRIMARY KEY, name VARCHAR(32))",
+                "CREATE TABLE t_order_1 (id BIGINT PRIMARY KEY, name VARCHAR(32))");
+        sessionFactory = H2MyBatisSupport.newSessionFactory(dataSource, new DynamicTableNameInnerInterceptor(),
+                OrderMapper.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TableRouterStrategyFactory.clear();
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExecutorType.class)
+    void insertRoutesEachRowToItsShard(ExecutorType executorType) throws Exception {
+        try (SqlSession session = sessionFactory.openSession(executorType)) {
+            OrderMapper mapper = session.getMapper(OrderMapper.class);
+            DynamicTableUtils.executeWithTable("t_order", "t_order_0", () -> mapper.insert(1L, "a"));
+            DynamicTableUtils.executeWithTable("t_order", "t_order_1", () -> mapper.insert(2L, "b"));
+            session.flushStatements();
+            session.commit();
+        }
+
+        assertEquals(List.of(1L), ids("t_order_0"));
+        assertEquals(List.of(2L), ids("t_order_1"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExecutorType.class)
+    void updateAndDeleteRouteEachRowToItsShard(ExecutorType executorType) throws Exception {
+        H2MyBatisSupport.execute(dataSource,
+                "INSERT INTO t_order_0 VALUES (1, 'a'), (2, 'a')",
+                "INSERT INTO t_order_1 VALUES (1, 'b'), (2, 'b')");
+
+        try (SqlSession session = sessionFactory.openSession(executorType)) {
+            OrderMapper mapper = session.getMapper(OrderMapper.class);
+            DynamicTableUtils.executeWithTable("t_order", "t_order_0", () -> mapper.rename(1L, "x"));
+            DynamicTableUtils.executeWithTable("t_order", "t_order_1", () -> mapper.rename(1L, "y"));
+            DynamicTableUtils.executeWithTable("t_order", "t_order_0", () -> mapper.delete(2L));
+            DynamicTableUtils.executeWithTable("t_order", "t_order_1", () -> mapper.delete(1L));
+            session.flushStatements();
+            session.commit();
+        }
+
+        try (SqlSession session = sessionFactory.openSession(executorType)) {
+            OrderMapper mapper = session.getMapper(OrderMapper.class);
+            assertEquals("x", DynamicTableUtils.executeWithTable("t_order", "t_order_0", () -> mapper.selectName(1L)));
+            assertEquals("b", DynamicTableUtils.executeWithTable("t_order", "t_order_1", () -> mapper.selectName(2L)));
+        }
+        assertEquals(List.of(1L), ids("t_order_0"));
+        assertEquals(List.of(2L), ids("t_order_1"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExecutorType.class)
+    void parameterShardingRoutesEachRowToItsShard(ExecutorType executorType) throws Exception {
+        TableRouterStrategyFactory.register(
+                new HashBasedTableRouterStrategy(Set.of("t_order"), 2, 1, HashAlgorithm.IDENTITY));
+        DynamicTableNameInnerInterceptor interceptor = new DynamicTableNameInnerInterceptor();
+        interceptor.setParameterShardingKeyResolver(new ParameterShardingKeyResolver(Map.of("t_order", "id")));
+        SqlSessionFactory parameterRouted = H2MyBatisSupport.newSessionFactory(dataSource, interceptor,
+                OrderMapper.class);
+
+        try (SqlSession session = parameterRouted.openSession(executorType)) {
+            OrderMapper mapper = session.getMapper(OrderMapper.class);
+            for (long id = 1; id <= 4; id++) {
+                mapper.insertOrder(new Order(id, "o" + id));
+            }
+            mapper.rename(3L, "x");
+            mapper.rename(4L, "y");
+            session.flushStatements();
+            session.commit();
+        }
+
+        assertEquals(List.of(2L, 4L), ids("t_order_0"));
+        assertEquals(List.of(1L, 3L), ids("t_order_1"));
+        try (SqlSession session = parameterRouted.openSession(executorType)) {
+            OrderMapper mapper = session.getMapper(OrderMapper.class);
+            assertEquals("x", mapper.selectName(3L));
+            assertEquals("y", mapper.selectName(4L));
+        }
+    }
+
+    private List<Long> ids(String table) throws Exception {
+        return H2MyBatisSupport.queryLongs(dataSource, "SELECT id FROM " + table + " ORDER BY id");
+    }
+
+    interface OrderMapper {
+
+        @Insert("INSERT INTO t_order (id, name) VALUES (#{id}, #{name})")
+        int insert(@Param("id") long id, @Param("name") String name);
+
+        @Insert("INSERT INTO t_order (id, name) VALUES (#{id}, #{name})")
+        int insertOrder(Order order);
+
+        @Update("UPDATE t_order SET name = #{name} WHERE id = #{id}")
+        int rename(@Param("id") long id, @Param("name") String name);
+
+        @Delete("DELETE FROM t_order WHERE id = #{id}")
+        int delete(@Param("id") long id);
+
+        @Select("SELECT name FROM t_order WHERE id = #{id}")
+        String selectName(@Param("id") long id);
+    }
+
+    public static class Order {
+
+        @ShardingKey
+        private final Long id;
+
+        private final String name;
+
+        Order(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.lizhuolun.mybatis.dynamic.interceptor;
+
+import com.lizhuolun.mybatis.dynamic.context.DynamicTableContextHolder;
+import com.lizhuolun.mybatis.dynamic.support.H2MyBatisSupport;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.SelectKey;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 影子表双写插件测试
+ *
+ * @author 李卓伦
+ * @date 2025/10/26 11:10
+ */
+class ShadowTableWriteInterceptorTest {
+
+    private DataSource dataSource;
+
+    private SqlSessionFactory sessionFactory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = H2MyBatisSupport.newDataSource();
+        H2MyBatisSupport.execute(dataSource,
+                "CREATE TABLE t_user_0 (id BIGINT PRIMARY KEY, name VARCHAR(32))",
+                "CREATE TABLE t_user_1 (id BIGINT PRIMARY KEY, name VARCHAR(32))",
+                "CREATE TABLE t_user_new_0 (id BIGINT PRIMARY KEY, name VARCHAR(32))",
+                "CREATE TABLE t_user_new_1 (id BIGINT PRIMARY KEY, name VARCHAR(32))",
+                "CREATE TABLE t_item_0 (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(32))",
+                "CREATE TABLE t_item_new_0 (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(32))",
+                "CREATE SEQUENCE seq_item");
+        sessionFactory = H2MyBatisSupport.newSessionFactory(dataSource, new DynamicTableNameInnerInterceptor(),
+                UserMapper.class, new ShadowTableWriteInterceptor());
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = ExecutorType.class, names = {"SIMPLE", "REUSE"})
+    void everyRowIsWrittenToItsShadowTable(ExecutorType executorType) throws Throwable {
+        try (SqlSession session = sessionFactory.openSession(executorType)) {
+            UserMapper mapper = session.getMapper(UserMapper.class);
+            DynamicTableContextHolder.callWithRoute("t_user", "t_user_0", "t_user_new_1", () -> mapper.insert(1L, "a"));
+            DynamicTableContextHolder.callWithRoute("t_user", "t_user_1", "t_user_new_0", () -> mapper.insert(2L, "b"));
+            session.commit();
+        }
+
+        assertEquals(List.of(1L), ids("t_user_0"));
+        assertEquals(List.of(2L), ids("t_user_1"));
+        assertEquals(List.of(2L), ids("t_user_new_0"));
+        assertEquals(List.of(1L), ids("t_user_new_1"));
+    }
+
+    @Test
+    void shadowFailureRollsBackTheMainWrite() throws Throwable {
+        H2MyBatisSupport.execute(dataSource, "INSERT INTO t_user_new_1 VALUES (1, 'exists')");
+
+        try (SqlSession session = sessionFactory.openSession(ExecutorType.SIMPLE)) {
+            UserMapper mapper = session.getMapper(UserMapper.class);
+            assertThrows(PersistenceException.class, () -> DynamicTableContextHolder.callWithRoute(
+                    "t_user", "t_user_0", "t_user_new_1", () -> mapper.insert(1L, "a")));
+            session.rollback();
+        }
+        assertTrue(ids("t_user_0").isEmpty());
+    }
+
+    @Test
+    void batchExecutorIsRejectedWhileDualWriting() throws Throwable {
+        try (SqlSession session = sessionFactory.openSession(ExecutorType.BATCH)) {
+            UserMapper mapper = session.getMapper(UserMapper.class);
+            assertThrows(PersistenceException.class, () -> DynamicTableContextHolder.callWithRoute(
+                    "t_user", "t_user_0", "t_user_new_1", () -> mapper.insert(1L, "a")));
+
+            // 没有影子映射的语句不受影响
+            DynamicTableContextHolder.callWithTable("t_user", "t_user_1", () -> mapper.insert(2L, "b"));
+            session.flushStatements();
+            session.commit();
+        }
+        assertEquals(List.of(2L), ids("t_user_1"));
+        assertTrue(ids("t_user_new_1").isEmpty());
+    }
+
+    @Test
+    void databaseGeneratedKeyIsRejectedWhileDualWriting() throws Throwable {
+        try (SqlSession session = sessionFactory.openSession(ExecutorType.SIMPLE)) {
+            UserMapper mapper = session.getMapper(UserMapper.class);
+            assertThrows(PersistenceException.class, () -> DynamicTableContextHolder.callWithRoute(
+                    "t_item", "t_item_0", "t_item_new_0", () -> mapper.insertAutoIncrement(new Item("a"))));
+            session.rollback();
+
+            // 没有影子映射时自增主键照常使用
+            Item item = new Item("b");
+            DynamicTableContextHolder.callWithTable("t_item", "t_item_0", () -> mapper.insertAutoIncrement(item));
+            session.commit();
+            assertEquals(List.of(item.getId()), ids("t_item_0"));
+        }
+        assertTrue(ids("t_item_new_0").isEmpty());
+    }
+
+    @Test
+    void keySelectedBeforeInsertIsSharedWithShadowTable() throws Throwable {
+        try (SqlSession session = sessionFactory.openSession(ExecutorType.SIMPLE)) {
+            UserMapper mapper = session.getMapper(UserMapper.class);
+            Item item = new Item("a");
+            DynamicTableContextHolder.callWithRoute("t_item", "t_item_0", "t_item_new_0",
+                    () -> mapper.insertWithSequence(item));
+            session.commit();
+            assertEquals(List.of(item.getId()), ids("t_item_0"));
+            assertEquals(List.of(item.getId()), ids("t_item_new_0"));
+        }
+    }
+
+    private List<Long> ids(String table) throws Exception {
+        return H2MyBatisSupport.queryLongs(dataSource, "SELECT id FROM " + table + " ORDER BY id");
+    }
+
+    interface UserMapper {
+
+        @Insert("INSERT INTO t_user (id, name) VALUES (#{id}, #{name})")
+        int insert(@Param("id") long id, @Param("name") String name);
+
+        @Insert("INSERT INTO t_item (name) VALUES (#{name})")
+        @Options(useGeneratedKeys = true, keyProperty = "id")
+        int insertAutoIncrement(Item item);
+
+        @Insert("INSERT INTO t_item (id, name) VALUES (#{id}, #{name})")
+        @SelectKey(statement = "SELECT NEXT VALUE FOR seq_item", keyProperty = "id", before = true,
+                resultType = Long.class)
+        int insertWithSequence(Item item);
+    }
+
+    public static class Item {
+
+        private Long id;
+
+        private final String name;
+
+        Item(String name) {
+            this.name = name;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.lizhuolun.mybatis.dynamic.resharding;
+
+import com.lizhuolun.mybatis.dynamic.interceptor.DynamicTableNameInnerInterceptor;
+import com.lizhuolun.mybatis.dynamic.interceptor.ShadowTableWriteInterceptor;
+import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategyFactory;
+import com.lizhuolun.mybatis.dynamic.strategy.hash.HashAlgorithm;
+import com.lizhuolun.mybatis.dynamic.strategy.impl.HashBasedTableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.strategy.impl.ReshardingTableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.support.H2MyBatisSupport;
+import com.lizhuolun.mybatis.dynamic.util.DynamicTableUtils;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 在线扩容全流程测试：DUAL_WRITE双写 -> 回填（含断点续传）-> READ_TARGET切读 -> COMPLETED后清理旧表
+ * 由2张表扩容到4张表，分片键按IDENTITY取模，便于确定每行所在分表
+ *
+ * @author 李卓伦
+ * @date 2025/10/26 11:30
+ */
+class ReshardingBackfillTest {
+
+    private static final String CHECKPOINT_TABLE = "t_checkpoint";
+
+    private DataSource dataSource;
+
+    private SqlSessionFactory sessionFactory;
+
+    private ReshardingTableRouterStrategy strategy;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = H2MyBatisSupport.newDataSource();
+        for (int i = 0; i < 3; i++) {
+            // t_user_3 在测试中稍后创建，用于模拟回填中途失败
+            H2MyBatisSupport.execute(dataSource,
+                    "CREATE TABLE t_user_" + i + " (id BIGINT PRIMARY KEY, user_id BIGINT, name VARCHAR(32))");
+        }
+        for (long id = 1; id <= 12; id++) {
+            H2MyBatisSupport.execute(dataSource,
+                    "INSERT INTO t_user_" + (id % 2) + " VALUES (" + id + ", " + id + ", 'old" + id + "')");
+        }
+
+        Set<String> tables = Set.of("t_user");
+        strategy = new ReshardingTableRouterStrategy(tables,
+                new HashBasedTableRouterStrategy(tables, 2, 1, HashAlgorithm.IDENTITY),
+                new HashBasedTableRouterStrategy(tables, 4, 1, HashAlgorithm.IDENTITY),
+                ReshardingTableRouterStrategy.Phase.DUAL_WRITE, 1);
+        TableRouterStrategyFactory.register(strategy);
+        sessionFactory = H2MyBatisSupport.newSessionFactory(dataSource, new DynamicTableNameInnerInterceptor(),
+                UserMapper.class, new ShadowTableWriteInterceptor());
+    }
+
+    @AfterEach
+    void tearDown() {
+        TableRouterStrategyFactory.clear();
+    }
+
+    @Test
+    void dualWriteBackfillThenReadTarget() throws Exception {
+        // DUAL_WRITE：读旧表，写入同时落到新表
+        H2MyBatisSupport.execute(dataSource,
+                "CREATE TABLE t_user_3 (id BIGINT PRIMARY KEY, user_id BIGINT, name VARCHAR(32))");
+        try (SqlSession session = sessionFactory.openSession()) {
+            UserMapper mapper = session.getMapper(UserMapper.class);
+            DynamicTableUtils.executeWithStrategy("t_user", 14L, () -> mapper.insert(14L, 14L, "new14"));
+            DynamicTableUtils.executeWithStrategy("t_user", 6L, () -> mapper.rename(6L, "dual6"));
+            session.commit();
+            assertEquals("dual6", DynamicTableUtils.executeWithStrategy("t_user", 6L, () -> mapper.selectName(6L)));
+        }
+        assertEquals(List.of(2L, 4L, 6L, 8L, 10L, 12L, 14L), ids("t_user_0"));
+        assertEquals(List.of(14L), ids("t_user_2"));
+
+        ReshardingBackfillJob job = newJob(2);
+        job.run();
+        assertNull(job.getFailure());
+        assertTrue(job.isFinished());
+        assertEquals(List.of(2L, 6L, 10L, 14L), ids("t_user_2"));
+        assertEquals(List.of(3L, 7L, 11L), ids("t_user_3"));
+
+        // READ_TARGET：读新表，写入同时落回旧表
+        strategy.setPhase(ReshardingTableRouterStrategy.Phase.READ_TARGET);
+        try (SqlSession session = sessionFactory.openSession()) {
+            UserMapper mapper = session.getMapper(UserMapper.class);
+            assertEquals("dual6", DynamicTableUtils.executeWithStrategy("t_user", 6L, () -> mapper.selectName(6L)));
+            assertEquals("old7", DynamicTableUtils.executeWithStrategy("t_user", 7L, () -> mapper.selectName(7L)));
+            DynamicTableUtils.executeWithStrategy("t_user", 7L, () -> mapper.rename(7L, "target7"));
+            session.commit();
+        }
+        assertEquals(List.of("target7"), names("t_user_3", 7));
+        assertEquals(List.of("target7"), names("t_user_1", 7));
+    }
+
+    @Test
+    void backfillResumesFromCheckpointAfterFailure() throws Exception {
+        ReshardingBackfillJob first = newJob(2);
+        first.run();
+        assertNotNull(first.getFailure(), "t_user_3不存在时回填应失败");
+        assertFalse(first.isFinished());
+        assertEquals(6, first.getCopiedRows(), "t_user_0的3个批次已提交");
+
+        ReshardingCheckpointStore store = new ReshardingCheckpointStore(CHECKPOINT_TABLE);
+        try (Connection connection = dataSource.getConnection()) {
+            ReshardingCheckpointStore.Checkpoint done = store.load(connection, "t_user_2_to_4", "t_user_0");
+            assertTrue(done.isFinished());
+            assertEquals(12L, done.getLastKey());
+            assertNull(store.load(connection, "t_user_2_to_4", "t_user_1"), "失败批次的进度不应提交");
+        }
+
+        H2MyBatisSupport.execute(dataSource,
+                "CREATE TABLE t_user_3 (id BIGINT PRIMARY KEY, user_id BIGINT, name VARCHAR(32))");
+        ReshardingBackfillJob second = newJob(2);
+        second.run();
+        assertNull(second.getFailure());
+        assertTrue(second.isFinished());
+        assertEquals(6, second.getCopiedRows(), "重启后跳过已完成的t_user_0，只复制t_user_1");
+        assertEquals(List.of(2L, 6L, 10L), ids("t_user_2"));
+        assertEquals(List.of(3L, 7L, 11L), ids("t_user_3"));
+
+        ReshardingBackfillJob third = newJob(2);
+        third.run();
+        assertEquals(0, third.getCopiedRows());
+    }
+
+    @Test
+    void purgeMovedRowsAfterCompleted() throws Exception {
+        H2MyBatisSupport.execute(dataSource,
+                "CREATE TABLE t_user_3 (id BIGINT PRIMARY KEY, user_id BIGINT, name VARCHAR(32))");
+        ReshardingBackfillJob job = newJob(2);
+        job.run();
+        assertTrue(job.isFinished());
+        // 回填之后才写入旧表、未进入新表的行不应被清理
+        H2MyBatisSupport.execute(dataSource, "INSERT INTO t_user_1 VALUES (15, 15, 'late15')");
+
+        strategy.setPhase(ReshardingTableRouterStrategy.Phase.COMPLETED);
+        assertEquals(6, job.purgeMovedRows());
+        assertEquals(List.of(4L, 8L, 12L), ids("t_user_0"));
+        assertEquals(List.of(1L, 5L, 9L, 15L), ids("t_user_1"));
+        assertEquals(List.of(2L, 6L, 10L), ids("t_user_2"));
+        assertEquals(List.of(3L, 7L, 11L), ids("t_user_3"));
+        assertEquals(0, job.purgeMovedRows());
+    }
+
+    private ReshardingBackfillJob newJob(int batchSize) {
+        return new ReshardingBackfillJob("t_user_2_to_4", dataSource, "t_user", List.of("t_user_0", "t_user_1"),
+                strategy.getTarget(), "user_id", "id", batchSize, 0, true,
+                new ReshardingCheckpointStore(CHECKPOINT_TABLE));
+    }
+
+    private List<Long> ids(String table) throws Exception {
+        return H2MyBatisSupport.queryLongs(dataSource, "SELECT id FROM " + table + " ORDER BY id");
+    }
+
+    private List<String> names(String table, long id) throws Exception {
+        return H2MyBatisSupport.queryStrings(dataSource, "SELECT name FROM " + table + " WHERE id = " + id);
+    }
+
+    interface UserMapper {
+
+        @Insert("INSERT INTO t_user (id, user_id, name) VALUES (#{id}, #{userId}, #{name})")
+        int insert(@Param("id") long id, @Param("userId") long userId, @Param("name") String name);
+
+        @Update("UPDATE t_user SET name = #{name} WHERE user_id = #{userId}")
+        int rename(@Param("userId") long userId, @Param("name") String name);
+
+        @Select("SELECT name FROM t_user WHERE user_id = #{userId}")
+        String selectName(@Param("userId") long userId);
+    }
+}
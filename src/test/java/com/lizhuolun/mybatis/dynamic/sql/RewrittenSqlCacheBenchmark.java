@@ -0,0 +1,68 @@
+package com.lizhuolun.mybatis.dynamic.sql;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 重写后SQL缓存基准测试
+ * 对比每次按计划拼接（不使用RewrittenSqlCache）与命中缓存两条路径；*Hash方法额外计算hashCode，
+ * 模拟MyBatis/JDBC驱动以SQL文本为键查找预编译语句缓存
+ *
+ * @author 李卓伦
+ * @date 2025/10/26 10:10
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RewrittenSqlCacheBenchmark {
+
+    private SqlRewritePlan plan;
+
+    private Map<String, String> tableMap;
+
+    private RewrittenSqlCache cache;
+
+    @Setup
+    public void setUp() {
+        plan = SqlRewritePlan.compile("SELECT o.id, o.user_id, o.amount, i.sku, i.qty FROM t_order o "
+                + "JOIN t_order_item i ON i.order_id = o.id WHERE o.user_id = ? AND o.create_time >= ? "
+                + "AND o.status IN (?, ?, ?) ORDER BY o.create_time DESC LIMIT ?");
+        tableMap = Map.of("t_order", "t_order_202510", "t_order_item", "t_order_item_202510");
+        cache = new RewrittenSqlCache();
+        cache.rewrite(plan, tableMap);
+    }
+
+    @Benchmark
+    public String planRewrite() {
+        return plan.rewrite(tableMap);
+    }
+
+    @Benchmark
+    public String cachedRewrite() {
+        return cache.rewrite(plan, tableMap);
+    }
+
+    @Benchmark
+    public int planRewriteHash() {
+        return plan.rewrite(tableMap).hashCode();
+    }
+
+    @Benchmark
+    public int cachedRewriteHash() {
+        return cache.rewrite(plan, tableMap).hashCode();
+    }
+}
@@ -0,0 +1,105 @@
+package com.lizhuolun.mybatis.dynamic.sql;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 重写后SQL缓存与重写计划缓存测试
+ *
+ * @author 李卓伦
+ * @date 2025/10/26 10:05
+ */
+class RewrittenSqlCacheTest {
+
+    private static final String SQL = "SELECT * FROM t_order o JOIN t_item i ON i.order_id = o.id WHERE o.id = ?";
+
+    @Test
+    void sameRouteReturnsSameInstance() {
+        RewrittenSqlCache cache = new RewrittenSqlCache();
+        SqlRewritePlan plan = SqlRewritePlan.compile(SQL);
+
+        String first = cache.rewrite(plan, Map.of("t_order", "t_order_1"));
+        String second = cache.rewrite(plan, new HashMap<>(Map.of("t_order", "t_order_1")));
+        assertEquals("SELECT * FROM t_order_1 o JOIN t_item i ON i.order_id = o.id WHERE o.id = ?", first);
+        assertSame(first, second);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void unrelatedMappingsDoNotFragmentTheKey() {
+        RewrittenSqlCache cache = new RewrittenSqlCache();
+        SqlRewritePlan plan = SqlRewritePlan.compile(SQL);
+
+        String first = cache.rewrite(plan, Map.of("t_order", "t_order_1"));
+        String second = cache.rewrite(plan, Map.of("t_order", "t_order_1", "t_user", "t_user_9"));
+        assertSame(first, second);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void differentRoutesAreCachedSeparately() {
+        RewrittenSqlCache cache = new RewrittenSqlCache();
+        SqlRewritePlan plan = SqlRewritePlan.compile(SQL);
+
+        String first = cache.rewrite(plan, Map.of("t_order", "t_order_1"));
+        String second = cache.rewrite(plan, Map.of("t_order", "t_order_2"));
+        String both = cache.rewrite(plan, Map.of("t_order", "t_order_1", "t_item", "t_item_1"));
+        assertNotSame(first, second);
+        assertEquals("SELECT * FROM t_order_1 o JOIN t_item_1 i ON i.order_id = o.id WHERE o.id = ?", both);
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void unroutedSqlIsNotCached() {
+        RewrittenSqlCache cache = new RewrittenSqlCache();
+        SqlRewritePlan plan = SqlRewritePlan.compile(SQL);
+
+        assertSame(SQL, cache.rewrite(plan, Map.of("t_user", "t_user_1")));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    void sizeIsBoundedAndZeroDisablesCaching() {
+        RewrittenSqlCache bounded = new RewrittenSqlCache(16);
+        SqlRewritePlan plan = SqlRewritePlan.compile(SQL);
+        for (int i = 0; i < 1000; i++) {
+            bounded.rewrite(plan, Map.of("t_order", "t_order_" + i));
+        }
+        assertTrue(bounded.size() <= 16, "size=" + bounded.size());
+
+        RewrittenSqlCache disabled = new RewrittenSqlCache(0);
+        String first = disabled.rewrite(plan, Map.of("t_order", "t_order_1"));
+        String second = disabled.rewrite(plan, Map.of("t_order", "t_order_1"));
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        assertEquals(0, disabled.size());
+    }
+
+    @Test
+    void planCacheEvictsLeastRecentlyUsedPlans() {
+        long weight = SqlRewritePlan.compile(SQL).getWeight();
+        SqlRewritePlanCache cache = new SqlRewritePlanCache(weight * 8);
+        for (int i = 0; i < 8; i++) {
+            cache.getPlan("mapper.select" + i, SQL);
+        }
+        SqlRewritePlan hot = cache.getPlan("mapper.select0", SQL);
+
+        cache.getPlan("mapper.select8", SQL);
+        assertTrue(cache.getEvictionCount() > 0);
+        assertTrue(cache.getEstimatedBytes() <= weight * 8);
+        assertSame(hot, cache.getPlan("mapper.select0", SQL));
+
+        long misses = cache.getMissCount();
+        cache.getPlan("mapper.select1", SQL);
+        assertEquals(misses + 1, cache.getMissCount());
+    }
+}
@@ -0,0 +1,98 @@
+package com.lizhuolun.mybatis.dynamic.sql;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * SQL表名扫描与重写计划测试
+ *
+ * @author 李卓伦
+ * @date 2025/10/26 10:00
+ */
+class SqlRewritePlanTest {
+
+    private static final Map<String, String> ORDER_ROUTE = Map.of("t_order", "t_order_202510");
+
+    @Test
+    void tokenizerReportsTablePositionsOnly() {
+        assertEquals(List.of("t_order", "t_order", "t_item"),
+                tableTokens("SELECT t_order.id, name FROM t_order JOIN t_item ON t_item_id = id"));
+        assertEquals(List.of("t_order", "t_user", "o", "u"),
+                tableTokens("SELECT * FROM t_order o, t_user u WHERE o.uid = u.id"));
+        assertEquals(List.of("t_order"), tableTokens("INSERT INTO t_order (id, name) VALUES (?, ?)"));
+        assertEquals(List.of("t_order"), tableTokens("UPDATE t_order SET name = ? WHERE id = ?"));
+        assertEquals(List.of("t_order"), tableTokens("DELETE FROM t_order WHERE id = ?"));
+    }
+
+    @Test
+    void tokenizerSkipsLiteralsAndComments() {
+        assertEquals(List.of("t_order"),
+                tableTokens("SELECT 'FROM t_user' AS s /* FROM t_item */ FROM t_order -- JOIN t_user\n WHERE 1 = 1"));
+        assertEquals(List.of("t_order"), tableTokens("SELECT * FROM `t_order` WHERE remark = 'it''s FROM t_user'"));
+    }
+
+    @Test
+    void tokenizerHandlesSubqueriesAndUpsert() {
+        assertEquals(List.of("t_order", "t_item"),
+                tableTokens("SELECT * FROM t_order WHERE id IN (SELECT order_id FROM t_item WHERE qty > 1)"));
+        assertEquals(List.of("t_order"),
+                tableTokens("INSERT INTO t_order (id) VALUES (?) ON DUPLICATE KEY UPDATE id = VALUES(id)"));
+        assertEquals(List.of("t_order"), tableTokens("SELECT * FROM t_order WHERE id = ? FOR UPDATE"));
+    }
+
+    @Test
+    void rewriteReplacesEveryOccurrenceAndKeepsQuotes() {
+        SqlRewritePlan plan = SqlRewritePlan.compile(
+                "SELECT `t_order`.id FROM `t_order` JOIN t_item ON t_item.order_id = `t_order`.id");
+        String sql = plan.rewrite(Map.of("t_order", "t_order_1", "t_item", "t_item_1"));
+        assertEquals("SELECT `t_order_1`.id FROM `t_order_1` JOIN t_item_1 ON t_item_1.order_id = `t_order_1`.id", sql);
+    }
+
+    @Test
+    void rewriteLeavesColumnsAndLiteralsWithSameName() {
+        SqlRewritePlan plan = SqlRewritePlan.compile("SELECT t_order FROM t_order WHERE note = 't_order'");
+        assertEquals("SELECT t_order FROM t_order_202510 WHERE note = 't_order'", plan.rewrite(ORDER_ROUTE));
+    }
+
+    @Test
+    void rewriteReturnsOriginalInstanceWhenNothingChanges() {
+        String sql = "SELECT * FROM t_user WHERE id = ?";
+        SqlRewritePlan plan = SqlRewritePlan.compile(sql);
+        assertSame(sql, plan.rewrite(ORDER_ROUTE));
+        assertSame(sql, plan.rewrite(Map.of()));
+        assertSame(sql, plan.rewrite(Map.of("t_user", "t_user")));
+        assertNull(plan.resolveActualTables(ORDER_ROUTE));
+    }
+
+    @Test
+    void distinctNamesAreSortedAndResolvedByPosition() {
+        // 别名限定符也是候选名，只是不会出现在映射中
+        SqlRewritePlan plan = SqlRewritePlan.compile("SELECT * FROM t_order o JOIN t_item i ON i.oid = o.id JOIN t_order p");
+        assertArrayEquals(new String[]{"i", "o", "t_item", "t_order"}, plan.getDistinctNames());
+        assertEquals(5, plan.getTokenCount());
+        assertArrayEquals(new String[]{null, null, null, "t_order_202510"}, plan.resolveActualTables(ORDER_ROUTE));
+    }
+
+    @Test
+    void compileRejectsNullSql() {
+        assertThrows(IllegalArgumentException.class, () -> SqlRewritePlan.compile(null));
+    }
+
+    private static List<String> tableTokens(String sql) {
+        SqlTableTokenizer tokenizer = new SqlTableTokenizer(sql);
+        List<String> tokens = new ArrayList<>();
+        while (tokenizer.next()) {
+            tokens.add(sql.substring(tokenizer.nameStart(), tokenizer.nameEnd()));
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,190 @@
+package com.lizhuolun.mybatis.dynamic.strategy;
+
+import com.lizhuolun.mybatis.dynamic.strategy.hash.HashAlgorithm;
+import com.lizhuolun.mybatis.dynamic.strategy.impl.HashBasedTableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.strategy.impl.ReshardingTableRouterStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 路由结果缓存测试：命中、过期、负缓存及其过期、容量淘汰，以及路由变化时的清空
+ *
+ * @author 李卓伦
+ * @date 2025/10/26 13:10
+ */
+class CachingTableRouterStrategyTest {
+
+    private static final String TABLE = "t_tenant";
+
+    private final CountingStrategy delegate = new CountingStrategy();
+
+    @AfterEach
+    void tearDown() {
+        TableRouterStrategyFactory.clear();
+    }
+
+    @Test
+    void repeatedLookupIsServedFromCache() {
+        delegate.routes.put("1", "t_tenant_a");
+        CachingTableRouterStrategy cache = new CachingTableRouterStrategy(delegate, 100, 0, false, 0);
+
+        assertEquals("t_tenant_a", cache.getActualTableName(TABLE, "1"));
+        assertEquals("t_tenant_a", cache.getActualTableName(TABLE, "1"));
+        assertEquals(1, delegate.calls.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        // 不同类型的键分别缓存
+        delegate.routes.put("1L", "t_tenant_b");
+        assertEquals("t_tenant_b", cache.getActualTableName(TABLE, 1L));
+    }
+
+    @Test
+    void entriesExpireAfterTtl() throws InterruptedException {
+        delegate.routes.put("1", "t_tenant_a");
+        CachingTableRouterStrategy cache = new CachingTableRouterStrategy(delegate, 100, 50, false, 0);
+        cache.getActualTableName(TABLE, "1");
+
+        delegate.routes.put("1", "t_tenant_b");
+        assertEquals("t_tenant_a", cache.getActualTableName(TABLE, "1"));
+        Thread.sleep(120);
+        assertEquals("t_tenant_b", cache.getActualTableName(TABLE, "1"));
+        assertEquals(2, delegate.calls.get());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    void negativeCacheReturnsWhatTheDelegateReturned() {
+        delegate.routes.put("logic", TABLE);
+        CachingTableRouterStrategy cache = new CachingTableRouterStrategy(delegate, 100, 0, true, 0);
+
+        assertNull(cache.getActualTableName(TABLE, "unknown"));
+        assertNull(cache.getActualTableName(TABLE, "unknown"));
+        assertEquals(TABLE, cache.getActualTableName(TABLE, "logic"));
+        assertEquals(TABLE, cache.getActualTableName(TABLE, "logic"));
+        assertEquals(2, delegate.calls.get());
+        assertEquals(2, cache.getNegativeHitCount());
+    }
+
+    @Test
+    void negativeEntriesExpireIndependently() throws InterruptedException {
+        delegate.routes.put("1", "t_tenant_a");
+        CachingTableRouterStrategy cache = new CachingTableRouterStrategy(delegate, 100, 0, true, 50);
+        cache.getActualTableName(TABLE, "1");
+        assertNull(cache.getActualTableName(TABLE, "2"));
+
+        delegate.routes.put("2", "t_tenant_b");
+        assertNull(cache.getActualTableName(TABLE, "2"));
+        Thread.sleep(120);
+        assertEquals("t_tenant_b", cache.getActualTableName(TABLE, "2"));
+        assertEquals("t_tenant_a", cache.getActualTableName(TABLE, "1"), "正常条目不受负缓存过期时间影响");
+        assertEquals(3, delegate.calls.get());
+    }
+
+    @Test
+    void negativeResultsAreNotCachedWhenDisabled() {
+        CachingTableRouterStrategy cache = new CachingTableRouterStrategy(delegate, 100, 0, false, 0);
+
+        assertNull(cache.getActualTableName(TABLE, "unknown"));
+        assertNull(cache.getActualTableName(TABLE, "unknown"));
+        assertEquals(2, delegate.calls.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void sizeIsBoundedAndMutableOrUnsupportedKeysAreSafe() {
+        CachingTableRouterStrategy cache = new CachingTableRouterStrategy(delegate, 32, 0, true, 0);
+        for (int i = 0; i < 1_000; i++) {
+            cache.getActualTableName(TABLE, i);
+        }
+        assertTrue(cache.size() <= 32, "缓存条目数超过上限: " + cache.size());
+        assertTrue(cache.getEvictionCount() >= 1_000 - 32);
+
+        // Date可变，缓存键保存的是副本
+        Date date = new Date(0);
+        delegate.routes.put(date.toString(), "t_tenant_1970");
+        cache.getActualTableName(TABLE, date);
+        date.setTime(86_400_000L * 400);
+        int before = delegate.calls.get();
+        assertEquals("t_tenant_1970", cache.getActualTableName(TABLE, new Date(0)));
+        assertEquals(before, delegate.calls.get());
+
+        cache.getActualTableName(TABLE, List.of("a"));
+        cache.getActualTableName(TABLE, List.of("a"));
+        assertEquals(before + 2, delegate.calls.get(), "不可缓存的分片键每次交给被装饰策略");
+    }
+
+    @Test
+    void resultComputedAcrossInvalidationIsNotCached() {
+        delegate.routes.put("1", "t_tenant_a");
+        CachingTableRouterStrategy[] holder = new CachingTableRouterStrategy[1];
+        TableRouterStrategy invalidating = new TableRouterStrategy() {
+            @Override
+            public String getActualTableName(String logicTableName, Object context) {
+                // 模拟查询期间其他线程切换路由并清空缓存
+                String actualTableName = delegate.getActualTableName(logicTableName, context);
+                holder[0].invalidateAll();
+                return actualTableName;
+            }
+
+            @Override
+            public boolean match(String logicTableName) {
+                return delegate.match(logicTableName);
+            }
+        };
+        holder[0] = new CachingTableRouterStrategy(invalidating, 100, 0, true, 0);
+
+        assertEquals("t_tenant_a", holder[0].getActualTableName(TABLE, "1"));
+        assertEquals(0, holder[0].size());
+    }
+
+    @Test
+    void phaseSwitchInvalidatesRegisteredCache() {
+        Set<String> tables = Set.of(TABLE);
+        ReshardingTableRouterStrategy resharding = new ReshardingTableRouterStrategy(tables,
+                new HashBasedTableRouterStrategy(tables, 2, 1, HashAlgorithm.IDENTITY),
+                new HashBasedTableRouterStrategy(tables, 4, 1, HashAlgorithm.IDENTITY),
+                ReshardingTableRouterStrategy.Phase.DUAL_WRITE, 1);
+        TableRouterStrategyFactory.register(resharding);
+        CachingTableRouterStrategy cache = TableRouterStrategyFactory.enableCache(
+                resharding.getStrategyName(), 100, 0, false, 0);
+
+        assertEquals("t_tenant_1", cache.getActualTableName(TABLE, 3L));
+        assertEquals(1, cache.size());
+        resharding.setPhase(ReshardingTableRouterStrategy.Phase.READ_TARGET);
+        assertEquals(0, cache.size());
+        assertEquals("t_tenant_3", cache.getActualTableName(TABLE, 3L));
+    }
+
+    /**
+     * 按分片键字符串查表并统计调用次数的策略，Long键以"1L"形式查找
+     */
+    private static final class CountingStrategy implements TableRouterStrategy {
+
+        private final Map<String, String> routes = new HashMap<>();
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public String getActualTableName(String logicTableName, Object context) {
+            calls.incrementAndGet();
+            return routes.get(context instanceof Long ? context + "L" : String.valueOf(context));
+        }
+
+        @Override
+        public boolean match(String logicTableName) {
+            return TABLE.equals(logicTableName);
+        }
+    }
+}
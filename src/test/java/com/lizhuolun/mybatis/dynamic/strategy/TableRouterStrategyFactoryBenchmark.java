@@ -0,0 +1,110 @@
+package com.lizhuolun.mybatis.dynamic.strategy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 启动时注册大量分表策略的基准测试
+ * 对比逐个register与一次registerAll注册{@code count}个租户策略的耗时（冷启动单次测量），逐个注册每次都会重建快照与索引，整体为平方复杂度。
+ * 所有租户策略都是同一个策略类的实例，按策略名称区分
+ *
+ * @author 李卓伦
+ * @date 2025/10/26 12:00
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TableRouterStrategyFactoryBenchmark {
+
+    @Param({"10000"})
+    private int count;
+
+    private List<TableRouterStrategy> strategies;
+
+    @Setup(Level.Trial)
+    public void createStrategies() {
+        strategies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            strategies.add(new TenantRouterStrategy("t_tenant_" + i, i % 16));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    @TearDown(Level.Trial)
+    public void clear() {
+        TableRouterStrategyFactory.clear();
+    }
+
+    @Benchmark
+    public int registerAll() {
+        TableRouterStrategyFactory.registerAll(strategies);
+        return TableRouterStrategyFactory.getStrategyCount();
+    }
+
+    @Benchmark
+    public int registerEach() {
+        for (TableRouterStrategy strategy : strategies) {
+            TableRouterStrategyFactory.register(strategy);
+        }
+        return TableRouterStrategyFactory.getStrategyCount();
+    }
+
+    /**
+     * 租户策略：每个租户一张逻辑表
+     */
+    static final class TenantRouterStrategy implements TableRouterStrategy {
+
+        private final String table;
+
+        private final int priority;
+
+        TenantRouterStrategy(String table, int priority) {
+            this.table = table;
+            this.priority = priority;
+        }
+
+        @Override
+        public String getActualTableName(String logicTableName, Object context) {
+            return table + "_" + context;
+        }
+
+        @Override
+        public boolean match(String logicTableName) {
+            return table.equals(logicTableName);
+        }
+
+        @Override
+        public String getStrategyName() {
+            return "tenant:" + table;
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+
+        @Override
+        public Set<String> getSupportedTables() {
+            return Set.of(table);
+        }
+    }
+}
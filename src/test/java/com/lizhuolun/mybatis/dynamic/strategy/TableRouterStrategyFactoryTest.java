@@ -0,0 +1,102 @@
+package com.lizhuolun.mybatis.dynamic.strategy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 策略工厂注册测试：同一策略类的多个实例按名称区分，名称重复时跳过
+ *
+ * @author 李卓伦
+ * @date 2025/10/26 13:30
+ */
+class TableRouterStrategyFactoryTest {
+
+    @AfterEach
+    void tearDown() {
+        TableRouterStrategyFactory.clear();
+    }
+
+    @Test
+    void registersManyInstancesOfOneClass() {
+        List<TableRouterStrategy> strategies = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            strategies.add(new TenantStrategy("t_tenant_" + i, "tenant:" + i, i % 16));
+        }
+        TableRouterStrategyFactory.registerAll(strategies);
+
+        assertEquals(1000, TableRouterStrategyFactory.getStrategyCount());
+        for (int i = 0; i < 1000; i++) {
+            assertSame(strategies.get(i), TableRouterStrategyFactory.getStrategy("t_tenant_" + i));
+        }
+    }
+
+    @Test
+    void skipsDuplicateName() {
+        TenantStrategy first = new TenantStrategy("t_a", "tenant", 1);
+        TableRouterStrategyFactory.register(first);
+        TableRouterStrategyFactory.registerAll(List.of(new TenantStrategy("t_b", "tenant", 0),
+                new TenantStrategy("t_c", "tenant:c", 0), new TenantStrategy("t_d", "tenant:c", 0)));
+
+        assertEquals(2, TableRouterStrategyFactory.getStrategyCount());
+        assertSame(first, TableRouterStrategyFactory.getStrategy("t_a"));
+        assertFalse(TableRouterStrategyFactory.hasStrategy("t_b"));
+        assertFalse(TableRouterStrategyFactory.hasStrategy("t_d"));
+    }
+
+    @Test
+    void removeStrategyRemovesEveryInstanceOfTheClass() {
+        TableRouterStrategyFactory.registerAll(List.of(new TenantStrategy("t_a", "tenant:a", 0),
+                new TenantStrategy("t_b", "tenant:b", 0)));
+
+        TableRouterStrategyFactory.removeStrategy(TenantStrategy.class);
+        assertEquals(0, TableRouterStrategyFactory.getStrategyCount());
+    }
+
+    private static final class TenantStrategy implements TableRouterStrategy {
+
+        private final String table;
+
+        private final String name;
+
+        private final int priority;
+
+        TenantStrategy(String table, String name, int priority) {
+            this.table = table;
+            this.name = name;
+            this.priority = priority;
+        }
+
+        @Override
+        public String getActualTableName(String logicTableName, Object context) {
+            return table + "_" + context;
+        }
+
+        @Override
+        public boolean match(String logicTableName) {
+            return table.equals(logicTableName);
+        }
+
+        @Override
+        public String getStrategyName() {
+            return name;
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+
+        @Override
+        public Set<String> getSupportedTables() {
+            return Set.of(table);
+        }
+    }
+}
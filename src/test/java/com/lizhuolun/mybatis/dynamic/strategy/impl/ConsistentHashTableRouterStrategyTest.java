@@ -0,0 +1,130 @@
+package com.lizhuolun.mybatis.dynamic.strategy.impl;
+
+import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.strategy.hash.HashAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 一致性哈希扩容模拟：统计扩容前后迁移的键比例与各分表的负载倾斜（最大负载/平均负载），
+ * 哈希环分别使用MURMUR3与只占用低位的IDENTITY、STRING哈希
+ *
+ * @author 李卓伦
+ * @date 2025/10/26 12:35
+ */
+class ConsistentHashTableRouterStrategyTest {
+
+    private static final String TABLE = "t_order";
+
+    private static final int KEYS = 100_000;
+
+    @Test
+    void jumpHashMovesOnlyKeysOfTheNewShard() {
+        Simulation simulation = simulate(jump(16), jump(17));
+
+        assertRatio(1.0 / 17, simulation.movedRatio(), 0.1);
+        assertEquals(Set.of(TABLE + "_16"), simulation.movedTo.keySet(), "迁移的键只能进入新增的分表");
+        assertTrue(simulation.skew < 1.05, "负载倾斜过大: " + simulation.skew);
+    }
+
+    @Test
+    void jumpHashDoublingMovesHalfOfTheKeys() {
+        Simulation simulation = simulate(jump(16), jump(32));
+
+        assertRatio(0.5, simulation.movedRatio(), 0.05);
+        for (String table : simulation.movedTo.keySet()) {
+            int suffix = Integer.parseInt(table.substring(TABLE.length() + 1));
+            assertTrue(suffix >= 16, "迁移的键只能进入新增的分表: " + table);
+        }
+    }
+
+    @Test
+    void ringMovesOnlyKeysOfTheNewShard() {
+        Simulation simulation = simulate(ring(16, 160), ring(17, 160));
+
+        assertRatio(1.0 / 17, simulation.movedRatio(), 0.35);
+        assertEquals(Set.of(TABLE + "_16"), simulation.movedTo.keySet(), "迁移的键只能进入新增的分表");
+        assertTrue(simulation.skew < 1.35, "负载倾斜过大: " + simulation.skew);
+    }
+
+    @Test
+    void ringSpreadsSequentialIdentityKeys() {
+        for (HashAlgorithm algorithm : new HashAlgorithm[]{HashAlgorithm.IDENTITY, HashAlgorithm.STRING}) {
+            Simulation simulation = simulate(ring(16, 160, algorithm), ring(17, 160, algorithm));
+
+            assertEquals(17, simulation.usedTables, algorithm + "的键未分布到所有分表");
+            assertTrue(simulation.skew < 1.35, algorithm + "负载倾斜过大: " + simulation.skew);
+            assertRatio(1.0 / 17, simulation.movedRatio(), 0.35);
+        }
+    }
+
+    @Test
+    void moreVirtualNodesReduceRingSkew() {
+        double coarse = simulate(ring(16, 4), ring(16, 4)).skew;
+        double fine = simulate(ring(16, 512), ring(16, 512)).skew;
+
+        assertTrue(fine < coarse, "虚拟节点增多后负载倾斜应下降: " + coarse + " -> " + fine);
+        assertTrue(fine < 1.2, "负载倾斜过大: " + fine);
+    }
+
+    @Test
+    void moduloHashMovesAlmostEveryKey() {
+        Simulation simulation = simulate(
+                new HashBasedTableRouterStrategy(Set.of(TABLE), 16, 1, HashAlgorithm.MURMUR3),
+                new HashBasedTableRouterStrategy(Set.of(TABLE), 17, 1, HashAlgorithm.MURMUR3));
+
+        assertTrue(simulation.movedRatio() > 0.9, "取模分表扩容的迁移比例: " + simulation.movedRatio());
+    }
+
+    private static ConsistentHashTableRouterStrategy jump(int tableCount) {
+        return new ConsistentHashTableRouterStrategy(Set.of(TABLE), tableCount, 1);
+    }
+
+    private static ConsistentHashTableRouterStrategy ring(int tableCount, int virtualNodes) {
+        return ring(tableCount, virtualNodes, HashAlgorithm.MURMUR3);
+    }
+
+    private static ConsistentHashTableRouterStrategy ring(int tableCount, int virtualNodes, HashAlgorithm algorithm) {
+        return new ConsistentHashTableRouterStrategy(Set.of(TABLE), tableCount, 1,
+                ConsistentHashTableRouterStrategy.Mode.RING, virtualNodes, algorithm);
+    }
+
+    private static void assertRatio(double expected, double actual, double tolerance) {
+        assertTrue(Math.abs(actual - expected) <= expected * tolerance,
+                "迁移比例" + actual + "偏离期望值" + expected);
+    }
+
+    /**
+     * 对同一批键分别按扩容前后的策略路由
+     */
+    private static Simulation simulate(TableRouterStrategy before, TableRouterStrategy after) {
+        Map<String, Integer> load = new HashMap<>();
+        Map<String, Integer> movedTo = new HashMap<>();
+        int moved = 0;
+        for (long key = 0; key < KEYS; key++) {
+            String from = before.getActualTableName(TABLE, key);
+            String to = after.getActualTableName(TABLE, key);
+            load.merge(to, 1, Integer::sum);
+            if (!from.equals(to)) {
+                moved++;
+                movedTo.merge(to, 1, Integer::sum);
+            }
+        }
+        int max = load.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        double skew = max / ((double) KEYS / load.size());
+        return new Simulation(moved, movedTo, load.size(), skew);
+    }
+
+    private record Simulation(int moved, Map<String, Integer> movedTo, int usedTables, double skew) {
+
+        double movedRatio() {
+            return (double) moved / KEYS;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.lizhuolun.mybatis.dynamic.strategy.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * 日期分表按雪花ID路由测试：只有Long分片键按雪花ID解码，按毫秒时间戳路由的方法不解码
+ *
+ * @author 李卓伦
+ * @date 2025/10/26 12:55
+ */
+class DateBasedTableRouterStrategyTest {
+
+    private static final String TABLE = "t_order";
+
+    private final DateBasedTableRouterStrategy strategy = new DateBasedTableRouterStrategy(Set.of(TABLE), "yyyyMM",
+            1, 400, SnowflakeIdDecoder.standard());
+
+    @Test
+    void longKeyIsDecodedAsSnowflakeId() {
+        long epochMillis = LocalDate.of(2025, 10, 26).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long id = ((epochMillis - SnowflakeIdDecoder.DEFAULT_EPOCH) << SnowflakeIdDecoder.DEFAULT_TIMESTAMP_SHIFT) | 12345L;
+
+        assertEquals("t_order_202510", strategy.getActualTableName(TABLE, (Object) id));
+        assertEquals("t_order_202510", strategy.getActualTableNameById(TABLE, id));
+    }
+
+    @Test
+    void epochMillisMethodNeverDecodesSnowflakeId() {
+        long epochMillis = LocalDate.of(2025, 10, 26).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        // 同一个long值：按毫秒时间戳路由到202510；装箱为Long时按雪花ID解码，解出的生成时间接近解码器起始时间
+        assertEquals("t_order_202510", strategy.getActualTableNameByEpochMillis(TABLE, epochMillis));
+        assertNotEquals("t_order_202510", strategy.getActualTableName(TABLE, (Object) epochMillis));
+        assertEquals(strategy.getActualTableNameById(TABLE, epochMillis),
+                strategy.getActualTableName(TABLE, (Object) epochMillis));
+    }
+
+    @Test
+    void integerKeyIsNotDecodedAsSnowflakeId() {
+        // 1970-01-16前后的毫秒时间戳，任何时区下都落在197001
+        int epochMillis = 15 * 86_400_000;
+
+        assertEquals("t_order_197001", strategy.getActualTableName(TABLE, (Object) epochMillis));
+    }
+}
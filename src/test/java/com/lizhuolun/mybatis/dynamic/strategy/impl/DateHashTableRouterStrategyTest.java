@@ -0,0 +1,58 @@
+package com.lizhuolun.mybatis.dynamic.strategy.impl;
+
+import com.lizhuolun.mybatis.dynamic.strategy.hash.HashAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 日期+哈希两级分表测试：正常路由，以及日期或哈希键缺失时拒绝路由
+ *
+ * @author 李卓伦
+ * @date 2025/10/26 12:45
+ */
+class DateHashTableRouterStrategyTest {
+
+    private static final String TABLE = "order_detail";
+
+    private final DateHashTableRouterStrategy strategy = new DateHashTableRouterStrategy(Set.of(TABLE), "yyyyMM",
+            4, 1, HashAlgorithm.IDENTITY, 2, 400, "createTime", "userId");
+
+    @Test
+    void routesByDateAndHashKey() {
+        assertEquals("order_detail_202510_03",
+                strategy.getActualTableName(TABLE, DateHashShardingKey.of(LocalDate.of(2025, 10, 26), 7L)));
+        assertEquals("order_detail_202511_01",
+                strategy.getActualTableName(TABLE, new Object[]{"2025-11-01", 5}));
+
+        Map<String, Object> row = new HashMap<>();
+        row.put("createTime", "20251231");
+        row.put("userId", 8L);
+        assertEquals("order_detail_202512_00", strategy.getActualTableName(TABLE, row));
+    }
+
+    @Test
+    void missingHashKeyIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> strategy.getActualTableName(TABLE, DateHashShardingKey.of(LocalDate.of(2025, 10, 26), null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> strategy.getActualTableName(TABLE, Map.of("createTime", "2025-10-26")));
+        assertThrows(IllegalArgumentException.class,
+                () -> strategy.getActualTableNames(TABLE, LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 31), null));
+    }
+
+    @Test
+    void missingOrInvalidDateIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> strategy.getActualTableName(TABLE, DateHashShardingKey.of(null, 7L)));
+        assertThrows(IllegalArgumentException.class,
+                () -> strategy.getActualTableName(TABLE, new Object[]{"not-a-date", 7L}));
+        assertThrows(IllegalArgumentException.class, () -> strategy.getActualTableName(TABLE, null));
+    }
+}
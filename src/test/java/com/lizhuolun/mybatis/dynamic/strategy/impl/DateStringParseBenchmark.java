@@ -0,0 +1,89 @@
+package com.lizhuolun.mybatis.dynamic.strategy.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 字符串日期解析基准测试，输出均为yyyyMM分表后缀
+ * regex：早期实现，String.matches逐次编译正则后LocalDate.parse，yyyyMMdd格式每次新建DateTimeFormatter；
+ * localDateParse：预建格式化器、不使用正则的LocalDate.parse；
+ * scanner：手写字符扫描换算epoch-day后命中后缀缓存；scanEpochDay只测扫描本身
+ *
+ * @author 李卓伦
+ * @date 2025/10/26 12:10
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateStringParseBenchmark {
+
+    private static final DateTimeFormatter BASIC_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final DateTimeFormatter SLASH_DATE = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+
+    @Param({"2025-10-26", "2025/10/26", "20251026", "2025-10-26T08:30:00"})
+    private String input;
+
+    private DateTimeFormatter formatter;
+
+    private DateSuffixCache suffixCache;
+
+    @Setup
+    public void setUp() {
+        formatter = DateTimeFormatter.ofPattern("yyyyMM");
+        suffixCache = new DateSuffixCache(formatter, 3660, true);
+    }
+
+    @Benchmark
+    public String regex() {
+        String dateStr = input.trim();
+        if (dateStr.matches("\\d{4}-\\d{2}-\\d{2}.*")) {
+            return LocalDate.parse(dateStr.substring(0, 10)).format(formatter);
+        } else if (dateStr.matches("\\d{4}/\\d{2}/\\d{2}.*")) {
+            return LocalDate.parse(dateStr.substring(0, 10).replace("/", "-")).format(formatter);
+        } else if (dateStr.matches("\\d{6,8}")) {
+            return LocalDate.parse(dateStr, DateTimeFormatter.ofPattern("yyyyMMdd")).format(formatter);
+        } else if (dateStr.contains("T")) {
+            return LocalDateTime.parse(dateStr).format(formatter);
+        }
+        return null;
+    }
+
+    @Benchmark
+    public String localDateParse() {
+        String dateStr = input.trim();
+        if (dateStr.length() == 8) {
+            return LocalDate.parse(dateStr, BASIC_DATE).format(formatter);
+        } else if (dateStr.length() >= 10 && dateStr.charAt(4) == '/') {
+            return LocalDate.parse(dateStr.substring(0, 10), SLASH_DATE).format(formatter);
+        }
+        return LocalDate.parse(dateStr.substring(0, 10)).format(formatter);
+    }
+
+    @Benchmark
+    public String scanner() {
+        return suffixCache.suffix(EpochDays.scan(input.trim()));
+    }
+
+    @Benchmark
+    public long scanEpochDay() {
+        return EpochDays.scan(input.trim());
+    }
+}
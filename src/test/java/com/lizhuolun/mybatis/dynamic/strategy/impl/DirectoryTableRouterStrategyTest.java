@@ -0,0 +1,143 @@
+package com.lizhuolun.mybatis.dynamic.strategy.impl;
+
+import com.lizhuolun.mybatis.dynamic.strategy.CachingTableRouterStrategy;
+import com.lizhuolun.mybatis.dynamic.strategy.TableRouterStrategyFactory;
+import com.lizhuolun.mybatis.dynamic.strategy.directory.DirectoryFile;
+import com.lizhuolun.mybatis.dynamic.strategy.directory.DirectoryFileBuilder;
+import com.lizhuolun.mybatis.dynamic.strategy.hash.HashAlgorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 路由目录测试：CSV生成目录文件后读回、重新加载及其对路由缓存的清空，以及重复键与指纹冲突的校验
+ *
+ * @author 李卓伦
+ * @date 2025/10/26 13:05
+ */
+class DirectoryTableRouterStrategyTest {
+
+    private static final String TABLE = "t_tenant";
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void tearDown() {
+        TableRouterStrategyFactory.clear();
+    }
+
+    @Test
+    void csvRoundTripThroughDirectoryFile() throws IOException {
+        Path csv = csv("# 大租户专属表", "", "1001,vip", " 1002 , vip ", "-7,neg", "tenant-a,alpha");
+        Path file = dir.resolve("tenant.dir");
+
+        assertEquals(4, DirectoryFileBuilder.buildFromCsv(csv, file));
+        DirectoryFile directory = DirectoryFile.open(file);
+        assertEquals(4, directory.size());
+        assertEquals(3, directory.suffixCount());
+        assertEquals("vip", directory.suffix(directory.lookup(1001L)));
+        assertEquals("vip", directory.suffix(directory.lookup("1002")));
+        assertEquals("neg", directory.suffix(directory.lookup(-7L)));
+        assertEquals("alpha", directory.suffix(directory.lookup(" tenant-a ")));
+        assertEquals(DirectoryFile.NOT_FOUND, directory.lookup(1003L));
+        assertEquals(DirectoryFile.NOT_FOUND, directory.lookup("tenant-b"));
+    }
+
+    @Test
+    void directoryHitsUseDedicatedTablesAndMissesFallBackToHash() throws IOException {
+        DirectoryTableRouterStrategy strategy = strategy(csv("1001,vip", "tenant-a,alpha"));
+
+        assertEquals("t_tenant_vip", strategy.getActualTableName(TABLE, 1001L));
+        assertEquals("t_tenant_vip", strategy.getActualTableName(TABLE, (Object) 1001));
+        assertEquals("t_tenant_alpha", strategy.getActualTableName(TABLE, "tenant-a"));
+        assertEquals("t_tenant_3", strategy.getActualTableName(TABLE, 7L));
+        assertEquals("t_tenant_1", strategy.getActualTableName(TABLE, (Object) 5L));
+    }
+
+    @Test
+    void reloadReplacesDirectoryAndKeepsOldOneOnFailure() throws IOException {
+        Path csv = csv("1001,vip");
+        DirectoryTableRouterStrategy strategy = strategy(csv);
+
+        Files.writeString(csv, "1001,gold\n1002,gold\n", StandardCharsets.UTF_8);
+        strategy.reload();
+        assertEquals(2, strategy.getDirectorySize());
+        assertEquals("t_tenant_gold", strategy.getActualTableName(TABLE, 1002L));
+
+        Files.writeString(csv, "1001,vip\n1001,gold\n", StandardCharsets.UTF_8);
+        assertThrows(IOException.class, strategy::reload);
+        assertEquals(2, strategy.getDirectorySize());
+        assertEquals("t_tenant_gold", strategy.getActualTableName(TABLE, 1001L));
+    }
+
+    @Test
+    void reloadInvalidatesRegisteredRouteCache() throws IOException {
+        Path csv = csv("1001,vip");
+        DirectoryTableRouterStrategy strategy = strategy(csv);
+        TableRouterStrategyFactory.register(strategy);
+        CachingTableRouterStrategy cache = TableRouterStrategyFactory.enableCache(
+                strategy.getStrategyName(), 100, 0, false, 0);
+        assertEquals("t_tenant_vip", cache.getActualTableName(TABLE, 1001L));
+
+        Files.writeString(csv, "1001,gold\n", StandardCharsets.UTF_8);
+        strategy.reload();
+        assertEquals("t_tenant_gold", cache.getActualTableName(TABLE, 1001L));
+    }
+
+    @Test
+    void duplicateKeysAreRejected() throws IOException {
+        Path file = dir.resolve("dup.dir");
+
+        IOException e = assertThrows(IOException.class,
+                () -> DirectoryFileBuilder.buildFromCsv(csv("1001,vip", "1002,vip", "1001,gold"), file));
+        assertTrue(e.getMessage().contains("1001"), e.getMessage());
+        assertThrows(IOException.class, () -> DirectoryFileBuilder.buildFromCsv(csv("42,a", "042,b"), file));
+        assertThrows(IOException.class, () -> DirectoryFileBuilder.buildFromCsv(csv("tenant-a,a", "tenant-a ,b"), file));
+    }
+
+    @Test
+    void fingerprintCollisionIsRejected() throws IOException {
+        // 字符串键按指纹存储，与数值相同的整数键冲突
+        long fingerprint = HashAlgorithm.MURMUR3.hash("tenant-a");
+
+        assertThrows(IOException.class, () -> DirectoryFileBuilder.buildFromCsv(
+                csv("tenant-a,alpha", fingerprint + ",other"), dir.resolve("collision.dir")));
+    }
+
+    @Test
+    void malformedInputIsRejected() throws IOException {
+        assertThrows(IOException.class,
+                () -> DirectoryFileBuilder.buildFromCsv(csv("1001"), dir.resolve("bad.dir")));
+        assertThrows(IOException.class,
+                () -> DirectoryFileBuilder.buildFromCsv(csv("1001,"), dir.resolve("bad.dir")));
+
+        Path garbage = dir.resolve("garbage.dir");
+        Files.write(garbage, new byte[64]);
+        assertThrows(IOException.class, () -> DirectoryFile.open(garbage));
+        assertThrows(IllegalStateException.class, () -> new DirectoryTableRouterStrategy(Set.of(TABLE), garbage, null,
+                4, HashAlgorithm.IDENTITY, 1));
+    }
+
+    private DirectoryTableRouterStrategy strategy(Path csv) {
+        return new DirectoryTableRouterStrategy(Set.of(TABLE), dir.resolve("tenant.dir"), csv,
+                4, HashAlgorithm.IDENTITY, 1);
+    }
+
+    private Path csv(String... lines) throws IOException {
+        Path csv = Files.createTempFile(dir, "directory", ".csv");
+        Files.write(csv, List.of(lines), StandardCharsets.UTF_8);
+        return csv;
+    }
+}
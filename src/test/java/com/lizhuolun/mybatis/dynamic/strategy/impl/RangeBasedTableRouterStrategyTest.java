@@ -0,0 +1,80 @@
+package com.lizhuolun.mybatis.dynamic.strategy.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 范围分表边界测试：分表覆盖[boundaries[i], boundaries[i+1])，边界值属于后一张分表
+ *
+ * @author 李卓伦
+ * @date 2025/10/26 12:50
+ */
+class RangeBasedTableRouterStrategyTest {
+
+    private static final String TABLE = "user_info";
+
+    private final RangeBasedTableRouterStrategy strategy =
+            new RangeBasedTableRouterStrategy(Set.of(TABLE), new long[]{0, 100, 200}, 1);
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, user_info_0",
+            "1, user_info_0",
+            "99, user_info_0",
+            "100, user_info_1",
+            "199, user_info_1",
+            "200, user_info_2",
+            "9223372036854775807, user_info_2"
+    })
+    void boundaryBelongsToTheNextShard(long key, String expected) {
+        assertEquals(expected, strategy.getActualTableName(TABLE, key));
+        assertEquals(expected, strategy.getActualTableName(TABLE, (Object) key));
+        assertEquals(expected, strategy.getActualTableName(TABLE, " " + key + " "));
+    }
+
+    @Test
+    void keyBelowFirstBoundaryIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> strategy.getActualTableName(TABLE, -1L));
+        assertThrows(IllegalArgumentException.class, () -> strategy.getActualTableName(TABLE, Long.MIN_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> strategy.getActualTableName(TABLE, "12a"));
+        assertThrows(IllegalArgumentException.class, () -> strategy.getActualTableName(TABLE, (Object) null));
+    }
+
+    @Test
+    void rangeLookupReturnsOverlappingShardsInOrder() {
+        assertEquals(List.of("user_info_0"), strategy.getActualTableNames(TABLE, 0, 99));
+        assertEquals(List.of("user_info_0", "user_info_1"), strategy.getActualTableNames(TABLE, 99, 100));
+        assertEquals(List.of("user_info_1"), strategy.getActualTableNames(TABLE, 100, 100));
+        assertEquals(List.of("user_info_1", "user_info_2"), strategy.getActualTableNames(TABLE, 150, 1_000));
+        assertEquals(List.of("user_info_0", "user_info_1", "user_info_2"),
+                strategy.getActualTableNames(TABLE, -50, 200));
+        assertTrue(strategy.getActualTableNames(TABLE, -50, -1).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> strategy.getActualTableNames(TABLE, 10, 9));
+    }
+
+    @Test
+    void boundariesMustBeStrictlyAscending() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RangeBasedTableRouterStrategy(Set.of(TABLE), new long[]{0, 100, 100}, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RangeBasedTableRouterStrategy(Set.of(TABLE), new long[]{100, 0}, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RangeBasedTableRouterStrategy(Set.of(TABLE), new long[0], 1));
+    }
+
+    @Test
+    void singleBoundaryCoversEverythingAboveIt() {
+        RangeBasedTableRouterStrategy single = new RangeBasedTableRouterStrategy(Set.of(TABLE), List.of(10L), 1);
+        assertEquals("user_info_0", single.getActualTableName(TABLE, 10L));
+        assertEquals("user_info_0", single.getActualTableName(TABLE, Long.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> single.getActualTableName(TABLE, 9L));
+    }
+}
@@ -0,0 +1,118 @@
+package com.lizhuolun.mybatis.dynamic.support;
+
+import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
+import com.lizhuolun.mybatis.dynamic.interceptor.DynamicTableNameInnerInterceptor;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 测试用H2内存库与MyBatis会话工厂
+ * 按Starter的方式装配：MybatisPlusInterceptor中注册动态表名内部拦截器，另可追加其他MyBatis插件
+ *
+ * @author 李卓伦
+ * @date 2025/10/26 10:30
+ */
+public final class H2MyBatisSupport {
+
+    private H2MyBatisSupport() {
+        throw new UnsupportedOperationException("工具类不允许实例化");
+    }
+
+    /**
+     * 创建独立的H2内存库（MySQL兼容模式）
+     *
+     * @return 数据源
+     */
+    public static DataSource newDataSource() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    /**
+     * 创建会话工厂
+     *
+     * @param dataSource   数据源
+     * @param interceptor  动态表名内部拦截器
+     * @param mapperType   Mapper接口
+     * @param extraPlugins 额外的MyBatis插件
+     * @return 会话工厂
+     */
+    public static SqlSessionFactory newSessionFactory(DataSource dataSource, DynamicTableNameInnerInterceptor interceptor,
+                                                      Class<?> mapperType, Interceptor... extraPlugins) {
+        Configuration configuration = new Configuration(
+                new Environment("test", new JdbcTransactionFactory(), dataSource));
+        MybatisPlusInterceptor mybatisPlusInterceptor = new MybatisPlusInterceptor();
+        mybatisPlusInterceptor.addInnerInterceptor(interceptor);
+        configuration.addInterceptor(mybatisPlusInterceptor);
+        for (Interceptor plugin : extraPlugins) {
+            configuration.addInterceptor(plugin);
+        }
+        configuration.addMapper(mapperType);
+        return new SqlSessionFactoryBuilder().build(configuration);
+    }
+
+    /**
+     * 执行DDL/DML
+     *
+     * @param dataSource 数据源
+     * @param sqls       SQL语句
+     */
+    public static void execute(DataSource dataSource, String... sqls) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            for (String sql : sqls) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * 查询单列long值
+     *
+     * @param dataSource 数据源
+     * @param sql        查询SQL
+     * @return 按结果顺序排列的值
+     */
+    public static List<Long> queryLongs(DataSource dataSource, String sql) throws SQLException {
+        List<Long> values = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                values.add(rs.getLong(1));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 查询单列字符串值
+     *
+     * @param dataSource 数据源
+     * @param sql        查询SQL
+     * @return 按结果顺序排列的值
+     */
+    public static List<String> queryStrings(DataSource dataSource, String sql) throws SQLException {
+        List<String> values = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                values.add(rs.getString(1));
+            }
+        }
+        return values;
+    }
+}
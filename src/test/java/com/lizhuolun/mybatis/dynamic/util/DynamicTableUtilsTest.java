@@ -0,0 +1,84 @@
+package com.lizhuolun.mybatis.dynamic.util;
+
+import com.lizhuolun.mybatis.dynamic.context.DynamicTableContextHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 分表并发查询测试：结果顺序、并发上限与失败后停止提交
+ *
+ * @author 李卓伦
+ * @date 2025/10/26 12:25
+ */
+class DynamicTableUtilsTest {
+
+    @AfterEach
+    void tearDown() {
+        DynamicTableUtils.setMaxConcurrency(DynamicTableUtils.DEFAULT_MAX_CONCURRENCY);
+    }
+
+    @Test
+    void resultsFollowTableOrderAndConcurrencyIsCapped() {
+        DynamicTableUtils.setMaxConcurrency(3);
+        List<String> tables = tables(20);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        List<String> results;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            results = DynamicTableUtils.executeOnTables("t_order", tables, () -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                LockSupport.parkNanos(2_000_000L);
+                running.decrementAndGet();
+                return List.of(DynamicTableContextHolder.get("t_order"));
+            }, executor);
+        }
+
+        assertEquals(tables, results);
+        assertTrue(peak.get() <= 3, "同时执行的分表任务数超过上限: " + peak.get());
+    }
+
+    @Test
+    void failureStopsSubmittingRemainingTables() {
+        DynamicTableUtils.setMaxConcurrency(1);
+        AtomicInteger executed = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> DynamicTableUtils.executeOnTables("t_order", tables(10), () -> {
+                        executed.incrementAndGet();
+                        if ("t_order_1".equals(DynamicTableContextHolder.get("t_order"))) {
+                            throw new IllegalStateException("boom");
+                        }
+                        return List.of();
+                    }, executor));
+            assertEquals("boom", e.getMessage());
+        }
+        assertEquals(2, executed.get(), "失败后不应再提交剩余分表");
+    }
+
+    @Test
+    void maxConcurrencyMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> DynamicTableUtils.setMaxConcurrency(0));
+        assertEquals(DynamicTableUtils.DEFAULT_MAX_CONCURRENCY, DynamicTableUtils.getMaxConcurrency());
+    }
+
+    private static List<String> tables(int count) {
+        List<String> tables = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tables.add("t_order_" + i);
+        }
+        return tables;
+    }
+}